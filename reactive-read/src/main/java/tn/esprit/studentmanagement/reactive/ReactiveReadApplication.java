@@ -0,0 +1,18 @@
+package tn.esprit.studentmanagement.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Read-only WebFlux/R2DBC front for the student-management schema. Serves the
+ * same GET endpoints as the servlet application without blocking a thread per
+ * request; all writes and the schema (Flyway) stay with the main application.
+ */
+@SpringBootApplication
+public class ReactiveReadApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveReadApplication.class, args);
+    }
+
+}
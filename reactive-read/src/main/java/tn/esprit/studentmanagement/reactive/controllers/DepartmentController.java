@@ -0,0 +1,23 @@
+package tn.esprit.studentmanagement.reactive.controllers;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tn.esprit.studentmanagement.reactive.entities.Department;
+import tn.esprit.studentmanagement.reactive.services.IDepartmentReadService;
+
+@RestController
+@RequestMapping("/Depatment")
+@CrossOrigin(origins = "http://localhost:4200")
+@AllArgsConstructor
+public class DepartmentController {
+    private IDepartmentReadService departmentService;
+
+    @GetMapping(value = "/getAllDepartment", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Department> getAllDepartment() { return departmentService.getAllDepartments(); }
+
+    @GetMapping("/getDepartment/{id}")
+    public Mono<Department> getDepartment(@PathVariable Long id) { return departmentService.getDepartmentById(id); }
+}
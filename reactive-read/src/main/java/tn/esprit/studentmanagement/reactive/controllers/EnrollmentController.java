@@ -0,0 +1,38 @@
+package tn.esprit.studentmanagement.reactive.controllers;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tn.esprit.studentmanagement.reactive.dto.BatchItem;
+import tn.esprit.studentmanagement.reactive.dto.EnrollmentView;
+import tn.esprit.studentmanagement.reactive.services.IEnrollmentReadService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/Enrollment")
+@CrossOrigin(origins = "http://localhost:4200")
+@AllArgsConstructor
+public class EnrollmentController {
+    private IEnrollmentReadService enrollmentService;
+
+    @GetMapping(value = "/getAllEnrollment", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<EnrollmentView> getAllEnrollment() { return enrollmentService.getAllEnrollments(); }
+
+    @GetMapping("/getEnrollment/{id}")
+    public Mono<EnrollmentView> getEnrollment(@PathVariable Long id) { return enrollmentService.getEnrollmentById(id); }
+
+    @GetMapping("/getEnrollments")
+    public Flux<BatchItem<EnrollmentView>> getEnrollments(@RequestParam List<Long> ids) {
+        return enrollmentService.getEnrollmentsByIds(ids);
+    }
+
+    @GetMapping(value = "/getStudentEnrollments/{idStudent}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<EnrollmentView> getStudentEnrollments(@PathVariable Long idStudent,
+                                                      @RequestParam(defaultValue = "false") boolean includeHistory) {
+        return enrollmentService.getEnrollmentsByStudent(idStudent, includeHistory);
+    }
+}
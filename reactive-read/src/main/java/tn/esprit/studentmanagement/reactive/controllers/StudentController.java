@@ -0,0 +1,30 @@
+package tn.esprit.studentmanagement.reactive.controllers;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tn.esprit.studentmanagement.reactive.dto.BatchItem;
+import tn.esprit.studentmanagement.reactive.dto.StudentView;
+import tn.esprit.studentmanagement.reactive.services.IStudentReadService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/students")
+@CrossOrigin(origins = "http://localhost:4200")
+@AllArgsConstructor
+public class StudentController {
+    private IStudentReadService studentService;
+
+    // A JSON array written element by element, or one object per line with Accept: application/x-ndjson
+    @GetMapping(value = "/getAllStudents", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<StudentView> getAllStudents() { return studentService.getAllStudents(); }
+
+    @GetMapping("/getStudent/{id}")
+    public Mono<StudentView> getStudent(@PathVariable Long id) { return studentService.getStudentById(id); }
+
+    @GetMapping("/getStudents")
+    public Flux<BatchItem<StudentView>> getStudents(@RequestParam List<Long> ids) { return studentService.getStudentsByIds(ids); }
+}
@@ -0,0 +1,5 @@
+package tn.esprit.studentmanagement.reactive.dto;
+
+/** One requested id of a batch lookup; {@code item} is null when {@code found} is false. */
+public record BatchItem<T>(Long id, boolean found, T item) {
+}
@@ -0,0 +1,24 @@
+package tn.esprit.studentmanagement.reactive.dto;
+
+import tn.esprit.studentmanagement.reactive.entities.Course;
+import tn.esprit.studentmanagement.reactive.entities.Status;
+
+import java.time.LocalDate;
+
+/** Enrollment joined with its student, the student's department and the course. */
+public record EnrollmentRow(Long idEnrollment, LocalDate enrollmentDate, Double grade, Status status,
+                            Long idStudent, String firstName, String lastName, String email, String phone,
+                            LocalDate dateOfBirth, String address, Long idDepartment, String departmentName,
+                            String departmentLocation, String departmentPhone, String departmentHead,
+                            Long idCourse, String courseName, String courseCode, Integer courseCredit,
+                            String courseDescription) {
+
+    public EnrollmentView toView() {
+        StudentView student = idStudent == null ? null
+                : new StudentRow(idStudent, firstName, lastName, email, phone, dateOfBirth, address, idDepartment,
+                departmentName, departmentLocation, departmentPhone, departmentHead).toView();
+        Course course = idCourse == null ? null
+                : new Course(idCourse, courseName, courseCode, courseCredit, courseDescription);
+        return new EnrollmentView(idEnrollment, enrollmentDate, grade, status, student, course);
+    }
+}
@@ -0,0 +1,11 @@
+package tn.esprit.studentmanagement.reactive.dto;
+
+import tn.esprit.studentmanagement.reactive.entities.Course;
+import tn.esprit.studentmanagement.reactive.entities.Status;
+
+import java.time.LocalDate;
+
+/** Same JSON shape as the servlet API's {@code Enrollment}. */
+public record EnrollmentView(Long idEnrollment, LocalDate enrollmentDate, Double grade, Status status,
+                             StudentView student, Course course) {
+}
@@ -0,0 +1,17 @@
+package tn.esprit.studentmanagement.reactive.dto;
+
+import tn.esprit.studentmanagement.reactive.entities.Department;
+
+import java.time.LocalDate;
+
+/** Student joined with its department, one flat row per student. */
+public record StudentRow(Long idStudent, String firstName, String lastName, String email, String phone,
+                         LocalDate dateOfBirth, String address, Long idDepartment, String departmentName,
+                         String departmentLocation, String departmentPhone, String departmentHead) {
+
+    public StudentView toView() {
+        Department department = idDepartment == null ? null
+                : new Department(idDepartment, departmentName, departmentLocation, departmentPhone, departmentHead);
+        return new StudentView(idStudent, firstName, lastName, email, phone, dateOfBirth, address, department);
+    }
+}
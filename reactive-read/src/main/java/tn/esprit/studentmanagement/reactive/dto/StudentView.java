@@ -0,0 +1,10 @@
+package tn.esprit.studentmanagement.reactive.dto;
+
+import tn.esprit.studentmanagement.reactive.entities.Department;
+
+import java.time.LocalDate;
+
+/** Same JSON shape as the servlet API's {@code Student}, without the enrollment list. */
+public record StudentView(Long idStudent, String firstName, String lastName, String email, String phone,
+                          LocalDate dateOfBirth, String address, Department department) {
+}
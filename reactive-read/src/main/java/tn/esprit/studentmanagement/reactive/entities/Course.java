@@ -0,0 +1,8 @@
+package tn.esprit.studentmanagement.reactive.entities;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("course")
+public record Course(@Id Long idCourse, String name, String code, int credit, String description) {
+}
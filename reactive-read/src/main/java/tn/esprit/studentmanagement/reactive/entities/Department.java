@@ -0,0 +1,8 @@
+package tn.esprit.studentmanagement.reactive.entities;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("department")
+public record Department(@Id Long idDepartment, String name, String location, String phone, String head) {
+}
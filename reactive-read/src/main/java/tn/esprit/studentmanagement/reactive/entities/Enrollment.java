@@ -0,0 +1,12 @@
+package tn.esprit.studentmanagement.reactive.entities;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+/** Row of the {@code enrollment} table; responses embed student and course, see {@code EnrollmentView}. */
+@Table("enrollment")
+public record Enrollment(@Id Long idEnrollment, LocalDate enrollmentDate, Double grade, Status status,
+                         Long studentIdStudent, Long courseIdCourse) {
+}
@@ -0,0 +1,9 @@
+package tn.esprit.studentmanagement.reactive.entities;
+
+public enum Status {
+    ACTIVE,
+    COMPLETED,
+    DROPPED,
+    FAILED,
+    WITHDRAWN
+}
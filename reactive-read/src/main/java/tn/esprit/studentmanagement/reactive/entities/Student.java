@@ -0,0 +1,12 @@
+package tn.esprit.studentmanagement.reactive.entities;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+/** Row of the {@code student} table; responses embed the department, see {@code StudentView}. */
+@Table("student")
+public record Student(@Id Long idStudent, String firstName, String lastName, String email, String phone,
+                      LocalDate dateOfBirth, String address, Long departmentIdDepartment) {
+}
@@ -0,0 +1,8 @@
+package tn.esprit.studentmanagement.reactive.exception;
+
+public class EntityNotFoundException extends RuntimeException {
+
+    public EntityNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package tn.esprit.studentmanagement.reactive.repositories;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import tn.esprit.studentmanagement.reactive.entities.Department;
+
+@Repository
+public interface DepartmentRepository extends ReactiveCrudRepository<Department, Long> {
+}
@@ -0,0 +1,45 @@
+package tn.esprit.studentmanagement.reactive.repositories;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tn.esprit.studentmanagement.reactive.dto.EnrollmentRow;
+import tn.esprit.studentmanagement.reactive.entities.Enrollment;
+
+import java.util.Collection;
+
+@Repository
+public interface EnrollmentRepository extends ReactiveCrudRepository<Enrollment, Long> {
+
+    String COLUMNS = "e.id_enrollment, e.enrollment_date, e.grade, e.status, "
+            + "s.id_student, s.first_name, s.last_name, s.email, s.phone, s.date_of_birth, s.address, "
+            + "d.id_department, d.name AS department_name, d.location AS department_location, "
+            + "d.phone AS department_phone, d.head AS department_head, "
+            + "c.id_course, c.name AS course_name, c.code AS course_code, c.credit AS course_credit, "
+            + "c.description AS course_description ";
+    String JOINS = "LEFT JOIN student s ON s.id_student = e.student_id_student "
+            + "LEFT JOIN department d ON d.id_department = s.department_id_department "
+            + "LEFT JOIN course c ON c.id_course = e.course_id_course ";
+
+    @Query("SELECT " + COLUMNS + "FROM enrollment e " + JOINS + "ORDER BY e.id_enrollment")
+    Flux<EnrollmentRow> findAllWithStudentAndCourse();
+
+    @Query("SELECT " + COLUMNS + "FROM enrollment e " + JOINS + "WHERE e.id_enrollment = :idEnrollment")
+    Mono<EnrollmentRow> findWithStudentAndCourseById(Long idEnrollment);
+
+    @Query("SELECT " + COLUMNS + "FROM enrollment e " + JOINS + "WHERE e.id_enrollment IN (:ids)")
+    Flux<EnrollmentRow> findAllWithStudentAndCourseByIds(Collection<Long> ids);
+
+    @Query("SELECT " + COLUMNS + "FROM enrollment e " + JOINS + "WHERE e.student_id_student = :idStudent")
+    Flux<EnrollmentRow> findByStudentId(Long idStudent);
+
+    /** Hot and archived enrollments of a student, oldest first. */
+    @Query("SELECT * FROM ("
+            + "SELECT " + COLUMNS + "FROM enrollment e " + JOINS + "WHERE e.student_id_student = :idStudent "
+            + "UNION ALL "
+            + "SELECT " + COLUMNS + "FROM enrollment_archive e " + JOINS + "WHERE e.student_id_student = :idStudent"
+            + ") h ORDER BY h.enrollment_date IS NULL, h.enrollment_date")
+    Flux<EnrollmentRow> findHistoryByStudentId(Long idStudent);
+}
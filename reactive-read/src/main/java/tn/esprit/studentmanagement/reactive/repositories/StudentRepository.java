@@ -0,0 +1,29 @@
+package tn.esprit.studentmanagement.reactive.repositories;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tn.esprit.studentmanagement.reactive.dto.StudentRow;
+import tn.esprit.studentmanagement.reactive.entities.Student;
+
+import java.util.Collection;
+
+@Repository
+public interface StudentRepository extends ReactiveCrudRepository<Student, Long> {
+
+    String SELECT_WITH_DEPARTMENT = "SELECT s.id_student, s.first_name, s.last_name, s.email, s.phone, "
+            + "s.date_of_birth, s.address, d.id_department, d.name AS department_name, "
+            + "d.location AS department_location, d.phone AS department_phone, d.head AS department_head "
+            + "FROM student s LEFT JOIN department d ON d.id_department = s.department_id_department ";
+
+    @Query(SELECT_WITH_DEPARTMENT + "ORDER BY s.id_student")
+    Flux<StudentRow> findAllWithDepartment();
+
+    @Query(SELECT_WITH_DEPARTMENT + "WHERE s.id_student = :idStudent")
+    Mono<StudentRow> findWithDepartmentById(Long idStudent);
+
+    @Query(SELECT_WITH_DEPARTMENT + "WHERE s.id_student IN (:ids)")
+    Flux<StudentRow> findAllWithDepartmentByIds(Collection<Long> ids);
+}
@@ -0,0 +1,47 @@
+package tn.esprit.studentmanagement.reactive.services;
+
+import reactor.core.publisher.Flux;
+import tn.esprit.studentmanagement.reactive.dto.BatchItem;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Resolves a list of ids with one IN query per chunk, in request order
+ * (duplicates kept), with a {@code found=false} item for unknown ids.
+ */
+final class BatchLookup {
+
+    static final int MAX_IDS = 500;
+    static final int CHUNK_SIZE = 100;
+
+    private BatchLookup() {
+    }
+
+    static <T> Flux<BatchItem<T>> resolve(List<Long> ids, Function<Collection<Long>, Flux<T>> finder,
+                                          Function<T, Long> idOf) {
+        if (ids == null || ids.isEmpty()) {
+            return Flux.empty();
+        }
+        if (ids.size() > MAX_IDS) {
+            return Flux.error(new IllegalArgumentException("At most " + MAX_IDS + " ids per request"));
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            return Flux.error(new IllegalArgumentException("ids must not contain null"));
+        }
+        List<Long> distinct = ids.stream().distinct().toList();
+        return Flux.range(0, (distinct.size() + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .concatMap(chunk -> finder.apply(distinct.subList(chunk * CHUNK_SIZE,
+                        Math.min(distinct.size(), (chunk + 1) * CHUNK_SIZE))))
+                .collectMap(idOf)
+                .flatMapIterable(found -> ids.stream().map(id -> item(id, found)).toList());
+    }
+
+    private static <T> BatchItem<T> item(Long id, Map<Long, T> found) {
+        T item = found.get(id);
+        return new BatchItem<>(id, item != null, item);
+    }
+}
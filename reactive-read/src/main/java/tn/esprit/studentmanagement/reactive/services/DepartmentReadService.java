@@ -0,0 +1,29 @@
+package tn.esprit.studentmanagement.reactive.services;
+
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tn.esprit.studentmanagement.reactive.entities.Department;
+import tn.esprit.studentmanagement.reactive.exception.EntityNotFoundException;
+import tn.esprit.studentmanagement.reactive.repositories.DepartmentRepository;
+
+@Service
+public class DepartmentReadService implements IDepartmentReadService {
+
+    private final DepartmentRepository departmentRepository;
+    public DepartmentReadService(DepartmentRepository departmentRepository) {
+        this.departmentRepository = departmentRepository;
+    }
+
+    @Override
+    public Flux<Department> getAllDepartments() {
+        return departmentRepository.findAll();
+    }
+
+    @Override
+    public Mono<Department> getDepartmentById(Long idDepartment) {
+        return departmentRepository.findById(idDepartment)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException(
+                        "Department with id " + idDepartment + " not found")));
+    }
+}
@@ -0,0 +1,46 @@
+package tn.esprit.studentmanagement.reactive.services;
+
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tn.esprit.studentmanagement.reactive.dto.BatchItem;
+import tn.esprit.studentmanagement.reactive.dto.EnrollmentRow;
+import tn.esprit.studentmanagement.reactive.dto.EnrollmentView;
+import tn.esprit.studentmanagement.reactive.exception.EntityNotFoundException;
+import tn.esprit.studentmanagement.reactive.repositories.EnrollmentRepository;
+
+import java.util.List;
+
+@Service
+public class EnrollmentReadService implements IEnrollmentReadService {
+
+    private final EnrollmentRepository enrollmentRepository;
+    public EnrollmentReadService(EnrollmentRepository enrollmentRepository) {
+        this.enrollmentRepository = enrollmentRepository;
+    }
+
+    @Override
+    public Flux<EnrollmentView> getAllEnrollments() {
+        return enrollmentRepository.findAllWithStudentAndCourse().map(EnrollmentRow::toView);
+    }
+
+    @Override
+    public Mono<EnrollmentView> getEnrollmentById(Long idEnrollment) {
+        return enrollmentRepository.findWithStudentAndCourseById(idEnrollment)
+                .map(EnrollmentRow::toView)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException(
+                        "Enrolment with id " + idEnrollment + " not found")));
+    }
+
+    @Override
+    public Flux<BatchItem<EnrollmentView>> getEnrollmentsByIds(List<Long> ids) {
+        return BatchLookup.resolve(ids, chunk -> enrollmentRepository.findAllWithStudentAndCourseByIds(chunk)
+                .map(EnrollmentRow::toView), EnrollmentView::idEnrollment);
+    }
+
+    @Override
+    public Flux<EnrollmentView> getEnrollmentsByStudent(Long idStudent, boolean includeHistory) {
+        return (includeHistory ? enrollmentRepository.findHistoryByStudentId(idStudent)
+                : enrollmentRepository.findByStudentId(idStudent)).map(EnrollmentRow::toView);
+    }
+}
@@ -0,0 +1,10 @@
+package tn.esprit.studentmanagement.reactive.services;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tn.esprit.studentmanagement.reactive.entities.Department;
+
+public interface IDepartmentReadService {
+    public Flux<Department> getAllDepartments();
+    public Mono<Department> getDepartmentById(Long idDepartment);
+}
@@ -0,0 +1,15 @@
+package tn.esprit.studentmanagement.reactive.services;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tn.esprit.studentmanagement.reactive.dto.BatchItem;
+import tn.esprit.studentmanagement.reactive.dto.EnrollmentView;
+
+import java.util.List;
+
+public interface IEnrollmentReadService {
+    public Flux<EnrollmentView> getAllEnrollments();
+    public Mono<EnrollmentView> getEnrollmentById(Long idEnrollment);
+    public Flux<BatchItem<EnrollmentView>> getEnrollmentsByIds(List<Long> ids);
+    public Flux<EnrollmentView> getEnrollmentsByStudent(Long idStudent, boolean includeHistory);
+}
@@ -0,0 +1,14 @@
+package tn.esprit.studentmanagement.reactive.services;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tn.esprit.studentmanagement.reactive.dto.BatchItem;
+import tn.esprit.studentmanagement.reactive.dto.StudentView;
+
+import java.util.List;
+
+public interface IStudentReadService {
+    public Flux<StudentView> getAllStudents();
+    public Mono<StudentView> getStudentById(Long idStudent);
+    public Flux<BatchItem<StudentView>> getStudentsByIds(List<Long> ids);
+}
@@ -0,0 +1,38 @@
+package tn.esprit.studentmanagement.reactive.services;
+
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tn.esprit.studentmanagement.reactive.dto.BatchItem;
+import tn.esprit.studentmanagement.reactive.dto.StudentRow;
+import tn.esprit.studentmanagement.reactive.dto.StudentView;
+import tn.esprit.studentmanagement.reactive.repositories.StudentRepository;
+
+import java.util.List;
+
+@Service
+public class StudentReadService implements IStudentReadService {
+
+    private final StudentRepository studentRepository;
+    public StudentReadService(StudentRepository studentRepository) {
+        this.studentRepository = studentRepository;
+    }
+
+    /** Rows are mapped and written as the client consumes them; nothing is collected in memory. */
+    @Override
+    public Flux<StudentView> getAllStudents() {
+        return studentRepository.findAllWithDepartment().map(StudentRow::toView);
+    }
+
+    // Empty when unknown, like the servlet API's null body.
+    @Override
+    public Mono<StudentView> getStudentById(Long idStudent) {
+        return studentRepository.findWithDepartmentById(idStudent).map(StudentRow::toView);
+    }
+
+    @Override
+    public Flux<BatchItem<StudentView>> getStudentsByIds(List<Long> ids) {
+        return BatchLookup.resolve(ids, chunk -> studentRepository.findAllWithDepartmentByIds(chunk)
+                .map(StudentRow::toView), StudentView::idStudent);
+    }
+}
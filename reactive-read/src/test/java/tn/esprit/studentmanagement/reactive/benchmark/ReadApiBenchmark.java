@@ -0,0 +1,64 @@
+package tn.esprit.studentmanagement.reactive.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the same GET endpoint on the servlet/JPA application and on
+ * this WebFlux/R2DBC one, each JMH thread acting as one concurrent client.
+ * Both applications must be running against the same database:
+ * <pre>
+ * ./mvnw spring-boot:run                        # servlet, port 8089 (actuator on 8091)
+ * ./mvnw -f reactive-read spring-boot:run       # reactive, port 8090
+ * mvn -f reactive-read -Pbenchmark test-compile exec:exec -Djmh.args="ReadApiBenchmark -t 256"
+ * </pre>
+ * Raise {@code -t} past the servlet thread pool (200 by default) to see where
+ * the blocking stack starts queueing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(64)
+public class ReadApiBenchmark {
+
+    @Param({"http://localhost:8089/student", "http://localhost:8090/student"})
+    String baseUrl;
+
+    @Param({"/Depatment/getDepartment/1", "/students/getStudent/1", "/students/getAllStudents"})
+    String path;
+
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    @Benchmark
+    public int get() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(baseUrl + path + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
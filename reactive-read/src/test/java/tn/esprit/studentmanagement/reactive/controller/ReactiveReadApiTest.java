@@ -0,0 +1,156 @@
+package tn.esprit.studentmanagement.reactive.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+import tn.esprit.studentmanagement.reactive.dto.StudentView;
+import tn.esprit.studentmanagement.reactive.services.IStudentReadService;
+
+/**
+ * API réactive contre H2 en R2DBC ; le schéma est créé par les migrations
+ * Flyway du module principal, appliquées en JDBC sur la même base mémoire.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivedb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.r2dbc.username=sa",
+        "spring.flyway.url=jdbc:h2:mem:reactivedb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.flyway.user=sa",
+        "spring.flyway.locations=filesystem:../src/main/resources/db/migration"
+})
+@AutoConfigureWebTestClient
+@DisplayName("API de lecture réactive - WebFlux + R2DBC (H2)")
+class ReactiveReadApiTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private IStudentReadService studentService;
+
+    @BeforeEach
+    void setUp() {
+        execute("INSERT INTO department (id_department, name, location) VALUES (1, 'Informatique', 'Bloc A')");
+        execute("INSERT INTO course (id_course, name, code, credit) VALUES (1, 'Java', 'CS101', 4), (2, 'Web', 'CS102', 2)");
+        execute("INSERT INTO student (id_student, first_name, last_name, email, date_of_birth, department_id_department) VALUES "
+                + "(1, 'Ali', 'Ben Salem', 'ali@esprit.tn', '2000-05-15', 1), "
+                + "(2, 'Sarra', 'Trabelsi', 'sarra@esprit.tn', NULL, NULL), "
+                + "(3, 'Omar', 'Test', 'omar@esprit.tn', NULL, 1)");
+        execute("INSERT INTO enrollment (id_enrollment, enrollment_date, grade, status, student_id_student, course_id_course) "
+                + "VALUES (1, '2025-09-15', 15.5, 'COMPLETED', 1, 1), (2, '2025-09-16', NULL, 'ACTIVE', 2, 1)");
+        execute("INSERT INTO enrollment_archive (id_enrollment, enrollment_date, grade, status, student_id_student, "
+                + "course_id_course, archived_at) VALUES (900, '2023-01-10', 9.0, 'FAILED', 1, 2, '2024-06-01')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        execute("DELETE FROM enrollment_archive");
+        execute("DELETE FROM enrollment");
+        execute("DELETE FROM student");
+        execute("DELETE FROM course");
+        execute("DELETE FROM department");
+    }
+
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+
+    @Test
+    @DisplayName("GET /students/getAllStudents → tableau JSON avec le département imbriqué")
+    void shouldReturnAllStudentsWithDepartment() {
+        webTestClient.get().uri("/students/getAllStudents")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[0].firstName").isEqualTo("Ali")
+                .jsonPath("$[0].dateOfBirth").isEqualTo("2000-05-15")
+                .jsonPath("$[0].department.name").isEqualTo("Informatique")
+                .jsonPath("$[1].department").doesNotExist();
+    }
+
+    @Test
+    @DisplayName("GET /students/getAllStudents en NDJSON → un objet par ligne, à la demande du client")
+    void shouldStreamStudentsWithBackpressure() {
+        webTestClient.get().uri("/students/getAllStudents")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(StudentView.class).hasSize(3);
+
+        // Le service n'émet que ce qui est demandé
+        StepVerifier.create(studentService.getAllStudents(), 1)
+                .expectNextMatches(s -> s.idStudent() == 1L)
+                .thenRequest(2)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("GET /students/getStudents → ordre de la requête, found=false si inconnu")
+    void shouldResolveStudentBatchInRequestOrder() {
+        webTestClient.get().uri("/students/getStudents?ids=3,99,1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].item.firstName").isEqualTo("Omar")
+                .jsonPath("$[1].found").isEqualTo(false)
+                .jsonPath("$[2].item.department.idDepartment").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("GET /Enrollment/getEnrollment/{id} → étudiant et cours imbriqués, 404 si inconnu")
+    void shouldReturnEnrollmentOr404() {
+        webTestClient.get().uri("/Enrollment/getEnrollment/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("COMPLETED")
+                .jsonPath("$.student.department.name").isEqualTo("Informatique")
+                .jsonPath("$.course.code").isEqualTo("CS101");
+
+        webTestClient.get().uri("/Enrollment/getEnrollment/42")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("GET /Enrollment/getStudentEnrollments/{id}?includeHistory=true → inclut l'archive, du plus ancien au plus récent")
+    void shouldIncludeArchivedEnrollmentsWhenRequested() {
+        webTestClient.get().uri("/Enrollment/getStudentEnrollments/1")
+                .exchange()
+                .expectBody().jsonPath("$.length()").isEqualTo(1);
+
+        webTestClient.get().uri("/Enrollment/getStudentEnrollments/1?includeHistory=true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].idEnrollment").isEqualTo(900)
+                .jsonPath("$[0].course.code").isEqualTo("CS102");
+    }
+
+    @Test
+    @DisplayName("GET /Depatment/getAllDepartment et getDepartment/{id}")
+    void shouldReturnDepartments() {
+        webTestClient.get().uri("/Depatment/getAllDepartment")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].location").isEqualTo("Bloc A");
+
+        webTestClient.get().uri("/Depatment/getDepartment/7")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
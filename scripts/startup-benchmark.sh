@@ -0,0 +1,48 @@
+#!/usr/bin/env sh
+# Compares container startup time of the default image (Dockerfile) with the
+# startup-optimized one (Dockerfile.startup). Each image is started RUNS times
+# against a throwaway MySQL and timed until /actuator/health reports UP.
+#
+#   ./scripts/startup-benchmark.sh [RUNS]
+set -eu
+
+RUNS=${1:-5}
+NETWORK=startup-bench
+DB=startup-bench-mysql
+
+cleanup() {
+  docker rm -f "$DB" spring-bench >/dev/null 2>&1 || true
+  docker network rm "$NETWORK" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+./mvnw -q -DskipTests package
+docker build -q -t studentmanagement:default -f Dockerfile . >/dev/null
+./mvnw -q -Pstartup -DskipTests package
+docker build -q -t studentmanagement:startup -f Dockerfile.startup . >/dev/null
+
+docker network create "$NETWORK" >/dev/null
+docker run -d --name "$DB" --network "$NETWORK" \
+  -e MYSQL_ALLOW_EMPTY_PASSWORD=yes -e MYSQL_DATABASE=studentdb mysql:8 >/dev/null
+until docker exec "$DB" mysqladmin ping -h 127.0.0.1 --silent >/dev/null 2>&1; do sleep 1; done
+
+now_ms() { date +%s%3N; }
+
+for image in default startup; do
+  total=0
+  i=1
+  while [ "$i" -le "$RUNS" ]; do
+    start=$(now_ms)
+    docker run -d --name spring-bench --network "$NETWORK" -p 18091:8091 \
+      -e SPRING_DATASOURCE_URL="jdbc:mysql://$DB:3306/studentdb" \
+      -e SPRING_DATASOURCE_USERNAME=root \
+      "studentmanagement:$image" >/dev/null
+    until curl -sf http://localhost:18091/actuator/health | grep -q UP; do sleep 0.1; done
+    elapsed=$(( $(now_ms) - start ))
+    echo "$image run $i: ${elapsed} ms"
+    total=$(( total + elapsed ))
+    docker rm -f spring-bench >/dev/null
+    i=$(( i + 1 ))
+  done
+  echo "$image mean: $(( total / RUNS )) ms"
+done
@@ -0,0 +1,428 @@
+package tn.esprit.studentmanagement.analytics;
+
+import tn.esprit.studentmanagement.dto.CourseGradeStats;
+import tn.esprit.studentmanagement.dto.GradeBin;
+import tn.esprit.studentmanagement.dto.StatusStats;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Enrollments held column by column in primitive arrays: one row per
+ * enrollment, with dictionary-encoded student and course ids (dense ints, so
+ * per-course results are arrays indexed by the code), the grade as a float
+ * ({@code NaN} when not graded), the status ordinal as a byte and the
+ * enrollment date as an epoch day. About 25 bytes per row plus the id index.
+ * <p>
+ * Rows are unordered: a removed row is replaced by the last one. Queries
+ * scan {@code chunkRows} rows per task, on the common pool when there is more
+ * than one chunk, into one small accumulator per chunk; the scan loops
+ * themselves do not allocate. Writers wait for running scans.
+ */
+public class EnrollmentColumns {
+
+    static final byte NO_STATUS = -1;
+    static final int NO_DATE = Integer.MIN_VALUE;
+    // Ids are dictionary codes; a course that was never seen matches no row
+    private static final int ANY = -1;
+    private static final int NONE = -2;
+    private static final Status[] STATUSES = Status.values();
+    private static final int ROW_BYTES = Long.BYTES + 3 * Integer.BYTES + Float.BYTES + Byte.BYTES;
+
+    private final int chunkRows;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntMap rowOf;
+    private final LongIntMap studentCodes;
+    private final LongIntMap courseCodes;
+    private long[] studentIds;
+    private long[] courseIds;
+    private long[] enrollmentIds;
+    private int[] students;
+    private int[] courses;
+    private float[] grades;
+    private byte[] statuses;
+    private int[] days;
+    private int size;
+
+    public EnrollmentColumns(int expectedRows, int chunkRows) {
+        int capacity = Math.max(16, expectedRows);
+        this.chunkRows = Math.max(1024, chunkRows);
+        this.rowOf = new LongIntMap(capacity);
+        this.studentCodes = new LongIntMap(1024);
+        this.courseCodes = new LongIntMap(256);
+        this.studentIds = new long[1024];
+        this.courseIds = new long[256];
+        this.enrollmentIds = new long[capacity];
+        this.students = new int[capacity];
+        this.courses = new int[capacity];
+        this.grades = new float[capacity];
+        this.statuses = new byte[capacity];
+        this.days = new int[capacity];
+    }
+
+    /** Inserts or replaces the row of {@code state}; a state without student or course removes it. */
+    public void upsert(EnrollmentState state) {
+        if (state.idEnrollment() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (state.idStudent() == null || state.idCourse() == null) {
+                removeRow(state.idEnrollment());
+                return;
+            }
+            int row = rowOf.get(state.idEnrollment());
+            if (row == LongIntMap.MISSING) {
+                row = size++;
+                ensureCapacity(size);
+                rowOf.put(state.idEnrollment(), row);
+            }
+            enrollmentIds[row] = state.idEnrollment();
+            students[row] = studentCode(state.idStudent());
+            courses[row] = courseCode(state.idCourse());
+            grades[row] = state.grade() == null ? Float.NaN : state.grade().floatValue();
+            statuses[row] = state.status() == null ? NO_STATUS : (byte) state.status().ordinal();
+            days[row] = state.enrollmentDate() == null ? NO_DATE : (int) state.enrollmentDate().toEpochDay();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long idEnrollment) {
+        lock.writeLock().lock();
+        try {
+            removeRow(idEnrollment);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeStudents(Collection<Long> idStudents) {
+        lock.writeLock().lock();
+        try {
+            boolean[] removed = new boolean[studentCodes.size()];
+            boolean any = false;
+            for (Long idStudent : idStudents) {
+                int code = idStudent == null ? LongIntMap.MISSING : studentCodes.get(idStudent);
+                if (code != LongIntMap.MISSING) {
+                    removed[code] = true;
+                    any = true;
+                }
+            }
+            // Backwards, so that the row moved into a freed slot has already been looked at
+            for (int row = size - 1; any && row >= 0; row--) {
+                if (removed[students[row]]) {
+                    removeRow(enrollmentIds[row]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Bytes held by the columns, the id index and the dictionaries. */
+    public long memory() {
+        lock.readLock().lock();
+        try {
+            return (long) enrollmentIds.length * ROW_BYTES + rowOf.memory() + studentCodes.memory()
+                    + courseCodes.memory() + (long) (studentIds.length + courseIds.length) * Long.BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Graded rows in {@code bins} bins of {@code binWidth} from 0; grades are clamped to the outer bins. */
+    public List<GradeBin> gradeDistribution(EnrollmentFilter filter, double binWidth, int bins) {
+        lock.readLock().lock();
+        try {
+            Filter compiled = compile(filter);
+            long[] counts = scan(() -> new long[bins], (acc, from, to) -> histogram(compiled, binWidth, acc, from, to),
+                    EnrollmentColumns::sum);
+            List<GradeBin> result = new ArrayList<>(bins);
+            for (int bin = 0; bin < bins; bin++) {
+                result.add(new GradeBin(bin * binWidth, (bin + 1) * binWidth, counts[bin]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** One entry per status present in the filtered rows, in status order, rows without a status last. */
+    public List<StatusStats> statusStats(EnrollmentFilter filter, double passMark) {
+        lock.readLock().lock();
+        try {
+            Filter compiled = compile(filter);
+            Totals totals = scan(() -> new Totals(STATUSES.length + 1),
+                    (acc, from, to) -> aggregate(compiled, (float) passMark, false, acc, from, to), Totals::merge);
+            List<StatusStats> result = new ArrayList<>();
+            for (int group = 0; group < totals.count.length; group++) {
+                if (totals.count[group] > 0) {
+                    result.add(new StatusStats(group < STATUSES.length ? STATUSES[group] : null,
+                            totals.count[group], totals.graded[group], totals.passed[group],
+                            totals.passRate(group), totals.average(group)));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** One entry per course present in the filtered rows, by course id. */
+    public List<CourseGradeStats> courseStats(EnrollmentFilter filter, double passMark) {
+        lock.readLock().lock();
+        try {
+            Filter compiled = compile(filter);
+            Totals totals = scan(() -> new Totals(courseCodes.size()),
+                    (acc, from, to) -> aggregate(compiled, (float) passMark, true, acc, from, to), Totals::merge);
+            List<CourseGradeStats> result = new ArrayList<>();
+            for (int code = 0; code < totals.count.length; code++) {
+                if (totals.count[code] > 0) {
+                    boolean graded = totals.graded[code] > 0;
+                    result.add(new CourseGradeStats(courseIds[code], totals.count[code], totals.graded[code],
+                            totals.passed[code], totals.passRate(code), totals.average(code),
+                            graded ? grade(totals.min[code]) : null, graded ? grade(totals.max[code]) : null));
+                }
+            }
+            result.sort((a, b) -> Long.compare(a.idCourse(), b.idCourse()));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Primitive form of an {@link EnrollmentFilter}; {@code statusMask} has one bit per status ordinal. */
+    private record Filter(int course, int statusMask, int fromDay, int toDay) {
+    }
+
+    @FunctionalInterface
+    private interface Kernel<A> {
+        void scan(A accumulator, int from, int to);
+    }
+
+    private <A> A scan(Supplier<A> accumulator, Kernel<A> kernel, BinaryOperator<A> merge) {
+        int rows = size;
+        int chunks = (rows + chunkRows - 1) / chunkRows;
+        if (chunks <= 1) {
+            A result = accumulator.get();
+            kernel.scan(result, 0, rows);
+            return result;
+        }
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    A result = accumulator.get();
+                    kernel.scan(result, chunk * chunkRows, Math.min(rows, (chunk + 1) * chunkRows));
+                    return result;
+                })
+                .reduce(merge)
+                .orElseGet(accumulator);
+    }
+
+    private void histogram(Filter filter, double binWidth, long[] counts, int from, int to) {
+        float[] grades = this.grades;
+        int last = counts.length - 1;
+        for (int row = from; row < to; row++) {
+            float grade = grades[row];
+            if (grade == grade && matches(filter, row)) {
+                int bin = (int) (grade / binWidth);
+                counts[bin < 0 ? 0 : Math.min(bin, last)]++;
+            }
+        }
+    }
+
+    private void aggregate(Filter filter, float passMark, boolean byCourse, Totals totals, int from, int to) {
+        int[] courses = this.courses;
+        byte[] statuses = this.statuses;
+        float[] grades = this.grades;
+        long[] count = totals.count;
+        long[] graded = totals.graded;
+        long[] passed = totals.passed;
+        double[] sum = totals.sum;
+        float[] min = totals.min;
+        float[] max = totals.max;
+        int noStatus = STATUSES.length;
+        for (int row = from; row < to; row++) {
+            if (!matches(filter, row)) {
+                continue;
+            }
+            int group = byCourse ? courses[row] : statuses[row] == NO_STATUS ? noStatus : statuses[row];
+            count[group]++;
+            float grade = grades[row];
+            if (grade == grade) {
+                graded[group]++;
+                sum[group] += grade;
+                if (grade >= passMark) {
+                    passed[group]++;
+                }
+                min[group] = Math.min(min[group], grade);
+                max[group] = Math.max(max[group], grade);
+            }
+        }
+    }
+
+    private boolean matches(Filter filter, int row) {
+        int course = filter.course;
+        if (course != ANY && courses[row] != course) {
+            return false;
+        }
+        int statusMask = filter.statusMask;
+        if (statusMask != 0) {
+            byte status = statuses[row];
+            if (status == NO_STATUS || (statusMask & 1 << status) == 0) {
+                return false;
+            }
+        }
+        int fromDay = filter.fromDay;
+        int toDay = filter.toDay;
+        if (fromDay == NO_DATE && toDay == NO_DATE) {
+            return true;
+        }
+        int day = days[row];
+        return day != NO_DATE && (fromDay == NO_DATE || day >= fromDay) && (toDay == NO_DATE || day <= toDay);
+    }
+
+    private Filter compile(EnrollmentFilter filter) {
+        int course = ANY;
+        if (filter.idCourse() != null) {
+            int code = courseCodes.get(filter.idCourse());
+            course = code == LongIntMap.MISSING ? NONE : code;
+        }
+        int statusMask = 0;
+        if (filter.statuses() != null) {
+            for (Status status : filter.statuses()) {
+                statusMask |= 1 << status.ordinal();
+            }
+        }
+        return new Filter(course, statusMask,
+                filter.from() == null ? NO_DATE : (int) filter.from().toEpochDay(),
+                filter.to() == null ? NO_DATE : (int) filter.to().toEpochDay());
+    }
+
+    private void removeRow(long idEnrollment) {
+        int row = rowOf.remove(idEnrollment);
+        if (row == LongIntMap.MISSING) {
+            return;
+        }
+        int last = --size;
+        if (row != last) {
+            enrollmentIds[row] = enrollmentIds[last];
+            students[row] = students[last];
+            courses[row] = courses[last];
+            grades[row] = grades[last];
+            statuses[row] = statuses[last];
+            days[row] = days[last];
+            rowOf.put(enrollmentIds[row], row);
+        }
+    }
+
+    private int studentCode(long idStudent) {
+        int code = studentCodes.get(idStudent);
+        if (code == LongIntMap.MISSING) {
+            code = studentCodes.size();
+            studentCodes.put(idStudent, code);
+            if (code == studentIds.length) {
+                studentIds = Arrays.copyOf(studentIds, code * 2);
+            }
+            studentIds[code] = idStudent;
+        }
+        return code;
+    }
+
+    private int courseCode(long idCourse) {
+        int code = courseCodes.get(idCourse);
+        if (code == LongIntMap.MISSING) {
+            code = courseCodes.size();
+            courseCodes.put(idCourse, code);
+            if (code == courseIds.length) {
+                courseIds = Arrays.copyOf(courseIds, code * 2);
+            }
+            courseIds[code] = idCourse;
+        }
+        return code;
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= enrollmentIds.length) {
+            return;
+        }
+        int capacity = Math.max(rows, enrollmentIds.length + (enrollmentIds.length >> 1));
+        enrollmentIds = Arrays.copyOf(enrollmentIds, capacity);
+        students = Arrays.copyOf(students, capacity);
+        courses = Arrays.copyOf(courses, capacity);
+        grades = Arrays.copyOf(grades, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        days = Arrays.copyOf(days, capacity);
+    }
+
+    private static long[] sum(long[] left, long[] right) {
+        for (int i = 0; i < left.length; i++) {
+            left[i] += right[i];
+        }
+        return left;
+    }
+
+    // Grades are held as floats; print the decimal they were entered as, not the widened binary value
+    private static double grade(float value) {
+        return Double.parseDouble(Float.toString(value));
+    }
+
+    /** Per-group sums of one chunk. */
+    private static final class Totals {
+
+        final long[] count;
+        final long[] graded;
+        final long[] passed;
+        final double[] sum;
+        final float[] min;
+        final float[] max;
+
+        Totals(int groups) {
+            count = new long[groups];
+            graded = new long[groups];
+            passed = new long[groups];
+            sum = new double[groups];
+            min = new float[groups];
+            max = new float[groups];
+            Arrays.fill(min, Float.POSITIVE_INFINITY);
+            Arrays.fill(max, Float.NEGATIVE_INFINITY);
+        }
+
+        Totals merge(Totals other) {
+            for (int group = 0; group < count.length; group++) {
+                count[group] += other.count[group];
+                graded[group] += other.graded[group];
+                passed[group] += other.passed[group];
+                sum[group] += other.sum[group];
+                min[group] = Math.min(min[group], other.min[group]);
+                max[group] = Math.max(max[group], other.max[group]);
+            }
+            return this;
+        }
+
+        Double passRate(int group) {
+            return graded[group] == 0 ? null : (double) passed[group] / graded[group];
+        }
+
+        Double average(int group) {
+            return graded[group] == 0 ? null : sum[group] / graded[group];
+        }
+    }
+}
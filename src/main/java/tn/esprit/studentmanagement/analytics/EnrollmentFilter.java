@@ -0,0 +1,17 @@
+package tn.esprit.studentmanagement.analytics;
+
+import tn.esprit.studentmanagement.entities.Status;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Rows an analytical query covers; a null or empty field does not filter.
+ * {@code from} and {@code to} bound the enrollment date, both included.
+ */
+public record EnrollmentFilter(Long idCourse, Set<Status> statuses, LocalDate from, LocalDate to) {
+
+    public static EnrollmentFilter all() {
+        return new EnrollmentFilter(null, null, null, null);
+    }
+}
@@ -0,0 +1,20 @@
+package tn.esprit.studentmanagement.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method as {@link #value()} work: the call waits for a
+ * permit of that workload, and connections it opens come from that
+ * workload's pool. A call made while a workload is already set keeps it.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Bulkhead {
+
+    Workload value();
+}
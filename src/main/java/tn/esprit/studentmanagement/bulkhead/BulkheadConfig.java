@@ -0,0 +1,49 @@
+package tn.esprit.studentmanagement.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tn.esprit.studentmanagement.config.BulkheadProperties;
+
+/**
+ * Workload bulkheads ({@code bulkhead.enabled}): the datasource becomes one
+ * pool per {@link Workload} behind a routing datasource, so that exports and
+ * bulk deletes cannot take the connections interactive requests wait on.
+ * With sharding on, every shard gets its own set of pools.
+ * <p>
+ * A connection is chosen when it is first taken and held until the
+ * transaction or repository call ends, which is why the application sets
+ * {@code spring.jpa.open-in-view=false}: with the entity manager open for the
+ * whole request, a {@link Bulkhead} call made after an earlier query would
+ * reuse that query's connection instead of taking one from its own pool.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "bulkhead", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig {
+
+    @Bean
+    WorkloadPools workloadPools(BulkheadProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new WorkloadPools(properties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+    WorkloadRoutingDataSource dataSource(DataSourceProperties dataSourceProperties, WorkloadPools workloadPools) {
+        return workloadPools.create(null, dataSourceProperties.initializeDataSourceBuilder());
+    }
+
+    @Bean
+    BulkheadPermits bulkheadPermits(BulkheadProperties properties) {
+        return new BulkheadPermits(properties);
+    }
+
+    @Bean
+    static BulkheadPostProcessor bulkheadPostProcessor(ObjectProvider<BulkheadPermits> permits) {
+        return new BulkheadPostProcessor(permits);
+    }
+}
@@ -0,0 +1,118 @@
+package tn.esprit.studentmanagement.bulkhead;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import tn.esprit.studentmanagement.config.BulkheadProperties;
+import tn.esprit.studentmanagement.exception.ServiceOverloadedException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission of {@link Bulkhead} calls: at most {@code max-concurrent} calls of
+ * a workload run at once, at most {@code max-queued} wait for a permit, and a
+ * waiter gives up after {@code queue-timeout}. Calls turned away fail with
+ * {@link ServiceOverloadedException} (503) instead of queueing on the pool.
+ */
+public class BulkheadPermits implements MeterBinder {
+
+    private final Map<Workload, Gate> gates = new EnumMap<>(Workload.class);
+    private volatile MeterRegistry meterRegistry = new CompositeMeterRegistry();
+
+    public BulkheadPermits(BulkheadProperties properties) {
+        for (Workload workload : Workload.values()) {
+            gates.put(workload, new Gate(workload, properties.pool(workload)));
+        }
+    }
+
+    public void acquire(Workload workload) {
+        gates.get(workload).acquire();
+    }
+
+    public void release(Workload workload) {
+        gates.get(workload).release();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        for (Gate gate : gates.values()) {
+            String tag = gate.workload.label();
+            if (gate.permits != null) {
+                Gauge.builder("bulkhead.calls.active", gate, g -> g.maxConcurrent - g.permits.availablePermits())
+                        .description("Calls holding a permit").tag("workload", tag).register(registry);
+            }
+            Gauge.builder("bulkhead.calls.queued", gate.queued, AtomicInteger::get)
+                    .description("Calls waiting for a permit").tag("workload", tag).register(registry);
+            FunctionCounter.builder("bulkhead.calls.rejected", gate.rejected, LongAdder::sum)
+                    .description("Calls turned away: queue full or no permit within the queue timeout")
+                    .tag("workload", tag).register(registry);
+        }
+    }
+
+    private final class Gate {
+
+        final Workload workload;
+        final int maxConcurrent;
+        final Semaphore permits;
+        final int maxQueued;
+        final Duration queueTimeout;
+        final AtomicInteger queued = new AtomicInteger();
+        final LongAdder rejected = new LongAdder();
+
+        Gate(Workload workload, BulkheadProperties.Pool pool) {
+            this.workload = workload;
+            this.maxConcurrent = pool.maxConcurrent();
+            this.permits = pool.maxConcurrent() > 0 ? new Semaphore(pool.maxConcurrent(), true) : null;
+            this.maxQueued = pool.maxQueued();
+            this.queueTimeout = pool.queueTimeout();
+        }
+
+        void acquire() {
+            if (permits == null) {
+                return;
+            }
+            long start = System.nanoTime();
+            if (!permits.tryAcquire()) {
+                if (queued.incrementAndGet() > maxQueued) {
+                    queued.decrementAndGet();
+                    throw reject("queue is full");
+                }
+                try {
+                    if (!permits.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                        throw reject("no permit within " + queueTimeout);
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw reject("interrupted while queued");
+                } finally {
+                    queued.decrementAndGet();
+                }
+            }
+            Timer.builder("bulkhead.calls.wait").description("Time spent waiting for a permit")
+                    .tag("workload", workload.label()).register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        void release() {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+
+        private ServiceOverloadedException reject(String reason) {
+            rejected.increment();
+            return new ServiceOverloadedException(
+                    "Too many " + workload.label() + " calls: " + reason, Math.max(1, queueTimeout.toSeconds()));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package tn.esprit.studentmanagement.bulkhead;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Puts the {@link Bulkhead} advice in front of existing proxies, ahead of the
+ * transaction advice, so that the workload is set before a connection is
+ * taken. Only the outermost annotated call takes a permit.
+ */
+public class BulkheadPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    private final ObjectProvider<BulkheadPermits> permits;
+
+    public BulkheadPostProcessor(ObjectProvider<BulkheadPermits> permits) {
+        this.permits = permits;
+        setBeforeExistingAdvisors(true);
+        // Class-based so that @Scheduled and @EventListener methods stay invocable on the proxy
+        setProxyTargetClass(true);
+        this.advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(new AnnotationMatchingPointcut(Bulkhead.class, true))
+                        .union(new AnnotationMatchingPointcut(null, Bulkhead.class, true)),
+                (MethodInterceptor) this::invoke);
+    }
+
+    private Object invoke(MethodInvocation invocation) throws Throwable {
+        if (WorkloadContext.current() != null) {
+            return invocation.proceed();
+        }
+        Workload workload = workload(invocation);
+        BulkheadPermits gates = permits.getObject();
+        gates.acquire(workload);
+        try {
+            return WorkloadContext.callAs(workload, () -> proceed(invocation));
+        } catch (ProceedException ex) {
+            throw ex.getCause();
+        } finally {
+            gates.release(workload);
+        }
+    }
+
+    private static Workload workload(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() == null
+                ? invocation.getMethod().getDeclaringClass() : AopUtils.getTargetClass(invocation.getThis());
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        Bulkhead bulkhead = AnnotatedElementUtils.findMergedAnnotation(method, Bulkhead.class);
+        if (bulkhead == null) {
+            bulkhead = AnnotatedElementUtils.findMergedAnnotation(targetClass, Bulkhead.class);
+        }
+        return bulkhead == null ? Workload.INTERACTIVE : bulkhead.value();
+    }
+
+    private static Object proceed(MethodInvocation invocation) {
+        try {
+            return invocation.proceed();
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new ProceedException(ex);
+        }
+    }
+
+    /** Carries a checked exception of the target out of the {@link WorkloadContext#callAs} supplier. */
+    private static final class ProceedException extends RuntimeException {
+        ProceedException(Throwable cause) {
+            super(null, cause, false, false);
+        }
+    }
+}
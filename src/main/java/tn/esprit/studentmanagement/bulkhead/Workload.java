@@ -0,0 +1,18 @@
+package tn.esprit.studentmanagement.bulkhead;
+
+import java.util.Locale;
+
+/** Workload classes, each with its own connection pool and admission limits. */
+public enum Workload {
+    /** Requests a user is waiting on; the default for any unannotated work. */
+    INTERACTIVE,
+    /** Bulk deletes, archival, backfills. */
+    BULK_WRITE,
+    /** Exports, reports and aggregate scans. */
+    REPORTING;
+
+    /** Lower-case name used for pool names and metric tags, e.g. {@code bulk-write}. */
+    public String label() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,38 @@
+package tn.esprit.studentmanagement.bulkhead;
+
+import java.util.function.Supplier;
+
+/**
+ * The workload the current thread runs as. Work handed to other threads
+ * carries it over with {@link #callAs}, as the sharding workers do.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    /** Current workload, or {@code null} outside of {@link #callAs}. */
+    public static Workload current() {
+        return CURRENT.get();
+    }
+
+    /** Runs {@code work} as {@code workload}; a {@code null} workload leaves the thread's own. */
+    public static <T> T callAs(Workload workload, Supplier<T> work) {
+        if (workload == null) {
+            return work.get();
+        }
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
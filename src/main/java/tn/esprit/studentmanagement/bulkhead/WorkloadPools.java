@@ -0,0 +1,45 @@
+package tn.esprit.studentmanagement.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import tn.esprit.studentmanagement.config.BulkheadProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Builds the per-workload pools of one database. Pools are named after the
+ * database and the workload ({@code reporting}, {@code shard-sousse-reporting})
+ * and report the {@code hikaricp.connections.*} metrics under that name.
+ */
+public class WorkloadPools {
+
+    private final BulkheadProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public WorkloadPools(BulkheadProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public WorkloadRoutingDataSource create(String name, DataSourceBuilder<?> database) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        Map<Workload, HikariDataSource> pools = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            BulkheadProperties.Pool settings = properties.pool(workload);
+            HikariDataSource pool = database.type(HikariDataSource.class).build();
+            pool.setPoolName(name == null ? workload.label() : name + "-" + workload.label());
+            pool.setMaximumPoolSize(settings.maxConnections());
+            pool.setMinimumIdle(Math.min(settings.minIdle(), settings.maxConnections()));
+            pool.setConnectionTimeout(settings.connectionTimeout().toMillis());
+            if (registry != null) {
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+            pools.put(workload, pool);
+        }
+        return new WorkloadRoutingDataSource(pools);
+    }
+}
@@ -0,0 +1,104 @@
+package tn.esprit.studentmanagement.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/** A cache whose evictions and clears are published to the other replicas. */
+public class BroadcastingCache implements Cache {
+
+    private final Cache delegate;
+    private final Supplier<CacheInvalidations> invalidations;
+
+    BroadcastingCache(Cache delegate, Supplier<CacheInvalidations> invalidations) {
+        this.delegate = delegate;
+        this.invalidations = invalidations;
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    /** Evicts on this replica only: used to apply an invalidation received from another one. */
+    void evictLocally(Object key) {
+        delegate.evict(key);
+    }
+
+    void clearLocally() {
+        delegate.clear();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        invalidations.get().publish(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = delegate.evictIfPresent(key);
+        // Another replica may hold the entry even when this one does not
+        invalidations.get().publish(getName(), key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        invalidations.get().publish(getName(), null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = delegate.invalidate();
+        invalidations.get().publish(getName(), null);
+        return invalidated;
+    }
+}
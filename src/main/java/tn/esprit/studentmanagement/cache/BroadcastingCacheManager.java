@@ -0,0 +1,42 @@
+package tn.esprit.studentmanagement.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the application's cache manager so that every eviction and clear,
+ * whether from {@code @CacheEvict} or from an event listener, is also handed
+ * to {@link CacheInvalidations} for the other replicas.
+ */
+public class BroadcastingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final Supplier<CacheInvalidations> invalidations;
+    private final ConcurrentMap<String, BroadcastingCache> caches = new ConcurrentHashMap<>();
+
+    public BroadcastingCacheManager(CacheManager delegate, Supplier<CacheInvalidations> invalidations) {
+        this.delegate = delegate;
+        this.invalidations = invalidations;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        BroadcastingCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        return target == null ? null
+                : caches.computeIfAbsent(name, n -> new BroadcastingCache(target, invalidations));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
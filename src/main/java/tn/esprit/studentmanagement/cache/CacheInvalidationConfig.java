@@ -0,0 +1,55 @@
+package tn.esprit.studentmanagement.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import tn.esprit.studentmanagement.config.CacheInvalidationProperties;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+/**
+ * Cross-replica cache invalidation ({@code cache.invalidation.enabled}): the
+ * cache manager is wrapped in a {@link BroadcastingCacheManager} and
+ * {@link CacheInvalidations} exchanges evictions through the database.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "cache.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(CacheInvalidationProperties.class)
+public class CacheInvalidationConfig {
+
+    @Bean
+    CacheInvalidations cacheInvalidations(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                          ObjectProvider<CacheManager> cacheManager,
+                                          CacheInvalidationProperties properties) {
+        return new CacheInvalidations(dataSource, transactionManager, cacheManager::getObject, properties,
+                Clock.systemUTC());
+    }
+
+    @Bean
+    static BeanPostProcessor broadcastingCacheManagerPostProcessor(ObjectProvider<CacheInvalidations> invalidations) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof CacheManager manager && !(bean instanceof BroadcastingCacheManager)
+                        ? new BroadcastingCacheManager(manager, invalidations::getObject) : bean;
+            }
+        };
+    }
+
+    // Keeps the Caffeine statistics (cache.gets, cache.puts...) of the wrapped caches
+    @Bean
+    CacheMeterBinderProvider<BroadcastingCache> broadcastingCacheMeterBinderProvider() {
+        CaffeineCacheMeterBinderProvider caffeine = new CaffeineCacheMeterBinderProvider();
+        return (cache, tags) -> cache.getDelegate() instanceof CaffeineCache target
+                ? caffeine.getMeterBinder(target, tags) : null;
+    }
+}
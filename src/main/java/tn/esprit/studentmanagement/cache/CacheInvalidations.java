@@ -0,0 +1,255 @@
+package tn.esprit.studentmanagement.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.studentmanagement.config.CacheInvalidationProperties;
+import tn.esprit.studentmanagement.sharding.ShardContext;
+import tn.esprit.studentmanagement.sharding.ShardRouter;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache invalidation across replicas through the {@code cache_invalidation}
+ * table (global shard). Evictions and clears made on this replica are queued
+ * by {@link BroadcastingCacheManager} and written in one batch every
+ * {@code cache.invalidation.sync-interval}; the same task reads the rows the
+ * other replicas wrote since the last sync and applies them to the local
+ * caches. A replica therefore serves an entry changed elsewhere for about two
+ * sync intervals, instead of until the entry expires.
+ * <p>
+ * Ids are taken at insert but become visible at commit, so a row can appear
+ * after a higher id has been read. Ids skipped over are asked for again on
+ * every sync until {@code overlap} has passed. When the queue holds more than
+ * {@code max-pending} invalidations, further ones collapse into a clear of
+ * their cache.
+ */
+@Slf4j
+public class CacheInvalidations implements SmartInitializingSingleton, MeterBinder {
+
+    private static final String INSERT =
+            "insert into cache_invalidation (cache_name, cache_key, origin) values (?, ?, ?)";
+    private static final String SELECT = "select id, cache_name, cache_key, origin from cache_invalidation";
+    private static final String MAX_ID = "select coalesce(max(id), 0) from cache_invalidation";
+    private static final String PURGE = "delete from cache_invalidation where created_at < ?";
+    private static final int MAX_ROWS = 10_000;
+    private static final int MAX_GAPS = 10_000;
+    private static final int IN_CHUNK = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+    private final Supplier<CacheManager> cacheManager;
+    private final CacheInvalidationProperties properties;
+    private final Clock clock;
+    private final String origin = UUID.randomUUID().toString();
+    private final ConcurrentLinkedQueue<Invalidation> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Set<String> overflowed = ConcurrentHashMap.newKeySet();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    // Guarded by this: last id read, and ids below it not seen yet with the time they were skipped
+    private long lastId = -1;
+    private final Map<Long, Instant> gaps = new LinkedHashMap<>();
+
+    public CacheInvalidations(DataSource dataSource, PlatformTransactionManager transactionManager,
+                              Supplier<CacheManager> cacheManager, CacheInvalidationProperties properties,
+                              Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setMaxRows(MAX_ROWS);
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cacheManager = cacheManager;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /** Queues the eviction of {@code key}, or a clear of the cache when {@code key} is null or not a Long. */
+    public void publish(String cacheName, Object key) {
+        if (overflowed.contains(cacheName)) {
+            return;
+        }
+        if (pendingCount.incrementAndGet() > properties.maxPending()) {
+            pendingCount.decrementAndGet();
+            overflowed.add(cacheName);
+            return;
+        }
+        pending.add(new Invalidation(cacheName, key instanceof Long id ? id : null));
+    }
+
+    // Everything before this point is irrelevant: the caches start empty.
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            start();
+        } catch (RuntimeException ex) {
+            log.warn("Cache invalidation log unavailable, will retry on the next sync: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.sync-interval:PT1S}",
+            initialDelayString = "${cache.invalidation.sync-interval:PT1S}")
+    public void sync() {
+        try {
+            flush();
+            poll();
+        } catch (RuntimeException ex) {
+            log.warn("Cache invalidation sync failed, retrying in {}: {}", properties.syncInterval(),
+                    ex.getMessage());
+        }
+    }
+
+    /** Applies every invalidation written since {@code since}, e.g. to entries restored from a snapshot. */
+    public synchronized int replaySince(Instant since) {
+        start();
+        Timestamp from = Timestamp.from(since.minus(properties.overlap()));
+        List<Row> rows = onGlobalShard(() -> jdbcTemplate.query(
+                SELECT + " where created_at >= ? and id <= ? order by id", ROW, from, lastId));
+        rows.forEach(row -> apply(row.cacheName(), row.key()));
+        return rows.size();
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.purge-interval:PT1H}",
+            initialDelayString = "${cache.invalidation.purge-interval:PT1H}")
+    public void purge() {
+        Timestamp before = Timestamp.from(clock.instant().minus(properties.retention()));
+        int purged = onGlobalShard(() -> ownTransaction.execute(status -> jdbcTemplate.update(PURGE, before)));
+        log.debug("Purged {} cache invalidations older than {}", purged, properties.retention());
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Could not publish {} pending cache invalidations on shutdown: {}", pendingCount.get(),
+                    ex.getMessage());
+        }
+    }
+
+    public int pending() {
+        return pendingCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.invalidations", published, LongAdder::sum)
+                .description("Cache invalidations written for the other replicas")
+                .tag("direction", "published")
+                .register(registry);
+        FunctionCounter.builder("cache.invalidations", applied, LongAdder::sum)
+                .description("Cache invalidations received from other replicas and applied")
+                .tag("direction", "applied")
+                .register(registry);
+        Gauge.builder("cache.invalidations.pending", pendingCount, AtomicInteger::get)
+                .description("Local invalidations not written yet")
+                .register(registry);
+    }
+
+    void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        for (String cacheName : List.copyOf(overflowed)) {
+            overflowed.remove(cacheName);
+            batch.add(new Object[]{cacheName, null, origin});
+        }
+        Invalidation invalidation;
+        while ((invalidation = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(new Object[]{invalidation.cacheName(), invalidation.key(), origin});
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            onGlobalShard(() -> ownTransaction.execute(status -> jdbcTemplate.batchUpdate(INSERT, batch)));
+            published.add(batch.size());
+        } catch (RuntimeException ex) {
+            // Written on the next sync; the caches they belong to are cleared rather than lost
+            batch.forEach(row -> overflowed.add((String) row[0]));
+            throw ex;
+        }
+    }
+
+    synchronized void poll() {
+        start();
+        Instant now = clock.instant();
+        List<Row> rows = new ArrayList<>();
+        List<Long> missing = List.copyOf(gaps.keySet());
+        for (int from = 0; from < missing.size(); from += IN_CHUNK) {
+            List<Long> chunk = missing.subList(from, Math.min(from + IN_CHUNK, missing.size()));
+            rows.addAll(onGlobalShard(() -> jdbcTemplate.query(SELECT + " where id in ("
+                    + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")", ROW, chunk.toArray())));
+        }
+        rows.addAll(onGlobalShard(() -> jdbcTemplate.query(SELECT + " where id > ? order by id", ROW, lastId)));
+        for (Row row : rows) {
+            if (gaps.remove(row.id()) == null && row.id() > lastId) {
+                for (long id = lastId + 1; id < row.id() && gaps.size() < MAX_GAPS; id++) {
+                    gaps.put(id, now);
+                }
+                lastId = row.id();
+            }
+            if (!origin.equals(row.origin())) {
+                apply(row.cacheName(), row.key());
+            }
+        }
+        gaps.values().removeIf(skipped -> skipped.plus(properties.overlap()).isBefore(now));
+    }
+
+    private synchronized void start() {
+        if (lastId < 0) {
+            lastId = onGlobalShard(() -> jdbcTemplate.queryForObject(MAX_ID, Long.class));
+        }
+    }
+
+    private void apply(String cacheName, Long key) {
+        Cache cache = cacheManager.get().getCache(cacheName);
+        if (cache instanceof BroadcastingCache broadcasting) {
+            if (key == null) {
+                broadcasting.clearLocally();
+            } else {
+                broadcasting.evictLocally(key);
+            }
+        } else if (cache != null) {
+            if (key == null) {
+                cache.clear();
+            } else {
+                cache.evict(key);
+            }
+        }
+        applied.increment();
+    }
+
+    private static <T> T onGlobalShard(Supplier<T> work) {
+        return ShardContext.callOn(ShardRouter.GLOBAL_SHARD, work);
+    }
+
+    private static final RowMapper<Row> ROW = (rs, n) -> new Row(rs.getLong(1), rs.getString(2),
+            (Long) rs.getObject(3, Long.class), rs.getString(4));
+
+    private record Invalidation(String cacheName, Long key) {
+    }
+
+    private record Row(long id, String cacheName, Long key, String origin) {
+    }
+}
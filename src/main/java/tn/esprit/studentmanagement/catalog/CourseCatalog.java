@@ -0,0 +1,152 @@
+package tn.esprit.studentmanagement.catalog;
+
+import tn.esprit.studentmanagement.entities.Course;
+
+import java.util.*;
+
+/**
+ * Immutable view of all courses, indexed by id, by code (case-insensitive)
+ * and by credit. Never modified once built: a write produces a new catalog
+ * that replaces this one, so readers need no locking. The {@link Course}
+ * instances are shared between readers and must be treated as read-only.
+ */
+public final class CourseCatalog {
+
+    private static final Comparator<Course> BY_CODE = Comparator
+            .comparing((Course c) -> codeKey(c.getCode()))
+            .thenComparing(Course::getIdCourse);
+    private static final Comparator<Course> BY_CREDIT = Comparator
+            .comparingInt(Course::getCredit)
+            .thenComparing(BY_CODE);
+
+    private static final CourseCatalog EMPTY = of(List.of());
+
+    private final Map<Long, Course> byId;
+    private final Map<String, Course> byCode;
+    private final Course[] sortedByCode;
+    private final String[] codeKeys;
+    private final Course[] sortedByCredit;
+    private final int[] credits;
+
+    private CourseCatalog(Collection<Course> courses) {
+        Map<Long, Course> ids = new HashMap<>(courses.size() * 2);
+        for (Course course : courses) {
+            ids.put(course.getIdCourse(), course);
+        }
+        this.byId = Collections.unmodifiableMap(ids);
+        this.sortedByCode = ids.values().toArray(new Course[0]);
+        Arrays.sort(sortedByCode, BY_CODE);
+        this.codeKeys = new String[sortedByCode.length];
+        Map<String, Course> codes = new HashMap<>(sortedByCode.length * 2);
+        for (int i = 0; i < sortedByCode.length; i++) {
+            codeKeys[i] = codeKey(sortedByCode[i].getCode());
+            // Codes are not unique in the schema: the lowest id wins
+            codes.putIfAbsent(codeKeys[i], sortedByCode[i]);
+        }
+        this.byCode = Collections.unmodifiableMap(codes);
+        this.sortedByCredit = sortedByCode.clone();
+        Arrays.sort(sortedByCredit, BY_CREDIT);
+        this.credits = new int[sortedByCredit.length];
+        for (int i = 0; i < sortedByCredit.length; i++) {
+            credits[i] = sortedByCredit[i].getCredit();
+        }
+    }
+
+    public static CourseCatalog empty() {
+        return EMPTY;
+    }
+
+    public static CourseCatalog of(Collection<Course> courses) {
+        return new CourseCatalog(courses);
+    }
+
+    /** Copy of this catalog with {@code course} added or replacing the course with the same id. */
+    public CourseCatalog with(Course course) {
+        Map<Long, Course> courses = new HashMap<>(byId);
+        courses.put(course.getIdCourse(), course);
+        return new CourseCatalog(courses.values());
+    }
+
+    public CourseCatalog without(Long idCourse) {
+        if (!byId.containsKey(idCourse)) {
+            return this;
+        }
+        Map<Long, Course> courses = new HashMap<>(byId);
+        courses.remove(idCourse);
+        return new CourseCatalog(courses.values());
+    }
+
+    public Optional<Course> byId(Long idCourse) {
+        return Optional.ofNullable(byId.get(idCourse));
+    }
+
+    public Optional<Course> byCode(String code) {
+        return code == null ? Optional.empty() : Optional.ofNullable(byCode.get(codeKey(code)));
+    }
+
+    /** All courses ordered by code. */
+    public List<Course> all() {
+        return List.of(sortedByCode);
+    }
+
+    public int size() {
+        return sortedByCode.length;
+    }
+
+    /**
+     * Courses whose code starts with {@code codePrefix} (case-insensitive) and
+     * whose credit lies in {@code [minCredit, maxCredit]}; null bounds are open.
+     * Ordered by code when a prefix is given, by credit otherwise.
+     */
+    public List<Course> search(String codePrefix, Integer minCredit, Integer maxCredit) {
+        int min = minCredit == null ? Integer.MIN_VALUE : minCredit;
+        int max = maxCredit == null ? Integer.MAX_VALUE : maxCredit;
+        List<Course> result = new ArrayList<>();
+        if (codePrefix != null && !codePrefix.isEmpty()) {
+            String prefix = codeKey(codePrefix);
+            for (int i = lowerBound(codeKeys, prefix); i < codeKeys.length && codeKeys[i].startsWith(prefix); i++) {
+                int credit = sortedByCode[i].getCredit();
+                if (credit >= min && credit <= max) {
+                    result.add(sortedByCode[i]);
+                }
+            }
+            return result;
+        }
+        for (int i = lowerBound(credits, min); i < credits.length && credits[i] <= max; i++) {
+            result.add(sortedByCredit[i]);
+        }
+        return result;
+    }
+
+    private static int lowerBound(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(int[] values, int value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String codeKey(String code) {
+        return code == null ? "" : code.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,16 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("analytics")
+public record AnalyticsProperties(
+        // Grades are out of maxGrade; a grade of at least passMark passes
+        @DefaultValue("10") double passMark,
+        @DefaultValue("20") double maxGrade,
+        @DefaultValue("65536") int chunkRows,
+        @DefaultValue("100000") int expectedRows,
+        @DefaultValue("PT10M") Duration rebuildInterval) {
+}
@@ -0,0 +1,16 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import tn.esprit.studentmanagement.entities.Status;
+
+import java.time.Period;
+import java.util.Set;
+
+@ConfigurationProperties("archive")
+public record ArchiveProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("365d") Period minAge,
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue({"COMPLETED", "FAILED", "DROPPED", "WITHDRAWN"}) Set<Status> statuses) {
+}
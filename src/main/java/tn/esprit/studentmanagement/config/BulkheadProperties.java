@@ -0,0 +1,43 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import tn.esprit.studentmanagement.bulkhead.Workload;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@ConfigurationProperties("bulkhead")
+public record BulkheadProperties(
+        @DefaultValue("true") boolean enabled,
+        Map<Workload, Pool> pools) {
+
+    public BulkheadProperties {
+        Map<Workload, Pool> all = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            all.put(workload, pools == null || pools.get(workload) == null ? Pool.DEFAULT : pools.get(workload));
+        }
+        pools = Map.copyOf(all);
+    }
+
+    public Pool pool(Workload workload) {
+        return pools.get(workload);
+    }
+
+    /**
+     * Connection pool of one workload and, for annotated calls, how many may
+     * run at once and how many may wait for a permit, and for how long.
+     * {@code maxConcurrent=0} admits every call.
+     */
+    public record Pool(
+            @DefaultValue("10") int maxConnections,
+            @DefaultValue("0") int minIdle,
+            @DefaultValue("PT5S") Duration connectionTimeout,
+            @DefaultValue("0") int maxConcurrent,
+            @DefaultValue("0") int maxQueued,
+            @DefaultValue("PT5S") Duration queueTimeout) {
+
+        static final Pool DEFAULT = new Pool(10, 0, Duration.ofSeconds(5), 0, 0, Duration.ofSeconds(5));
+    }
+}
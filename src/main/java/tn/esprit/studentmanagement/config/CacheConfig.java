@@ -0,0 +1,9 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,16 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("cache.invalidation")
+public record CacheInvalidationProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("PT1S") Duration syncInterval,
+        @DefaultValue("PT1M") Duration overlap,
+        @DefaultValue("P1D") Duration retention,
+        @DefaultValue("PT1H") Duration purgeInterval,
+        @DefaultValue("100000") int maxPending) {
+}
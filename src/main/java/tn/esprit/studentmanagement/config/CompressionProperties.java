@@ -0,0 +1,18 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+@ConfigurationProperties("compression")
+public record CompressionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2KB") DataSize minResponseSize,
+        // Server preference when the client accepts several
+        @DefaultValue({"zstd", "gzip"}) List<String> encodings,
+        @DefaultValue("3") int zstdLevel,
+        @DefaultValue({"application/json", "application/cbor", "application/x-jackson-smile",
+                "application/problem+json", "text/csv", "text/plain"}) List<String> mimeTypes) {
+}
@@ -0,0 +1,13 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("dedup")
+public record DedupProperties(
+        @DefaultValue("0.01") double falsePositiveRate,
+        @DefaultValue("100000") long minCapacity,
+        @DefaultValue("PT6H") Duration rebuildInterval) {
+}
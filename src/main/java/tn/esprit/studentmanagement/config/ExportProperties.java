@@ -0,0 +1,15 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties("export")
+public record ExportProperties(
+        @DefaultValue("exports") Path outputDir,
+        @DefaultValue("65536") int batchSize,
+        @DefaultValue("1000") int fetchSize,
+        @DefaultValue("PT5M") Duration overlap) {
+}
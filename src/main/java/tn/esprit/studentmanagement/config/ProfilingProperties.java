@@ -0,0 +1,15 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties("profiling")
+public record ProfilingProperties(
+        @DefaultValue("PT1M") Duration defaultDuration,
+        @DefaultValue("PT10M") Duration maxDuration,
+        @DefaultValue("256MB") DataSize maxSize,
+        @DefaultValue("profile") String settings) {
+}
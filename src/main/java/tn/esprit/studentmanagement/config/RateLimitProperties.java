@@ -0,0 +1,26 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+import java.util.Set;
+
+@ConfigurationProperties("ratelimit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("X-API-Key") String clientHeader,
+        Set<String> apiKeys,
+        @DefaultValue("10000") int maxClients,
+        @DefaultValue("16") int stripes,
+        List<Route> routes) {
+
+    public RateLimitProperties {
+        apiKeys = apiKeys == null ? Set.of() : Set.copyOf(apiKeys);
+        routes = routes == null ? List.of() : List.copyOf(routes);
+    }
+
+    /** A limit applied to every request whose servlet path matches {@code pattern}. */
+    public record Route(String name, String pattern, int capacity, double refillPerSecond) {
+    }
+}
@@ -0,0 +1,15 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import tn.esprit.studentmanagement.jobs.ReportFormat;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties("report")
+public record ReportProperties(
+        @DefaultValue("reports") Path outputDir,
+        @DefaultValue("4") int parallelism,
+        @DefaultValue("5000") int partitionSize,
+        @DefaultValue("CSV") ReportFormat format) {
+}
@@ -0,0 +1,28 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties("sharding")
+public record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        List<Shard> shards,
+        Map<Long, String> placements,
+        @DefaultValue("PT30S") Duration timeout) {
+
+    public ShardingProperties {
+        shards = shards == null ? List.of() : List.copyOf(shards);
+        placements = placements == null ? Map.of() : Map.copyOf(placements);
+    }
+
+    /**
+     * One database. The first shard is the global one: it owns the reference
+     * data and every student whose department has no placement.
+     */
+    public record Shard(String name, String url, String username, String password) {
+    }
+}
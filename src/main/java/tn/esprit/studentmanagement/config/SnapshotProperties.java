@@ -0,0 +1,16 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties("snapshot")
+public record SnapshotProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("snapshot/reference-data.bin") Path file,
+        @DefaultValue("PT5M") Duration interval,
+        @DefaultValue("PT30M") Duration maxAge,
+        @DefaultValue("50000") int maxStudents) {
+}
@@ -0,0 +1,38 @@
+package tn.esprit.studentmanagement.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.Filter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    /**
+     * With spring.main.lazy-initialization=true (startup profile), servlet filters
+     * and meter binders must still be created at boot so that load shedding and
+     * metrics are active from the first request.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerInfrastructure() {
+        return LazyInitializationExcludeFilter.forBeanTypes(Filter.class, MeterBinder.class);
+    }
+
+    /**
+     * Spring Boot already keeps beans with {@code @Scheduled} methods eager.
+     * Event listeners are only registered when their bean is created, so a lazy
+     * listener that nothing injects would miss every event published before it.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerEventListeners() {
+        return (beanFactory, beanName, beanType) -> !MethodIntrospector.selectMethods(
+                ClassUtils.getUserClass(beanType), (ReflectionUtils.MethodFilter) method ->
+                        AnnotatedElementUtils.hasAnnotation(method, EventListener.class)).isEmpty();
+    }
+}
@@ -0,0 +1,14 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Period;
+import java.util.List;
+
+@ConfigurationProperties("stats")
+public record StatsProperties(
+        @DefaultValue({"9", "2"}) List<Integer> termStartMonths,
+        @DefaultValue("365d") Period backfillWindow,
+        @DefaultValue("31") int backfillChunkDays) {
+}
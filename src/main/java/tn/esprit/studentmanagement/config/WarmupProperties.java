@@ -0,0 +1,17 @@
+package tn.esprit.studentmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties("warmup")
+public record WarmupProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("PT45S") Duration timeout,
+        @DefaultValue("500") int iterations,
+        @DefaultValue("4") int concurrency,
+        @DefaultValue("100") int writeIterations,
+        @DefaultValue({"/courses/getAllCourses", "/Depatment/getAllDepartment"}) List<String> requests) {
+}
@@ -0,0 +1,45 @@
+package tn.esprit.studentmanagement.controllers;
+
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import tn.esprit.studentmanagement.dto.BatchItem;
+import tn.esprit.studentmanagement.entities.Course;
+import tn.esprit.studentmanagement.services.ICourseService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/courses")
+@CrossOrigin(origins = "http://localhost:4200")
+@AllArgsConstructor
+public class CourseController {
+    private ICourseService courseService;
+
+    @GetMapping("/getAllCourses")
+    public List<Course> getAllCourses() { return courseService.getAllCourses(); }
+
+    @GetMapping("/getCourse/{id}")
+    public Course getCourse(@PathVariable Long id) { return courseService.getCourseById(id); }
+
+    @GetMapping("/getCourseByCode/{code}")
+    public Course getCourseByCode(@PathVariable String code) { return courseService.getCourseByCode(code); }
+
+    @GetMapping("/searchCourses")
+    public List<Course> searchCourses(@RequestParam(required = false) String codePrefix,
+                                      @RequestParam(required = false) Integer minCredit,
+                                      @RequestParam(required = false) Integer maxCredit) {
+        return courseService.searchCourses(codePrefix, minCredit, maxCredit);
+    }
+
+    @GetMapping("/getCourses")
+    public List<BatchItem<Course>> getCourses(@RequestParam List<Long> ids) { return courseService.getCoursesByIds(ids); }
+
+    @PostMapping("/createCourse")
+    public Course createCourse(@RequestBody Course course) { return courseService.saveCourse(course); }
+
+    @PutMapping("/updateCourse")
+    public Course updateCourse(@RequestBody Course course) { return courseService.saveCourse(course); }
+
+    @DeleteMapping("/deleteCourse/{id}")
+    public void deleteCourse(@PathVariable Long id) { courseService.deleteCourse(id); }
+}
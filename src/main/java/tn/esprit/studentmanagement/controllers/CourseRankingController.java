@@ -0,0 +1,31 @@
+package tn.esprit.studentmanagement.controllers;
+
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import tn.esprit.studentmanagement.dto.CourseRank;
+import tn.esprit.studentmanagement.services.ICourseRankingService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/rankings")
+@CrossOrigin(origins = "http://localhost:4200")
+@AllArgsConstructor
+public class CourseRankingController {
+    private ICourseRankingService courseRankingService;
+
+    @GetMapping("/getTopK/{idCourse}")
+    public List<CourseRank> getTopK(@PathVariable Long idCourse, @RequestParam(defaultValue = "10") int k) {
+        return courseRankingService.getTopK(idCourse, k);
+    }
+
+    @GetMapping("/getStudentRank/{idCourse}/{idStudent}")
+    public CourseRank getStudentRank(@PathVariable Long idCourse, @PathVariable Long idStudent) {
+        return courseRankingService.getStudentRank(idCourse, idStudent);
+    }
+
+    @GetMapping("/getGradeAtPercentile/{idCourse}")
+    public double getGradeAtPercentile(@PathVariable Long idCourse, @RequestParam(defaultValue = "50") double percentile) {
+        return courseRankingService.getGradeAtPercentile(idCourse, percentile);
+    }
+}
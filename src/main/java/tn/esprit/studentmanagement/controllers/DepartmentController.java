@@ -2,6 +2,7 @@ package tn.esprit.studentmanagement.controllers;
 
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import tn.esprit.studentmanagement.dto.BulkDeleteResult;
 import tn.esprit.studentmanagement.entities.Department;
 import tn.esprit.studentmanagement.services.IDepartmentService;
 
@@ -31,4 +32,16 @@ public class DepartmentController {
     @DeleteMapping("/deleteDepartment/{id}")
     public void deleteDepartment(@PathVariable Long id) {
       departmentService.deleteDepartment(id); }
+
+    @DeleteMapping("/deleteDepartments")
+    public BulkDeleteResult deleteDepartments(@RequestParam(required = false) List<Long> ids,
+                                              @RequestParam(required = false) String location) {
+        if (ids != null && !ids.isEmpty()) {
+            return departmentService.deleteDepartments(ids);
+        }
+        if (location != null) {
+            return departmentService.deleteDepartmentsByLocation(location);
+        }
+        throw new IllegalArgumentException("Either ids or location must be provided");
+    }
 }
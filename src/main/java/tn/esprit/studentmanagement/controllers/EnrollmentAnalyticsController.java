@@ -0,0 +1,53 @@
+package tn.esprit.studentmanagement.controllers;
+
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import tn.esprit.studentmanagement.analytics.EnrollmentFilter;
+import tn.esprit.studentmanagement.dto.CourseGradeStats;
+import tn.esprit.studentmanagement.dto.GradeBin;
+import tn.esprit.studentmanagement.dto.StatusStats;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.services.IEnrollmentAnalyticsService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/analytics")
+@CrossOrigin(origins = "http://localhost:4200")
+@AllArgsConstructor
+public class EnrollmentAnalyticsController {
+    private IEnrollmentAnalyticsService enrollmentAnalyticsService;
+
+    // e.g. ?idCourse=3&statuses=COMPLETED,FAILED&from=2025-09-01&binWidth=2
+    @GetMapping("/getGradeDistribution")
+    public List<GradeBin> getGradeDistribution(
+            @RequestParam(required = false) Long idCourse,
+            @RequestParam(defaultValue = "") Set<Status> statuses,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "1") double binWidth) {
+        return enrollmentAnalyticsService.getGradeDistribution(new EnrollmentFilter(idCourse, statuses, from, to),
+                binWidth);
+    }
+
+    @GetMapping("/getStatusStats")
+    public List<StatusStats> getStatusStats(
+            @RequestParam(required = false) Long idCourse,
+            @RequestParam(defaultValue = "") Set<Status> statuses,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return enrollmentAnalyticsService.getStatusStats(new EnrollmentFilter(idCourse, statuses, from, to));
+    }
+
+    @GetMapping("/getCourseStats")
+    public List<CourseGradeStats> getCourseStats(
+            @RequestParam(required = false) Long idCourse,
+            @RequestParam(defaultValue = "") Set<Status> statuses,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return enrollmentAnalyticsService.getCourseStats(new EnrollmentFilter(idCourse, statuses, from, to));
+    }
+}
@@ -2,6 +2,7 @@ package tn.esprit.studentmanagement.controllers;
 
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import tn.esprit.studentmanagement.dto.BatchItem;
 import tn.esprit.studentmanagement.entities.Enrollment;
 import tn.esprit.studentmanagement.services.IEnrollment;
 
@@ -14,11 +15,18 @@ import java.util.List;
 public class EnrollmentController {
     IEnrollment enrollmentService;
     @GetMapping("/getAllEnrollment")
-    public List<Enrollment> getAllEnrollment() { return enrollmentService.getAllEnrollments(); }
+    public List<?> getAllEnrollment(@RequestParam(required = false) List<String> fields) {
+        return fields == null ? enrollmentService.getAllEnrollments() : enrollmentService.getAllEnrollments(fields);
+    }
 
     @GetMapping("/getEnrollment/{id}")
     public Enrollment getEnrollment(@PathVariable Long id) { return enrollmentService.getEnrollmentById(id); }
 
+    @GetMapping("/getEnrollments")
+    public List<BatchItem<Enrollment>> getEnrollments(@RequestParam List<Long> ids) {
+        return enrollmentService.getEnrollmentsByIds(ids);
+    }
+
     @PostMapping("/createEnrollment")
     public Enrollment createEnrollment(@RequestBody Enrollment enrollment) { return enrollmentService.saveEnrollment(enrollment); }
 
@@ -30,4 +38,10 @@ public class EnrollmentController {
     @DeleteMapping("/deleteEnrollment/{id}")
     public void deleteEnrollment(@PathVariable Long id) {
         enrollmentService.deleteEnrollment(id); }
+
+    @GetMapping("/getStudentEnrollments/{idStudent}")
+    public List<Enrollment> getStudentEnrollments(@PathVariable Long idStudent,
+                                                  @RequestParam(defaultValue = "false") boolean includeHistory) {
+        return enrollmentService.getEnrollmentsByStudent(idStudent, includeHistory);
+    }
 }
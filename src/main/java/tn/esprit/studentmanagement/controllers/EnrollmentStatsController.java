@@ -0,0 +1,44 @@
+package tn.esprit.studentmanagement.controllers;
+
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import tn.esprit.studentmanagement.dto.EnrollmentCount;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.jobs.EnrollmentCountBackfillJob;
+import tn.esprit.studentmanagement.services.IEnrollmentStatsService;
+import tn.esprit.studentmanagement.stats.Dimension;
+import tn.esprit.studentmanagement.stats.Granularity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/enrollmentStats")
+@CrossOrigin(origins = "http://localhost:4200")
+@AllArgsConstructor
+public class EnrollmentStatsController {
+    private IEnrollmentStatsService enrollmentStatsService;
+    private EnrollmentCountBackfillJob backfillJob;
+
+    // e.g. ?from=2025-09-01&to=2026-01-31&granularity=WEEK&groupBy=COURSE,STATUS
+    @GetMapping("/getEnrollmentCounts")
+    public List<EnrollmentCount> getEnrollmentCounts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @RequestParam(required = false) Long idCourse,
+            @RequestParam(required = false) Long idDepartment,
+            @RequestParam(required = false) Status status,
+            @RequestParam(defaultValue = "") Set<Dimension> groupBy) {
+        return enrollmentStatsService.getEnrollmentCounts(from, to, granularity, idCourse, idDepartment, status,
+                groupBy);
+    }
+
+    @PostMapping("/backfill")
+    public int backfill(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return backfillJob.backfill(from, to);
+    }
+}
@@ -0,0 +1,32 @@
+package tn.esprit.studentmanagement.controllers;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tn.esprit.studentmanagement.dto.ExportSnapshot;
+import tn.esprit.studentmanagement.dto.JobRun;
+import tn.esprit.studentmanagement.jobs.EnrollmentExportJob;
+import tn.esprit.studentmanagement.jobs.JobRuns;
+
+@RestController
+@RequestMapping("/exports")
+@CrossOrigin(origins = "http://localhost:4200")
+@AllArgsConstructor
+public class ExportController {
+    private EnrollmentExportJob enrollmentExportJob;
+    private JobRuns jobRuns;
+
+    // Runs in the background; poll getExportRun with the returned id ("full" or "delta").
+    @PostMapping("/exportEnrollments")
+    public ResponseEntity<JobRun<ExportSnapshot>> exportEnrollments(@RequestParam(defaultValue = "false") boolean full) {
+        return ResponseEntity.accepted().body(jobRuns.start(EnrollmentExportJob.JOB, full ? "full" : "delta",
+                () -> enrollmentExportJob.export(full)));
+    }
+
+    @GetMapping("/getExportRun/{id}")
+    public JobRun<?> getExportRun(@PathVariable String id) {
+        return jobRuns.find(EnrollmentExportJob.JOB, id)
+                .orElseThrow(() -> new EntityNotFoundException("Enrollment export run " + id + " not found"));
+    }
+}
@@ -0,0 +1,41 @@
+package tn.esprit.studentmanagement.controllers;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tn.esprit.studentmanagement.dto.JobRun;
+import tn.esprit.studentmanagement.dto.ReportRun;
+import tn.esprit.studentmanagement.jobs.DepartmentReportJob;
+import tn.esprit.studentmanagement.jobs.JobRuns;
+import tn.esprit.studentmanagement.jobs.ReportFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/reports")
+@CrossOrigin(origins = "http://localhost:4200")
+@AllArgsConstructor
+public class ReportController {
+    private DepartmentReportJob departmentReportJob;
+    private JobRuns jobRuns;
+
+    // Runs in the background; poll getDepartmentReportRun with the run id.
+    // Reusing a run id resumes that run: partitions already written are skipped.
+    @PostMapping("/generateDepartmentReports")
+    public ResponseEntity<JobRun<ReportRun>> generateDepartmentReports(@RequestParam(required = false) String runId,
+                                                                       @RequestParam(required = false) ReportFormat format,
+                                                                       @RequestParam(required = false) List<Long> ids) {
+        String id = DepartmentReportJob.checkRunId(runId == null ? LocalDate.now().toString() : runId);
+        List<Long> idDepartments = ids == null ? null : List.copyOf(ids);
+        return ResponseEntity.accepted().body(jobRuns.start(DepartmentReportJob.JOB, id,
+                () -> departmentReportJob.run(id, format, idDepartments)));
+    }
+
+    @GetMapping("/getDepartmentReportRun/{runId}")
+    public JobRun<?> getDepartmentReportRun(@PathVariable String runId) {
+        return jobRuns.find(DepartmentReportJob.JOB, runId)
+                .orElseThrow(() -> new EntityNotFoundException("Department report run " + runId + " not found"));
+    }
+}
@@ -2,6 +2,8 @@ package tn.esprit.studentmanagement.controllers;
 
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import tn.esprit.studentmanagement.dto.BatchItem;
+import tn.esprit.studentmanagement.dto.BulkDeleteResult;
 import tn.esprit.studentmanagement.entities.Student;
 import tn.esprit.studentmanagement.services.IStudentService;
 
@@ -15,11 +17,16 @@ public class StudentController {
 IStudentService studentService;
 
     @GetMapping("/getAllStudents")
-    public List<Student> getAllStudents() { return studentService.getAllStudents(); }
+    public List<?> getAllStudents(@RequestParam(required = false) List<String> fields) {
+        return fields == null ? studentService.getAllStudents() : studentService.getAllStudents(fields);
+    }
 
     @GetMapping("/getStudent/{id}")
     public Student getStudent(@PathVariable Long id) { return studentService.getStudentById(id); }
 
+    @GetMapping("/getStudents")
+    public List<BatchItem<Student>> getStudents(@RequestParam List<Long> ids) { return studentService.getStudentsByIds(ids); }
+
     @PostMapping("/createStudent")
     public Student createStudent(@RequestBody Student student) { return studentService.saveStudent(student); }
 
@@ -30,4 +37,16 @@ IStudentService studentService;
 
     @DeleteMapping("/deleteStudent/{id}")
     public void deleteStudent(@PathVariable Long id) { studentService.deleteStudent(id); }
+
+    @DeleteMapping("/deleteStudents")
+    public BulkDeleteResult deleteStudents(@RequestParam(required = false) List<Long> ids,
+                                           @RequestParam(required = false) Long departmentId) {
+        if (ids != null && !ids.isEmpty()) {
+            return studentService.deleteStudents(ids);
+        }
+        if (departmentId != null) {
+            return studentService.deleteStudentsByDepartment(departmentId);
+        }
+        throw new IllegalArgumentException("Either ids or departmentId must be provided");
+    }
 }
@@ -0,0 +1,25 @@
+package tn.esprit.studentmanagement.controllers;
+
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import tn.esprit.studentmanagement.dto.StudentGpa;
+import tn.esprit.studentmanagement.dto.Transcript;
+import tn.esprit.studentmanagement.services.ITranscriptService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/transcripts")
+@CrossOrigin(origins = "http://localhost:4200")
+@AllArgsConstructor
+public class TranscriptController {
+    private ITranscriptService transcriptService;
+
+    @GetMapping("/getTranscript/{idStudent}")
+    public Transcript getTranscript(@PathVariable Long idStudent) { return transcriptService.getTranscript(idStudent); }
+
+    @GetMapping("/getDepartmentGpas/{idDepartment}")
+    public List<StudentGpa> getDepartmentGpas(@PathVariable Long idDepartment) {
+        return transcriptService.getDepartmentGpas(idDepartment);
+    }
+}
@@ -0,0 +1,156 @@
+package tn.esprit.studentmanagement.dedup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.studentmanagement.bulkhead.Bulkhead;
+import tn.esprit.studentmanagement.bulkhead.Workload;
+import tn.esprit.studentmanagement.config.DedupProperties;
+import tn.esprit.studentmanagement.entities.Enrollment;
+import tn.esprit.studentmanagement.entities.Student;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.exception.DuplicateEntityException;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.repositories.StudentRepository;
+import tn.esprit.studentmanagement.seats.SeatCounters;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Pre-insert checks for the unique student email and (student, course)
+ * enrollment constraints; the latter only covers seat-holding enrollments, so
+ * a student can enroll again after failing, dropping or withdrawing. A Bloom
+ * filter miss skips the existence query, so
+ * most inserts of new keys cost no extra SELECT. The constraints stay the
+ * source of truth: a key written by another replica since the last rebuild
+ * is caught by the database instead.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(DedupProperties.class)
+public class DuplicateDetector implements MeterBinder {
+
+    private final StudentRepository studentRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final DedupProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final DuplicateKeyFilter studentEmails;
+    private final DuplicateKeyFilter enrollments;
+
+    public DuplicateDetector(StudentRepository studentRepository, EnrollmentRepository enrollmentRepository,
+                             DedupProperties properties, PlatformTransactionManager transactionManager) {
+        this.studentRepository = studentRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.studentEmails = new DuplicateKeyFilter("student-email", properties.falsePositiveRate());
+        this.enrollments = new DuplicateKeyFilter("enrollment", properties.falsePositiveRate());
+    }
+
+    public void checkStudent(Student student) {
+        String email = student.getEmail();
+        if (email == null || !studentEmails.mightContain(emailKey(email))) {
+            return;
+        }
+        if (conflicts(studentRepository.findIdsByEmail(email), student.getIdStudent(), studentEmails)) {
+            throw new DuplicateEntityException("A student with email " + email + " already exists");
+        }
+    }
+
+    public void registerStudent(Student student) {
+        if (student.getEmail() != null) {
+            studentEmails.put(emailKey(student.getEmail()));
+        }
+    }
+
+    public void checkEnrollment(Enrollment enrollment) {
+        EnrollmentState state = EnrollmentState.of(enrollment);
+        if (state.idStudent() == null || !SeatCounters.holdsSeat(state)
+                || !enrollments.mightContain(enrollmentKey(state.idStudent(), state.idCourse()))) {
+            return;
+        }
+        List<Long> ids = enrollmentRepository.findSeatHoldingIdsByStudentAndCourse(state.idStudent(),
+                state.idCourse());
+        if (conflicts(ids, state.idEnrollment(), enrollments)) {
+            throw new DuplicateEntityException("Student " + state.idStudent()
+                    + " already holds a seat in course " + state.idCourse());
+        }
+    }
+
+    public void registerEnrollment(Enrollment enrollment) {
+        EnrollmentState state = EnrollmentState.of(enrollment);
+        if (state.idStudent() != null && SeatCounters.holdsSeat(state)) {
+            enrollments.put(enrollmentKey(state.idStudent(), state.idCourse()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${dedup.rebuild-interval:PT6H}",
+            initialDelayString = "${dedup.rebuild-interval:PT6H}")
+    @Bulkhead(Workload.REPORTING)
+    public void rebuild() {
+        long start = System.nanoTime();
+        studentEmails.rebuild(capacity(studentRepository.count()), sink ->
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<String> emails = studentRepository.streamEmails()) {
+                        emails.forEach(email -> sink.accept(emailKey(email)));
+                    }
+                }));
+        enrollments.rebuild(capacity(enrollmentRepository.count()), sink ->
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<EnrollmentState> states = enrollmentRepository.streamAllStates()) {
+                        states.filter(s -> s.idStudent() != null && SeatCounters.holdsSeat(s))
+                                .forEach(s -> sink.accept(enrollmentKey(s.idStudent(), s.idCourse())));
+                    }
+                }));
+        log.info("Duplicate key filters rebuilt in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    DuplicateKeyFilter studentEmails() {
+        return studentEmails;
+    }
+
+    DuplicateKeyFilter enrollments() {
+        return enrollments;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        studentEmails.bindTo(registry);
+        enrollments.bindTo(registry);
+    }
+
+    // A row with the same key and another id is a duplicate; no row at all is a false positive.
+    private static boolean conflicts(List<Long> ids, Long ownId, DuplicateKeyFilter filter) {
+        if (ids.isEmpty()) {
+            filter.falsePositive();
+            return false;
+        }
+        return ids.stream().anyMatch(id -> !Objects.equals(id, ownId));
+    }
+
+    // Room to double before the false positive rate degrades; the periodic rebuild resizes.
+    private long capacity(long rows) {
+        return Math.max(properties.minCapacity(), rows * 2);
+    }
+
+    // MySQL compares emails case-insensitively, so the filter must too.
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static String enrollmentKey(Long idStudent, Long idCourse) {
+        return idStudent + ":" + idCourse;
+    }
+}
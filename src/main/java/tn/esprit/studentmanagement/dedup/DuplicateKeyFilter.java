@@ -0,0 +1,122 @@
+package tn.esprit.studentmanagement.dedup;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bloom filter over one kind of unique key, in front of its existence query.
+ * A miss means the key is definitely not stored and the query can be skipped;
+ * a hit only means it may be, so the caller confirms with the database and
+ * reports refuted hits through {@link #falsePositive()}. Until the first
+ * {@link #rebuild} every key counts as a possible hit.
+ */
+public class DuplicateKeyFilter implements MeterBinder {
+
+    private final String name;
+    private final double falsePositiveRate;
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public DuplicateKeyFilter(String name, double falsePositiveRate) {
+        this.name = name;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public boolean mightContain(String key) {
+        BloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        if (current.mightContain(key)) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    public void falsePositive() {
+        falsePositives.increment();
+    }
+
+    public void put(String key) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(key);
+        }
+        // Keys written while a rebuild scans the table must not be lost when it swaps in
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+    }
+
+    /**
+     * Replaces the filter with one sized for {@code capacity} keys and filled by
+     * {@code scan}. Bloom filters cannot forget keys, so rebuilding is also how
+     * deleted rows stop producing false positives.
+     */
+    public synchronized void rebuild(long capacity, Consumer<Consumer<String>> scan) {
+        BloomFilter next = new BloomFilter(capacity, falsePositiveRate);
+        building = next;
+        try {
+            scan.accept(next::put);
+            filter = next;
+        } finally {
+            building = null;
+        }
+    }
+
+    public boolean isReady() {
+        return filter != null;
+    }
+
+    /** Share of checks for absent keys that the filter wrongly reported as present. */
+    public double observedFalsePositiveRate() {
+        long refuted = falsePositives.sum();
+        long absent = refuted + misses.sum();
+        return absent == 0 ? 0 : (double) refuted / absent;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("bloom.filter.checks", misses, LongAdder::sum)
+                .description("Checks answered by the filter alone")
+                .tags("name", name, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("bloom.filter.checks", hits, LongAdder::sum)
+                .description("Checks that had to be confirmed by the database")
+                .tags("name", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("bloom.filter.false.positives", falsePositives, LongAdder::sum)
+                .description("Hits the database found no row for")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("bloom.filter.false.positive.rate", this, DuplicateKeyFilter::observedFalsePositiveRate)
+                .description("Observed false positives over checks for absent keys")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("bloom.filter.expected.false.positive.rate", this,
+                        f -> f.filter == null ? Double.NaN : f.filter.expectedFalsePositiveRate())
+                .description("False positive rate predicted from the bits currently set")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("bloom.filter.memory", this, f -> f.filter == null ? 0 : f.filter.memoryBytes())
+                .description("Size of the filter bit array")
+                .tag("name", name)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("bloom.filter.insertions", this, f -> f.filter == null ? 0 : f.filter.insertions())
+                .description("Keys added since the last rebuild")
+                .tag("name", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,5 @@
+package tn.esprit.studentmanagement.dto;
+
+/** Rows removed by a set-based delete, per table. */
+public record BulkDeleteResult(int departments, int students, int enrollments) {
+}
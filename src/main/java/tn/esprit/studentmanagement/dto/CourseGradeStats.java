@@ -0,0 +1,6 @@
+package tn.esprit.studentmanagement.dto;
+
+/** Enrollments of one course; grade figures are null when none is graded. */
+public record CourseGradeStats(Long idCourse, long enrollments, long graded, long passed, Double passRate,
+                               Double averageGrade, Double minGrade, Double maxGrade) {
+}
@@ -0,0 +1,6 @@
+package tn.esprit.studentmanagement.dto;
+
+/** Competition rank (ties share a rank) and percentile (share of strictly lower grades). */
+public record CourseRank(Long idCourse, Long idStudent, Long idEnrollment, double grade,
+                         int rank, int total, double percentile) {
+}
@@ -0,0 +1,13 @@
+package tn.esprit.studentmanagement.dto;
+
+import tn.esprit.studentmanagement.entities.Status;
+
+import java.time.LocalDate;
+
+/**
+ * Enrollments in one period, {@code period} being its first day. Course,
+ * department and status are null unless counts are broken down by them.
+ */
+public record EnrollmentCount(LocalDate period, Long idCourse, Long idDepartment, Status status,
+                              long enrollments) {
+}
@@ -0,0 +1,8 @@
+package tn.esprit.studentmanagement.dto;
+
+import java.time.LocalDateTime;
+
+/** One Arrow IPC file; {@code file} is null when nothing changed since the previous snapshot. */
+public record ExportSnapshot(long sequence, boolean full, String file, long rows, int batches,
+                             LocalDateTime watermark, long durationMs) {
+}
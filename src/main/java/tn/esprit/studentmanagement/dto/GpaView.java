@@ -0,0 +1,10 @@
+package tn.esprit.studentmanagement.dto;
+
+/** Native-query projection for credit-weighted aggregates. */
+public interface GpaView {
+    Long getIdStudent();
+    String getFirstName();
+    String getLastName();
+    Long getGradedCredits();
+    Double getGpa();
+}
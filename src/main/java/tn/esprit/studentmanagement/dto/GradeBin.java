@@ -0,0 +1,5 @@
+package tn.esprit.studentmanagement.dto;
+
+/** Graded enrollments with {@code from <= grade < to}; the last bin also holds the maximum grade. */
+public record GradeBin(double from, double to, long enrollments) {
+}
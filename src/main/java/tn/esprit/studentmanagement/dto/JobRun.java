@@ -0,0 +1,17 @@
+package tn.esprit.studentmanagement.dto;
+
+import java.time.Instant;
+
+/**
+ * A job started over HTTP: RUNNING until it ends, then SUCCEEDED with its
+ * result or FAILED with the error message.
+ */
+public record JobRun<T>(String job, String id, State state, Instant startedAt, Instant finishedAt,
+                        T result, String error) {
+
+    public enum State {
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+}
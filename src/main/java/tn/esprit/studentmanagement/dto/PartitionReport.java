@@ -0,0 +1,6 @@
+package tn.esprit.studentmanagement.dto;
+
+/** Outcome of one department × student id range partition. {@code skipped} means a checkpoint already existed. */
+public record PartitionReport(Long idDepartment, long fromId, long toId, String file,
+                              int students, long durationMs, boolean skipped, String error) {
+}
@@ -0,0 +1,8 @@
+package tn.esprit.studentmanagement.dto;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/** State of the on-demand JFR recording; {@code state} is NONE before the first one. */
+public record RecordingStatus(String state, String settings, Instant startTime, Duration duration, long size) {
+}
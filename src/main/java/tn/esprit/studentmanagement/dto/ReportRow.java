@@ -0,0 +1,8 @@
+package tn.esprit.studentmanagement.dto;
+
+import tn.esprit.studentmanagement.entities.Status;
+
+/** One student × enrollment row of a department report; enrollment columns are null for students without any. */
+public record ReportRow(Long idStudent, String firstName, String lastName, String email,
+                        String code, Integer credit, Double grade, Status status) {
+}
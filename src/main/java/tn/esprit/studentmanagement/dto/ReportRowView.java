@@ -0,0 +1,13 @@
+package tn.esprit.studentmanagement.dto;
+
+/** Native-query projection of one {@link ReportRow}. */
+public interface ReportRowView {
+    Long getIdStudent();
+    String getFirstName();
+    String getLastName();
+    String getEmail();
+    String getCode();
+    Integer getCredit();
+    Double getGrade();
+    String getStatus();
+}
@@ -0,0 +1,7 @@
+package tn.esprit.studentmanagement.dto;
+
+import java.util.List;
+
+public record ReportRun(String runId, String outputDir, int written, int skipped, int failed,
+                        long students, long durationMs, List<PartitionReport> partitions) {
+}
@@ -0,0 +1,11 @@
+package tn.esprit.studentmanagement.dto;
+
+import tn.esprit.studentmanagement.entities.Status;
+
+/**
+ * Enrollments of one status ({@code null} for rows without one). Pass rate
+ * and average only count graded enrollments and are null without any.
+ */
+public record StatusStats(Status status, long enrollments, long graded, long passed,
+                          Double passRate, Double averageGrade) {
+}
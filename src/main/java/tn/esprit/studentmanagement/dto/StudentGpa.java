@@ -0,0 +1,4 @@
+package tn.esprit.studentmanagement.dto;
+
+public record StudentGpa(Long idStudent, String firstName, String lastName, long gradedCredits, Double gpa) {
+}
@@ -0,0 +1,7 @@
+package tn.esprit.studentmanagement.dto;
+
+import java.util.List;
+
+/** GPA is the credit-weighted mean grade over COMPLETED and FAILED enrollments, {@code null} if none. */
+public record Transcript(Long idStudent, List<TranscriptLine> lines, long gradedCredits, Double gpa) {
+}
@@ -0,0 +1,9 @@
+package tn.esprit.studentmanagement.dto;
+
+import tn.esprit.studentmanagement.entities.Status;
+
+import java.time.LocalDate;
+
+public record TranscriptLine(Long idCourse, String code, String name, int credit,
+                             Double grade, Status status, LocalDate enrollmentDate) {
+}
@@ -0,0 +1,14 @@
+package tn.esprit.studentmanagement.dto;
+
+import java.time.LocalDate;
+
+/** Native-query projection of one transcript row. */
+public interface TranscriptLineView {
+    Long getIdCourse();
+    String getCode();
+    String getName();
+    Integer getCredit();
+    Double getGrade();
+    String getStatus();
+    LocalDate getEnrollmentDate();
+}
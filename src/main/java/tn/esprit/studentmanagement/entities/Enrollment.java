@@ -5,6 +5,7 @@ import lombok.*;
 
 import java.time.LocalDate;
 
+// At most one seat-holding enrollment per student and course: unique index on a generated column (V6)
 @Entity
 @Getter
 @Setter
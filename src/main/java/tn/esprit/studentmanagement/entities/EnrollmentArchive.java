@@ -0,0 +1,49 @@
+package tn.esprit.studentmanagement.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "enrollment_archive")
+@IdClass(EnrollmentArchive.ArchiveId.class)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class EnrollmentArchive {
+    @Id
+    private Long idEnrollment;
+    @Id
+    private LocalDate enrollmentDate;
+    private Double grade;
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @ManyToOne
+    @JoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Student student;
+
+    @ManyToOne
+    @JoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Course course;
+
+    private LocalDate archivedAt;
+
+    public Enrollment toEnrollment() {
+        return new Enrollment(idEnrollment, enrollmentDate, grade, status, student, course);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class ArchiveId implements Serializable {
+        private Long idEnrollment;
+        private LocalDate enrollmentDate;
+    }
+}
@@ -0,0 +1,42 @@
+package tn.esprit.studentmanagement.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "enrollment_daily_count")
+@IdClass(EnrollmentDailyCount.BucketId.class)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class EnrollmentDailyCount {
+    public static final long NONE = 0L;   // pas de cours / pas de département
+
+    @Id
+    private LocalDate bucketDate;
+    @Id
+    private Long idCourse;
+    @Id
+    private Long idDepartment;
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Status status;
+    private long enrollments;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class BucketId implements Serializable {
+        private LocalDate bucketDate;
+        private Long idCourse;
+        private Long idDepartment;
+        private Status status;
+    }
+}
@@ -8,6 +8,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_student_email", columnNames = "email"))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -0,0 +1,5 @@
+package tn.esprit.studentmanagement.events;
+
+/** Published after an existing course was updated or deleted. */
+public record CourseChangedEvent(Long idCourse) {
+}
@@ -0,0 +1,11 @@
+package tn.esprit.studentmanagement.events;
+
+import java.util.Collection;
+
+/**
+ * Published after a set-based delete removed every student of these
+ * departments and all their enrollments. The student ids are never loaded,
+ * so listeners drop whatever they hold for the departments' students as a whole.
+ */
+public record DepartmentStudentsDeletedEvent(Collection<Long> idDepartments) {
+}
@@ -0,0 +1,26 @@
+package tn.esprit.studentmanagement.events;
+
+import java.util.Objects;
+
+/**
+ * Published by the enrollment service after a write. {@code before} is null
+ * for a creation, {@code after} is null for a deletion.
+ */
+public record EnrollmentChangedEvent(EnrollmentState before, EnrollmentState after) {
+
+    public boolean isCreate() { return before == null && after != null; }
+
+    public boolean isDelete() { return before != null && after == null; }
+
+    /** True when a field that shows up on a transcript differs between both states. */
+    public boolean affectsTranscript() {
+        if (before == null || after == null) {
+            return true;
+        }
+        return !Objects.equals(before.idStudent(), after.idStudent())
+                || !Objects.equals(before.idCourse(), after.idCourse())
+                || !Objects.equals(before.grade(), after.grade())
+                || before.status() != after.status()
+                || !Objects.equals(before.enrollmentDate(), after.enrollmentDate());
+    }
+}
@@ -0,0 +1,7 @@
+package tn.esprit.studentmanagement.events;
+
+import java.time.LocalDate;
+
+/** First and last enrollment dates of a set of enrollments, both null when none has a date. */
+public record EnrollmentDays(LocalDate first, LocalDate last) {
+}
@@ -0,0 +1,18 @@
+package tn.esprit.studentmanagement.events;
+
+import tn.esprit.studentmanagement.entities.Enrollment;
+import tn.esprit.studentmanagement.entities.Status;
+
+import java.time.LocalDate;
+
+/** Immutable copy of the persisted fields of an {@link Enrollment}. */
+public record EnrollmentState(Long idEnrollment, Long idStudent, Long idCourse,
+                              Double grade, Status status, LocalDate enrollmentDate) {
+
+    public static EnrollmentState of(Enrollment enrollment) {
+        return new EnrollmentState(enrollment.getIdEnrollment(),
+                enrollment.getStudent() == null ? null : enrollment.getStudent().getIdStudent(),
+                enrollment.getCourse() == null ? null : enrollment.getCourse().getIdCourse(),
+                enrollment.getGrade(), enrollment.getStatus(), enrollment.getEnrollmentDate());
+    }
+}
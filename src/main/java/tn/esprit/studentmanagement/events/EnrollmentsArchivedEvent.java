@@ -0,0 +1,7 @@
+package tn.esprit.studentmanagement.events;
+
+import java.util.List;
+
+/** Published after enrollments were moved from the hot table to {@code enrollment_archive}. */
+public record EnrollmentsArchivedEvent(List<EnrollmentState> archived) {
+}
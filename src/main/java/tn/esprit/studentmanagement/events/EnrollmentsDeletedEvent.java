@@ -0,0 +1,22 @@
+package tn.esprit.studentmanagement.events;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Published after a set-based delete removed enrollments, hot or archived,
+ * dated from {@code first} to {@code last}.
+ */
+public record EnrollmentsDeletedEvent(LocalDate first, LocalDate last) {
+
+    /** The event spanning all the given days, or empty when none of them holds a date. */
+    public static Optional<EnrollmentsDeletedEvent> spanning(Collection<EnrollmentDays> days) {
+        LocalDate first = days.stream().map(EnrollmentDays::first).filter(Objects::nonNull)
+                .min(LocalDate::compareTo).orElse(null);
+        LocalDate last = days.stream().map(EnrollmentDays::last).filter(Objects::nonNull)
+                .max(LocalDate::compareTo).orElse(null);
+        return first == null ? Optional.empty() : Optional.of(new EnrollmentsDeletedEvent(first, last));
+    }
+}
@@ -0,0 +1,5 @@
+package tn.esprit.studentmanagement.events;
+
+/** Seats held in one course by a set of enrollments. */
+public record SeatCount(Long idCourse, long seats) {
+}
@@ -0,0 +1,10 @@
+package tn.esprit.studentmanagement.events;
+
+import java.util.List;
+
+/**
+ * Published after a set-based delete removed seat-holding enrollments. A
+ * course may appear more than once, one entry per shard.
+ */
+public record SeatsReleasedEvent(List<SeatCount> released) {
+}
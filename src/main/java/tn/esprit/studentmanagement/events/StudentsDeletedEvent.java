@@ -0,0 +1,7 @@
+package tn.esprit.studentmanagement.events;
+
+import java.util.Collection;
+
+/** Published after a set-based delete removed these students and all their enrollments. */
+public record StudentsDeletedEvent(Collection<Long> idStudents) {
+}
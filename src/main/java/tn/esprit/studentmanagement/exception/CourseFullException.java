@@ -0,0 +1,8 @@
+package tn.esprit.studentmanagement.exception;
+
+public class CourseFullException extends RuntimeException {
+
+    public CourseFullException(Long idCourse) {
+        super("Course " + idCourse + " has no seat left");
+    }
+}
@@ -0,0 +1,8 @@
+package tn.esprit.studentmanagement.exception;
+
+public class DuplicateEntityException extends RuntimeException {
+
+    public DuplicateEntityException(String message) {
+        super(message);
+    }
+}
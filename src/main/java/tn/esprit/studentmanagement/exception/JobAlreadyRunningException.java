@@ -0,0 +1,8 @@
+package tn.esprit.studentmanagement.exception;
+
+public class JobAlreadyRunningException extends RuntimeException {
+
+    public JobAlreadyRunningException(String job, String id) {
+        super(job + " run " + id + " is already running");
+    }
+}
@@ -0,0 +1,107 @@
+package tn.esprit.studentmanagement.filters;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import tn.esprit.studentmanagement.exception.ServiceOverloadedException;
+import tn.esprit.studentmanagement.warmup.WarmupRequests;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sheds load in front of the controllers with separate adaptive limits for
+ * read (GET/HEAD) and write requests. Rejections are rendered as 503 with a
+ * {@code Retry-After} header by {@link tn.esprit.studentmanagement.exception.GlobalExceptionHandler}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdaptiveConcurrencyFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private final AimdLimiter readLimiter;
+    private final AimdLimiter writeLimiter;
+    private final boolean enabled;
+    private final long retryAfterSeconds;
+    private final HandlerExceptionResolver exceptionResolver;
+
+    public AdaptiveConcurrencyFilter(
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+            @Value("${limits.concurrency.enabled:true}") boolean enabled,
+            @Value("${limits.concurrency.read.initial:40}") int readInitial,
+            @Value("${limits.concurrency.read.max:150}") int readMax,
+            @Value("${limits.concurrency.write.initial:10}") int writeInitial,
+            @Value("${limits.concurrency.write.max:40}") int writeMax,
+            @Value("${limits.concurrency.min:2}") int minLimit,
+            @Value("${limits.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${limits.concurrency.latency-threshold:500ms}") Duration latencyThreshold,
+            @Value("${limits.concurrency.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.exceptionResolver = exceptionResolver;
+        this.enabled = enabled;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.readLimiter = new AimdLimiter(readInitial, minLimit, readMax, backoffRatio, latencyThreshold.toNanos());
+        this.writeLimiter = new AimdLimiter(writeInitial, minLimit, writeMax, backoffRatio, latencyThreshold.toNanos());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || request.getServletPath().startsWith("/actuator") || WarmupRequests.isWarmup(request);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        AimdLimiter limiter = isRead(request) ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            exceptionResolver.resolveException(request, response, null,
+                    new ServiceOverloadedException("Server is at capacity, retry later", retryAfterSeconds));
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        for (Map.Entry<String, AimdLimiter> entry : Map.of("read", readLimiter, "write", writeLimiter).entrySet()) {
+            AimdLimiter limiter = entry.getValue();
+            Gauge.builder("http.server.concurrency.limit", limiter, AimdLimiter::getLimit)
+                    .tag("class", entry.getKey())
+                    .description("Current adaptive concurrency limit")
+                    .register(registry);
+            Gauge.builder("http.server.concurrency.inflight", limiter, AimdLimiter::getInFlight)
+                    .tag("class", entry.getKey())
+                    .description("Requests currently admitted by the limiter")
+                    .register(registry);
+            FunctionCounter.builder("http.server.concurrency.rejected", limiter, AimdLimiter::getRejected)
+                    .tag("class", entry.getKey())
+                    .description("Requests shed because the limit was reached")
+                    .register(registry);
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+}
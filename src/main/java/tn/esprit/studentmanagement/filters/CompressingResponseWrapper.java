@@ -0,0 +1,253 @@
+package tn.esprit.studentmanagement.filters;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.function.Predicate;
+
+/**
+ * Holds the body back until it exceeds the threshold or the response
+ * completes, then either sends it as is or switches to the encoder. The
+ * declared content length is only forwarded for uncompressed bodies.
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    @FunctionalInterface
+    interface Encoder {
+        OutputStream wrap(OutputStream out) throws IOException;
+    }
+
+    private final int threshold;
+    private final Predicate<String> compressible;
+    private final Encoder encoder;
+    private final String encoding;
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private OutputStream target;
+    private boolean compressing;
+    private boolean bypassed;
+    private long contentLength = -1;
+    private ServletOutputStream stream;
+    private PrintWriter writer;
+
+    CompressingResponseWrapper(HttpServletResponse response, int threshold, Predicate<String> compressible,
+                               Encoder encoder, String encoding) {
+        super(response);
+        this.threshold = threshold;
+        this.compressible = compressible;
+        this.encoder = encoder;
+        this.encoding = encoding;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (stream == null) {
+            stream = new BufferingStream();
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(new BufferingStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (target == null) {
+            contentLength = len;
+        } else if (!compressing) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (target == null && buffer != null) {
+            decide(false);
+        }
+        if (target != null) {
+            target.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (target == null && buffer != null) {
+            buffer.reset();
+        }
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        if (target == null && buffer != null) {
+            buffer.reset();
+            contentLength = -1;
+        }
+        super.reset();
+    }
+
+    // Error pages are rendered by a later dispatch, straight to the response.
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        bypassed = true;
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        bypassed = true;
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        bypassed = true;
+        super.sendRedirect(location);
+    }
+
+    /** Sends what is still buffered and terminates the encoded stream. */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (bypassed) {
+            return;
+        }
+        if (target == null) {
+            if (buffer.size() == 0 && contentLength < 0) {
+                return;
+            }
+            decide(false);
+        }
+        if (compressing) {
+            target.close();
+        } else {
+            target.flush();
+        }
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+        if (target != null) {
+            target.write(bytes, offset, length);
+            return;
+        }
+        buffer.write(bytes, offset, length);
+        if (buffer.size() > threshold) {
+            decide(true);
+        }
+    }
+
+    private void decide(boolean large) throws IOException {
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        compressing = large && compressible.test(getContentType())
+                && response.getHeader(HttpHeaders.CONTENT_ENCODING) == null;
+        if (compressing) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+            target = encoder.wrap(response.getOutputStream());
+        } else {
+            if (contentLength >= 0) {
+                response.setContentLengthLong(contentLength);
+            } else if (!large) {
+                response.setContentLength(buffer.size());
+            }
+            target = response.getOutputStream();
+        }
+        buffer.writeTo(target);
+        buffer = null;
+    }
+
+    private final class BufferingStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            CompressingResponseWrapper.this.write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            CompressingResponseWrapper.this.write(bytes, offset, length);
+        }
+
+        // Converters flush once they are done; the decision waits for the threshold or finish().
+        @Override
+        public void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            if (target == null || compressing) {
+                return true;
+            }
+            try {
+                return getResponse().getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        // Non-blocking writers bypass the encoder: what is buffered goes out as is.
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                if (target == null) {
+                    decide(false);
+                }
+                if (compressing) {
+                    throw new IllegalStateException("Non-blocking writes requested after compression started");
+                }
+                getResponse().getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package tn.esprit.studentmanagement.filters;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tn.esprit.studentmanagement.config.CompressionProperties;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses responses of {@code compression.mime-types} with zstd or gzip,
+ * whichever of {@code compression.encodings} comes first among those the
+ * client accepts. Bodies are buffered up to {@code compression.min-response-size}:
+ * smaller ones are sent as is, with their length, larger ones are streamed
+ * through the encoder. Async requests are finished when their async context
+ * completes; non-blocking writes are sent uncompressed.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@EnableConfigurationProperties(CompressionProperties.class)
+public class CompressionFilter extends OncePerRequestFilter {
+
+    private final CompressionProperties properties;
+    private final List<MediaType> mimeTypes;
+
+    public CompressionFilter(CompressionProperties properties) {
+        this.properties = properties;
+        this.mimeTypes = properties.mimeTypes().stream().map(MediaType::parseMediaType).toList();
+        for (String encoding : properties.encodings()) {
+            if (!List.of("zstd", "gzip").contains(encoding)) {
+                throw new IllegalArgumentException("Unsupported content coding " + encoding);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.enabled() || "HEAD".equals(request.getMethod())
+                || negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING)) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String encoding = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response,
+                (int) properties.minResponseSize().toBytes(), this::isCompressible,
+                out -> encoder(encoding, out), encoding);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // The body is written by the async dispatch, which this filter skips.
+                request.getAsyncContext().addListener(new FinishOnComplete(wrapper));
+            } else {
+                wrapper.finish();
+            }
+        }
+    }
+
+    private record FinishOnComplete(CompressingResponseWrapper wrapper) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException {
+            wrapper.finish();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /** Preferred encoding the client accepts with a non-zero quality, or null. */
+    String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        Map<String, Double> accepted = new HashMap<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            double quality = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            accepted.put(tokens[0].trim().toLowerCase(Locale.ROOT), quality);
+        }
+        for (String encoding : properties.encodings()) {
+            double quality = accepted.getOrDefault(encoding, accepted.getOrDefault("*", 0.0));
+            if (quality > 0) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType type = MediaType.parseMediaType(contentType);
+        return mimeTypes.stream().anyMatch(mimeType -> mimeType.includes(type));
+    }
+
+    private OutputStream encoder(String encoding, OutputStream out) throws IOException {
+        return switch (encoding) {
+            case "zstd" -> new ZstdOutputStream(out, properties.zstdLevel());
+            case "gzip" -> new GZIPOutputStream(out, 8192);
+            default -> throw new IllegalStateException("Unsupported content coding " + encoding);
+        };
+    }
+}
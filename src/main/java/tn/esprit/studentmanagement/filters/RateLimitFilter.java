@@ -0,0 +1,100 @@
+package tn.esprit.studentmanagement.filters;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import tn.esprit.studentmanagement.config.RateLimitProperties;
+import tn.esprit.studentmanagement.exception.RateLimitExceededException;
+import tn.esprit.studentmanagement.warmup.WarmupRequests;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client, per-route rate limiting. The client is identified by the
+ * configured API key header when the key is one of {@code ratelimit.api-keys},
+ * otherwise by the remote address: rotating made-up keys does not buy new
+ * buckets. Only the first route whose pattern matches applies.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final List<CompiledRoute> routes;
+    private final RateLimiterRegistry registry;
+    private final HandlerExceptionResolver exceptionResolver;
+
+    public RateLimitFilter(RateLimitProperties properties,
+                           @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        this.properties = properties;
+        this.exceptionResolver = exceptionResolver;
+        this.registry = new RateLimiterRegistry(properties.maxClients(), properties.stripes());
+        this.routes = properties.routes().stream()
+                .map(r -> new CompiledRoute(r, PathPatternParser.defaultInstance.parse(r.pattern())))
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.enabled() || routes.isEmpty()
+                || UrlPathHelper.defaultInstance.getPathWithinApplication(request).startsWith("/actuator")
+                || WarmupRequests.isWarmup(request);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        CompiledRoute route = match(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+        if (route != null) {
+            long now = System.nanoTime();
+            RateLimitProperties.Route limit = route.route();
+            TokenBucket bucket = registry.bucket(limit.name(), clientId(request),
+                    limit.capacity(), limit.refillPerSecond(), now);
+            if (!bucket.tryConsume(now)) {
+                long retryAfter = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(bucket.nanosUntilAvailable(now) + 999_999_999L));
+                exceptionResolver.resolveException(request, response, null, new RateLimitExceededException(
+                        "Rate limit exceeded for route " + limit.name(), retryAfter));
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    public RateLimiterRegistry getRegistry() { return registry; }
+
+    private CompiledRoute match(String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (CompiledRoute route : routes) {
+            if (route.pattern().matches(container)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String apiKey = request.getHeader(properties.clientHeader());
+        return apiKey != null && properties.apiKeys().contains(apiKey)
+                ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private record CompiledRoute(RateLimitProperties.Route route, PathPattern pattern) {
+    }
+}
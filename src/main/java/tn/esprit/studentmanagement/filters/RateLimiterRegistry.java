@@ -0,0 +1,72 @@
+package tn.esprit.studentmanagement.filters;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, striped map of token buckets keyed by route and client. Each stripe
+ * is bounded on its own and evicts idle (full) buckets when it overflows, so
+ * unrelated clients never contend on the same sweep. When a stripe is still
+ * full after the sweep, the bucket closest to full is replaced: it carries the
+ * least state (it would be idle soonest), whereas a client that is actually
+ * being throttled keeps its bucket. Every client always gets its own bucket.
+ */
+public class RateLimiterRegistry {
+
+    private final ConcurrentHashMap<String, TokenBucket>[] stripes;
+    private final int maxPerStripe;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    public RateLimiterRegistry(int maxClients, int stripeCount) {
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ConcurrentHashMap[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.mask = size - 1;
+        this.maxPerStripe = Math.max(1, maxClients / size);
+    }
+
+    public TokenBucket bucket(String route, String client, int capacity, double refillPerSecond, long nowNanos) {
+        String key = route + '|' + client;
+        ConcurrentHashMap<String, TokenBucket> stripe = stripes[spread(key.hashCode()) & mask];
+        TokenBucket bucket = stripe.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.size() >= maxPerStripe) {
+            stripe.values().removeIf(b -> b.isIdle(nowNanos));
+            if (stripe.size() >= maxPerStripe) {
+                evictNearestToIdle(stripe, nowNanos);
+            }
+        }
+        return stripe.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerSecond, nowNanos));
+    }
+
+    public int size() {
+        int total = 0;
+        for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+            total += stripe.size();
+        }
+        return total;
+    }
+
+    private static void evictNearestToIdle(ConcurrentHashMap<String, TokenBucket> stripe, long nowNanos) {
+        String victim = null;
+        long victimNanos = Long.MAX_VALUE;
+        for (var entry : stripe.entrySet()) {
+            long nanos = entry.getValue().nanosUntilIdle(nowNanos);
+            if (nanos < victimNanos) {
+                victim = entry.getKey();
+                victimNanos = nanos;
+            }
+        }
+        if (victim != null) {
+            stripe.remove(victim);
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
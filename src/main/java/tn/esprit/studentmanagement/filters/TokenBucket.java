@@ -0,0 +1,51 @@
+package tn.esprit.studentmanagement.filters;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm: the
+ * whole state is a single "theoretical arrival time" updated with CAS.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refillPerSecond must be positive");
+        }
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    public boolean tryConsume(long nowNanos) {
+        for (;;) {
+            long tat = theoreticalArrival.get();
+            long next = (tat - nowNanos > 0 ? tat : nowNanos) + intervalNanos;
+            if (next - nowNanos > burstNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    /** Time until one more token becomes available, zero if one is available now. */
+    public long nanosUntilAvailable(long nowNanos) {
+        return Math.max(0L, theoreticalArrival.get() + intervalNanos - burstNanos - nowNanos);
+    }
+
+    /** Time until the bucket is full again, zero if it already is. */
+    public long nanosUntilIdle(long nowNanos) {
+        return Math.max(0L, theoreticalArrival.get() - nowNanos);
+    }
+
+    /** A full bucket behaves exactly like a fresh one, so it can be dropped. */
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,255 @@
+package tn.esprit.studentmanagement.jobs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.studentmanagement.bulkhead.Bulkhead;
+import tn.esprit.studentmanagement.bulkhead.Workload;
+import tn.esprit.studentmanagement.bulkhead.WorkloadContext;
+import tn.esprit.studentmanagement.config.ReportProperties;
+import tn.esprit.studentmanagement.dto.PartitionReport;
+import tn.esprit.studentmanagement.dto.ReportRow;
+import tn.esprit.studentmanagement.dto.ReportRowView;
+import tn.esprit.studentmanagement.dto.ReportRun;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.exception.JobAlreadyRunningException;
+import tn.esprit.studentmanagement.repositories.DepartmentRepository;
+import tn.esprit.studentmanagement.repositories.StudentRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Writes end-of-term department reports. Work is split into partitions of
+ * one department and one aligned student id range; each partition streams its
+ * rows in its own read-only transaction on a fixed-size pool and writes one
+ * file. A partition file is written to a temporary name and atomically renamed
+ * when complete, so an existing file is the checkpoint: running again with the
+ * same run id only redoes the partitions that are missing. Two runs with the
+ * same id never overlap on one instance, since they would write the same
+ * temporary files. As on the transcript, archived enrollments are included.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ReportProperties.class)
+public class DepartmentReportJob implements MeterBinder {
+
+    public static final String JOB = "department-report";
+    private static final Pattern RUN_ID = Pattern.compile("[A-Za-z0-9._-]+");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DepartmentRepository departmentRepository;
+    private final StudentRepository studentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReportProperties properties;
+    private final Set<String> activeRuns = ConcurrentHashMap.newKeySet();
+    private volatile MeterRegistry meterRegistry = new CompositeMeterRegistry();
+
+    public DepartmentReportJob(DepartmentRepository departmentRepository,
+                               StudentRepository studentRepository,
+                               PlatformTransactionManager transactionManager,
+                               ReportProperties properties) {
+        this.departmentRepository = departmentRepository;
+        this.studentRepository = studentRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    record Partition(Long idDepartment, long fromId, long toId) {
+    }
+
+    /** Rejects run ids that are not a plain directory name, so a run cannot write outside the output dir. */
+    public static String checkRunId(String runId) {
+        if (runId == null || !RUN_ID.matcher(runId).matches()) {
+            throw new IllegalArgumentException("runId must match " + RUN_ID.pattern());
+        }
+        return runId;
+    }
+
+    @Bulkhead(Workload.REPORTING)
+    public ReportRun run(String runId, ReportFormat format, Collection<Long> idDepartments) {
+        checkRunId(runId);
+        if (!activeRuns.add(runId)) {
+            throw new JobAlreadyRunningException(JOB, runId);
+        }
+        try {
+            return runPartitions(runId, format, idDepartments);
+        } finally {
+            activeRuns.remove(runId);
+        }
+    }
+
+    private ReportRun runPartitions(String runId, ReportFormat format, Collection<Long> idDepartments) {
+        ReportFormat effectiveFormat = format == null ? properties.format() : format;
+        Path runDir = properties.outputDir().resolve(runId);
+        long start = System.nanoTime();
+
+        List<Partition> partitions = partitions(idDepartments == null || idDepartments.isEmpty()
+                ? departmentRepository.findAllIds() : idDepartments);
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, properties.parallelism()), task -> {
+            Thread thread = new Thread(task, "department-report-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<PartitionReport> results;
+        Workload workload = WorkloadContext.current();
+        try {
+            List<CompletableFuture<PartitionReport>> futures = partitions.stream()
+                    .map(partition -> CompletableFuture.supplyAsync(() -> WorkloadContext.callAs(workload,
+                            () -> process(partition, runDir, effectiveFormat)), pool))
+                    .toList();
+            results = futures.stream().map(CompletableFuture::join).toList();
+        } finally {
+            pool.shutdown();
+        }
+
+        int written = 0;
+        int skipped = 0;
+        int failed = 0;
+        long students = 0;
+        for (PartitionReport result : results) {
+            if (result.error() != null) {
+                failed++;
+            } else if (result.skipped()) {
+                skipped++;
+            } else {
+                written++;
+                students += result.students();
+            }
+        }
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Report run {}: {} partitions written, {} skipped, {} failed, {} students in {} ms",
+                runId, written, skipped, failed, students, durationMs);
+        return new ReportRun(runId, runDir.toString(), written, skipped, failed, students, durationMs, results);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+    }
+
+    List<Partition> partitions(Collection<Long> idDepartments) {
+        long size = Math.max(1, properties.partitionSize());
+        List<Partition> partitions = new ArrayList<>();
+        for (Long idDepartment : idDepartments) {
+            // Ranges are aligned on multiples of the partition size so that a rerun
+            // produces the same partitions, and therefore the same checkpoint files.
+            SortedSet<Long> buckets = new TreeSet<>();
+            for (Long idStudent : studentRepository.findIdsByDepartmentId(idDepartment)) {
+                buckets.add(idStudent / size);
+            }
+            for (Long bucket : buckets) {
+                partitions.add(new Partition(idDepartment, bucket * size, bucket * size + size - 1));
+            }
+        }
+        return partitions;
+    }
+
+    private PartitionReport process(Partition partition, Path runDir, ReportFormat format) {
+        Path target = runDir.resolve("department-" + partition.idDepartment())
+                .resolve("students-" + partition.fromId() + "-" + partition.toId() + "." + format.extension());
+        if (Files.exists(target)) {
+            return new PartitionReport(partition.idDepartment(), partition.fromId(), partition.toId(),
+                    target.toString(), 0, 0, true, null);
+        }
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            int students = write(partition, target, format);
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            log.debug("Report partition {} written: {} students in {} ms", target, students, durationMs);
+            return new PartitionReport(partition.idDepartment(), partition.fromId(), partition.toId(),
+                    target.toString(), students, durationMs, false, null);
+        } catch (RuntimeException | IOException ex) {
+            outcome = "failure";
+            log.warn("Report partition {} failed", target, ex);
+            return new PartitionReport(partition.idDepartment(), partition.fromId(), partition.toId(),
+                    target.toString(), 0, (System.nanoTime() - start) / 1_000_000, false, ex.getMessage());
+        } finally {
+            Timer.builder("report.partition.duration")
+                    .description("Time to query and write one department report partition")
+                    .tag("format", format.extension())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private int write(Partition partition, Path target, ReportFormat format) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        int students;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+            try (ReportWriter writer = ReportWriter.open(format, out)) {
+                students = readOnlyTransaction.execute(status -> stream(partition, writer));
+            }
+            out.flush();
+            channel.force(false);
+        } catch (RuntimeException | IOException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return students;
+    }
+
+    private int stream(Partition partition, ReportWriter writer) {
+        int students = 0;
+        try (Stream<ReportRow> rows = studentRepository.streamReportRows(
+                partition.idDepartment(), partition.fromId(), partition.toId()).map(DepartmentReportJob::row)) {
+            // Rows are ordered by student, so one student is folded and written at a time.
+            StudentReport current = null;
+            for (Iterator<ReportRow> it = rows.iterator(); it.hasNext(); ) {
+                ReportRow row = it.next();
+                if (current == null || !current.idStudent.equals(row.idStudent())) {
+                    if (current != null) {
+                        writer.write(current);
+                    }
+                    current = new StudentReport(row);
+                    students++;
+                }
+                current.add(row);
+            }
+            if (current != null) {
+                writer.write(current);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return students;
+    }
+
+    private static ReportRow row(ReportRowView view) {
+        return new ReportRow(view.getIdStudent(), view.getFirstName(), view.getLastName(), view.getEmail(),
+                view.getCode(), view.getCredit(), view.getGrade(),
+                view.getStatus() == null ? null : Status.valueOf(view.getStatus()));
+    }
+}
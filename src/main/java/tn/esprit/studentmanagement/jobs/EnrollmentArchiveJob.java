@@ -0,0 +1,86 @@
+package tn.esprit.studentmanagement.jobs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tn.esprit.studentmanagement.bulkhead.Bulkhead;
+import tn.esprit.studentmanagement.bulkhead.Workload;
+import tn.esprit.studentmanagement.config.ArchiveProperties;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.events.EnrollmentsArchivedEvent;
+import tn.esprit.studentmanagement.repositories.EnrollmentArchiveRepository;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.sharding.ShardTransactions;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Moves enrollments in a terminal status older than {@code archive.min-age}
+ * from {@code enrollment} to {@code enrollment_archive}, one chunk per
+ * transaction. Chunks are selected with SKIP LOCKED so both replicas can run
+ * the job at the same time without moving the same rows. With sharding, each
+ * shard archives its own rows, every chunk in a transaction on that shard.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class EnrollmentArchiveJob {
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final EnrollmentArchiveRepository archiveRepository;
+    private final ShardTransactions shardTransactions;
+    private final ArchiveProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EnrollmentArchiveJob(EnrollmentRepository enrollmentRepository,
+                                EnrollmentArchiveRepository archiveRepository,
+                                ShardTransactions shardTransactions,
+                                ArchiveProperties properties,
+                                ApplicationEventPublisher eventPublisher) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.archiveRepository = archiveRepository;
+        this.shardTransactions = shardTransactions;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(cron = "${archive.cron:0 30 2 * * *}")
+    @Bulkhead(Workload.BULK_WRITE)
+    public void run() {
+        archive(LocalDate.now());
+    }
+
+    @Bulkhead(Workload.BULK_WRITE)
+    public int archive(LocalDate today) {
+        LocalDate cutoff = today.minus(properties.minAge());
+        int total = 0;
+        for (int shard : shardTransactions.shards()) {
+            int moved;
+            do {
+                moved = shardTransactions.inTransactionOn(shard, () -> archiveChunk(cutoff, today));
+                total += moved;
+            } while (moved == properties.chunkSize());
+        }
+        log.info("Archived {} enrollments older than {}", total, cutoff);
+        return total;
+    }
+
+    private int archiveChunk(LocalDate cutoff, LocalDate today) {
+        List<Long> ids = enrollmentRepository.findArchivableIds(
+                properties.statuses(), cutoff, PageRequest.of(0, properties.chunkSize()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<EnrollmentState> archived = enrollmentRepository.findStatesByIds(ids);
+        archiveRepository.copyFromEnrollments(ids, today);
+        enrollmentRepository.deleteByIds(ids);
+        eventPublisher.publishEvent(new EnrollmentsArchivedEvent(archived));
+        return ids.size();
+    }
+}
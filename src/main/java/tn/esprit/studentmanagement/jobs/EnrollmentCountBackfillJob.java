@@ -0,0 +1,104 @@
+package tn.esprit.studentmanagement.jobs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tn.esprit.studentmanagement.bulkhead.Bulkhead;
+import tn.esprit.studentmanagement.bulkhead.Workload;
+import tn.esprit.studentmanagement.config.StatsProperties;
+import tn.esprit.studentmanagement.events.EnrollmentsDeletedEvent;
+import tn.esprit.studentmanagement.repositories.EnrollmentDailyCountRepository;
+import tn.esprit.studentmanagement.services.EnrollmentStatsService;
+import tn.esprit.studentmanagement.sharding.ShardTransactions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recomputes the daily enrollment buckets of a date range from the hot and
+ * archived enrollment rows, {@code stats.backfill-chunk-days} days per
+ * transaction. The nightly run covers the last {@code stats.backfill-window}.
+ * With sharding, each shard recounts its own rows in transactions on that shard.
+ * Chunks run on the writer of {@link EnrollmentStatsService}, so they do not
+ * interleave with the incremental moves of this instance. The days of the rows
+ * removed by a set-based delete are recounted the same way, whatever their age.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(StatsProperties.class)
+public class EnrollmentCountBackfillJob {
+
+    private final EnrollmentDailyCountRepository dailyCountRepository;
+    private final ShardTransactions shardTransactions;
+    private final EnrollmentStatsService statsService;
+    private final StatsProperties properties;
+
+    public EnrollmentCountBackfillJob(EnrollmentDailyCountRepository dailyCountRepository,
+                                      ShardTransactions shardTransactions,
+                                      EnrollmentStatsService statsService,
+                                      StatsProperties properties) {
+        this.dailyCountRepository = dailyCountRepository;
+        this.shardTransactions = shardTransactions;
+        this.statsService = statsService;
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${stats.backfill-cron:0 0 3 * * *}")
+    @Bulkhead(Workload.BULK_WRITE)
+    public void run() {
+        LocalDate today = LocalDate.now();
+        backfill(today.minus(properties.backfillWindow()), today);
+    }
+
+    /** Returns the number of buckets written between {@code from} and {@code to}, both included. */
+    @Bulkhead(Workload.BULK_WRITE)
+    public int backfill(LocalDate from, LocalDate to) {
+        long start = System.nanoTime();
+        int buckets = 0;
+        for (Chunk chunk : chunks(from, to)) {
+            buckets += statsService.recount(chunk.first(), chunk.last(),
+                    () -> recountOnShards(chunk.first(), chunk.last()));
+        }
+        log.info("Enrollment counts from {} to {} backfilled: {} buckets in {} ms", from, to, buckets,
+                (System.nanoTime() - start) / 1_000_000);
+        return buckets;
+    }
+
+    // Set-based deletes do not move the buckets: their days are recounted, off the committing thread.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentsDeleted(EnrollmentsDeletedEvent event) {
+        for (Chunk chunk : chunks(event.first(), event.last())) {
+            statsService.recountLater(chunk.first(), chunk.last(),
+                    () -> recountOnShards(chunk.first(), chunk.last()));
+        }
+    }
+
+    private List<Chunk> chunks(LocalDate from, LocalDate to) {
+        List<Chunk> chunks = new ArrayList<>();
+        for (LocalDate first = from; !first.isAfter(to); first = first.plusDays(properties.backfillChunkDays())) {
+            chunks.add(new Chunk(first, min(first.plusDays(properties.backfillChunkDays() - 1L), to)));
+        }
+        return chunks;
+    }
+
+    private int recountOnShards(LocalDate first, LocalDate last) {
+        int buckets = 0;
+        for (int shard : shardTransactions.shards()) {
+            buckets += shardTransactions.inTransactionOn(shard, () -> {
+                dailyCountRepository.deleteInRange(first, last);
+                return dailyCountRepository.recountInRange(first, last);
+            });
+        }
+        return buckets;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private record Chunk(LocalDate first, LocalDate last) {
+    }
+}
@@ -0,0 +1,386 @@
+package tn.esprit.studentmanagement.jobs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.*;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.*;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.studentmanagement.bulkhead.Bulkhead;
+import tn.esprit.studentmanagement.bulkhead.Workload;
+import tn.esprit.studentmanagement.config.ExportProperties;
+import tn.esprit.studentmanagement.dto.ExportSnapshot;
+import tn.esprit.studentmanagement.entities.Status;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Exports enrollments joined with their student, course and department to
+ * Arrow IPC files for analytics tools. Rows are streamed from a database
+ * cursor into record batches of {@code export.batch-size} rows; status and
+ * department name are dictionary encoded. After the first full snapshot each
+ * run only exports enrollments changed since the previous one, including those
+ * whose student, course or department changed. The watermark is the database
+ * time when a snapshot starts, and the next run reads back {@code export.overlap}
+ * before it: {@code updated_at} is set when a row is written but only visible
+ * once committed, so a transaction that commits late is picked up as long as it
+ * commits within the overlap. A row can therefore appear in two consecutive
+ * deltas; consumers upsert by {@code id_enrollment}. Deletions are not tracked:
+ * request a full snapshot to reconcile them.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ExportProperties.class)
+public class EnrollmentExportJob {
+
+    public static final String JOB = "enrollment-export";
+    private static final String STATE_FILE = "_watermark.properties";
+    private static final String SQL = """
+            select e.id_enrollment, e.enrollment_date, e.grade, e.status, e.updated_at,
+                   s.id_student, s.first_name, s.last_name, s.email,
+                   c.id_course, c.code, c.name as course_name, c.credit,
+                   d.id_department, d.name as department_name
+            from enrollment e
+            left join student s on s.id_student = e.student_id_student
+            left join course c on c.id_course = e.course_id_course
+            left join department d on d.id_department = s.department_id_department""";
+    private static final String CHANGED_SINCE = """
+            where e.updated_at > ?
+               or e.student_id_student in (select id_student from student where updated_at > ?)
+               or e.course_id_course in (select id_course from course where updated_at > ?)
+               or s.department_id_department in (select id_department from department where updated_at > ?)""";
+    private static final String NOW = "select localtimestamp(6)";
+
+    private static final DictionaryEncoding STATUS_ENCODING =
+            new DictionaryEncoding(1L, false, new ArrowType.Int(8, true));
+    private static final DictionaryEncoding DEPARTMENT_ENCODING =
+            new DictionaryEncoding(2L, false, new ArrowType.Int(32, true));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExportProperties properties;
+
+    public EnrollmentExportJob(DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               ExportProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.fetchSize());
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${export.cron:-}")
+    @Bulkhead(Workload.REPORTING)
+    public void run() {
+        export(false);
+    }
+
+    @Bulkhead(Workload.REPORTING)
+    public synchronized ExportSnapshot export(boolean full) {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(properties.outputDir());
+            Properties state = readState();
+            long sequence = Long.parseLong(state.getProperty("sequence", "0")) + 1;
+            LocalDateTime since = full || !state.containsKey("watermark")
+                    ? null : LocalDateTime.parse(state.getProperty("watermark"));
+            boolean isFull = since == null;
+
+            Path target = properties.outputDir().resolve(
+                    String.format("enrollments-%06d-%s.arrow", sequence, isFull ? "full" : "delta"));
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            LocalDateTime from = isFull ? null : since.minus(properties.overlap());
+            BatchWriter result;
+            try {
+                result = readOnlyTransaction.execute(status -> write(temp, from));
+            } catch (RuntimeException ex) {
+                Files.deleteIfExists(temp);
+                throw ex;
+            }
+
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            if (result.rows == 0 && !isFull) {
+                Files.deleteIfExists(temp);
+                return new ExportSnapshot(sequence - 1, false, null, 0, 0, since, durationMs);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            LocalDateTime watermark = result.watermark;
+            writeState(sequence, watermark);
+            log.info("Exported {} enrollments in {} batches to {} in {} ms",
+                    result.rows, result.batches, target, durationMs);
+            return new ExportSnapshot(sequence, isFull, target.toString(), result.rows, result.batches,
+                    watermark, durationMs);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private BatchWriter write(Path temp, LocalDateTime since) {
+        try (BufferAllocator allocator = new RootAllocator();
+             BatchWriter writer = new BatchWriter(allocator, temp, departmentNames(), properties.batchSize())) {
+            writer.watermark = jdbcTemplate.queryForObject(NOW, Timestamp.class).toLocalDateTime();
+            if (since == null) {
+                jdbcTemplate.query(SQL, writer);
+            } else {
+                Timestamp from = Timestamp.valueOf(since);
+                jdbcTemplate.query(SQL + "\n" + CHANGED_SINCE, writer, from, from, from, from);
+            }
+            writer.finish();
+            return writer;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private List<String> departmentNames() {
+        return jdbcTemplate.queryForList("select distinct name from department where name is not null order by name",
+                String.class);
+    }
+
+    private Properties readState() throws IOException {
+        Properties state = new Properties();
+        Path file = properties.outputDir().resolve(STATE_FILE);
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file)) {
+                state.load(reader);
+            }
+        }
+        return state;
+    }
+
+    private void writeState(long sequence, LocalDateTime watermark) throws IOException {
+        Properties state = new Properties();
+        state.setProperty("sequence", String.valueOf(sequence));
+        if (watermark != null) {
+            state.setProperty("watermark", watermark.toString());
+        }
+        Path file = properties.outputDir().resolve(STATE_FILE);
+        Path temp = file.resolveSibling(STATE_FILE + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp)) {
+            state.store(writer, "Last enrollment snapshot");
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Fills one record batch from the cursor and flushes it to the file every {@code batchSize} rows. */
+    private static final class BatchWriter implements RowCallbackHandler, AutoCloseable {
+
+        private final FileChannel channel;
+        private final VectorSchemaRoot root;
+        private final DictionaryProvider.MapDictionaryProvider dictionaries = new DictionaryProvider.MapDictionaryProvider();
+        private final ArrowFileWriter fileWriter;
+        private final Map<String, Integer> departmentIndex = new HashMap<>();
+        private final int batchSize;
+
+        private final BigIntVector idEnrollment;
+        private final DateDayVector enrollmentDate;
+        private final Float8Vector grade;
+        private final TinyIntVector status;
+        private final TimeStampMicroVector updatedAt;
+        private final BigIntVector idStudent;
+        private final VarCharVector firstName;
+        private final VarCharVector lastName;
+        private final VarCharVector email;
+        private final BigIntVector idCourse;
+        private final VarCharVector courseCode;
+        private final VarCharVector courseName;
+        private final IntVector credit;
+        private final BigIntVector idDepartment;
+        private final IntVector department;
+
+        private int row;
+        long rows;
+        int batches;
+        // Database time when the snapshot started
+        LocalDateTime watermark;
+
+        BatchWriter(BufferAllocator allocator, Path file, List<String> departmentNames, int batchSize) throws IOException {
+            this.batchSize = Math.max(1, batchSize);
+            VarCharVector statusValues = new VarCharVector("status", allocator);
+            Status[] statuses = Status.values();
+            for (int i = 0; i < statuses.length; i++) {
+                statusValues.setSafe(i, utf8(statuses[i].name()));
+            }
+            statusValues.setValueCount(statuses.length);
+            dictionaries.put(new Dictionary(statusValues, STATUS_ENCODING));
+
+            VarCharVector departmentValues = new VarCharVector("department", allocator);
+            for (int i = 0; i < departmentNames.size(); i++) {
+                departmentValues.setSafe(i, utf8(departmentNames.get(i)));
+                departmentIndex.put(departmentNames.get(i), i);
+            }
+            departmentValues.setValueCount(departmentNames.size());
+            dictionaries.put(new Dictionary(departmentValues, DEPARTMENT_ENCODING));
+
+            Schema schema = new Schema(List.of(
+                    field("id_enrollment", new ArrowType.Int(64, true), null),
+                    field("enrollment_date", new ArrowType.Date(DateUnit.DAY), null),
+                    field("grade", new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE), null),
+                    field("status", STATUS_ENCODING.getIndexType(), STATUS_ENCODING),
+                    field("updated_at", new ArrowType.Timestamp(TimeUnit.MICROSECOND, null), null),
+                    field("id_student", new ArrowType.Int(64, true), null),
+                    field("first_name", ArrowType.Utf8.INSTANCE, null),
+                    field("last_name", ArrowType.Utf8.INSTANCE, null),
+                    field("email", ArrowType.Utf8.INSTANCE, null),
+                    field("id_course", new ArrowType.Int(64, true), null),
+                    field("course_code", ArrowType.Utf8.INSTANCE, null),
+                    field("course_name", ArrowType.Utf8.INSTANCE, null),
+                    field("credit", new ArrowType.Int(32, true), null),
+                    field("id_department", new ArrowType.Int(64, true), null),
+                    field("department", DEPARTMENT_ENCODING.getIndexType(), DEPARTMENT_ENCODING)));
+            this.root = VectorSchemaRoot.create(schema, allocator);
+            this.idEnrollment = (BigIntVector) root.getVector("id_enrollment");
+            this.enrollmentDate = (DateDayVector) root.getVector("enrollment_date");
+            this.grade = (Float8Vector) root.getVector("grade");
+            this.status = (TinyIntVector) root.getVector("status");
+            this.updatedAt = (TimeStampMicroVector) root.getVector("updated_at");
+            this.idStudent = (BigIntVector) root.getVector("id_student");
+            this.firstName = (VarCharVector) root.getVector("first_name");
+            this.lastName = (VarCharVector) root.getVector("last_name");
+            this.email = (VarCharVector) root.getVector("email");
+            this.idCourse = (BigIntVector) root.getVector("id_course");
+            this.courseCode = (VarCharVector) root.getVector("course_code");
+            this.courseName = (VarCharVector) root.getVector("course_name");
+            this.credit = (IntVector) root.getVector("credit");
+            this.idDepartment = (BigIntVector) root.getVector("id_department");
+            this.department = (IntVector) root.getVector("department");
+
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            this.fileWriter = new ArrowFileWriter(root, dictionaries, channel);
+            fileWriter.start();
+            root.allocateNew();
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            idEnrollment.setSafe(row, rs.getLong(1));
+            Date date = rs.getDate(2);
+            if (date != null) {
+                enrollmentDate.setSafe(row, (int) date.toLocalDate().toEpochDay());
+            }
+            double gradeValue = rs.getDouble(3);
+            if (!rs.wasNull()) {
+                grade.setSafe(row, gradeValue);
+            }
+            String statusValue = rs.getString(4);
+            if (statusValue != null) {
+                status.setSafe(row, (byte) Status.valueOf(statusValue).ordinal());
+            }
+            LocalDateTime updated = rs.getTimestamp(5).toLocalDateTime();
+            updatedAt.setSafe(row, toMicros(updated));
+            setLong(idStudent, rs, 6);
+            setString(firstName, rs.getString(7));
+            setString(lastName, rs.getString(8));
+            setString(email, rs.getString(9));
+            setLong(idCourse, rs, 10);
+            setString(courseCode, rs.getString(11));
+            setString(courseName, rs.getString(12));
+            int creditValue = rs.getInt(13);
+            if (!rs.wasNull()) {
+                credit.setSafe(row, creditValue);
+            }
+            setLong(idDepartment, rs, 14);
+            Integer departmentValue = departmentIndex.get(rs.getString(15));
+            if (departmentValue != null) {
+                department.setSafe(row, departmentValue);
+            }
+            if (++row == batchSize) {
+                flush();
+            }
+        }
+
+        void finish() throws IOException {
+            if (row > 0 || batches == 0) {
+                flush();
+            }
+            fileWriter.end();
+            channel.force(false);
+        }
+
+        private void flush() {
+            root.setRowCount(row);
+            try {
+                fileWriter.writeBatch();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            rows += row;
+            batches++;
+            row = 0;
+            // Clears values and validity but keeps the buffers for the next batch.
+            root.getFieldVectors().forEach(ValueVector::reset);
+        }
+
+        private void setLong(BigIntVector vector, ResultSet rs, int column) throws SQLException {
+            long value = rs.getLong(column);
+            if (!rs.wasNull()) {
+                vector.setSafe(row, value);
+            }
+        }
+
+        private void setString(VarCharVector vector, String value) {
+            if (value != null) {
+                vector.setSafe(row, utf8(value));
+            }
+        }
+
+        private static long toMicros(LocalDateTime value) {
+            return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + value.getNano() / 1_000;
+        }
+
+        private static byte[] utf8(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static Field field(String name, ArrowType type, DictionaryEncoding encoding) {
+            return new Field(name, new FieldType(true, type, encoding), null);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                fileWriter.close();
+                channel.close();
+            } finally {
+                root.close();
+                for (long id : dictionaries.getDictionaryIds()) {
+                    dictionaries.lookup(id).getVector().close();
+                }
+            }
+        }
+    }
+}
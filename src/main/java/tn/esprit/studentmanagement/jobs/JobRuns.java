@@ -0,0 +1,108 @@
+package tn.esprit.studentmanagement.jobs;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import tn.esprit.studentmanagement.dto.JobRun;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs jobs requested over HTTP on threads of their own, so a long run
+ * neither holds a Tomcat request thread nor counts as a slow request for the
+ * adaptive concurrency limit. The caller gets a {@link JobRun} handle at once
+ * and polls it by id; the bulkhead of the job still decides how many run at a
+ * time. Starting an id that is still running returns that run. The last
+ * {@link #MAX_FINISHED} finished runs are kept, on the instance that ran them.
+ */
+@Slf4j
+@Component
+public class JobRuns {
+
+    static final int MAX_FINISHED = 100;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(daemonThreads());
+    private final Clock clock;
+    // Insertion order, so the oldest finished runs are dropped first; guarded by this
+    private final Map<String, JobRun<?>> runs = new LinkedHashMap<>();
+
+    public JobRuns() {
+        this(Clock.systemUTC());
+    }
+
+    JobRuns(Clock clock) {
+        this.clock = clock;
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized <T> JobRun<T> start(String job, String id, Supplier<T> work) {
+        String key = key(job, id);
+        JobRun<?> current = runs.get(key);
+        if (current != null && current.state() == JobRun.State.RUNNING) {
+            return (JobRun<T>) current;
+        }
+        JobRun<T> run = new JobRun<>(job, id, JobRun.State.RUNNING, clock.instant(), null, null, null);
+        runs.remove(key);
+        runs.put(key, run);
+        executor.execute(() -> complete(key, run, work));
+        trim();
+        return run;
+    }
+
+    public synchronized Optional<JobRun<?>> find(String job, String id) {
+        return Optional.ofNullable(runs.get(key(job, id)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> void complete(String key, JobRun<T> run, Supplier<T> work) {
+        JobRun<T> done;
+        try {
+            T result = work.get();
+            done = new JobRun<>(run.job(), run.id(), JobRun.State.SUCCEEDED, run.startedAt(), clock.instant(),
+                    result, null);
+        } catch (RuntimeException ex) {
+            log.warn("{} run {} failed", run.job(), run.id(), ex);
+            done = new JobRun<>(run.job(), run.id(), JobRun.State.FAILED, run.startedAt(), clock.instant(),
+                    null, ex.getMessage());
+        }
+        synchronized (this) {
+            runs.put(key, done);
+        }
+    }
+
+    private void trim() {
+        int finished = (int) runs.values().stream().filter(r -> r.state() != JobRun.State.RUNNING).count();
+        for (Iterator<JobRun<?>> it = runs.values().iterator(); it.hasNext() && finished > MAX_FINISHED; ) {
+            if (it.next().state() != JobRun.State.RUNNING) {
+                it.remove();
+                finished--;
+            }
+        }
+    }
+
+    private static String key(String job, String id) {
+        return job + "/" + id;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "job-run-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package tn.esprit.studentmanagement.jobs;
+
+public enum ReportFormat {
+    CSV("csv"),
+    JSON("json");
+
+    private final String extension;
+
+    ReportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
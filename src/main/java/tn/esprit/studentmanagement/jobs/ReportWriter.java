@@ -0,0 +1,127 @@
+package tn.esprit.studentmanagement.jobs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import tn.esprit.studentmanagement.dto.ReportRow;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/** Streams student reports of one partition to a file, one student at a time. */
+interface ReportWriter extends AutoCloseable {
+
+    void write(StudentReport student) throws IOException;
+
+    @Override
+    void close() throws IOException;
+
+    static ReportWriter open(ReportFormat format, Writer out) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(out);
+            case JSON -> new Json(out);
+        };
+    }
+
+    final class Csv implements ReportWriter {
+        private final Writer out;
+
+        Csv(Writer out) throws IOException {
+            this.out = out;
+            out.write("id_student,first_name,last_name,email,enrollments,graded,average,min,max,gpa,courses\n");
+        }
+
+        @Override
+        public void write(StudentReport student) throws IOException {
+            StringBuilder courses = new StringBuilder();
+            for (ReportRow row : student.enrollments) {
+                if (!courses.isEmpty()) {
+                    courses.append(';');
+                }
+                courses.append(row.code()).append(':').append(row.grade() == null ? "" : row.grade())
+                        .append(':').append(row.status() == null ? "" : row.status());
+            }
+            out.write(String.valueOf(student.idStudent));
+            field(student.firstName);
+            field(student.lastName);
+            field(student.email);
+            field(student.enrollments.size());
+            field(student.graded);
+            field(student.average());
+            field(student.minGrade());
+            field(student.maxGrade());
+            field(student.gpa());
+            field(courses.toString());
+            out.write('\n');
+        }
+
+        private void field(Object value) throws IOException {
+            out.write(',');
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+                out.write('"');
+                out.write(text.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(text);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+
+    final class Json implements ReportWriter {
+        private static final JsonFactory FACTORY = new JsonFactory();
+
+        private final JsonGenerator json;
+
+        Json(Writer out) throws IOException {
+            this.json = FACTORY.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartArray();
+        }
+
+        @Override
+        public void write(StudentReport student) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("idStudent", student.idStudent);
+            json.writeStringField("firstName", student.firstName);
+            json.writeStringField("lastName", student.lastName);
+            json.writeStringField("email", student.email);
+            json.writeNumberField("graded", student.graded);
+            number("average", student.average());
+            number("min", student.minGrade());
+            number("max", student.maxGrade());
+            number("gpa", student.gpa());
+            json.writeArrayFieldStart("enrollments");
+            for (ReportRow row : student.enrollments) {
+                json.writeStartObject();
+                json.writeStringField("code", row.code());
+                json.writeNumberField("credit", row.credit());
+                number("grade", row.grade());
+                json.writeStringField("status", row.status() == null ? null : row.status().name());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+
+        private void number(String name, Double value) throws IOException {
+            if (value == null) {
+                json.writeNullField(name);
+            } else {
+                json.writeNumberField(name, value);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.writeEndArray();
+            json.close();
+        }
+    }
+}
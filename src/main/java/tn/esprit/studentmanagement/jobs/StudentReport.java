@@ -0,0 +1,64 @@
+package tn.esprit.studentmanagement.jobs;
+
+import tn.esprit.studentmanagement.dto.ReportRow;
+import tn.esprit.studentmanagement.entities.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Enrollments and running grade statistics of one student, folded from consecutive report rows. */
+class StudentReport {
+
+    final Long idStudent;
+    final String firstName;
+    final String lastName;
+    final String email;
+    final List<ReportRow> enrollments = new ArrayList<>();
+    int graded;
+    double gradeSum;
+    double weightedSum;
+    int gradedCredits;
+    double min = Double.NaN;
+    double max = Double.NaN;
+
+    StudentReport(ReportRow row) {
+        this.idStudent = row.idStudent();
+        this.firstName = row.firstName();
+        this.lastName = row.lastName();
+        this.email = row.email();
+    }
+
+    void add(ReportRow row) {
+        if (row.code() == null) {
+            return;
+        }
+        enrollments.add(row);
+        // Same rule as the transcript: only finished enrollments with a grade count.
+        if (row.grade() != null && (row.status() == Status.COMPLETED || row.status() == Status.FAILED)) {
+            double grade = row.grade();
+            int credit = row.credit() == null ? 0 : row.credit();
+            graded++;
+            gradeSum += grade;
+            weightedSum += grade * credit;
+            gradedCredits += credit;
+            min = graded == 1 ? grade : Math.min(min, grade);
+            max = graded == 1 ? grade : Math.max(max, grade);
+        }
+    }
+
+    Double average() {
+        return graded == 0 ? null : gradeSum / graded;
+    }
+
+    Double gpa() {
+        return gradedCredits == 0 ? null : weightedSum / gradedCredits;
+    }
+
+    Double minGrade() {
+        return graded == 0 ? null : min;
+    }
+
+    Double maxGrade() {
+        return graded == 0 ? null : max;
+    }
+}
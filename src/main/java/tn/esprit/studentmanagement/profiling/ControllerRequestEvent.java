@@ -0,0 +1,28 @@
+package tn.esprit.studentmanagement.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("tn.esprit.studentmanagement.ControllerRequest")
+@Label("Controller Request")
+@Category({"Student Management", "Web"})
+@Description("Handling of one request by a controller method, response serialization included")
+@StackTrace(false)
+class ControllerRequestEvent extends Event {
+
+    @Label("HTTP Method")
+    String method;
+
+    @Label("Route")
+    String route;
+
+    @Label("Handler")
+    String handler;
+
+    @Label("Status")
+    int status;
+}
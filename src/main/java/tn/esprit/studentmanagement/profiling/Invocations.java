@@ -0,0 +1,49 @@
+package tn.esprit.studentmanagement.profiling;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/** Event fields derived from method arguments and results. */
+final class Invocations {
+
+    private Invocations() {
+    }
+
+    static long entityId(Object[] arguments) {
+        for (Object argument : arguments) {
+            if (argument instanceof Long id) {
+                return id;
+            }
+        }
+        return 0;
+    }
+
+    static int count(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        // Rows affected by a modifying query
+        if (result instanceof Integer rows) {
+            return rows;
+        }
+        if (result instanceof AutoCloseable || result instanceof Boolean || result instanceof Number) {
+            return -1;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,167 @@
+package tn.esprit.studentmanagement.profiling;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import tn.esprit.studentmanagement.config.ProfilingProperties;
+import tn.esprit.studentmanagement.dto.RecordingStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * On-demand, time-boxed JFR recording of a live instance:
+ * <pre>
+ * POST   /actuator/jfr {"duration":"PT2M","settings":"profile"}   start
+ * GET    /actuator/jfr                                            status
+ * DELETE /actuator/jfr                                            stop early
+ * GET    /actuator/jfr/recording.jfr                              download once stopped
+ * </pre>
+ * One recording at a time; starting a new one discards the previous file.
+ * The environment variables and system properties captured at JVM start are
+ * left out of every recording, since they hold the datasource credentials.
+ */
+@Slf4j
+@Component
+@WebEndpoint(id = "jfr")
+@EnableConfigurationProperties(ProfilingProperties.class)
+public class JfrRecordingEndpoint {
+
+    static final String FILE_NAME = "recording.jfr";
+    private static final int STATUS_CONFLICT = 409;
+    static final List<String> SECRET_EVENTS = List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+
+    private final ProfilingProperties properties;
+    private Recording recording;
+    private Path file;
+    private String settings;
+
+    public JfrRecordingEndpoint(ProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public synchronized RecordingStatus status() {
+        if (recording == null) {
+            return new RecordingStatus("NONE", null, null, null, 0);
+        }
+        return new RecordingStatus(recording.getState().name(), settings, recording.getStartTime(),
+                recording.getDuration(), fileSize());
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<RecordingStatus> start(@Nullable Duration duration,
+                                                                   @Nullable String settings) {
+        if (isActive()) {
+            return new WebEndpointResponse<>(status(), STATUS_CONFLICT);
+        }
+        Duration length = duration == null ? properties.defaultDuration() : duration;
+        if (length.isNegative() || length.isZero() || length.compareTo(properties.maxDuration()) > 0) {
+            throw new InvalidEndpointRequestException("duration must be positive and at most "
+                    + properties.maxDuration(), "Invalid duration");
+        }
+        String name = settings == null ? properties.settings() : settings;
+        Configuration configuration = configuration(name);
+        discard();
+        try {
+            file = Files.createTempFile("student-management-", ".jfr");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        recording = new Recording(configuration);
+        recording.setName("student-management");
+        SECRET_EVENTS.forEach(recording::disable);
+        recording.enable(ControllerRequestEvent.class);
+        recording.enable(ServiceCallEvent.class);
+        recording.enable(RepositoryCallEvent.class);
+        recording.enable(JsonSerializationEvent.class);
+        recording.setToDisk(true);
+        recording.setMaxSize(properties.maxSize().toBytes());
+        recording.setDuration(length);
+        try {
+            recording.setDestination(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        this.settings = name;
+        recording.start();
+        log.info("JFR recording started for {} with '{}' settings", length, name);
+        return new WebEndpointResponse<>(status());
+    }
+
+    /** Stops the recording before its duration elapses; JFR then writes the file and closes it. */
+    @DeleteOperation
+    public synchronized RecordingStatus stop() {
+        if (isActive()) {
+            recording.stop();
+        }
+        return status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> recording(@Selector String name) {
+        if (!FILE_NAME.equals(name) || recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (isActive()) {
+            return new WebEndpointResponse<>(STATUS_CONFLICT);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(file));
+    }
+
+    @PreDestroy
+    public synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                log.warn("Could not delete JFR file {}", file, ex);
+            }
+            file = null;
+        }
+    }
+
+    private boolean isActive() {
+        return recording != null
+                && (recording.getState() == RecordingState.RUNNING || recording.getState() == RecordingState.DELAYED);
+    }
+
+    private long fileSize() {
+        try {
+            return file != null && Files.exists(file) ? Files.size(file) : 0;
+        } catch (IOException ex) {
+            return 0;
+        }
+    }
+
+    private static Configuration configuration(String name) {
+        try {
+            return Configuration.getConfiguration(name);
+        } catch (IOException | ParseException ex) {
+            throw new InvalidEndpointRequestException("Unknown JFR settings '" + name + "'", "Invalid settings");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package tn.esprit.studentmanagement.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("tn.esprit.studentmanagement.JsonSerialization")
+@Label("JSON Serialization")
+@Category({"Student Management", "Web"})
+@Description("Jackson serialization of a response body")
+@StackTrace(false)
+class JsonSerializationEvent extends Event {
+
+    @Label("Type")
+    String type;
+
+    @Label("Element Count")
+    @Description("Size of a collection body, 1 otherwise")
+    int elementCount;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
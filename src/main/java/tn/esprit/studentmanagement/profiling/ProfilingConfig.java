@@ -0,0 +1,35 @@
+package tn.esprit.studentmanagement.profiling;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Wires the custom JFR events. They cost a branch per call until a recording
+ * (see {@link JfrRecordingEndpoint}, or {@code jcmd <pid> JFR.start}) enables them.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ProfilingConfig implements WebMvcConfigurer {
+
+    @Bean
+    static ProfilingPostProcessor profilingPostProcessor() {
+        return new ProfilingPostProcessor();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ProfilingInterceptor());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter -> converter.getClass() == MappingJackson2HttpMessageConverter.class
+                ? new ProfilingJsonConverter(((MappingJackson2HttpMessageConverter) converter).getObjectMapper())
+                : converter);
+    }
+}
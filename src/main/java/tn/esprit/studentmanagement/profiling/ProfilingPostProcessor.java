@@ -0,0 +1,146 @@
+package tn.esprit.studentmanagement.profiling;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Records a {@link ServiceCallEvent} around every method of a service
+ * interface (the interfaces of the {@code services} package) and a
+ * {@link RepositoryCallEvent} around every repository method. The advice is
+ * added in front of existing proxies, so cache and transaction time is
+ * included. Event fields are only filled in when a recording wants the event.
+ */
+public class ProfilingPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    static final String SERVICES_PACKAGE = "tn.esprit.studentmanagement.services";
+
+    public ProfilingPostProcessor() {
+        setBeforeExistingAdvisors(true);
+        // Class-based so that @EventListener and @Scheduled methods stay invocable on the proxy
+        setProxyTargetClass(true);
+        this.advisor = new DefaultPointcutAdvisor(new ProfilingPointcut(), (MethodInterceptor) ProfilingPostProcessor::record);
+    }
+
+    private static Object record(MethodInvocation invocation) throws Throwable {
+        Object target = invocation.getThis();
+        if (target instanceof Repository<?, ?>) {
+            return recordRepositoryCall(invocation);
+        }
+        return recordServiceCall(invocation, target);
+    }
+
+    private static Object recordServiceCall(MethodInvocation invocation, Object target) throws Throwable {
+        ServiceCallEvent event = new ServiceCallEvent();
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.service = target == null ? null : ClassUtils.getUserClass(target).getSimpleName();
+                event.method = invocation.getMethod().getName();
+                event.entityId = Invocations.entityId(invocation.getArguments());
+                event.resultCount = Invocations.count(result);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private static Object recordRepositoryCall(MethodInvocation invocation) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.repository = repositoryName(invocation);
+                event.method = invocation.getMethod().getName();
+                event.entityId = Invocations.entityId(invocation.getArguments());
+                event.rowCount = Invocations.count(result);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    // Inherited CRUD methods are declared on CrudRepository; name the application interface instead
+    private static final ClassValue<String> REPOSITORY_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> proxyClass) {
+            for (Class<?> type : proxyClass.getInterfaces()) {
+                if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+                    return type.getSimpleName();
+                }
+            }
+            return proxyClass.getSimpleName();
+        }
+    };
+
+    private static String repositoryName(MethodInvocation invocation) {
+        if (invocation instanceof ProxyMethodInvocation proxied) {
+            return REPOSITORY_NAMES.get(proxied.getProxy().getClass());
+        }
+        return invocation.getMethod().getDeclaringClass().getSimpleName();
+    }
+
+    private static final class ProfilingPointcut implements Pointcut {
+
+        @Override
+        public ClassFilter getClassFilter() {
+            return type -> Repository.class.isAssignableFrom(type) || serviceInterface(type) != null;
+        }
+
+        @Override
+        public MethodMatcher getMethodMatcher() {
+            return new StaticMethodMatcher() {
+                @Override
+                public boolean matches(Method method, Class<?> targetClass) {
+                    if (Repository.class.isAssignableFrom(targetClass)) {
+                        return method.getDeclaringClass() != Object.class;
+                    }
+                    for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+                        if (isServiceInterface(type)
+                                && ClassUtils.hasMethod(type, method.getName(), method.getParameterTypes())) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private static Class<?> serviceInterface(Class<?> type) {
+            for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+                if (isServiceInterface(candidate)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+
+        private static boolean isServiceInterface(Class<?> type) {
+            return SERVICES_PACKAGE.equals(type.getPackageName());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package tn.esprit.studentmanagement.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("tn.esprit.studentmanagement.RepositoryCall")
+@Label("Repository Call")
+@Category({"Student Management", "Repository"})
+@Description("Call of a Spring Data repository method")
+@StackTrace(false)
+class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Entity Id")
+    @Description("First id argument, 0 when the method takes none")
+    long entityId;
+
+    @Label("Row Count")
+    @Description("Rows returned or modified, -1 when unknown (streams)")
+    int rowCount;
+
+    @Label("Failed")
+    boolean failed;
+}
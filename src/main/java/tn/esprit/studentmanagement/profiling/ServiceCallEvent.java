@@ -0,0 +1,33 @@
+package tn.esprit.studentmanagement.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("tn.esprit.studentmanagement.ServiceCall")
+@Label("Service Call")
+@Category({"Student Management", "Service"})
+@Description("Call of a service interface method, caching and transaction included")
+@StackTrace(false)
+class ServiceCallEvent extends Event {
+
+    @Label("Service")
+    String service;
+
+    @Label("Method")
+    String method;
+
+    @Label("Entity Id")
+    @Description("First id argument, 0 when the method takes none")
+    long entityId;
+
+    @Label("Result Count")
+    @Description("Elements returned, 1 for a single entity, -1 when unknown")
+    int resultCount;
+
+    @Label("Failed")
+    boolean failed;
+}
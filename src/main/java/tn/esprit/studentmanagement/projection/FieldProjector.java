@@ -0,0 +1,160 @@
+package tn.esprit.studentmanagement.projection;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.studentmanagement.sharding.Sharded;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sparse fieldsets: turns a {@code fields=} list such as
+ * {@code idStudent,firstName,department.name} into a JPQL tuple query that
+ * selects only those columns, and each row into a map with only those
+ * properties (dotted paths become nested maps). Paths are checked against the
+ * JPA metamodel: basic attributes of the entity, or basic attributes of one of
+ * its to-one associations. Compiled queries are cached per entity and field
+ * list. Only used for sharded entities, so with sharding on the query is
+ * scattered to every shard.
+ */
+@Component
+@Sharded
+public class FieldProjector {
+
+    static final int MAX_FIELDS = 30;
+    static final int MAX_CACHED = 256;
+
+    private final EntityManager entityManager;
+    private final Map<Key, Projection> projections = new ConcurrentHashMap<>();
+
+    public FieldProjector(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    record Key(Class<?> entityType, List<String> fields) {
+    }
+
+    /** One selected column: {@code path} as requested, {@code expression} in the compiled query. */
+    record Column(String[] path, String expression) {
+    }
+
+    record Projection(String jpql, List<Column> columns) {
+
+        Map<String, Object> toMap(Tuple tuple) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                String[] path = columns.get(i).path();
+                Object value = tuple.get(i);
+                if (path.length == 1) {
+                    row.put(path[0], value);
+                } else {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> nested = (Map<String, Object>) row.computeIfAbsent(path[0],
+                            k -> new LinkedHashMap<String, Object>());
+                    nested.put(path[1], value);
+                }
+            }
+            return row;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAll(Class<?> entityType, List<String> fields) {
+        Projection projection = compile(entityType, fields);
+        return entityManager.createQuery(projection.jpql(), Tuple.class).getResultStream()
+                .map(projection::toMap)
+                .toList();
+    }
+
+    Projection compile(Class<?> entityType, List<String> fields) {
+        List<String> normalized = normalize(fields);
+        Key key = new Key(entityType, normalized);
+        Projection cached = projections.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Projection projection = build(entityType, normalized);
+        // Field lists come from callers: stop caching new ones past a bound instead of growing forever.
+        if (projections.size() < MAX_CACHED) {
+            projections.putIfAbsent(key, projection);
+        }
+        return projection;
+    }
+
+    int cachedCount() {
+        return projections.size();
+    }
+
+    private static List<String> normalize(List<String> fields) {
+        if (fields == null) {
+            throw new IllegalArgumentException("fields must not be empty");
+        }
+        LinkedHashSet<String> distinct = new LinkedHashSet<>();
+        for (String field : fields) {
+            if (field != null && !field.isBlank()) {
+                distinct.add(field.trim());
+            }
+        }
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("fields must not be empty");
+        }
+        if (distinct.size() > MAX_FIELDS) {
+            throw new IllegalArgumentException("At most " + MAX_FIELDS + " fields");
+        }
+        return List.copyOf(distinct);
+    }
+
+    private Projection build(Class<?> entityType, List<String> fields) {
+        EntityType<?> root = entityManager.getMetamodel().entity(entityType);
+        Map<String, String> joins = new LinkedHashMap<>();
+        List<Column> columns = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            String[] path = field.split("\\.", -1);
+            if (path.length == 1) {
+                basic(root, path[0], field);
+                columns.add(new Column(path, "r." + path[0]));
+            } else if (path.length == 2) {
+                Attribute<?, ?> association = attribute(root, path[0], field);
+                if (!(association instanceof SingularAttribute<?, ?> singular) || !association.isAssociation()) {
+                    throw new IllegalArgumentException("Unknown field '" + field + "' on " + root.getName());
+                }
+                basic((ManagedType<?>) singular.getType(), path[1], field);
+                String alias = joins.computeIfAbsent(path[0], a -> "j" + joins.size());
+                columns.add(new Column(path, alias + "." + path[1]));
+            } else {
+                throw new IllegalArgumentException("Unknown field '" + field + "' on " + root.getName());
+            }
+        }
+        StringBuilder jpql = new StringBuilder("select ");
+        for (int i = 0; i < columns.size(); i++) {
+            jpql.append(i == 0 ? "" : ", ").append(columns.get(i).expression());
+        }
+        jpql.append(" from ").append(root.getName()).append(" r");
+        joins.forEach((association, alias) -> jpql.append(" left join r.").append(association).append(' ').append(alias));
+        return new Projection(jpql.toString(), List.copyOf(columns));
+    }
+
+    private static void basic(ManagedType<?> type, String name, String field) {
+        Attribute<?, ?> attribute = attribute(type, name, field);
+        if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+            throw new IllegalArgumentException("Field '" + field + "' is an association, select one of its fields"
+                    + " as '" + name + ".<field>'");
+        }
+    }
+
+    private static Attribute<?, ?> attribute(ManagedType<?> type, String name, String field) {
+        // getAttribute throws for unknown names; check first to answer with a 400 rather than a 500
+        for (Attribute<?, ?> attribute : type.getAttributes()) {
+            if (attribute.getName().equals(name)) {
+                return attribute;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field '" + field + "'");
+    }
+}
@@ -0,0 +1,132 @@
+package tn.esprit.studentmanagement.ranking;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grade ranking of one course. Ranks use competition ranking: equal grades
+ * share a rank, and a student's rank is that of their best graded enrollment.
+ */
+public class CourseRanking {
+
+    // Rough retained size per entry: tree node + entry + two hash map entries and boxed keys.
+    public static final int BYTES_PER_ENTRY = 200;
+
+    private final RankingTree tree = new RankingTree();
+    private final Map<Long, RankingTree.Entry> byEnrollment = new HashMap<>();
+    private final Map<Long, Set<Long>> enrollmentsByStudent = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public record Position(RankingTree.Entry entry, int rank, int total, double percentile) {
+    }
+
+    public void upsert(long idEnrollment, long idStudent, double grade) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(idEnrollment);
+            RankingTree.Entry entry = new RankingTree.Entry(grade, idEnrollment, idStudent);
+            tree.insert(entry);
+            byEnrollment.put(idEnrollment, entry);
+            enrollmentsByStudent.computeIfAbsent(idStudent, s -> new HashSet<>(2)).add(idEnrollment);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long idEnrollment) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(idEnrollment);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeStudent(long idStudent) {
+        lock.writeLock().lock();
+        try {
+            Set<Long> enrollments = enrollmentsByStudent.get(idStudent);
+            if (enrollments != null) {
+                new ArrayList<>(enrollments).forEach(this::removeInternal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Position> top(int k) {
+        lock.readLock().lock();
+        try {
+            int total = tree.size();
+            List<Position> result = new ArrayList<>(Math.min(k, total));
+            tree.forEachTop(k, entry -> result.add(position(entry, total)));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Position> positionOf(long idStudent) {
+        lock.readLock().lock();
+        try {
+            Set<Long> enrollments = enrollmentsByStudent.get(idStudent);
+            if (enrollments == null) {
+                return Optional.empty();
+            }
+            RankingTree.Entry best = null;
+            for (Long idEnrollment : enrollments) {
+                RankingTree.Entry entry = byEnrollment.get(idEnrollment);
+                if (best == null || entry.grade() > best.grade()) {
+                    best = entry;
+                }
+            }
+            return Optional.of(position(best, tree.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Nearest-rank percentile of the course's grades. */
+    public OptionalDouble gradeAtPercentile(double percentile) {
+        lock.readLock().lock();
+        try {
+            int total = tree.size();
+            if (total == 0) {
+                return OptionalDouble.empty();
+            }
+            int below = (int) Math.ceil(percentile / 100.0 * total);
+            int index = Math.max(0, Math.min(total - 1, total - below));
+            return OptionalDouble.of(tree.select(index).grade());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Position position(RankingTree.Entry entry, int total) {
+        int rank = tree.countHigher(entry.grade()) + 1;
+        double percentile = 100.0 * tree.countLower(entry.grade()) / total;
+        return new Position(entry, rank, total, percentile);
+    }
+
+    private void removeInternal(long idEnrollment) {
+        RankingTree.Entry previous = byEnrollment.remove(idEnrollment);
+        if (previous == null) {
+            return;
+        }
+        tree.remove(previous.grade(), idEnrollment);
+        Set<Long> enrollments = enrollmentsByStudent.get(previous.idStudent());
+        enrollments.remove(idEnrollment);
+        if (enrollments.isEmpty()) {
+            enrollmentsByStudent.remove(previous.idStudent());
+        }
+    }
+}
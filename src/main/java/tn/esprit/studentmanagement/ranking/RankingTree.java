@@ -0,0 +1,167 @@
+package tn.esprit.studentmanagement.ranking;
+
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Size-augmented treap ordered by grade (highest first), ties broken by
+ * enrollment id. Every operation is O(log n) expected. Not thread-safe.
+ */
+public class RankingTree {
+
+    public record Entry(double grade, long idEnrollment, long idStudent) {
+    }
+
+    private static final class Node {
+        final Entry entry;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(Entry entry, int priority) {
+            this.entry = entry;
+            this.priority = priority;
+        }
+    }
+
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    public int size() { return size(root); }
+
+    public void insert(Entry entry) {
+        Node[] parts = split(root, entry.grade(), entry.idEnrollment());
+        root = merge(merge(parts[0], new Node(entry, random.nextInt())), parts[1]);
+    }
+
+    public void remove(double grade, long idEnrollment) {
+        root = remove(root, grade, idEnrollment);
+    }
+
+    /** Number of entries with a strictly higher grade. */
+    public int countHigher(double grade) {
+        int count = 0;
+        Node t = root;
+        while (t != null) {
+            if (t.entry.grade() > grade) {
+                count += size(t.left) + 1;
+                t = t.right;
+            } else {
+                t = t.left;
+            }
+        }
+        return count;
+    }
+
+    /** Number of entries with a strictly lower grade. */
+    public int countLower(double grade) {
+        int count = 0;
+        Node t = root;
+        while (t != null) {
+            if (t.entry.grade() < grade) {
+                count += size(t.right) + 1;
+                t = t.left;
+            } else {
+                t = t.right;
+            }
+        }
+        return count;
+    }
+
+    /** The entry at zero-based position {@code index}, highest grade first. */
+    public Entry select(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        Node t = root;
+        while (true) {
+            int leftSize = size(t.left);
+            if (index < leftSize) {
+                t = t.left;
+            } else if (index == leftSize) {
+                return t.entry;
+            } else {
+                index -= leftSize + 1;
+                t = t.right;
+            }
+        }
+    }
+
+    /** Visits the {@code k} highest entries in order. */
+    public void forEachTop(int k, Consumer<Entry> consumer) {
+        visit(root, new int[]{k}, consumer);
+    }
+
+    private static boolean visit(Node t, int[] remaining, Consumer<Entry> consumer) {
+        if (t == null) {
+            return remaining[0] > 0;
+        }
+        if (!visit(t.left, remaining, consumer)) {
+            return false;
+        }
+        if (remaining[0]-- <= 0) {
+            return false;
+        }
+        consumer.accept(t.entry);
+        return visit(t.right, remaining, consumer);
+    }
+
+    private static int compare(double grade, long id, Entry entry) {
+        int c = Double.compare(entry.grade(), grade);
+        return c != 0 ? c : Long.compare(id, entry.idEnrollment());
+    }
+
+    private static int size(Node t) { return t == null ? 0 : t.size; }
+
+    private static void update(Node t) { t.size = 1 + size(t.left) + size(t.right); }
+
+    // [keys before (grade, id), keys from (grade, id) on]
+    private static Node[] split(Node t, double grade, long id) {
+        if (t == null) {
+            return new Node[2];
+        }
+        if (compare(grade, id, t.entry) > 0) {
+            Node[] parts = split(t.right, grade, id);
+            t.right = parts[0];
+            update(t);
+            parts[0] = t;
+            return parts;
+        }
+        Node[] parts = split(t.left, grade, id);
+        t.left = parts[1];
+        update(t);
+        parts[1] = t;
+        return parts;
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static Node remove(Node t, double grade, long id) {
+        if (t == null) {
+            return null;
+        }
+        int c = compare(grade, id, t.entry);
+        if (c == 0) {
+            return merge(t.left, t.right);
+        }
+        if (c < 0) {
+            t.left = remove(t.left, grade, id);
+        } else {
+            t.right = remove(t.right, grade, id);
+        }
+        update(t);
+        return t;
+    }
+}
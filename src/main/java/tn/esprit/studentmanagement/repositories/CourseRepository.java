@@ -3,6 +3,8 @@ package tn.esprit.studentmanagement.repositories;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import tn.esprit.studentmanagement.entities.Course;
+import tn.esprit.studentmanagement.sharding.ReferenceData;
 
 @Repository
+@ReferenceData(value = "course", id = "id_course")
 public interface CourseRepository extends JpaRepository<Course, Long> {}
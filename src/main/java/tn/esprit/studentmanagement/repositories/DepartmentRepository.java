@@ -1,7 +1,27 @@
 package tn.esprit.studentmanagement.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import tn.esprit.studentmanagement.entities.Department;
+import tn.esprit.studentmanagement.sharding.ReferenceData;
+
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface DepartmentRepository extends JpaRepository<Department, Long> {}
+@ReferenceData(value = "department", id = "id_department")
+public interface DepartmentRepository extends JpaRepository<Department, Long> {
+
+    @Query("select d.idDepartment from Department d order by d.idDepartment")
+    List<Long> findAllIds();
+
+    @Query("select d.idDepartment from Department d where d.location = :location")
+    List<Long> findIdsByLocation(@Param("location") String location);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Department d where d.idDepartment in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
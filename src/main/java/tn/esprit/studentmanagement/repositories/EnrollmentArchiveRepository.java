@@ -0,0 +1,50 @@
+package tn.esprit.studentmanagement.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.esprit.studentmanagement.entities.EnrollmentArchive;
+import tn.esprit.studentmanagement.events.EnrollmentDays;
+import tn.esprit.studentmanagement.sharding.ShardKey;
+import tn.esprit.studentmanagement.sharding.Sharded;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Sharded
+public interface EnrollmentArchiveRepository extends JpaRepository<EnrollmentArchive, EnrollmentArchive.ArchiveId> {
+
+    List<EnrollmentArchive> findByStudentIdStudent(@ShardKey Long idStudent);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into enrollment_archive "
+            + "(id_enrollment, enrollment_date, grade, status, student_id_student, course_id_course, archived_at) "
+            + "select id_enrollment, enrollment_date, grade, status, student_id_student, course_id_course, :archivedAt "
+            + "from enrollment where id_enrollment in (:ids)")
+    int copyFromEnrollments(@ShardKey @Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDate archivedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from EnrollmentArchive a where a.student.idStudent in :studentIds")
+    int deleteByStudentIds(@ShardKey @Param("studentIds") Collection<Long> studentIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from EnrollmentArchive a where a.student.idStudent in "
+            + "(select s.idStudent from Student s where s.department.idDepartment in :departmentIds)")
+    int deleteByDepartmentIds(@ShardKey(ShardKey.Kind.DEPARTMENT)
+                              @Param("departmentIds") Collection<Long> departmentIds);
+
+    @Query("select new tn.esprit.studentmanagement.events.EnrollmentDays("
+            + "min(a.enrollmentDate), max(a.enrollmentDate)) from EnrollmentArchive a "
+            + "where a.student.idStudent in :studentIds")
+    List<EnrollmentDays> findDaysByStudentIds(@ShardKey @Param("studentIds") Collection<Long> studentIds);
+
+    @Query("select new tn.esprit.studentmanagement.events.EnrollmentDays("
+            + "min(a.enrollmentDate), max(a.enrollmentDate)) from EnrollmentArchive a "
+            + "where a.student.department.idDepartment in :departmentIds")
+    List<EnrollmentDays> findDaysByDepartmentIds(@ShardKey(ShardKey.Kind.DEPARTMENT)
+                                                 @Param("departmentIds") Collection<Long> departmentIds);
+}
@@ -0,0 +1,61 @@
+package tn.esprit.studentmanagement.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.esprit.studentmanagement.entities.EnrollmentDailyCount;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.sharding.ShardKey;
+import tn.esprit.studentmanagement.sharding.Sharded;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+@Sharded
+public interface EnrollmentDailyCountRepository
+        extends JpaRepository<EnrollmentDailyCount, EnrollmentDailyCount.BucketId> {
+
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into enrollment_daily_count "
+            + "(bucket_date, id_course, id_department, status, enrollments) "
+            + "values (:bucketDate, :idCourse, :idDepartment, :status, :delta) "
+            + "on duplicate key update enrollments = enrollments + :delta")
+    int increment(@Param("bucketDate") LocalDate bucketDate,
+                  @Param("idCourse") Long idCourse,
+                  @ShardKey(ShardKey.Kind.DEPARTMENT) @Param("idDepartment") Long idDepartment,
+                  @Param("status") String status,
+                  @Param("delta") long delta);
+
+    @Query("select c from EnrollmentDailyCount c where c.bucketDate between :from and :to "
+            + "and (:idCourse is null or c.idCourse = :idCourse) "
+            + "and (:idDepartment is null or c.idDepartment = :idDepartment) "
+            + "and (:status is null or c.status = :status)")
+    List<EnrollmentDailyCount> findInRange(@Param("from") LocalDate from,
+                                           @Param("to") LocalDate to,
+                                           @Param("idCourse") Long idCourse,
+                                           @Param("idDepartment") Long idDepartment,
+                                           @Param("status") Status status);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from enrollment_daily_count where bucket_date between :from and :to")
+    int deleteInRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Hot and archived enrollments alike; each shard recounts its own rows.
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into enrollment_daily_count "
+            + "(bucket_date, id_course, id_department, status, enrollments) "
+            + "select e.enrollment_date, coalesce(e.course_id_course, 0), coalesce(s.department_id_department, 0), "
+            + "coalesce(e.status, 'ACTIVE'), count(*) "
+            + "from (select enrollment_date, course_id_course, student_id_student, status from enrollment "
+            + "      where enrollment_date between :from and :to "
+            + "      union all "
+            + "      select enrollment_date, course_id_course, student_id_student, status from enrollment_archive "
+            + "      where enrollment_date between :from and :to) e "
+            + "left join student s on s.id_student = e.student_id_student "
+            + "group by e.enrollment_date, coalesce(e.course_id_course, 0), coalesce(s.department_id_department, 0), "
+            + "coalesce(e.status, 'ACTIVE')")
+    int recountInRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
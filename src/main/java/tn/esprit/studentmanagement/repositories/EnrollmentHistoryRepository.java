@@ -0,0 +1,15 @@
+package tn.esprit.studentmanagement.repositories;
+
+import tn.esprit.studentmanagement.entities.Enrollment;
+import tn.esprit.studentmanagement.sharding.ShardKey;
+
+import java.util.List;
+
+/**
+ * Enrollment reads that may reach into {@code enrollment_archive}. The archive
+ * is only queried when {@code includeHistory} is set; archived rows come back
+ * as detached {@link Enrollment} instances.
+ */
+public interface EnrollmentHistoryRepository {
+    List<Enrollment> findByStudentId(@ShardKey Long idStudent, boolean includeHistory);
+}
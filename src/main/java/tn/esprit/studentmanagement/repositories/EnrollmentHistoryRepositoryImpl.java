@@ -0,0 +1,34 @@
+package tn.esprit.studentmanagement.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import tn.esprit.studentmanagement.entities.Enrollment;
+import tn.esprit.studentmanagement.entities.EnrollmentArchive;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+class EnrollmentHistoryRepositoryImpl implements EnrollmentHistoryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Enrollment> findByStudentId(Long idStudent, boolean includeHistory) {
+        List<Enrollment> result = new ArrayList<>(entityManager.createQuery(
+                        "select e from Enrollment e where e.student.idStudent = :idStudent", Enrollment.class)
+                .setParameter("idStudent", idStudent)
+                .getResultList());
+        if (includeHistory) {
+            entityManager.createQuery(
+                            "select a from EnrollmentArchive a where a.student.idStudent = :idStudent", EnrollmentArchive.class)
+                    .setParameter("idStudent", idStudent)
+                    .getResultStream()
+                    .map(EnrollmentArchive::toEnrollment)
+                    .forEach(result::add);
+            result.sort(Comparator.comparing(Enrollment::getEnrollmentDate, Comparator.nullsLast(Comparator.naturalOrder())));
+        }
+        return result;
+    }
+}
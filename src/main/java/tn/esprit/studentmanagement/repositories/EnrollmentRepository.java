@@ -1,9 +1,92 @@
 package tn.esprit.studentmanagement.repositories;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import tn.esprit.studentmanagement.entities.Enrollment;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.events.EnrollmentDays;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.events.SeatCount;
+import tn.esprit.studentmanagement.sharding.ShardKey;
+import tn.esprit.studentmanagement.sharding.Sharded;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+@Sharded
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, EnrollmentHistoryRepository {
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Enrollment e where e.student.idStudent in :studentIds")
+    int deleteByStudentIds(@ShardKey @Param("studentIds") Collection<Long> studentIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Enrollment e where e.student.idStudent in "
+            + "(select s.idStudent from Student s where s.department.idDepartment in :departmentIds)")
+    int deleteByDepartmentIds(@ShardKey(ShardKey.Kind.DEPARTMENT)
+                              @Param("departmentIds") Collection<Long> departmentIds);
+
+    @Query("select new tn.esprit.studentmanagement.events.SeatCount(e.course.idCourse, count(e)) from Enrollment e "
+            + "where e.student.idStudent in :studentIds and (e.status is null or e.status = 'ACTIVE') "
+            + "group by e.course.idCourse")
+    List<SeatCount> countSeatsByStudentIds(@ShardKey @Param("studentIds") Collection<Long> studentIds);
+
+    @Query("select new tn.esprit.studentmanagement.events.SeatCount(e.course.idCourse, count(e)) from Enrollment e "
+            + "where e.student.department.idDepartment in :departmentIds "
+            + "and (e.status is null or e.status = 'ACTIVE') group by e.course.idCourse")
+    List<SeatCount> countSeatsByDepartmentIds(@ShardKey(ShardKey.Kind.DEPARTMENT)
+                                              @Param("departmentIds") Collection<Long> departmentIds);
+
+    @Query("select new tn.esprit.studentmanagement.events.EnrollmentDays("
+            + "min(e.enrollmentDate), max(e.enrollmentDate)) from Enrollment e "
+            + "where e.student.idStudent in :studentIds")
+    List<EnrollmentDays> findDaysByStudentIds(@ShardKey @Param("studentIds") Collection<Long> studentIds);
+
+    @Query("select new tn.esprit.studentmanagement.events.EnrollmentDays("
+            + "min(e.enrollmentDate), max(e.enrollmentDate)) from Enrollment e "
+            + "where e.student.department.idDepartment in :departmentIds")
+    List<EnrollmentDays> findDaysByDepartmentIds(@ShardKey(ShardKey.Kind.DEPARTMENT)
+                                                 @Param("departmentIds") Collection<Long> departmentIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // SKIP LOCKED
+    @Query("select e.idEnrollment from Enrollment e "
+            + "where e.status in :statuses and e.enrollmentDate < :before order by e.idEnrollment")
+    List<Long> findArchivableIds(@Param("statuses") Collection<Status> statuses,
+                                 @Param("before") LocalDate before,
+                                 Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Enrollment e where e.idEnrollment in :ids")
+    int deleteByIds(@ShardKey @Param("ids") Collection<Long> ids);
+
+    @Query("select e from Enrollment e left join fetch e.student s left join fetch s.department "
+            + "left join fetch e.course where e.idEnrollment in :ids")
+    List<Enrollment> findAllWithStudentAndCourseByIds(@ShardKey @Param("ids") Collection<Long> ids);
+
+    @Query("select e.idEnrollment from Enrollment e where e.student.idStudent = :idStudent "
+            + "and e.course.idCourse = :idCourse and (e.status is null or e.status = 'ACTIVE')")
+    List<Long> findSeatHoldingIdsByStudentAndCourse(@ShardKey @Param("idStudent") Long idStudent,
+                                                    @Param("idCourse") Long idCourse);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new tn.esprit.studentmanagement.events.EnrollmentState(e.idEnrollment, e.student.idStudent, "
+            + "e.course.idCourse, e.grade, e.status, e.enrollmentDate) from Enrollment e")
+    Stream<EnrollmentState> streamAllStates();
+
+    @Query("select new tn.esprit.studentmanagement.events.EnrollmentState(e.idEnrollment, e.student.idStudent, "
+            + "e.course.idCourse, e.grade, e.status, e.enrollmentDate) from Enrollment e where e.idEnrollment in :ids")
+    List<EnrollmentState> findStatesByIds(@ShardKey @Param("ids") Collection<Long> ids);
 }
@@ -1,8 +1,67 @@
 package tn.esprit.studentmanagement.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import tn.esprit.studentmanagement.dto.ReportRowView;
 import tn.esprit.studentmanagement.entities.Student;
+import tn.esprit.studentmanagement.sharding.ShardKey;
+import tn.esprit.studentmanagement.sharding.Sharded;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
+@Sharded
 public interface StudentRepository extends JpaRepository<Student, Long> {
+
+    @Query("select s from Student s left join fetch s.department where s.idStudent in :ids")
+    List<Student> findAllWithDepartmentByIds(@ShardKey @Param("ids") Collection<Long> ids);
+
+    @Query("select s.idStudent from Student s where s.email = :email")
+    List<Long> findIdsByEmail(@Param("email") String email);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select s.email from Student s where s.email is not null")
+    Stream<String> streamEmails();
+
+    @Query("select s.department.idDepartment from Student s where s.idStudent = :idStudent")
+    Optional<Long> findDepartmentIdById(@ShardKey @Param("idStudent") Long idStudent);
+
+    @Query("select s.idStudent from Student s where s.department.idDepartment = :departmentId")
+    List<Long> findIdsByDepartmentId(@ShardKey(ShardKey.Kind.DEPARTMENT) @Param("departmentId") Long departmentId);
+
+    // Hot and archived enrollments, like the transcript.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(nativeQuery = true, value = """
+            select s.id_student as idStudent, s.first_name as firstName, s.last_name as lastName, s.email as email,
+                   c.code as code, c.credit as credit, e.grade as grade, e.status as status
+            from student s
+            left join (select id_enrollment, student_id_student, course_id_course, grade, status
+                       from enrollment where student_id_student between :fromId and :toId
+                       union all
+                       select id_enrollment, student_id_student, course_id_course, grade, status
+                       from enrollment_archive where student_id_student between :fromId and :toId) e
+                   on e.student_id_student = s.id_student
+            left join course c on c.id_course = e.course_id_course
+            where s.department_id_department = :departmentId and s.id_student between :fromId and :toId
+            order by s.id_student, e.id_enrollment""")
+    Stream<ReportRowView> streamReportRows(@ShardKey(ShardKey.Kind.DEPARTMENT) @Param("departmentId") Long departmentId,
+                                           @Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Student s where s.idStudent in :ids")
+    int deleteByIds(@ShardKey @Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Student s where s.department.idDepartment in :departmentIds")
+    int deleteByDepartmentIds(@ShardKey(ShardKey.Kind.DEPARTMENT)
+                              @Param("departmentIds") Collection<Long> departmentIds);
 }
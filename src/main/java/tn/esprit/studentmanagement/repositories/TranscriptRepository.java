@@ -0,0 +1,76 @@
+package tn.esprit.studentmanagement.repositories;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tn.esprit.studentmanagement.dto.GpaView;
+import tn.esprit.studentmanagement.dto.TranscriptLineView;
+import tn.esprit.studentmanagement.entities.Student;
+import tn.esprit.studentmanagement.sharding.ShardKey;
+import tn.esprit.studentmanagement.sharding.Sharded;
+
+import java.util.List;
+
+/**
+ * Read-only SQL aggregation over hot and archived enrollments; a transcript
+ * must include both. Only COMPLETED and FAILED enrollments with a grade count
+ * towards the GPA.
+ */
+@org.springframework.stereotype.Repository
+@Sharded
+public interface TranscriptRepository extends org.springframework.data.repository.Repository<Student, Long> {
+
+    @Query(nativeQuery = true, value = """
+            select c.id_course as idCourse, c.code as code, c.name as name, c.credit as credit,
+                   e.grade as grade, e.status as status, e.enrollment_date as enrollmentDate
+            from (select course_id_course, grade, status, enrollment_date
+                  from enrollment where student_id_student = :idStudent
+                  union all
+                  select course_id_course, grade, status, enrollment_date
+                  from enrollment_archive where student_id_student = :idStudent) e
+            join course c on c.id_course = e.course_id_course
+            order by e.enrollment_date, c.code""")
+    List<TranscriptLineView> findTranscriptLines(@ShardKey @Param("idStudent") Long idStudent);
+
+    @Query(nativeQuery = true, value = """
+            select s.id_student as idStudent, s.first_name as firstName, s.last_name as lastName,
+                   coalesce(sum(c.credit), 0) as gradedCredits,
+                   sum(c.credit * e.grade) / nullif(sum(c.credit), 0) as gpa
+            from student s
+            left join (select student_id_student, course_id_course, grade
+                       from enrollment
+                       where student_id_student = :idStudent
+                         and grade is not null and status in ('COMPLETED', 'FAILED')
+                       union all
+                       select student_id_student, course_id_course, grade
+                       from enrollment_archive
+                       where student_id_student = :idStudent
+                         and grade is not null and status in ('COMPLETED', 'FAILED')) e
+                   on e.student_id_student = s.id_student
+            left join course c on c.id_course = e.course_id_course
+            where s.id_student = :idStudent
+            group by s.id_student, s.first_name, s.last_name""")
+    GpaView findGpa(@ShardKey @Param("idStudent") Long idStudent);
+
+    @Query(nativeQuery = true, value = """
+            select s.id_student as idStudent, s.first_name as firstName, s.last_name as lastName,
+                   coalesce(sum(c.credit), 0) as gradedCredits,
+                   sum(c.credit * e.grade) / nullif(sum(c.credit), 0) as gpa
+            from student s
+            left join (select en.student_id_student, en.course_id_course, en.grade
+                       from enrollment en
+                       join student st on st.id_student = en.student_id_student
+                       where st.department_id_department = :idDepartment
+                         and en.grade is not null and en.status in ('COMPLETED', 'FAILED')
+                       union all
+                       select ar.student_id_student, ar.course_id_course, ar.grade
+                       from enrollment_archive ar
+                       join student st on st.id_student = ar.student_id_student
+                       where st.department_id_department = :idDepartment
+                         and ar.grade is not null and ar.status in ('COMPLETED', 'FAILED')) e
+                   on e.student_id_student = s.id_student
+            left join course c on c.id_course = e.course_id_course
+            where s.department_id_department = :idDepartment
+            group by s.id_student, s.first_name, s.last_name
+            order by s.id_student""")
+    List<GpaView> findDepartmentGpas(@ShardKey(ShardKey.Kind.DEPARTMENT) @Param("idDepartment") Long idDepartment);
+}
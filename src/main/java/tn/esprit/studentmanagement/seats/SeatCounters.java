@@ -0,0 +1,228 @@
+package tn.esprit.studentmanagement.seats;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.events.CourseChangedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentChangedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.events.EnrollmentsArchivedEvent;
+import tn.esprit.studentmanagement.events.SeatCount;
+import tn.esprit.studentmanagement.events.SeatsReleasedEvent;
+import tn.esprit.studentmanagement.sharding.ShardContext;
+import tn.esprit.studentmanagement.sharding.ShardRouter;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Seat admission for courses with a capacity. Every course has an in-memory
+ * count of remaining seats: a course known to be full is rejected without a
+ * query, any other admission takes its seat with a conditional UPDATE of
+ * {@code course.seats_taken}, so two replicas can never oversubscribe a
+ * course together. The local count is only a hint, corrected whenever the
+ * database refuses a seat and reloaded periodically to see seats freed on
+ * other replicas. Under sharding the counts live on the global shard, whatever
+ * shard the calling thread is pinned to.
+ */
+@Slf4j
+@Component
+public class SeatCounters implements MeterBinder {
+
+    static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final String TAKE_SEAT = "update course set seats_taken = seats_taken + 1 "
+            + "where id_course = ? and (capacity is null or seats_taken < capacity)";
+    private static final String FREE_SEATS =
+            "update course set seats_taken = greatest(seats_taken - ?, 0) where id_course = ?";
+    private static final String SEATS = "select id_course, capacity, seats_taken from course";
+
+    private final JdbcTemplate jdbcTemplate;
+    // Own short transaction: the course row lock must not last as long as the caller's transaction.
+    private final TransactionTemplate ownTransaction;
+    private final ConcurrentHashMap<Long, AtomicInteger> remaining = new ConcurrentHashMap<>();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedLocally = new LongAdder();
+    private final LongAdder rejectedByDatabase = new LongAdder();
+
+    public SeatCounters(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Takes one seat in the course, or returns false when it is full. */
+    public boolean tryAcquire(Long idCourse) {
+        AtomicInteger seats = counter(idCourse);
+        if (!reserve(seats)) {
+            rejectedLocally.increment();
+            return false;
+        }
+        Integer updated;
+        try {
+            updated = onGlobalShard(() -> ownTransaction.execute(status -> jdbcTemplate.update(TAKE_SEAT, idCourse)));
+        } catch (RuntimeException e) {
+            unreserve(seats, 1);
+            throw e;
+        }
+        if (updated == null || updated == 0) {
+            // Taken on another replica since the last refresh
+            seats.set(0);
+            rejectedByDatabase.increment();
+            return false;
+        }
+        admitted.increment();
+        return true;
+    }
+
+    public void release(Long idCourse, long count) {
+        if (idCourse == null || count <= 0) {
+            return;
+        }
+        onGlobalShard(() -> ownTransaction.execute(status -> jdbcTemplate.update(FREE_SEATS, count, idCourse)));
+        AtomicInteger seats = remaining.get(idCourse);
+        if (seats != null) {
+            unreserve(seats, (int) Math.min(count, UNLIMITED));
+        }
+    }
+
+    /** Remaining seats as last seen by this replica, {@link #UNLIMITED} for a course without capacity. */
+    public int remaining(Long idCourse) {
+        return counter(idCourse).get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${seats.refresh-interval:PT10S}",
+            initialDelayString = "${seats.refresh-interval:PT10S}")
+    public void refresh() {
+        Set<Long> seen = new HashSet<>();
+        onGlobalShard(() -> {
+            jdbcTemplate.query(SEATS, rs -> {
+                long idCourse = rs.getLong(1);
+                int left = left((Integer) rs.getObject(2), rs.getInt(3));
+                seen.add(idCourse);
+                remaining.computeIfAbsent(idCourse, id -> new AtomicInteger()).set(left);
+            });
+            return null;
+        });
+        remaining.keySet().retainAll(seen);
+        log.debug("Seat counters refreshed for {} courses", seen.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        if (freesSeat(event.before(), event.after())) {
+            release(event.before().idCourse(), 1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentsArchived(EnrollmentsArchivedEvent event) {
+        event.archived().stream().filter(SeatCounters::holdsSeat)
+                .forEach(state -> release(state.idCourse(), 1));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsReleased(SeatsReleasedEvent event) {
+        for (SeatCount count : event.released()) {
+            release(count.idCourse(), count.seats());
+        }
+    }
+
+    // Capacity edits and deletions; the next admission reloads the course.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        remaining.remove(event.idCourse());
+    }
+
+    /** True when the enrollment occupies a seat in its course. */
+    public static boolean holdsSeat(EnrollmentState state) {
+        return state != null && state.idCourse() != null
+                && (state.status() == null || state.status() == Status.ACTIVE);
+    }
+
+    /** True when the write makes the enrollment occupy a seat it did not hold before. */
+    public static boolean takesSeat(EnrollmentState before, EnrollmentState after) {
+        return holdsSeat(after) && !(holdsSeat(before) && Objects.equals(before.idCourse(), after.idCourse()));
+    }
+
+    /** True when the write gives up the seat held before it. */
+    public static boolean freesSeat(EnrollmentState before, EnrollmentState after) {
+        return holdsSeat(before) && !(holdsSeat(after) && Objects.equals(before.idCourse(), after.idCourse()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("course.seats.admissions", admitted, LongAdder::sum)
+                .description("Seats taken in the database")
+                .tag("outcome", "admitted")
+                .register(registry);
+        FunctionCounter.builder("course.seats.admissions", rejectedLocally, LongAdder::sum)
+                .description("Admissions refused by the local seat count, without a query")
+                .tag("outcome", "full-local")
+                .register(registry);
+        FunctionCounter.builder("course.seats.admissions", rejectedByDatabase, LongAdder::sum)
+                .description("Admissions refused by the conditional update")
+                .tag("outcome", "full-database")
+                .register(registry);
+    }
+
+    private AtomicInteger counter(Long idCourse) {
+        AtomicInteger seats = remaining.get(idCourse);
+        if (seats != null) {
+            return seats;
+        }
+        // Own transaction: the caller's one holds a connection to the shard of its student
+        AtomicInteger loaded = onGlobalShard(() -> ownTransaction.execute(status -> jdbcTemplate.query(
+                SEATS + " where id_course = ?",
+                rs -> rs.next() ? new AtomicInteger(left((Integer) rs.getObject(2), rs.getInt(3))) : null,
+                idCourse)));
+        if (loaded == null) {
+            throw new EntityNotFoundException("Course with id " + idCourse + " not found");
+        }
+        AtomicInteger raced = remaining.putIfAbsent(idCourse, loaded);
+        return raced == null ? loaded : raced;
+    }
+
+    private static <T> T onGlobalShard(Supplier<T> work) {
+        return ShardContext.callOn(ShardRouter.GLOBAL_SHARD, work);
+    }
+
+    private static int left(Integer capacity, int taken) {
+        return capacity == null ? UNLIMITED : Math.max(capacity - taken, 0);
+    }
+
+    private static boolean reserve(AtomicInteger seats) {
+        while (true) {
+            int left = seats.get();
+            if (left <= 0) {
+                return false;
+            }
+            if (left == UNLIMITED || seats.compareAndSet(left, left - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static void unreserve(AtomicInteger seats, int count) {
+        seats.getAndUpdate(left -> left == UNLIMITED ? left : (int) Math.min((long) left + count, UNLIMITED - 1));
+    }
+}
@@ -0,0 +1,60 @@
+package tn.esprit.studentmanagement.services;
+
+import tn.esprit.studentmanagement.dto.BatchItem;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Resolves a list of ids with as few {@code IN} queries as possible and
+ * answers in request order, one {@link BatchItem} per requested id. Bulk
+ * writes use the same limits through {@link #distinct} and {@link #chunks}.
+ */
+final class BatchLookup {
+
+    static final int MAX_IDS = 500;
+    static final int CHUNK_SIZE = 100;
+
+    private BatchLookup() {
+    }
+
+    static <T> List<BatchItem<T>> resolve(List<Long> ids, Function<Collection<Long>, List<T>> finder,
+                                          Function<T, Long> idOf) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<Long> distinct = distinct(ids);
+        Map<Long, T> found = new HashMap<>(distinct.size() * 2);
+        for (List<Long> chunk : chunks(distinct)) {
+            for (T item : finder.apply(chunk)) {
+                found.put(idOf.apply(item), item);
+            }
+        }
+        List<BatchItem<T>> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T item = found.get(id);
+            result.add(new BatchItem<>(id, item != null, item));
+        }
+        return result;
+    }
+
+    /** The ids of one request without duplicates, rejecting more than {@link #MAX_IDS} or empty values. */
+    static List<Long> distinct(List<Long> ids) {
+        if (ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids per request, got " + ids.size());
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("ids must not contain empty values");
+        }
+        return List.copyOf(new LinkedHashSet<>(ids));
+    }
+
+    /** Consecutive slices of at most {@link #CHUNK_SIZE} ids, one {@code IN} list each. */
+    static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>(ids.size() / CHUNK_SIZE + 1);
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,270 @@
+package tn.esprit.studentmanagement.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.studentmanagement.bulkhead.Bulkhead;
+import tn.esprit.studentmanagement.bulkhead.Workload;
+import tn.esprit.studentmanagement.dto.CourseRank;
+import tn.esprit.studentmanagement.events.DepartmentStudentsDeletedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentChangedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.events.EnrollmentsArchivedEvent;
+import tn.esprit.studentmanagement.events.StudentsDeletedEvent;
+import tn.esprit.studentmanagement.ranking.CourseRanking;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory grade rankings of the hot enrollment table, one order-statistic
+ * tree per course. Loaded at startup, then kept current from enrollment,
+ * archive and bulk-delete events so reads never scan or sort. Events only
+ * cover this replica's writes, so the rankings are rebuilt every
+ * {@code rankings.resync-interval} to pick up the others'. Changes committed
+ * while a rebuild streams the table are replayed onto the new rankings before
+ * they replace the old ones.
+ */
+@Slf4j
+@Service
+public class CourseRankingService implements ICourseRankingService, MeterBinder {
+
+    static final int MAX_K = 1000;
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private volatile Map<Long, CourseRanking> rankings = new ConcurrentHashMap<>();
+    private final ObjectProvider<ICourseRankingService> self;
+    // Runs the rebuilds asked for by department deletes, off the committing thread and unpinned from its shard
+    private final ExecutorService reloader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "course-rankings");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Non-null while a rebuild runs, and whether a department delete committed since it started; guarded by this
+    private List<Consumer<Map<Long, CourseRanking>>> pending;
+    private boolean stale;
+
+    public CourseRankingService(EnrollmentRepository enrollmentRepository,
+                                PlatformTransactionManager transactionManager,
+                                ObjectProvider<ICourseRankingService> self) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.self = self;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public List<CourseRank> getTopK(Long idCourse, int k) {
+        if (k < 1 || k > MAX_K) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_K);
+        }
+        CourseRanking ranking = rankings.get(idCourse);
+        if (ranking == null) {
+            return List.of();
+        }
+        return ranking.top(k).stream().map(position -> toRank(idCourse, position)).toList();
+    }
+
+    public CourseRank getStudentRank(Long idCourse, Long idStudent) {
+        return Optional.ofNullable(rankings.get(idCourse))
+                .flatMap(ranking -> ranking.positionOf(idStudent))
+                .map(position -> toRank(idCourse, position))
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "No graded enrollment of student " + idStudent + " in course " + idCourse));
+    }
+
+    public double getGradeAtPercentile(Long idCourse, double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+        CourseRanking ranking = rankings.get(idCourse);
+        if (ranking == null || ranking.size() == 0) {
+            throw new EntityNotFoundException("No graded enrollment in course " + idCourse);
+        }
+        return ranking.gradeAtPercentile(percentile).getAsDouble();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${rankings.resync-interval:PT10M}",
+            initialDelayString = "${rankings.resync-interval:PT10M}")
+    @Bulkhead(Workload.REPORTING)
+    public void rebuild() {
+        reload();
+    }
+
+    // Students are not tracked by department: rebuild without them. The rebuild goes through the proxy, so it
+    // takes a reporting permit, and runs on the reloader rather than pinned to the department's shard.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentStudentsDeleted(DepartmentStudentsDeletedEvent event) {
+        synchronized (this) {
+            stale = true;
+        }
+        try {
+            reloader.execute(this::rebuildIfStale);
+        } catch (RejectedExecutionException ex) {
+            log.warn("Course rankings not rebuilt on shutdown", ex);
+        }
+    }
+
+    /** Waits until the rebuilds asked for by department deletes so far have run. */
+    public void flush() {
+        try {
+            reloader.submit(() -> { }).get();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the course rankings", ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reloader.shutdownNow();
+    }
+
+    // A rebuild that started after the delete already left its students out
+    private void rebuildIfStale() {
+        synchronized (this) {
+            if (!stale) {
+                return;
+            }
+        }
+        try {
+            self.getObject().rebuild();
+        } catch (RuntimeException ex) {
+            log.warn("Course rankings rebuild after a department delete failed; the scheduled one will retry", ex);
+        }
+    }
+
+    private void reload() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            if (pending != null) {
+                log.debug("Course rankings rebuild already running");
+                return;
+            }
+            pending = new ArrayList<>();
+            stale = false;
+        }
+        Map<Long, CourseRanking> fresh = new ConcurrentHashMap<>();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<EnrollmentState> states = enrollmentRepository.streamAllStates()) {
+                    states.forEach(state -> upsert(fresh, state));
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pending = null;
+            }
+            throw e;
+        }
+        boolean again;
+        synchronized (this) {
+            pending.forEach(change -> change.accept(fresh));
+            pending = null;
+            rankings = fresh;
+            again = stale;
+        }
+        log.info("Course rankings rebuilt: {} courses, {} entries in {} ms", fresh.size(), entryCount(),
+                (System.nanoTime() - start) / 1_000_000);
+        if (again) {
+            reload();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        EnrollmentState before = event.before();
+        EnrollmentState after = event.after();
+        apply(target -> {
+            if (before != null && before.idCourse() != null) {
+                remove(target, before);
+            }
+            if (after != null) {
+                upsert(target, after);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentsArchived(EnrollmentsArchivedEvent event) {
+        apply(target -> event.archived().forEach(state -> remove(target, state)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsDeleted(StudentsDeletedEvent event) {
+        apply(target -> {
+            for (CourseRanking ranking : target.values()) {
+                event.idStudents().forEach(ranking::removeStudent);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("course.rankings.courses", this, s -> s.rankings.size())
+                .description("Courses with an in-memory grade ranking")
+                .register(registry);
+        Gauge.builder("course.rankings.entries", this, CourseRankingService::entryCount)
+                .description("Graded enrollments held in course rankings")
+                .register(registry);
+        Gauge.builder("course.rankings.memory", this, s -> (double) s.entryCount() * CourseRanking.BYTES_PER_ENTRY)
+                .description("Estimated heap retained by course rankings")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private synchronized void apply(Consumer<Map<Long, CourseRanking>> change) {
+        if (pending != null) {
+            pending.add(change);
+        }
+        change.accept(rankings);
+    }
+
+    private static void upsert(Map<Long, CourseRanking> target, EnrollmentState state) {
+        if (state.idCourse() == null || state.idStudent() == null || state.grade() == null) {
+            return;
+        }
+        target.computeIfAbsent(state.idCourse(), id -> new CourseRanking())
+                .upsert(state.idEnrollment(), state.idStudent(), state.grade());
+    }
+
+    private static void remove(Map<Long, CourseRanking> target, EnrollmentState state) {
+        CourseRanking ranking = target.get(state.idCourse());
+        if (ranking != null) {
+            ranking.remove(state.idEnrollment());
+        }
+    }
+
+    private long entryCount() {
+        return rankings.values().stream().mapToLong(CourseRanking::size).sum();
+    }
+
+    private static CourseRank toRank(Long idCourse, CourseRanking.Position position) {
+        return new CourseRank(idCourse, position.entry().idStudent(), position.entry().idEnrollment(),
+                position.entry().grade(), position.rank(), position.total(), position.percentile());
+    }
+}
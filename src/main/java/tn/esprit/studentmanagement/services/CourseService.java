@@ -0,0 +1,112 @@
+package tn.esprit.studentmanagement.services;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tn.esprit.studentmanagement.catalog.CourseCatalog;
+import tn.esprit.studentmanagement.dto.BatchItem;
+import tn.esprit.studentmanagement.entities.Course;
+import tn.esprit.studentmanagement.events.CourseChangedEvent;
+import tn.esprit.studentmanagement.repositories.CourseRepository;
+
+import java.util.List;
+
+/**
+ * Reads are served from an immutable {@link CourseCatalog} held in a volatile
+ * field: lookups never lock and never query the database once it is loaded.
+ * Writes go to the database first, then publish a new catalog. Writes are
+ * serialized so the catalog is swapped in the same order the rows were
+ * committed; the periodic refresh picks up changes made by other replicas.
+ */
+@Service
+public class CourseService implements ICourseService {
+
+    private final CourseRepository courseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile CourseCatalog catalog;
+    public CourseService(CourseRepository courseRepository, ApplicationEventPublisher eventPublisher) {
+        this.courseRepository = courseRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public List<Course> getAllCourses() {
+        return catalog().all();
+    }
+
+    @Override
+    public Course getCourseById(Long idCourse) {
+        return catalog().byId(idCourse).orElseThrow(() -> new EntityNotFoundException(
+                "Course with id " + idCourse + " not found"));
+    }
+
+    @Override
+    public Course getCourseByCode(String code) {
+        return catalog().byCode(code).orElseThrow(() -> new EntityNotFoundException(
+                "Course with code " + code + " not found"));
+    }
+
+    @Override
+    public List<Course> searchCourses(String codePrefix, Integer minCredit, Integer maxCredit) {
+        if (minCredit != null && maxCredit != null && minCredit > maxCredit) {
+            throw new IllegalArgumentException("minCredit must not be greater than maxCredit");
+        }
+        return catalog().search(codePrefix, minCredit, maxCredit);
+    }
+
+    @Override
+    public List<BatchItem<Course>> getCoursesByIds(List<Long> ids) {
+        CourseCatalog current = catalog();
+        return BatchLookup.resolve(ids, chunk -> chunk.stream()
+                .flatMap(id -> current.byId(id).stream()).toList(), Course::getIdCourse);
+    }
+
+    @Override
+    public synchronized Course saveCourse(Course course) {
+        // An id means an update, even of a course another replica created after the last refresh
+        boolean existing = course.getIdCourse() != null;
+        Course saved = detached(courseRepository.save(course));
+        catalog = catalog().with(saved);
+        if (existing) {
+            // Transcripts embed the course code, name and credit.
+            eventPublisher.publishEvent(new CourseChangedEvent(saved.getIdCourse()));
+        }
+        return saved;
+    }
+
+    @Override
+    public synchronized void deleteCourse(Long idCourse) {
+        courseRepository.deleteById(idCourse);
+        catalog = catalog().without(idCourse);
+        eventPublisher.publishEvent(new CourseChangedEvent(idCourse));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${catalog.refresh-interval:PT5M}",
+            initialDelayString = "${catalog.refresh-interval:PT5M}")
+    public synchronized void refresh() {
+        catalog = CourseCatalog.of(courseRepository.findAll().stream().map(CourseService::detached).toList());
+    }
+
+    // Requests can arrive before ApplicationReadyEvent; the first one loads the catalog.
+    private CourseCatalog catalog() {
+        CourseCatalog current = catalog;
+        if (current == null) {
+            synchronized (this) {
+                if (catalog == null) {
+                    refresh();
+                }
+                current = catalog;
+            }
+        }
+        return current;
+    }
+
+    static Course detached(Course course) {
+        return new Course(course.getIdCourse(), course.getName(), course.getCode(), course.getCredit(),
+                course.getDescription(), course.getCapacity(), null);
+    }
+}
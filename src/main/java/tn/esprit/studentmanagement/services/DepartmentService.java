@@ -1,18 +1,55 @@
 package tn.esprit.studentmanagement.services;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import tn.esprit.studentmanagement.bulkhead.Bulkhead;
+import tn.esprit.studentmanagement.bulkhead.Workload;
+import tn.esprit.studentmanagement.dto.BulkDeleteResult;
 import tn.esprit.studentmanagement.entities.Department;
+import tn.esprit.studentmanagement.events.DepartmentStudentsDeletedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentDays;
+import tn.esprit.studentmanagement.events.EnrollmentsDeletedEvent;
+import tn.esprit.studentmanagement.events.SeatCount;
+import tn.esprit.studentmanagement.events.SeatsReleasedEvent;
 import tn.esprit.studentmanagement.repositories.DepartmentRepository;
+import tn.esprit.studentmanagement.repositories.EnrollmentArchiveRepository;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.repositories.StudentRepository;
+import tn.esprit.studentmanagement.sharding.ShardKey;
+import tn.esprit.studentmanagement.sharding.ShardRouter;
+import tn.esprit.studentmanagement.sharding.ShardTransactions;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 
 public class DepartmentService implements IDepartmentService {
 
+    public static final String DEPARTMENTS_CACHE = "departments";
+
     private final DepartmentRepository departmentRepository;
-    public DepartmentService(DepartmentRepository departmentRepository) {
+    private final StudentRepository studentRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final EnrollmentArchiveRepository enrollmentArchiveRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardTransactions shardTransactions;
+    public DepartmentService(DepartmentRepository departmentRepository,
+                             StudentRepository studentRepository,
+                             EnrollmentRepository enrollmentRepository,
+                             EnrollmentArchiveRepository enrollmentArchiveRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             ShardTransactions shardTransactions) {
         this.departmentRepository = departmentRepository;
+        this.studentRepository = studentRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.enrollmentArchiveRepository = enrollmentArchiveRepository;
+        this.eventPublisher = eventPublisher;
+        this.shardTransactions = shardTransactions;
     }
 
     @Override
@@ -20,20 +57,111 @@ public class DepartmentService implements IDepartmentService {
         return departmentRepository.findAll();
     }
 
+    /**
+     * Cached as a detached copy without its student list, so it stays serializable outside a session.
+     * Concurrent cache misses for the same id share one query.
+     */
     @Override
+    @Cacheable(cacheNames = DEPARTMENTS_CACHE, key = "#idDepartment", sync = true)
     public Department getDepartmentById(Long idDepartment) {
         return departmentRepository.findById(idDepartment)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Department with id " + idDepartment + " not found"));
+                .map(DepartmentService::detached)
+                .orElseThrow(() -> new EntityNotFoundException("Department with id " + idDepartment + " not found"));
     }
 
+    // Cached students embed their department.
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = DEPARTMENTS_CACHE, key = "#result.idDepartment"),
+            @CacheEvict(cacheNames = StudentService.STUDENTS_CACHE, allEntries = true)
+    })
     public Department saveDepartment(Department department) {
         return departmentRepository.save(department);
     }
 
     @Override
+    @CacheEvict(cacheNames = DEPARTMENTS_CACHE, key = "#idDepartment")
     public void deleteDepartment(Long idDepartment) {
 departmentRepository.deleteById(idDepartment);
     }
+
+    /**
+     * Deletes enrollments, then students, then the departments themselves, without loading any entity or
+     * student id. At most {@link BatchLookup#MAX_IDS} ids, deleted {@link BatchLookup#CHUNK_SIZE} at a time
+     * in one transaction per shard; the departments go in the transaction of the global shard, last.
+     */
+    @Override
+    @CacheEvict(cacheNames = DEPARTMENTS_CACHE, allEntries = true)
+    @Bulkhead(Workload.BULK_WRITE)
+    public BulkDeleteResult deleteDepartments(List<Long> idDepartments) {
+        if (idDepartments == null || idDepartments.isEmpty()) {
+            return new BulkDeleteResult(0, 0, 0);
+        }
+        return delete(BatchLookup.distinct(idDepartments));
+    }
+
+    // Departments are reference data: a location never holds more than a few chunks of them.
+    @Override
+    @CacheEvict(cacheNames = DEPARTMENTS_CACHE, allEntries = true)
+    @Bulkhead(Workload.BULK_WRITE)
+    public BulkDeleteResult deleteDepartmentsByLocation(String location) {
+        return delete(departmentRepository.findIdsByLocation(location));
+    }
+
+    private BulkDeleteResult delete(List<Long> idDepartments) {
+        if (idDepartments.isEmpty()) {
+            return new BulkDeleteResult(0, 0, 0);
+        }
+        Map<Integer, List<Long>> byShard = shardTransactions.byShard(idDepartments, ShardKey.Kind.DEPARTMENT);
+        List<Long> onGlobalShard = byShard.getOrDefault(ShardRouter.GLOBAL_SHARD, List.of());
+        int students = 0;
+        int enrollments = 0;
+        for (Map.Entry<Integer, List<Long>> shard : byShard.entrySet()) {
+            if (shard.getKey() != ShardRouter.GLOBAL_SHARD) {
+                BulkDeleteResult deleted = shardTransactions.inTransactionOn(shard.getKey(),
+                        () -> deleteStudents(shard.getValue()));
+                students += deleted.students();
+                enrollments += deleted.enrollments();
+            }
+        }
+        BulkDeleteResult global = shardTransactions.inTransactionOn(ShardRouter.GLOBAL_SHARD, () -> {
+            BulkDeleteResult deleted = deleteStudents(onGlobalShard);
+            int departments = 0;
+            for (List<Long> chunk : BatchLookup.chunks(idDepartments)) {
+                departments += departmentRepository.deleteByIds(chunk);
+            }
+            return new BulkDeleteResult(departments, deleted.students(), deleted.enrollments());
+        });
+        return new BulkDeleteResult(global.departments(), students + global.students(),
+                enrollments + global.enrollments());
+    }
+
+    private BulkDeleteResult deleteStudents(List<Long> idDepartments) {
+        if (idDepartments.isEmpty()) {
+            return new BulkDeleteResult(0, 0, 0);
+        }
+        List<SeatCount> seats = new ArrayList<>();
+        List<EnrollmentDays> days = new ArrayList<>();
+        int students = 0;
+        int enrollments = 0;
+        for (List<Long> chunk : BatchLookup.chunks(idDepartments)) {
+            seats.addAll(enrollmentRepository.countSeatsByDepartmentIds(chunk));
+            days.addAll(enrollmentRepository.findDaysByDepartmentIds(chunk));
+            days.addAll(enrollmentArchiveRepository.findDaysByDepartmentIds(chunk));
+            enrollments += enrollmentRepository.deleteByDepartmentIds(chunk)
+                    + enrollmentArchiveRepository.deleteByDepartmentIds(chunk);
+            students += studentRepository.deleteByDepartmentIds(chunk);
+        }
+        eventPublisher.publishEvent(new DepartmentStudentsDeletedEvent(List.copyOf(idDepartments)));
+        EnrollmentsDeletedEvent.spanning(days).ifPresent(eventPublisher::publishEvent);
+        if (!seats.isEmpty()) {
+            eventPublisher.publishEvent(new SeatsReleasedEvent(seats));
+        }
+        return new BulkDeleteResult(0, students, enrollments);
+    }
+
+    static Department detached(Department department) {
+        return new Department(department.getIdDepartment(), department.getName(), department.getLocation(),
+                department.getPhone(), department.getHead(), null);
+    }
 }
@@ -0,0 +1,233 @@
+package tn.esprit.studentmanagement.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.studentmanagement.analytics.EnrollmentColumns;
+import tn.esprit.studentmanagement.analytics.EnrollmentFilter;
+import tn.esprit.studentmanagement.bulkhead.Bulkhead;
+import tn.esprit.studentmanagement.bulkhead.Workload;
+import tn.esprit.studentmanagement.config.AnalyticsProperties;
+import tn.esprit.studentmanagement.dto.CourseGradeStats;
+import tn.esprit.studentmanagement.dto.GradeBin;
+import tn.esprit.studentmanagement.dto.StatusStats;
+import tn.esprit.studentmanagement.events.DepartmentStudentsDeletedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentChangedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.events.EnrollmentsArchivedEvent;
+import tn.esprit.studentmanagement.events.StudentsDeletedEvent;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Grade distributions, pass rates and per-course averages over the hot
+ * enrollment table, answered from {@link EnrollmentColumns} instead of
+ * entities. Loaded at startup, then kept current from enrollment, archive and
+ * bulk-delete events. Events only cover this replica's writes, so the columns
+ * are rebuilt every {@code analytics.rebuild-interval} to pick up the
+ * others'. Changes committed while a rebuild streams the table are replayed
+ * onto the new columns before they replace the old ones.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(AnalyticsProperties.class)
+public class EnrollmentAnalyticsService implements IEnrollmentAnalyticsService, MeterBinder {
+
+    static final int MAX_BINS = 1000;
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final AnalyticsProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private volatile EnrollmentColumns columns;
+    private final ObjectProvider<IEnrollmentAnalyticsService> self;
+    // Runs the rebuilds asked for by department deletes, off the committing thread and unpinned from its shard
+    private final ExecutorService reloader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "enrollment-analytics");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Non-null while a rebuild runs, and whether a department delete committed since it started; guarded by this
+    private List<Consumer<EnrollmentColumns>> pending;
+    private boolean stale;
+
+    public EnrollmentAnalyticsService(EnrollmentRepository enrollmentRepository,
+                                      AnalyticsProperties properties,
+                                      PlatformTransactionManager transactionManager,
+                                      ObjectProvider<IEnrollmentAnalyticsService> self) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.self = self;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.columns = new EnrollmentColumns(0, properties.chunkRows());
+    }
+
+    @Override
+    public List<GradeBin> getGradeDistribution(EnrollmentFilter filter, double binWidth) {
+        if (!(binWidth > 0) || Math.ceil(properties.maxGrade() / binWidth) > MAX_BINS) {
+            throw new IllegalArgumentException("binWidth must be positive and give at most " + MAX_BINS + " bins");
+        }
+        return columns.gradeDistribution(filter, binWidth, (int) Math.ceil(properties.maxGrade() / binWidth));
+    }
+
+    @Override
+    public List<StatusStats> getStatusStats(EnrollmentFilter filter) {
+        return columns.statusStats(filter, properties.passMark());
+    }
+
+    @Override
+    public List<CourseGradeStats> getCourseStats(EnrollmentFilter filter) {
+        return columns.courseStats(filter, properties.passMark());
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${analytics.rebuild-interval:PT10M}",
+            initialDelayString = "${analytics.rebuild-interval:PT10M}")
+    @Bulkhead(Workload.REPORTING)
+    public void rebuild() {
+        reload();
+    }
+
+    // Students are not tracked by department: rebuild without them. The rebuild goes through the proxy, so it
+    // takes a reporting permit, and runs on the reloader rather than pinned to the department's shard.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentStudentsDeleted(DepartmentStudentsDeletedEvent event) {
+        synchronized (this) {
+            stale = true;
+        }
+        try {
+            reloader.execute(this::rebuildIfStale);
+        } catch (RejectedExecutionException ex) {
+            log.warn("Enrollment analytics columns not rebuilt on shutdown", ex);
+        }
+    }
+
+    /** Waits until the rebuilds asked for by department deletes so far have run. */
+    public void flush() {
+        try {
+            reloader.submit(() -> { }).get();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the enrollment analytics columns", ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reloader.shutdownNow();
+    }
+
+    // A rebuild that started after the delete already left its students out
+    private void rebuildIfStale() {
+        synchronized (this) {
+            if (!stale) {
+                return;
+            }
+        }
+        try {
+            self.getObject().rebuild();
+        } catch (RuntimeException ex) {
+            log.warn("Enrollment analytics rebuild after a department delete failed; the scheduled one will retry",
+                    ex);
+        }
+    }
+
+    private void reload() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            if (pending != null) {
+                log.debug("Enrollment analytics rebuild already running");
+                return;
+            }
+            pending = new ArrayList<>();
+            stale = false;
+        }
+        EnrollmentColumns fresh = new EnrollmentColumns(Math.max(properties.expectedRows(), columns.size()),
+                properties.chunkRows());
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<EnrollmentState> states = enrollmentRepository.streamAllStates()) {
+                    states.forEach(fresh::upsert);
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pending = null;
+            }
+            throw e;
+        }
+        boolean again;
+        synchronized (this) {
+            pending.forEach(change -> change.accept(fresh));
+            pending = null;
+            columns = fresh;
+            again = stale;
+        }
+        log.info("Enrollment analytics columns rebuilt: {} rows, {} KB in {} ms", fresh.size(),
+                fresh.memory() / 1024, (System.nanoTime() - start) / 1_000_000);
+        if (again) {
+            reload();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        EnrollmentState before = event.before();
+        EnrollmentState after = event.after();
+        if (after != null) {
+            apply(target -> target.upsert(after));
+        } else if (before != null && before.idEnrollment() != null) {
+            apply(target -> target.remove(before.idEnrollment()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentsArchived(EnrollmentsArchivedEvent event) {
+        apply(target -> event.archived().forEach(state -> target.remove(state.idEnrollment())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsDeleted(StudentsDeletedEvent event) {
+        apply(target -> target.removeStudents(event.idStudents()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("analytics.enrollments.rows", this, s -> s.columns.size())
+                .description("Enrollments held in the analytics columns")
+                .register(registry);
+        Gauge.builder("analytics.enrollments.memory", this, s -> s.columns.memory())
+                .description("Heap held by the analytics columns and their indexes")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private synchronized void apply(Consumer<EnrollmentColumns> change) {
+        if (pending != null) {
+            pending.add(change);
+        }
+        change.accept(columns);
+    }
+}
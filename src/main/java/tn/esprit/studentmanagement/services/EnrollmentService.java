@@ -1,17 +1,36 @@
 package tn.esprit.studentmanagement.services;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import tn.esprit.studentmanagement.dedup.DuplicateDetector;
+import tn.esprit.studentmanagement.dto.BatchItem;
+import tn.esprit.studentmanagement.events.EnrollmentChangedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.exception.CourseFullException;
+import tn.esprit.studentmanagement.projection.FieldProjector;
 import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.seats.SeatCounters;
 import tn.esprit.studentmanagement.entities.Enrollment;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class EnrollmentService implements IEnrollment {
 
     private final  EnrollmentRepository enrollmentRepository;
-    public EnrollmentService(EnrollmentRepository enrollmentRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final FieldProjector fieldProjector;
+    private final DuplicateDetector duplicateDetector;
+    private final SeatCounters seatCounters;
+    public EnrollmentService(EnrollmentRepository enrollmentRepository, ApplicationEventPublisher eventPublisher,
+                             FieldProjector fieldProjector, DuplicateDetector duplicateDetector,
+                             SeatCounters seatCounters) {
         this.enrollmentRepository = enrollmentRepository;
+        this.eventPublisher = eventPublisher;
+        this.fieldProjector = fieldProjector;
+        this.duplicateDetector = duplicateDetector;
+        this.seatCounters = seatCounters;
     }
 
     @Override
@@ -19,6 +38,12 @@ public class EnrollmentService implements IEnrollment {
         return enrollmentRepository.findAll();
     }
 
+    /** Only the requested columns are selected, e.g. {@code idEnrollment,grade,student.idStudent,course.code}. */
+    @Override
+    public List<Map<String, Object>> getAllEnrollments(List<String> fields) {
+        return fieldProjector.findAll(Enrollment.class, fields);
+    }
+
     @Override
     public Enrollment getEnrollmentById(Long idEnrollment) {
 
@@ -26,13 +51,65 @@ public class EnrollmentService implements IEnrollment {
                 "Enrolment with id " + idEnrollment + " not found"));
     }
 
+    /** Returned as detached copies with their student and course, loaded with one IN query per chunk. */
+    @Override
+    public List<BatchItem<Enrollment>> getEnrollmentsByIds(List<Long> ids) {
+        return BatchLookup.resolve(ids, chunk -> enrollmentRepository.findAllWithStudentAndCourseByIds(chunk).stream()
+                .map(EnrollmentService::detached).toList(), Enrollment::getIdEnrollment);
+    }
+
+    /**
+     * A new ACTIVE enrollment, or one moved into another course, takes a seat first and fails with
+     * {@link CourseFullException} when there is none left. The seat freed by the old state is
+     * released once the write commits.
+     */
     @Override
     public Enrollment saveEnrollment(Enrollment enrollment) {
-        return enrollmentRepository.save(enrollment);
+        duplicateDetector.checkEnrollment(enrollment);
+        EnrollmentState before = currentState(enrollment.getIdEnrollment());
+        EnrollmentState after = EnrollmentState.of(enrollment);
+        boolean seatTaken = SeatCounters.takesSeat(before, after);
+        if (seatTaken && !seatCounters.tryAcquire(after.idCourse())) {
+            throw new CourseFullException(after.idCourse());
+        }
+        Enrollment saved;
+        try {
+            saved = enrollmentRepository.save(enrollment);
+        } catch (RuntimeException e) {
+            if (seatTaken) {
+                seatCounters.release(after.idCourse(), 1);
+            }
+            throw e;
+        }
+        duplicateDetector.registerEnrollment(saved);
+        eventPublisher.publishEvent(new EnrollmentChangedEvent(before, EnrollmentState.of(saved)));
+        return saved;
     }
 
     @Override
     public void deleteEnrollment(Long idEnrollment) {
+        EnrollmentState before = currentState(idEnrollment);
 enrollmentRepository.deleteById(idEnrollment);
+        if (before != null) {
+            eventPublisher.publishEvent(new EnrollmentChangedEvent(before, null));
+        }
+    }
+
+    @Override
+    public List<Enrollment> getEnrollmentsByStudent(Long idStudent, boolean includeHistory) {
+        return enrollmentRepository.findByStudentId(idStudent, includeHistory);
+    }
+
+    static Enrollment detached(Enrollment enrollment) {
+        return new Enrollment(enrollment.getIdEnrollment(), enrollment.getEnrollmentDate(), enrollment.getGrade(),
+                enrollment.getStatus(),
+                enrollment.getStudent() == null ? null : StudentService.detached(enrollment.getStudent()),
+                enrollment.getCourse() == null ? null : CourseService.detached(enrollment.getCourse()));
+    }
+
+    // Copied before the write: save() merges into the same managed instance.
+    private EnrollmentState currentState(Long idEnrollment) {
+        return idEnrollment == null ? null
+                : enrollmentRepository.findById(idEnrollment).map(EnrollmentState::of).orElse(null);
     }
 }
@@ -0,0 +1,330 @@
+package tn.esprit.studentmanagement.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.studentmanagement.bulkhead.Bulkhead;
+import tn.esprit.studentmanagement.bulkhead.Workload;
+import tn.esprit.studentmanagement.bulkhead.WorkloadContext;
+import tn.esprit.studentmanagement.config.StatsProperties;
+import tn.esprit.studentmanagement.dto.EnrollmentCount;
+import tn.esprit.studentmanagement.entities.EnrollmentDailyCount;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.events.EnrollmentChangedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.repositories.EnrollmentDailyCountRepository;
+import tn.esprit.studentmanagement.repositories.StudentRepository;
+import tn.esprit.studentmanagement.sharding.ShardContext;
+import tn.esprit.studentmanagement.sharding.ShardKey;
+import tn.esprit.studentmanagement.sharding.ShardTransactions;
+import tn.esprit.studentmanagement.stats.Dimension;
+import tn.esprit.studentmanagement.stats.Granularity;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.IntSupplier;
+
+import static tn.esprit.studentmanagement.entities.EnrollmentDailyCount.NONE;
+
+/**
+ * Enrollment counts over a date range, answered from the per-day buckets of
+ * {@code enrollment_daily_count} rather than from enrollment rows. Each
+ * committed enrollment write moves its buckets by one, and set-based deletes
+ * have the days of the rows they removed recounted, hot or archived. The
+ * backfill job recomputes the buckets of its window from the rows and repairs
+ * what neither can see: students changing department, a crash after commit.
+ * <p>
+ * The moves are applied off the request thread by a single writer, which
+ * also runs the backfill chunks: a failed move is logged and left to the
+ * backfill rather than failing a write that has already committed, and a
+ * chunk never interleaves with the moves of this instance.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(StatsProperties.class)
+public class EnrollmentStatsService implements IEnrollmentStatsService {
+
+    private static final Comparator<Long> IDS = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final Comparator<EnrollmentCount> ORDER = Comparator.comparing(EnrollmentCount::period)
+            .thenComparing(EnrollmentCount::idCourse, IDS)
+            .thenComparing(EnrollmentCount::idDepartment, IDS)
+            .thenComparing(EnrollmentCount::status, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    static final int MAX_RECOUNTS = 3;
+
+    private final EnrollmentDailyCountRepository dailyCountRepository;
+    private final StudentRepository studentRepository;
+    private final StatsProperties properties;
+    private final ShardTransactions shardTransactions;
+    // Listeners run after the enrollment transaction has committed.
+    private final TransactionTemplate ownTransaction;
+    // Applies moves and backfill chunks one at a time, in the order they were queued
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "enrollment-stats");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Day ranges queued or being recounted; guarded by itself
+    private final List<Recount> recounts = new ArrayList<>();
+
+    public EnrollmentStatsService(EnrollmentDailyCountRepository dailyCountRepository,
+                                  StudentRepository studentRepository,
+                                  StatsProperties properties,
+                                  ShardTransactions shardTransactions,
+                                  PlatformTransactionManager transactionManager) {
+        this.dailyCountRepository = dailyCountRepository;
+        this.studentRepository = studentRepository;
+        this.properties = properties;
+        this.shardTransactions = shardTransactions;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Sums the daily buckets between {@code from} and {@code to} (inclusive) per period and
+     * per requested dimension. The first and last periods only count the days inside the range.
+     */
+    @Override
+    @Bulkhead(Workload.REPORTING)
+    public List<EnrollmentCount> getEnrollmentCounts(LocalDate from, LocalDate to, Granularity granularity,
+                                                     Long idCourse, Long idDepartment, Status status,
+                                                     Set<Dimension> groupBy) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Range start " + from + " is after its end " + to);
+        }
+        Map<EnrollmentCount, Long> totals = new HashMap<>();
+        for (EnrollmentDailyCount bucket : dailyCountRepository.findInRange(from, to, idCourse, idDepartment, status)) {
+            EnrollmentCount key = new EnrollmentCount(
+                    granularity.periodStart(bucket.getBucketDate(), properties.termStartMonths()),
+                    groupBy.contains(Dimension.COURSE) ? orNull(bucket.getIdCourse()) : null,
+                    groupBy.contains(Dimension.DEPARTMENT) ? orNull(bucket.getIdDepartment()) : null,
+                    groupBy.contains(Dimension.STATUS) ? bucket.getStatus() : null,
+                    0);
+            totals.merge(key, bucket.getEnrollments(), Long::sum);
+        }
+        return totals.entrySet().stream()
+                .map(e -> new EnrollmentCount(e.getKey().period(), e.getKey().idCourse(), e.getKey().idDepartment(),
+                        e.getKey().status(), e.getValue()))
+                .sorted(ORDER)
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        touch(event.before());
+        touch(event.after());
+        try {
+            writer.execute(() -> apply(event));
+        } catch (RejectedExecutionException ex) {
+            log.warn("Enrollment counts not moved on shutdown; the next backfill repairs them", ex);
+        }
+    }
+
+    /**
+     * Runs {@code recount} of the buckets from {@code first} to {@code last} on the
+     * writer, after the moves queued before it and before those queued after it.
+     * A move of those days queued meanwhile may come from a write the recount
+     * already saw, so the recount is run again, at most {@link #MAX_RECOUNTS} times.
+     * Moves made by other instances are not fenced; the next backfill repairs them.
+     */
+    public int recount(LocalDate first, LocalDate last, IntSupplier recount) {
+        for (int attempt = 1; ; attempt++) {
+            Recount fence = fence(first, last);
+            int buckets;
+            try {
+                buckets = await(writer.submit(() -> runRecount(recount)));
+            } finally {
+                unfence(fence);
+            }
+            if (!fence.touched) {
+                return buckets;
+            }
+            if (attempt == MAX_RECOUNTS) {
+                log.warn("Enrollment counts from {} to {} kept moving during {} recounts", first, last, attempt);
+                return buckets;
+            }
+        }
+    }
+
+    /**
+     * Queues {@code recount} as {@link #recount} does, without waiting for it, for
+     * callers that must not hold the committing thread. A failure is logged and
+     * left to the next backfill.
+     */
+    public void recountLater(LocalDate first, LocalDate last, IntSupplier recount) {
+        recountLater(first, last, recount, 1);
+    }
+
+    private void recountLater(LocalDate first, LocalDate last, IntSupplier recount, int attempt) {
+        Recount fence = fence(first, last);
+        try {
+            writer.execute(() -> {
+                try {
+                    runRecount(recount);
+                } catch (RuntimeException ex) {
+                    log.warn("Enrollment counts from {} to {} not recounted; the next backfill repairs them",
+                            first, last, ex);
+                    return;
+                } finally {
+                    unfence(fence);
+                }
+                if (fence.touched) {
+                    if (attempt < MAX_RECOUNTS) {
+                        recountLater(first, last, recount, attempt + 1);
+                    } else {
+                        log.warn("Enrollment counts from {} to {} kept moving during {} recounts",
+                                first, last, attempt);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            unfence(fence);
+            log.warn("Enrollment counts from {} to {} not recounted on shutdown; the next backfill repairs them",
+                    first, last, ex);
+        }
+    }
+
+    /** Waits until the moves queued so far are applied. */
+    public void flush() {
+        await(writer.submit(() -> 0));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+    }
+
+    private void apply(EnrollmentChangedEvent event) {
+        try {
+            Map<Long, Long> departments = new HashMap<>();
+            Bucket before = bucket(event.before(), departments);
+            Bucket after = bucket(event.after(), departments);
+            if (Objects.equals(before, after)) {
+                return;
+            }
+            // Buckets live on the shard of their department, so the two moves may land on different shards.
+            Map<Integer, List<Runnable>> moves = new TreeMap<>();
+            if (before != null) {
+                moves.computeIfAbsent(shardOf(before), shard -> new ArrayList<>()).add(() -> increment(before, -1));
+            }
+            if (after != null) {
+                moves.computeIfAbsent(shardOf(after), shard -> new ArrayList<>()).add(() -> increment(after, 1));
+            }
+            moves.forEach((shard, increments) -> ShardContext.callOn(shard, () -> ownTransaction.execute(tx -> {
+                increments.forEach(Runnable::run);
+                return null;
+            })));
+        } catch (RuntimeException ex) {
+            log.warn("Enrollment counts not moved for enrollment {}; the next backfill repairs them",
+                    event.after() != null ? event.after().idEnrollment() : event.before().idEnrollment(), ex);
+        }
+    }
+
+    private Recount fence(LocalDate first, LocalDate last) {
+        Recount fence = new Recount(first, last);
+        synchronized (recounts) {
+            recounts.add(fence);
+        }
+        return fence;
+    }
+
+    private void unfence(Recount fence) {
+        synchronized (recounts) {
+            recounts.remove(fence);
+        }
+    }
+
+    // The writer thread has no workload of its own; recounts are bulk writes.
+    private static int runRecount(IntSupplier recount) {
+        return WorkloadContext.callAs(Workload.BULK_WRITE, recount::getAsInt);
+    }
+
+    private void touch(EnrollmentState state) {
+        if (state == null || state.enrollmentDate() == null) {
+            return;
+        }
+        synchronized (recounts) {
+            recounts.stream()
+                    .filter(fence -> fence.covers(state.enrollmentDate()))
+                    .forEach(fence -> fence.touched = true);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new UndeclaredThrowableException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the enrollment counts", ex);
+        }
+    }
+
+    private int shardOf(Bucket bucket) {
+        return shardTransactions.shardOf(bucket.idDepartment(), ShardKey.Kind.DEPARTMENT);
+    }
+
+    private void increment(Bucket bucket, long delta) {
+        dailyCountRepository.increment(bucket.day(), bucket.idCourse(), bucket.idDepartment(),
+                bucket.status().name(), delta);
+    }
+
+    // Enrollments without a date are not counted; a missing status counts as ACTIVE, as in the backfill.
+    private Bucket bucket(EnrollmentState state, Map<Long, Long> departments) {
+        if (state == null || state.enrollmentDate() == null) {
+            return null;
+        }
+        Long idDepartment = state.idStudent() == null ? NONE : departments.computeIfAbsent(state.idStudent(),
+                idStudent -> studentRepository.findDepartmentIdById(idStudent).orElse(NONE));
+        return new Bucket(state.enrollmentDate(), state.idCourse() == null ? NONE : state.idCourse(), idDepartment,
+                state.status() == null ? Status.ACTIVE : state.status());
+    }
+
+    private static Long orNull(Long id) {
+        return id == NONE ? null : id;
+    }
+
+    private record Bucket(LocalDate day, Long idCourse, Long idDepartment, Status status) {
+    }
+
+    private static final class Recount {
+        final LocalDate first;
+        final LocalDate last;
+        // Guarded by recounts
+        boolean touched;
+
+        Recount(LocalDate first, LocalDate last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        boolean covers(LocalDate day) {
+            return !day.isBefore(first) && !day.isAfter(last);
+        }
+    }
+}
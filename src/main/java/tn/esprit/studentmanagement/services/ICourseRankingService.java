@@ -0,0 +1,12 @@
+package tn.esprit.studentmanagement.services;
+
+import tn.esprit.studentmanagement.dto.CourseRank;
+
+import java.util.List;
+
+public interface ICourseRankingService {
+    public List<CourseRank> getTopK(Long idCourse, int k);
+    public CourseRank getStudentRank(Long idCourse, Long idStudent);
+    public double getGradeAtPercentile(Long idCourse, double percentile);
+    public void rebuild();
+}
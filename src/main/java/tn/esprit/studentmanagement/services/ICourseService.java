@@ -0,0 +1,16 @@
+package tn.esprit.studentmanagement.services;
+
+import tn.esprit.studentmanagement.dto.BatchItem;
+import tn.esprit.studentmanagement.entities.Course;
+
+import java.util.List;
+
+public interface ICourseService {
+    public List<Course> getAllCourses();
+    public Course getCourseById(Long idCourse);
+    public Course getCourseByCode(String code);
+    public List<Course> searchCourses(String codePrefix, Integer minCredit, Integer maxCredit);
+    public List<BatchItem<Course>> getCoursesByIds(List<Long> ids);
+    public Course saveCourse(Course course);
+    public void deleteCourse(Long idCourse);
+}
@@ -1,12 +1,19 @@
 package tn.esprit.studentmanagement.services;
 
+import tn.esprit.studentmanagement.dto.BulkDeleteResult;
 import tn.esprit.studentmanagement.entities.Department;
 
 import java.util.List;
 
 public interface IDepartmentService {
     public List<Department> getAllDepartments();
+    /**
+     * Returns a detached copy, possibly from the cache or a startup snapshot: its
+     * {@code students} collection is not loaded and stays null.
+     */
     public Department getDepartmentById(Long idDepartment);
     public Department saveDepartment(Department department);
     public void deleteDepartment(Long idDepartment);
+    public BulkDeleteResult deleteDepartments(List<Long> idDepartments);
+    public BulkDeleteResult deleteDepartmentsByLocation(String location);
 }
@@ -1,13 +1,18 @@
 package tn.esprit.studentmanagement.services;
 
+import tn.esprit.studentmanagement.dto.BatchItem;
 import tn.esprit.studentmanagement.entities.Enrollment;
 
 import java.util.List;
+import java.util.Map;
 
 public interface IEnrollment {
     public List<Enrollment> getAllEnrollments();
+    public List<Map<String, Object>> getAllEnrollments(List<String> fields);
     public Enrollment getEnrollmentById(Long idEnrollment);
+    public List<BatchItem<Enrollment>> getEnrollmentsByIds(List<Long> ids);
     public Enrollment saveEnrollment(Enrollment enrollment);
     public void deleteEnrollment(Long idEnrollment);
+    public List<Enrollment> getEnrollmentsByStudent(Long idStudent, boolean includeHistory);
 
 }
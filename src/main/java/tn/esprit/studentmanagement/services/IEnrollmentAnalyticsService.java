@@ -0,0 +1,15 @@
+package tn.esprit.studentmanagement.services;
+
+import tn.esprit.studentmanagement.analytics.EnrollmentFilter;
+import tn.esprit.studentmanagement.dto.CourseGradeStats;
+import tn.esprit.studentmanagement.dto.GradeBin;
+import tn.esprit.studentmanagement.dto.StatusStats;
+
+import java.util.List;
+
+public interface IEnrollmentAnalyticsService {
+    public List<GradeBin> getGradeDistribution(EnrollmentFilter filter, double binWidth);
+    public List<StatusStats> getStatusStats(EnrollmentFilter filter);
+    public List<CourseGradeStats> getCourseStats(EnrollmentFilter filter);
+    public void rebuild();
+}
@@ -0,0 +1,16 @@
+package tn.esprit.studentmanagement.services;
+
+import tn.esprit.studentmanagement.dto.EnrollmentCount;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.stats.Dimension;
+import tn.esprit.studentmanagement.stats.Granularity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+public interface IEnrollmentStatsService {
+    public List<EnrollmentCount> getEnrollmentCounts(LocalDate from, LocalDate to, Granularity granularity,
+                                                     Long idCourse, Long idDepartment, Status status,
+                                                     Set<Dimension> groupBy);
+}
@@ -1,12 +1,23 @@
 package tn.esprit.studentmanagement.services;
 
+import tn.esprit.studentmanagement.dto.BatchItem;
+import tn.esprit.studentmanagement.dto.BulkDeleteResult;
 import tn.esprit.studentmanagement.entities.Student;
 
 import java.util.List;
+import java.util.Map;
 
 public interface IStudentService {
     public List<Student> getAllStudents();
+    public List<Map<String, Object>> getAllStudents(List<String> fields);
+    /**
+     * Returns a detached copy, possibly from the cache or a startup snapshot: the
+     * department is included without its students, and {@code enrollments} stays null.
+     */
     public Student getStudentById(Long id);
+    public List<BatchItem<Student>> getStudentsByIds(List<Long> ids);
     public Student saveStudent(Student student);
     public void deleteStudent(Long id);
+    public BulkDeleteResult deleteStudents(List<Long> ids);
+    public BulkDeleteResult deleteStudentsByDepartment(Long idDepartment);
 }
@@ -0,0 +1,15 @@
+package tn.esprit.studentmanagement.services;
+
+import tn.esprit.studentmanagement.dto.StudentGpa;
+import tn.esprit.studentmanagement.dto.Transcript;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ITranscriptService {
+    public Transcript getTranscript(Long idStudent);
+    public List<StudentGpa> getDepartmentGpas(Long idDepartment);
+    public void evictTranscript(Long idStudent);
+    public void evictTranscripts(Collection<Long> idStudents);
+    public void evictAllTranscripts();
+}
@@ -2,24 +2,181 @@ package tn.esprit.studentmanagement.services;
 
 
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tn.esprit.studentmanagement.bulkhead.Bulkhead;
+import tn.esprit.studentmanagement.bulkhead.Workload;
+import tn.esprit.studentmanagement.dedup.DuplicateDetector;
+import tn.esprit.studentmanagement.dto.BatchItem;
+import tn.esprit.studentmanagement.dto.BulkDeleteResult;
 import tn.esprit.studentmanagement.entities.Student;
+import tn.esprit.studentmanagement.events.DepartmentStudentsDeletedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentDays;
+import tn.esprit.studentmanagement.events.EnrollmentsDeletedEvent;
+import tn.esprit.studentmanagement.events.SeatCount;
+import tn.esprit.studentmanagement.events.SeatsReleasedEvent;
+import tn.esprit.studentmanagement.events.StudentsDeletedEvent;
+import tn.esprit.studentmanagement.projection.FieldProjector;
+import tn.esprit.studentmanagement.repositories.EnrollmentArchiveRepository;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
 import tn.esprit.studentmanagement.repositories.StudentRepository;
+import tn.esprit.studentmanagement.sharding.ShardKey;
+import tn.esprit.studentmanagement.sharding.ShardTransactions;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class StudentService implements IStudentService {
 
+    public static final String STUDENTS_CACHE = "students";
 
     private final StudentRepository studentRepository;
-    public StudentService(StudentRepository studentRepository) {
+    private final EnrollmentRepository enrollmentRepository;
+    private final EnrollmentArchiveRepository enrollmentArchiveRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final FieldProjector fieldProjector;
+    private final DuplicateDetector duplicateDetector;
+    private final ShardTransactions shardTransactions;
+    public StudentService(StudentRepository studentRepository, EnrollmentRepository enrollmentRepository,
+                          EnrollmentArchiveRepository enrollmentArchiveRepository,
+                          ApplicationEventPublisher eventPublisher, CacheManager cacheManager,
+                          FieldProjector fieldProjector, DuplicateDetector duplicateDetector,
+                          ShardTransactions shardTransactions) {
         this.studentRepository = studentRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.enrollmentArchiveRepository = enrollmentArchiveRepository;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.fieldProjector = fieldProjector;
+        this.duplicateDetector = duplicateDetector;
+        this.shardTransactions = shardTransactions;
     }
 
     public List<Student> getAllStudents() { return studentRepository.findAll(); }
-    public Student getStudentById(Long id) { return studentRepository.findById(id).orElse(null); }
-    public Student saveStudent(Student student) { return studentRepository.save(student); }
+
+    /** Only the requested columns are selected, e.g. {@code idStudent,lastName,department.name}. */
+    public List<Map<String, Object>> getAllStudents(List<String> fields) {
+        return fieldProjector.findAll(Student.class, fields);
+    }
+
+    /**
+     * Cached as a detached copy without enrollments, so it stays serializable outside a session.
+     * Concurrent cache misses for the same id share one query. An unknown id is cached as null until a
+     * student is saved under it, which evicts it.
+     */
+    @Cacheable(cacheNames = STUDENTS_CACHE, key = "#id", sync = true)
+    public Student getStudentById(Long id) {
+        return studentRepository.findById(id).map(StudentService::detached).orElse(null);
+    }
+
+    /** One IN query per {@link BatchLookup#CHUNK_SIZE} ids, department fetched in the same query. */
+    public List<BatchItem<Student>> getStudentsByIds(List<Long> ids) {
+        return BatchLookup.resolve(ids, chunk -> studentRepository.findAllWithDepartmentByIds(chunk).stream()
+                .map(StudentService::detached).toList(), Student::getIdStudent);
+    }
+
+    @CacheEvict(cacheNames = STUDENTS_CACHE, key = "#result.idStudent")
+    public Student saveStudent(Student student) {
+        duplicateDetector.checkStudent(student);
+        Student saved = studentRepository.save(student);
+        duplicateDetector.registerStudent(saved);
+        return saved;
+    }
+
+    @CacheEvict(cacheNames = STUDENTS_CACHE, key = "#id")
     public void deleteStudent(Long id) { studentRepository.deleteById(id); }
 
+    /**
+     * At most {@link BatchLookup#MAX_IDS} ids, deleted {@link BatchLookup#CHUNK_SIZE} at a time in one
+     * transaction per shard.
+     */
+    @Bulkhead(Workload.BULK_WRITE)
+    public BulkDeleteResult deleteStudents(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new BulkDeleteResult(0, 0, 0);
+        }
+        int students = 0;
+        int enrollments = 0;
+        for (Map.Entry<Integer, List<Long>> shard
+                : shardTransactions.byShard(BatchLookup.distinct(ids), ShardKey.Kind.ID).entrySet()) {
+            BulkDeleteResult deleted = shardTransactions.inTransactionOn(shard.getKey(),
+                    () -> deleteOnShard(shard.getValue()));
+            students += deleted.students();
+            enrollments += deleted.enrollments();
+        }
+        return new BulkDeleteResult(0, students, enrollments);
+    }
+
+    private BulkDeleteResult deleteOnShard(List<Long> ids) {
+        List<SeatCount> seats = new ArrayList<>();
+        List<EnrollmentDays> days = new ArrayList<>();
+        int students = 0;
+        int enrollments = 0;
+        for (List<Long> chunk : BatchLookup.chunks(ids)) {
+            seats.addAll(enrollmentRepository.countSeatsByStudentIds(chunk));
+            days.addAll(enrollmentRepository.findDaysByStudentIds(chunk));
+            days.addAll(enrollmentArchiveRepository.findDaysByStudentIds(chunk));
+            enrollments += enrollmentRepository.deleteByStudentIds(chunk)
+                    + enrollmentArchiveRepository.deleteByStudentIds(chunk);
+            students += studentRepository.deleteByIds(chunk);
+        }
+        eventPublisher.publishEvent(new StudentsDeletedEvent(ids));
+        EnrollmentsDeletedEvent.spanning(days).ifPresent(eventPublisher::publishEvent);
+        if (!seats.isEmpty()) {
+            eventPublisher.publishEvent(new SeatsReleasedEvent(seats));
+        }
+        return new BulkDeleteResult(0, students, enrollments);
+    }
+
+    /** Subquery deletes on the department: the student ids are never loaded. */
+    @Bulkhead(Workload.BULK_WRITE)
+    public BulkDeleteResult deleteStudentsByDepartment(Long idDepartment) {
+        List<Long> idDepartments = List.of(idDepartment);
+        return shardTransactions.inTransactionOn(shardTransactions.shardOf(idDepartment, ShardKey.Kind.DEPARTMENT),
+                () -> {
+                    List<SeatCount> seats = enrollmentRepository.countSeatsByDepartmentIds(idDepartments);
+                    List<EnrollmentDays> days = new ArrayList<>();
+                    days.addAll(enrollmentRepository.findDaysByDepartmentIds(idDepartments));
+                    days.addAll(enrollmentArchiveRepository.findDaysByDepartmentIds(idDepartments));
+                    int enrollments = enrollmentRepository.deleteByDepartmentIds(idDepartments)
+                            + enrollmentArchiveRepository.deleteByDepartmentIds(idDepartments);
+                    int students = studentRepository.deleteByDepartmentIds(idDepartments);
+                    eventPublisher.publishEvent(new DepartmentStudentsDeletedEvent(idDepartments));
+                    EnrollmentsDeletedEvent.spanning(days).ifPresent(eventPublisher::publishEvent);
+                    if (!seats.isEmpty()) {
+                        eventPublisher.publishEvent(new SeatsReleasedEvent(seats));
+                    }
+                    return new BulkDeleteResult(0, students, enrollments);
+                });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsDeleted(StudentsDeletedEvent event) {
+        Cache cache = cacheManager.getCache(STUDENTS_CACHE);
+        if (cache != null) {
+            event.idStudents().forEach(cache::evict);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentStudentsDeleted(DepartmentStudentsDeletedEvent event) {
+        Cache cache = cacheManager.getCache(STUDENTS_CACHE);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    static Student detached(Student student) {
+        return new Student(student.getIdStudent(), student.getFirstName(), student.getLastName(), student.getEmail(),
+                student.getPhone(), student.getDateOfBirth(), student.getAddress(),
+                student.getDepartment() == null ? null : DepartmentService.detached(student.getDepartment()), null);
+    }
 }
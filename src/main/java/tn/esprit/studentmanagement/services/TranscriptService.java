@@ -0,0 +1,112 @@
+package tn.esprit.studentmanagement.services;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tn.esprit.studentmanagement.dto.GpaView;
+import tn.esprit.studentmanagement.dto.StudentGpa;
+import tn.esprit.studentmanagement.dto.Transcript;
+import tn.esprit.studentmanagement.dto.TranscriptLine;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.events.CourseChangedEvent;
+import tn.esprit.studentmanagement.events.DepartmentStudentsDeletedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentChangedEvent;
+import tn.esprit.studentmanagement.events.StudentsDeletedEvent;
+import tn.esprit.studentmanagement.repositories.TranscriptRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Service
+public class TranscriptService implements ITranscriptService {
+
+    public static final String TRANSCRIPTS_CACHE = "transcripts";
+
+    private final TranscriptRepository transcriptRepository;
+    private final CacheManager cacheManager;
+    public TranscriptService(TranscriptRepository transcriptRepository, CacheManager cacheManager) {
+        this.transcriptRepository = transcriptRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    @Cacheable(cacheNames = TRANSCRIPTS_CACHE, key = "#idStudent")
+    @Transactional(readOnly = true)
+    public Transcript getTranscript(Long idStudent) {
+        GpaView gpa = transcriptRepository.findGpa(idStudent);
+        if (gpa == null) {
+            throw new EntityNotFoundException("Student with id " + idStudent + " not found");
+        }
+        List<TranscriptLine> lines = transcriptRepository.findTranscriptLines(idStudent).stream()
+                .map(l -> new TranscriptLine(l.getIdCourse(), l.getCode(), l.getName(), l.getCredit(),
+                        l.getGrade(), l.getStatus() == null ? null : Status.valueOf(l.getStatus()),
+                        l.getEnrollmentDate()))
+                .toList();
+        return new Transcript(idStudent, lines, gpa.getGradedCredits(), gpa.getGpa());
+    }
+
+    // Served to users on a GET, so it stays on the interactive pool.
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentGpa> getDepartmentGpas(Long idDepartment) {
+        return transcriptRepository.findDepartmentGpas(idDepartment).stream()
+                .map(g -> new StudentGpa(g.getIdStudent(), g.getFirstName(), g.getLastName(),
+                        g.getGradedCredits(), g.getGpa()))
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsDeleted(StudentsDeletedEvent event) {
+        evictTranscripts(event.idStudents());
+    }
+
+    // Transcripts are not indexed by department.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentStudentsDeleted(DepartmentStudentsDeletedEvent event) {
+        evictAllTranscripts();
+    }
+
+    // Any transcript may list the course, and transcripts are not indexed by course.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        evictAllTranscripts();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        if (!event.affectsTranscript()) {
+            return;
+        }
+        if (event.before() != null) {
+            evictTranscript(event.before().idStudent());
+        }
+        if (event.after() != null) {
+            evictTranscript(event.after().idStudent());
+        }
+    }
+
+    @Override
+    public void evictTranscript(Long idStudent) {
+        Cache cache = cacheManager.getCache(TRANSCRIPTS_CACHE);
+        if (cache != null && idStudent != null) {
+            cache.evict(idStudent);
+        }
+    }
+
+    @Override
+    public void evictTranscripts(Collection<Long> idStudents) {
+        idStudents.forEach(this::evictTranscript);
+    }
+
+    @Override
+    public void evictAllTranscripts() {
+        Cache cache = cacheManager.getCache(TRANSCRIPTS_CACHE);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
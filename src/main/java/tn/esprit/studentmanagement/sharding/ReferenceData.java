@@ -0,0 +1,24 @@
+package tn.esprit.studentmanagement.sharding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a repository over a table kept on the global shard and copied to
+ * every other shard, so that students and enrollments can join it locally.
+ * Writes go to the global shard and the table is replicated once they commit.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ReferenceData {
+
+    /** Replicated table. */
+    String value();
+
+    /** Its primary key column. */
+    String id();
+}
@@ -0,0 +1,107 @@
+package tn.esprit.studentmanagement.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Copies {@link ReferenceData} tables from the global shard to every other
+ * shard: rows are upserted by id and rows gone from the global shard are
+ * deleted. The tables are small, so a write replicates the whole table.
+ */
+@Slf4j
+public class ReferenceDataReplicator {
+
+    private static final Object PENDING = new Object();
+
+    private final ShardRoutingDataSource dataSource;
+    private final ListableBeanFactory beanFactory;
+
+    public ReferenceDataReplicator(ShardRoutingDataSource dataSource, ListableBeanFactory beanFactory) {
+        this.dataSource = dataSource;
+        this.beanFactory = beanFactory;
+    }
+
+    /** Replicates once the current transaction commits, once per table, or right away outside of one. */
+    public void replicateAfterCommit(ReferenceData table) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            replicate(table);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<ReferenceData> pending = (Set<ReferenceData>) TransactionSynchronizationManager.getResource(PENDING);
+        if (pending == null) {
+            Set<ReferenceData> tables = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING, tables);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tables.forEach(ReferenceDataReplicator.this::replicate);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING);
+                }
+            });
+            pending = tables;
+        }
+        pending.add(table);
+    }
+
+    /** Catches up with writes made while this replica was down, or by hand on the global shard. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replicateAll() {
+        for (String name : beanFactory.getBeanNamesForAnnotation(ReferenceData.class)) {
+            replicate(beanFactory.findAnnotationOnBean(name, ReferenceData.class));
+        }
+    }
+
+    public synchronized void replicate(ReferenceData table) {
+        List<Map<String, Object>> rows = new JdbcTemplate(dataSource.shard(ShardRouter.GLOBAL_SHARD))
+                .queryForList("select * from " + table.value());
+        for (int shard = 1; shard < dataSource.shardCount(); shard++) {
+            JdbcTemplate replica = new JdbcTemplate(dataSource.shard(shard));
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource.shard(shard)))
+                    .executeWithoutResult(status -> copy(replica, table, rows));
+        }
+        log.debug("Replicated {} rows of {} to {} shards", rows.size(), table.value(), dataSource.shardCount() - 1);
+    }
+
+    private static void copy(JdbcTemplate replica, ReferenceData table, List<Map<String, Object>> rows) {
+        Set<Object> ids = new HashSet<>();
+        if (!rows.isEmpty()) {
+            List<String> columns = List.copyOf(rows.get(0).keySet());
+            String sql = "insert into " + table.value() + " (" + String.join(", ", columns) + ") values ("
+                    + columns.stream().map(column -> "?").collect(Collectors.joining(", "))
+                    + ") on duplicate key update "
+                    + columns.stream().map(column -> column + " = values(" + column + ")")
+                    .collect(Collectors.joining(", "));
+            List<Object[]> values = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                values.add(columns.stream().map(row::get).toArray());
+                ids.add(row.get(table.id()));
+            }
+            replica.batchUpdate(sql, values);
+        }
+        List<Object[]> removed = replica.queryForList("select " + table.id() + " from " + table.value(), Object.class)
+                .stream().filter(id -> !ids.contains(id)).map(id -> new Object[]{id}).toList();
+        if (!removed.isEmpty()) {
+            replica.batchUpdate("delete from " + table.value() + " where " + table.id() + " = ?", removed);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package tn.esprit.studentmanagement.sharding;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Modifying;
+
+import java.lang.reflect.Method;
+
+/** Sends the writes of a {@link ReferenceData} repository to the global shard, then replicates the table. */
+class ReplicatingInterceptor implements MethodInterceptor {
+
+    private final ReferenceData table;
+    private final ObjectProvider<ReferenceDataReplicator> replicator;
+
+    ReplicatingInterceptor(ReferenceData table, ObjectProvider<ReferenceDataReplicator> replicator) {
+        this.table = table;
+        this.replicator = replicator;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!isWrite(invocation.getMethod())) {
+            // Any shard holds a copy; unpinned reads go to the global one
+            return invocation.proceed();
+        }
+        Integer pinned = ShardContext.current();
+        if (pinned != null && pinned != ShardRouter.GLOBAL_SHARD) {
+            throw new IllegalStateException(table.value() + " is written on the global shard only, not on shard "
+                    + pinned);
+        }
+        Object result = invocation.proceed();
+        replicator.getObject().replicateAfterCommit(table);
+        return result;
+    }
+
+    private static boolean isWrite(Method method) {
+        String name = method.getName();
+        return AnnotatedElementUtils.hasAnnotation(method, Modifying.class)
+                || name.startsWith("save") || name.startsWith("delete");
+    }
+}
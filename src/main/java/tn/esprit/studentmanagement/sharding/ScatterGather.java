@@ -0,0 +1,248 @@
+package tn.esprit.studentmanagement.sharding;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.studentmanagement.bulkhead.Workload;
+import tn.esprit.studentmanagement.bulkhead.WorkloadContext;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs one call per shard on worker threads, each pinned to its shard, in
+ * a transaction of its own and as the caller's workload. Shard calls therefore never join the caller's
+ * transaction: each commits on its own shard, which is why routed writes are
+ * not sent here from inside a transaction.
+ */
+public class ScatterGather implements AutoCloseable {
+
+    static final int STREAM_BUFFER = 1024;
+
+    private static final Object END = new Object();
+    private static final Object NULL = new Object();
+
+    private record Failure(Throwable cause) {
+    }
+
+    private final ExecutorService executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transaction;
+    private final Duration timeout;
+
+    public ScatterGather(PlatformTransactionManager transactionManager, Duration timeout) {
+        // Shard pools bound the number of queries in flight; threads only wait on them.
+        this.executor = Executors.newCachedThreadPool(daemonThreads());
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.timeout = timeout;
+    }
+
+    /** Results in the order of {@code shards}; the first failure cancels the other calls. */
+    public <T> List<T> gather(Collection<Integer> shards, boolean readOnly, IntFunction<T> call) {
+        List<Future<T>> futures = new ArrayList<>(shards.size());
+        Workload workload = WorkloadContext.current();
+        for (Integer shard : shards) {
+            futures.add(executor.submit(() -> WorkloadContext.callAs(workload, () -> onShard(shard, readOnly, call))));
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            }
+            return results;
+        } catch (TimeoutException ex) {
+            throw new QueryTimeoutException("Shard calls did not complete within " + timeout, ex);
+        } catch (ExecutionException ex) {
+            throw propagate(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shards", ex);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Concatenates the streams of each shard in turn. Every shard is read on a
+     * worker holding its own read-only transaction, a bounded buffer ahead of
+     * the consumer; closing the stream cancels the worker.
+     */
+    public <T> Stream<T> stream(Collection<Integer> shards, IntFunction<Stream<T>> open) {
+        MergedCursor<T> cursor = new MergedCursor<>(shards.iterator(), open);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+                .onClose(cursor::close);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T onShard(int shard, boolean readOnly, IntFunction<T> call) {
+        TransactionTemplate template = readOnly ? readOnlyTransaction : transaction;
+        return ShardContext.callOn(shard, () -> template.execute(status -> call.apply(shard)));
+    }
+
+    static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new UndeclaredThrowableException(cause);
+    }
+
+    private final class MergedCursor<T> implements Iterator<T> {
+
+        private final Iterator<Integer> shards;
+        private final IntFunction<Stream<T>> open;
+        private ShardCursor<T> current;
+
+        MergedCursor(Iterator<Integer> shards, IntFunction<Stream<T>> open) {
+            this.shards = shards;
+            this.open = open;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (true) {
+                if (current == null) {
+                    if (!shards.hasNext()) {
+                        return false;
+                    }
+                    current = new ShardCursor<>(shards.next(), open);
+                }
+                if (current.hasNext()) {
+                    return true;
+                }
+                current = null;
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        void close() {
+            if (current != null) {
+                current.producer.cancel(true);
+            }
+        }
+    }
+
+    private final class ShardCursor<T> implements Iterator<T> {
+
+        private final BlockingQueue<Object> buffer = new ArrayBlockingQueue<>(STREAM_BUFFER);
+        private final Future<?> producer;
+        private Object next;
+
+        ShardCursor(int shard, IntFunction<Stream<T>> open) {
+            Workload workload = WorkloadContext.current();
+            this.producer = executor.submit(() -> WorkloadContext.callAs(workload, () -> {
+                produce(shard, open);
+                return null;
+            }));
+        }
+
+        private void produce(int shard, IntFunction<Stream<T>> open) {
+            try {
+                onShard(shard, true, s -> {
+                    try (Stream<T> rows = open.apply(s)) {
+                        rows.forEach(row -> put(row == null ? NULL : row));
+                    }
+                    return null;
+                });
+                put(END);
+            } catch (CancelledException ex) {
+                // consumer closed the stream
+            } catch (Throwable ex) {
+                buffer.clear();
+                buffer.offer(new Failure(ex));
+            }
+        }
+
+        private void put(Object element) {
+            try {
+                buffer.put(element);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CancelledException();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = buffer.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    producer.cancel(true);
+                    throw new IllegalStateException("Interrupted while reading a shard", ex);
+                }
+                if (next == null) {
+                    producer.cancel(true);
+                    throw new QueryTimeoutException("No row from shard within " + timeout);
+                }
+                if (next instanceof Failure failure) {
+                    throw propagate(failure.cause());
+                }
+            }
+            return next != END;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object element = next;
+            next = null;
+            return element == NULL ? null : (T) element;
+        }
+    }
+
+    private static final class CancelledException extends RuntimeException {
+        CancelledException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "shard-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
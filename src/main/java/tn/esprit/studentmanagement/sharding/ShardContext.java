@@ -0,0 +1,35 @@
+package tn.esprit.studentmanagement.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread is pinned to. Connections taken from the
+ * routing datasource while pinned go to that shard, and sharded repository
+ * calls run in place instead of being routed.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /** Pinned shard, or {@code null} outside of {@link #callOn}. */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T callOn(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
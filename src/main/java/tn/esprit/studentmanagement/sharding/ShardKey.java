@@ -0,0 +1,26 @@
+package tn.esprit.studentmanagement.sharding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Repository parameter that selects the shard of a {@link Sharded} call. A
+ * collection argument is split so that each shard only receives its own keys.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface ShardKey {
+
+    Kind value() default Kind.ID;
+
+    enum Kind {
+        /** Student, enrollment or archived enrollment id; the shard is encoded in it. */
+        ID,
+        /** Department id; all students of a department live on its placement shard. */
+        DEPARTMENT
+    }
+}
@@ -0,0 +1,115 @@
+package tn.esprit.studentmanagement.sharding;
+
+import tn.esprit.studentmanagement.entities.Department;
+import tn.esprit.studentmanagement.entities.Enrollment;
+import tn.esprit.studentmanagement.entities.EnrollmentArchive;
+import tn.esprit.studentmanagement.entities.Student;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Placement rules. A new student goes to the shard its department is placed
+ * on (the global shard when the department has none) and its enrollments
+ * follow it. Each shard allocates student and enrollment ids from its own
+ * range, {@code shard << ID_BITS} upwards, so an id alone names its shard and
+ * ids stay unique across shards. Ids of the global shard start at 1, so an
+ * existing single database becomes the global shard unchanged.
+ */
+public class ShardRouter {
+
+    public static final int GLOBAL_SHARD = 0;
+    public static final int ID_BITS = 40;
+
+    private final List<String> names;
+    private final Map<Long, Integer> placements;
+
+    public ShardRouter(List<String> names, Map<Long, Integer> placements) {
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.names = List.copyOf(names);
+        this.placements = Map.copyOf(placements);
+        this.placements.forEach((idDepartment, shard) -> checkShard(shard));
+    }
+
+    public int shardCount() {
+        return names.size();
+    }
+
+    public List<Integer> allShards() {
+        return IntStream.range(0, names.size()).boxed().toList();
+    }
+
+    public String name(int shard) {
+        return names.get(shard);
+    }
+
+    /** First id handed out by the shard's student and enrollment tables. */
+    public static long firstId(int shard) {
+        return shard == GLOBAL_SHARD ? 1 : (long) shard << ID_BITS;
+    }
+
+    public int shardOfId(long id) {
+        return checkShard((int) (id >>> ID_BITS));
+    }
+
+    public int shardOfDepartment(Long idDepartment) {
+        return idDepartment == null ? GLOBAL_SHARD : placements.getOrDefault(idDepartment, GLOBAL_SHARD);
+    }
+
+    /**
+     * Shard of a key: an id of the given kind, or a student, enrollment,
+     * archived enrollment or archive id.
+     */
+    public int shardOf(Object key, ShardKey.Kind kind) {
+        if (key instanceof Long id) {
+            return kind == ShardKey.Kind.DEPARTMENT ? shardOfDepartment(id) : shardOfId(id);
+        }
+        if (key instanceof Student student) {
+            return shardOf(student);
+        }
+        if (key instanceof Enrollment enrollment) {
+            if (enrollment.getIdEnrollment() != null) {
+                return shardOfId(enrollment.getIdEnrollment());
+            }
+            return enrollment.getStudent() == null ? GLOBAL_SHARD : shardOf(enrollment.getStudent());
+        }
+        if (key instanceof EnrollmentArchive archive) {
+            return shardOfId(archive.getIdEnrollment());
+        }
+        if (key instanceof EnrollmentArchive.ArchiveId archiveId) {
+            return shardOfId(archiveId.getIdEnrollment());
+        }
+        throw new IllegalArgumentException("Cannot place " + key + " on a shard");
+    }
+
+    /**
+     * A saved student stays on the shard of its id; moving it to a department
+     * placed elsewhere would split that department across shards.
+     */
+    private int shardOf(Student student) {
+        int placement = shardOfDepartment(idDepartment(student.getDepartment()));
+        if (student.getIdStudent() == null) {
+            return placement;
+        }
+        int shard = shardOfId(student.getIdStudent());
+        if (student.getDepartment() != null && shard != placement) {
+            throw new IllegalArgumentException("Student " + student.getIdStudent() + " is on shard " + name(shard)
+                    + " and cannot move to a department placed on shard " + name(placement));
+        }
+        return shard;
+    }
+
+    private static Long idDepartment(Department department) {
+        return department == null ? null : department.getIdDepartment();
+    }
+
+    private int checkShard(int shard) {
+        if (shard < 0 || shard >= names.size()) {
+            throw new IllegalArgumentException("Unknown shard " + shard);
+        }
+        return shard;
+    }
+}
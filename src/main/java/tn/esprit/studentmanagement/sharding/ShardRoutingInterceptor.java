@@ -0,0 +1,298 @@
+package tn.esprit.studentmanagement.sharding;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Routes the calls of a {@link Sharded} bean. A call whose key names one
+ * shard runs there directly; a call with a collection of keys is split per
+ * shard; any other call is scattered to every shard and the results merged:
+ * lists concatenated (sorted when a {@link Sort} or {@link Pageable} is
+ * given), counts summed, pages cut from the merged, sorted content.
+ * <p>
+ * A call runs on the caller's thread only when the thread holds no
+ * transaction or entity manager, which would already be bound to a
+ * connection of some shard; otherwise it runs on a worker in a transaction
+ * of its own. A read inside the caller's transaction therefore does not see
+ * its uncommitted writes, and a write inside it is rejected, as it would
+ * commit on its own: such work runs pinned to its shard, through
+ * {@link ShardTransactions}.
+ */
+class ShardRoutingInterceptor implements MethodInterceptor {
+
+    // Inherited CRUD methods whose single argument is an id or an entity
+    private static final Set<String> KEYED_METHODS = Set.of("findById", "existsById", "deleteById", "getById",
+            "getReferenceById", "getOne", "save", "saveAndFlush", "delete");
+
+    private final ObjectProvider<ShardRouter> router;
+    private final ObjectProvider<ScatterGather> scatterGather;
+
+    ShardRoutingInterceptor(ObjectProvider<ShardRouter> router, ObjectProvider<ScatterGather> scatterGather) {
+        this.router = router;
+        this.scatterGather = scatterGather;
+    }
+
+    /** One shard call and its arguments. */
+    record Route(int shard, Object[] arguments) {
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Integer pinned = ShardContext.current();
+        if (pinned != null) {
+            return proceedPinned(invocation, pinned);
+        }
+        if (isWrite(method) && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Sharded write " + method.getDeclaringClass().getSimpleName() + "."
+                    + method.getName() + " inside an unpinned transaction would commit on its own; "
+                    + "run the transaction on its shard with ShardTransactions");
+        }
+        Pageable page = pageable(invocation.getArguments());
+        List<Route> routes = routes(method, invocation.getArguments(), page);
+        if (Stream.class.isAssignableFrom(method.getReturnType())) {
+            Map<Integer, Object[]> arguments = byShard(routes);
+            return scatterGather.getObject().stream(arguments.keySet(),
+                    shard -> (Stream<?>) proceed(invocation, arguments.get(shard)));
+        }
+        if (routes.size() == 1 && threadIsFree()) {
+            Route route = routes.get(0);
+            return ShardContext.callOn(route.shard(), () -> proceed(invocation, route.arguments()));
+        }
+        Map<Integer, Object[]> arguments = byShard(routes);
+        List<Object> results = scatterGather.getObject().gather(arguments.keySet(), !isWrite(method),
+                shard -> proceed(invocation, arguments.get(shard)));
+        return routes.size() == 1 ? results.get(0) : merge(method, results, page, sort(invocation.getArguments()));
+    }
+
+    List<Route> routes(Method method, Object[] arguments, Pageable page) {
+        ShardRouter shards = router.getObject();
+        int keyIndex = keyIndex(method);
+        if (keyIndex >= 0 && arguments[keyIndex] != null) {
+            Object key = arguments[keyIndex];
+            ShardKey.Kind kind = kind(method, keyIndex);
+            if (!(key instanceof Iterable<?> keys)) {
+                return List.of(new Route(shards.shardOf(key, kind), arguments));
+            }
+            Map<Integer, List<Object>> split = new LinkedHashMap<>();
+            keys.forEach(element -> split.computeIfAbsent(shards.shardOf(element, kind), s -> new ArrayList<>())
+                    .add(element));
+            if (split.size() <= 1) {
+                int shard = split.isEmpty() ? ShardRouter.GLOBAL_SHARD : split.keySet().iterator().next();
+                return List.of(new Route(shard, arguments));
+            }
+            List<Route> routes = new ArrayList<>(split.size());
+            split.forEach((shard, part) -> {
+                Object[] copy = arguments.clone();
+                copy[keyIndex] = part;
+                routes.add(new Route(shard, copy));
+            });
+            return routes;
+        }
+        // Scattered: every shard returns the first offset + size rows, the merge cuts the page.
+        Object[] scattered = arguments;
+        if (page != null && page.isPaged() && shards.shardCount() > 1) {
+            scattered = arguments.clone();
+            for (int i = 0; i < scattered.length; i++) {
+                if (scattered[i] instanceof Pageable) {
+                    scattered[i] = PageRequest.of(0,
+                            (int) Math.min(Integer.MAX_VALUE, page.getOffset() + page.getPageSize()), page.getSort());
+                }
+            }
+        }
+        List<Route> routes = new ArrayList<>(shards.shardCount());
+        for (Integer shard : shards.allShards()) {
+            routes.add(new Route(shard, scattered));
+        }
+        return routes;
+    }
+
+    private Object proceedPinned(MethodInvocation invocation, int pinned) throws Throwable {
+        int keyIndex = keyIndex(invocation.getMethod());
+        Object key = keyIndex < 0 ? null : invocation.getArguments()[keyIndex];
+        if (key != null && !(key instanceof Iterable<?>)) {
+            int shard = router.getObject().shardOf(key, kind(invocation.getMethod(), keyIndex));
+            if (shard != pinned) {
+                throw new IllegalStateException("Call for shard " + shard + " made while pinned to shard " + pinned);
+            }
+        }
+        return invocation.proceed();
+    }
+
+    private static Object proceed(MethodInvocation invocation, Object[] arguments) {
+        try {
+            // A clone per shard call: the same invocation may be proceeded on several workers at once
+            if (invocation instanceof ProxyMethodInvocation proxied) {
+                return proxied.invocableClone(arguments).proceed();
+            }
+            return invocation.proceed();
+        } catch (Throwable ex) {
+            throw ScatterGather.propagate(ex);
+        }
+    }
+
+    /** A bound transaction or entity manager already holds a connection, possibly to another shard. */
+    private static boolean threadIsFree() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.getResourceMap().isEmpty();
+    }
+
+    private static int keyIndex(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (AnnotatedElementUtils.hasAnnotation(method.getParameters()[i], ShardKey.class)) {
+                return i;
+            }
+        }
+        boolean inherited = method.getDeclaringClass().getName().startsWith("org.springframework.data.");
+        if (inherited && types.length == 1
+                && (KEYED_METHODS.contains(method.getName()) || Iterable.class.isAssignableFrom(types[0]))) {
+            return 0;
+        }
+        return -1;
+    }
+
+    private static ShardKey.Kind kind(Method method, int keyIndex) {
+        ShardKey key = method.getParameters()[keyIndex].getAnnotation(ShardKey.class);
+        return key == null ? ShardKey.Kind.ID : key.value();
+    }
+
+    private static boolean isWrite(Method method) {
+        String name = method.getName();
+        return AnnotatedElementUtils.hasAnnotation(method, Modifying.class)
+                || name.startsWith("save") || name.startsWith("delete");
+    }
+
+    private static Map<Integer, Object[]> byShard(List<Route> routes) {
+        Map<Integer, Object[]> arguments = new LinkedHashMap<>();
+        routes.forEach(route -> arguments.put(route.shard(), route.arguments()));
+        return arguments;
+    }
+
+    private static Pageable pageable(Object[] arguments) {
+        for (Object argument : arguments) {
+            if (argument instanceof Pageable page) {
+                return page;
+            }
+        }
+        return null;
+    }
+
+    private static Sort sort(Object[] arguments) {
+        for (Object argument : arguments) {
+            if (argument instanceof Sort sort) {
+                return sort;
+            }
+            if (argument instanceof Pageable page) {
+                return page.getSort();
+            }
+        }
+        return Sort.unsorted();
+    }
+
+    static Object merge(Method method, List<Object> results, Pageable page, Sort sort) {
+        Class<?> type = method.getReturnType();
+        if (type == void.class) {
+            return null;
+        }
+        if (Slice.class.isAssignableFrom(type)) {
+            List<Object> content = new ArrayList<>();
+            long total = 0;
+            for (Object result : results) {
+                Slice<?> slice = (Slice<?>) result;
+                content.addAll(slice.getContent());
+                total += slice instanceof Page<?> partial ? partial.getTotalElements() : 0;
+            }
+            content.sort(comparator(sort, content));
+            List<Object> window = window(content, page);
+            if (Page.class.isAssignableFrom(type)) {
+                return new PageImpl<>(window, page == null ? Pageable.unpaged() : page, total);
+            }
+            boolean hasNext = page != null && page.isPaged() && content.size() > page.getOffset() + page.getPageSize();
+            return new SliceImpl<>(window, page == null ? Pageable.unpaged() : page, hasNext);
+        }
+        if (Collection.class.isAssignableFrom(type) || type == Iterable.class) {
+            List<Object> content = new ArrayList<>();
+            results.forEach(result -> ((Iterable<?>) result).forEach(content::add));
+            if (sort.isSorted() || (page != null && page.isPaged())) {
+                content.sort(comparator(sort, content));
+            }
+            List<Object> window = window(content, page);
+            return Set.class.isAssignableFrom(type) ? new LinkedHashSet<>(window) : window;
+        }
+        if (type == Optional.class) {
+            return results.stream().map(Optional.class::cast).filter(Optional::isPresent).findFirst()
+                    .orElse(Optional.empty());
+        }
+        if (type == long.class || type == Long.class) {
+            return results.stream().mapToLong(result -> ((Number) result).longValue()).sum();
+        }
+        if (type == int.class || type == Integer.class) {
+            return results.stream().mapToInt(result -> ((Number) result).intValue()).sum();
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return results.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        return results.stream().filter(result -> result != null).findFirst().orElse(null);
+    }
+
+    private static List<Object> window(List<Object> content, Pageable page) {
+        if (page == null || page.isUnpaged()) {
+            return content;
+        }
+        int from = (int) Math.min(content.size(), page.getOffset());
+        int to = (int) Math.min(content.size(), page.getOffset() + page.getPageSize());
+        return new ArrayList<>(content.subList(from, to));
+    }
+
+    /**
+     * Order of a {@link Sort} over bean properties; without one, natural order
+     * for comparable rows (ids) and shard order otherwise.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Object> comparator(Sort sort, List<Object> content) {
+        if (sort.isUnsorted()) {
+            boolean comparable = content.stream().allMatch(row -> row instanceof Comparable);
+            return comparable ? (a, b) -> ((Comparable) a).compareTo(b) : (a, b) -> 0;
+        }
+        Comparator<Object> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Comparable> values = Comparator.nullsLast(Comparator.naturalOrder());
+            if (order.isDescending()) {
+                values = Comparator.nullsLast(Comparator.<Comparable>naturalOrder().reversed());
+            }
+            Comparator<Comparable> byValue = values;
+            comparator = comparator.thenComparing(row -> (Comparable) new BeanWrapperImpl(row)
+                    .getPropertyValue(order.getProperty()), byValue);
+        }
+        return comparator;
+    }
+}
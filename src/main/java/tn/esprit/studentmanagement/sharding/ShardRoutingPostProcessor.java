@@ -0,0 +1,69 @@
+package tn.esprit.studentmanagement.sharding;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts the routing advice in front of every bean whose class or proxied
+ * interfaces are {@link Sharded} or {@link ReferenceData}, ahead of the
+ * transaction advice so that the shard is chosen before a connection is.
+ */
+public class ShardRoutingPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<ShardRouter> router;
+    private final ObjectProvider<ScatterGather> scatterGather;
+    private final ObjectProvider<ReferenceDataReplicator> replicator;
+
+    public ShardRoutingPostProcessor(ObjectProvider<ShardRouter> router, ObjectProvider<ScatterGather> scatterGather,
+                                     ObjectProvider<ReferenceDataReplicator> replicator) {
+        this.router = router;
+        this.scatterGather = scatterGather;
+        this.replicator = replicator;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        MethodInterceptor interceptor = interceptorFor(bean);
+        if (interceptor == null) {
+            return bean;
+        }
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvisor(0, new DefaultPointcutAdvisor(interceptor));
+            return bean;
+        }
+        ProxyFactory factory = new ProxyFactory(bean);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(interceptor);
+        return factory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    private MethodInterceptor interceptorFor(Object bean) {
+        List<Class<?>> types = new ArrayList<>();
+        if (bean instanceof Advised advised) {
+            types.addAll(List.of(advised.getProxiedInterfaces()));
+            if (advised.getTargetClass() != null) {
+                types.add(advised.getTargetClass());
+            }
+        } else {
+            types.add(bean.getClass());
+        }
+        for (Class<?> type : types) {
+            if (AnnotationUtils.findAnnotation(type, Sharded.class) != null) {
+                return new ShardRoutingInterceptor(router, scatterGather);
+            }
+            ReferenceData table = AnnotationUtils.findAnnotation(type, ReferenceData.class);
+            if (table != null) {
+                return new ReplicatingInterceptor(table, replicator);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,71 @@
+package tn.esprit.studentmanagement.sharding;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Transactions pinned to one shard. The sharded repository calls made inside
+ * run in place and take part in the transaction; unpinned, a write would be
+ * routed to a worker and commit on its own, which the routing rejects inside a
+ * transaction. Work that spans shards runs as one transaction per shard, so it
+ * is atomic on each shard but not across them. Without sharding there is only
+ * the global shard and these are plain transactions.
+ */
+@Component
+public class ShardTransactions {
+
+    private final ObjectProvider<ShardRouter> router;
+    private final TransactionTemplate transaction;
+
+    public ShardTransactions(ObjectProvider<ShardRouter> router, PlatformTransactionManager transactionManager) {
+        this.router = router;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public List<Integer> shards() {
+        ShardRouter shards = router.getIfAvailable();
+        return shards == null ? List.of(ShardRouter.GLOBAL_SHARD) : shards.allShards();
+    }
+
+    public int shardOf(Object key, ShardKey.Kind kind) {
+        ShardRouter shards = router.getIfAvailable();
+        return shards == null ? ShardRouter.GLOBAL_SHARD : shards.shardOf(key, kind);
+    }
+
+    /** The keys of each shard holding some, the global shard last so work there can follow the others. */
+    public Map<Integer, List<Long>> byShard(Collection<Long> keys, ShardKey.Kind kind) {
+        Map<Integer, List<Long>> split = new TreeMap<>();
+        keys.forEach(key -> split.computeIfAbsent(shardOf(key, kind), shard -> new ArrayList<>()).add(key));
+        Map<Integer, List<Long>> ordered = new LinkedHashMap<>(split);
+        List<Long> global = ordered.remove(ShardRouter.GLOBAL_SHARD);
+        if (global != null) {
+            ordered.put(ShardRouter.GLOBAL_SHARD, global);
+        }
+        return ordered;
+    }
+
+    /**
+     * Runs {@code work} in a transaction on {@code shard}. With sharding, the
+     * thread must not already be in a transaction: its connection may belong
+     * to another shard.
+     */
+    public <T> T inTransactionOn(int shard, Supplier<T> work) {
+        if (router.getIfAvailable() != null && TransactionSynchronizationManager.isActualTransactionActive()
+                && !Integer.valueOf(shard).equals(ShardContext.current())) {
+            throw new IllegalStateException("Cannot start a transaction on shard " + shard
+                    + " inside a transaction that may hold a connection to another shard");
+        }
+        return ShardContext.callOn(shard, () -> transaction.execute(status -> work.get()));
+    }
+}
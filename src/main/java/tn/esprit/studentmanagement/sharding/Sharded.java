@@ -0,0 +1,19 @@
+package tn.esprit.studentmanagement.sharding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a repository over data placed on one shard per student. Calls are
+ * sent to a single shard when an argument identifies it (a {@link ShardKey},
+ * an entity, or the id of the inherited CRUD methods) and scattered to every
+ * shard otherwise.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Sharded {
+}
@@ -0,0 +1,130 @@
+package tn.esprit.studentmanagement.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import tn.esprit.studentmanagement.bulkhead.WorkloadPools;
+import tn.esprit.studentmanagement.config.ShardingProperties;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Horizontal sharding of students and their enrollments by department
+ * ({@code sharding.enabled=true}). Replaces the single datasource with one
+ * pool per shard behind a routing datasource, migrates every shard, and
+ * routes the {@link Sharded} and {@link ReferenceData} repositories.
+ * <p>
+ * Transactions never span shards: a routed read inside a transaction runs in
+ * a transaction of its own on its shard, and a routed write there is rejected;
+ * writes that must be atomic run in a transaction pinned to their shard
+ * ({@link ShardTransactions}). The open entity manager in view
+ * would hold one shard's connection for a whole request, so it must be off.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    static final Map<String, String> SHARDED_IDS = Map.of("student", "id_student", "enrollment", "id_enrollment");
+
+    @Bean
+    ShardRouter shardRouter(ShardingProperties properties) {
+        List<String> names = properties.shards().stream().map(ShardingProperties.Shard::name).toList();
+        Map<Long, Integer> placements = new HashMap<>();
+        properties.placements().forEach((idDepartment, name) -> {
+            int shard = names.indexOf(name);
+            if (shard < 0) {
+                throw new IllegalArgumentException(
+                        "Department " + idDepartment + " is placed on unknown shard " + name);
+            }
+            placements.put(idDepartment, shard);
+        });
+        return new ShardRouter(names, placements);
+    }
+
+    @Bean
+    ShardRoutingDataSource dataSource(ShardingProperties properties, Environment environment,
+                                      ObjectProvider<WorkloadPools> workloadPools) {
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("sharding.enabled requires spring.jpa.open-in-view=false");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        for (ShardingProperties.Shard shard : properties.shards()) {
+            DataSourceBuilder<HikariDataSource> database = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(shard.url()).username(shard.username()).password(shard.password());
+            WorkloadPools pools = workloadPools.getIfAvailable();
+            if (pools != null) {
+                shards.add(pools.create("shard-" + shard.name(), database));
+                continue;
+            }
+            HikariDataSource pool = database.build();
+            pool.setPoolName("shard-" + shard.name());
+            shards.add(pool);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /** Applies the migrations to every shard, then moves each shard's id sequences into its range. */
+    @Bean
+    FlywayMigrationStrategy shardMigrationStrategy(ShardRoutingDataSource dataSource, ShardingProperties properties) {
+        return flyway -> {
+            for (int shard = 0; shard < dataSource.shardCount(); shard++) {
+                Flyway.configure(flyway.getConfiguration().getClassLoader())
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(dataSource.shard(shard))
+                        .load()
+                        .migrate();
+                reserveIdRange(dataSource.shard(shard), properties.shards().get(shard).url(), shard);
+            }
+        };
+    }
+
+    @Bean
+    ScatterGather scatterGather(PlatformTransactionManager transactionManager, ShardingProperties properties) {
+        return new ScatterGather(transactionManager, properties.timeout());
+    }
+
+    @Bean
+    ReferenceDataReplicator referenceDataReplicator(ShardRoutingDataSource dataSource,
+                                                    ListableBeanFactory beanFactory) {
+        return new ReferenceDataReplicator(dataSource, beanFactory);
+    }
+
+    @Bean
+    static ShardRoutingPostProcessor shardRoutingPostProcessor(ObjectProvider<ShardRouter> router,
+                                                               ObjectProvider<ScatterGather> scatterGather,
+                                                               ObjectProvider<ReferenceDataReplicator> replicator) {
+        return new ShardRoutingPostProcessor(router, scatterGather, replicator);
+    }
+
+    private static void reserveIdRange(DataSource shard, String url, int index) {
+        if (index == ShardRouter.GLOBAL_SHARD) {
+            return;
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(shard);
+        long first = ShardRouter.firstId(index);
+        boolean h2 = DatabaseDriver.fromJdbcUrl(url) == DatabaseDriver.H2;
+        SHARDED_IDS.forEach((table, column) -> {
+            Long max = jdbc.queryForObject("select coalesce(max(" + column + "), 0) from " + table, Long.class);
+            if (max != null && max < first) {
+                jdbc.execute(h2 ? "alter table " + table + " alter column " + column + " restart with " + first
+                        : "alter table " + table + " auto_increment = " + first);
+            }
+        });
+    }
+}
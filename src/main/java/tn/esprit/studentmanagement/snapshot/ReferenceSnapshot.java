@@ -0,0 +1,176 @@
+package tn.esprit.studentmanagement.snapshot;
+
+import tn.esprit.studentmanagement.entities.Department;
+import tn.esprit.studentmanagement.entities.Student;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Departments and hot students in a compact binary file. Layout: a fixed
+ * header (magic, format version, creation time, payload length, CRC32 of the
+ * payload) followed by length-prefixed records. Entities are rebuilt without
+ * their collections, like the copies the services cache.
+ */
+public record ReferenceSnapshot(Instant createdAt, List<Department> departments, List<Student> students) {
+
+    static final int MAGIC = 0x534D5253; // "SMRS"
+    static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 8;
+    private static final long NONE = Long.MIN_VALUE;
+
+    /** Thrown when a file is not a snapshot this build can read. */
+    public static class InvalidSnapshotException extends IOException {
+        public InvalidSnapshotException(String message) {
+            super(message);
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(departments.size());
+        for (Department department : departments) {
+            out.writeLong(department.getIdDepartment());
+            writeString(out, department.getName());
+            writeString(out, department.getLocation());
+            writeString(out, department.getPhone());
+            writeString(out, department.getHead());
+        }
+        out.writeInt(students.size());
+        for (Student student : students) {
+            out.writeLong(student.getIdStudent());
+            writeString(out, student.getFirstName());
+            writeString(out, student.getLastName());
+            writeString(out, student.getEmail());
+            writeString(out, student.getPhone());
+            out.writeLong(student.getDateOfBirth() == null ? NONE : student.getDateOfBirth().toEpochDay());
+            writeString(out, student.getAddress());
+            out.writeLong(student.getDepartment() == null ? NONE : student.getDepartment().getIdDepartment());
+        }
+        out.flush();
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(createdAt.toEpochMilli())
+                .putInt(payload.length)
+                .putLong(crc.getValue())
+                .flip();
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        // Unique per writer: replicas on one node share the directory
+        Path temp = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                ByteBuffer body = ByteBuffer.wrap(payload);
+                while (header.hasRemaining() || body.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, body});
+                }
+                channel.force(false);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Maps the file read-only and decodes it after checking magic, version and checksum. */
+    public static ReferenceSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new InvalidSnapshotException("Truncated snapshot header");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new InvalidSnapshotException("Not a reference data snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new InvalidSnapshotException("Unsupported snapshot format version " + version);
+            }
+            Instant createdAt = Instant.ofEpochMilli(buffer.getLong());
+            int length = buffer.getInt();
+            long checksum = buffer.getLong();
+            if (length != size - HEADER_BYTES) {
+                throw new InvalidSnapshotException("Snapshot payload length mismatch");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice());
+            if (crc.getValue() != checksum) {
+                throw new InvalidSnapshotException("Snapshot checksum mismatch");
+            }
+            return decode(createdAt, buffer);
+        }
+    }
+
+    private static ReferenceSnapshot decode(Instant createdAt, ByteBuffer in) throws InvalidSnapshotException {
+        try {
+            int departmentCount = in.getInt();
+            Map<Long, Department> departments = new LinkedHashMap<>(departmentCount * 2);
+            for (int i = 0; i < departmentCount; i++) {
+                Department department = new Department(in.getLong(), readString(in), readString(in),
+                        readString(in), readString(in), null);
+                departments.put(department.getIdDepartment(), department);
+            }
+            int studentCount = in.getInt();
+            List<Student> students = new ArrayList<>(studentCount);
+            for (int i = 0; i < studentCount; i++) {
+                long id = in.getLong();
+                String firstName = readString(in);
+                String lastName = readString(in);
+                String email = readString(in);
+                String phone = readString(in);
+                long dateOfBirth = in.getLong();
+                String address = readString(in);
+                long idDepartment = in.getLong();
+                Department department = idDepartment == NONE ? null : departments.get(idDepartment);
+                if (idDepartment != NONE && department == null) {
+                    continue; // department deleted after the student was cached
+                }
+                students.add(new Student(id, firstName, lastName, email, phone,
+                        dateOfBirth == NONE ? null : LocalDate.ofEpochDay(dateOfBirth), address, department, null));
+            }
+            return new ReferenceSnapshot(createdAt, List.copyOf(departments.values()), students);
+        } catch (RuntimeException ex) {
+            throw new InvalidSnapshotException("Corrupt snapshot payload: " + ex);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = StandardCharsets.UTF_8.decode(in.slice(in.position(), length)).toString();
+        in.position(in.position() + length);
+        return value;
+    }
+}
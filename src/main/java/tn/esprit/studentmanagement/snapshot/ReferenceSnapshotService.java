@@ -0,0 +1,184 @@
+package tn.esprit.studentmanagement.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.studentmanagement.cache.BroadcastingCache;
+import tn.esprit.studentmanagement.cache.CacheInvalidations;
+import tn.esprit.studentmanagement.config.SnapshotProperties;
+import tn.esprit.studentmanagement.entities.Department;
+import tn.esprit.studentmanagement.entities.Student;
+import tn.esprit.studentmanagement.repositories.DepartmentRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static tn.esprit.studentmanagement.services.DepartmentService.DEPARTMENTS_CACHE;
+import static tn.esprit.studentmanagement.services.StudentService.STUDENTS_CACHE;
+
+/**
+ * Persists all departments and the students currently in the cache to a
+ * local snapshot every {@code snapshot.interval} and on shutdown, and loads it
+ * back into the caches while the application starts: runners complete before
+ * the readiness state turns to ACCEPTING_TRAFFIC. A missing, corrupt, foreign
+ * or older than {@code snapshot.max-age} snapshot is ignored and the caches
+ * fill lazily as before. Entries changed by any replica since the snapshot was
+ * taken are evicted again by replaying the cache invalidation log; when the
+ * log cannot be read the snapshot is dropped.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "snapshot", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(SnapshotProperties.class)
+public class ReferenceSnapshotService implements ApplicationRunner {
+
+    private final DepartmentRepository departmentRepository;
+    private final CacheManager cacheManager;
+    private final ObjectProvider<CacheInvalidations> cacheInvalidations;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SnapshotProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public ReferenceSnapshotService(DepartmentRepository departmentRepository,
+                                    CacheManager cacheManager,
+                                    ObjectProvider<CacheInvalidations> cacheInvalidations,
+                                    PlatformTransactionManager transactionManager,
+                                    SnapshotProperties properties) {
+        this(departmentRepository, cacheManager, cacheInvalidations, transactionManager, properties,
+                Clock.systemUTC());
+    }
+
+    ReferenceSnapshotService(DepartmentRepository departmentRepository,
+                             CacheManager cacheManager,
+                             ObjectProvider<CacheInvalidations> cacheInvalidations,
+                             PlatformTransactionManager transactionManager,
+                             SnapshotProperties properties,
+                             Clock clock) {
+        this.departmentRepository = departmentRepository;
+        this.cacheManager = cacheManager;
+        this.cacheInvalidations = cacheInvalidations;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        load();
+    }
+
+    /** Returns the number of cache entries warmed, 0 when falling back to lazy loading. */
+    public int load() {
+        if (!Files.exists(properties.file())) {
+            log.info("No reference data snapshot at {}, caches will warm lazily", properties.file());
+            return 0;
+        }
+        long start = System.nanoTime();
+        ReferenceSnapshot snapshot;
+        try {
+            snapshot = ReferenceSnapshot.read(properties.file());
+        } catch (IOException ex) {
+            log.warn("Ignoring reference data snapshot {}: {}", properties.file(), ex.getMessage());
+            return 0;
+        }
+        Duration age = Duration.between(snapshot.createdAt(), clock.instant());
+        if (age.compareTo(properties.maxAge()) > 0) {
+            log.info("Ignoring reference data snapshot {} taken {} ago", properties.file(), age);
+            return 0;
+        }
+        Cache departments = cacheManager.getCache(DEPARTMENTS_CACHE);
+        Cache students = cacheManager.getCache(STUDENTS_CACHE);
+        int warmed = 0;
+        for (Department department : snapshot.departments()) {
+            // putIfAbsent: never overwrite what a request already loaded from the database
+            departments.putIfAbsent(department.getIdDepartment(), department);
+            warmed++;
+        }
+        for (Student student : snapshot.students()) {
+            students.putIfAbsent(student.getIdStudent(), student);
+            warmed++;
+        }
+        // Invalidations written after this point reach the caches through the regular sync
+        CacheInvalidations invalidations = cacheInvalidations.getIfAvailable();
+        if (invalidations != null) {
+            try {
+                int replayed = invalidations.replaySince(snapshot.createdAt());
+                log.debug("Replayed {} cache invalidations since the snapshot", replayed);
+            } catch (RuntimeException ex) {
+                log.warn("Dropping reference data snapshot, cache invalidation log unavailable: {}",
+                        ex.getMessage());
+                snapshot.departments().forEach(d -> local(departments).evict(d.getIdDepartment()));
+                snapshot.students().forEach(st -> local(students).evict(st.getIdStudent()));
+                return 0;
+            }
+        }
+        log.info("Warmed {} departments and {} students from snapshot in {} ms", snapshot.departments().size(),
+                snapshot.students().size(), (System.nanoTime() - start) / 1_000_000);
+        return warmed;
+    }
+
+    @Scheduled(fixedDelayString = "${snapshot.interval:PT5M}", initialDelayString = "${snapshot.interval:PT5M}")
+    public void write() {
+        long start = System.nanoTime();
+        List<Department> departments = readOnlyTransaction.execute(status -> departmentRepository.findAll().stream()
+                .map(d -> new Department(d.getIdDepartment(), d.getName(), d.getLocation(), d.getPhone(),
+                        d.getHead(), null))
+                .toList());
+        List<Student> students = cachedValues(cacheManager.getCache(STUDENTS_CACHE)).stream()
+                .filter(Student.class::isInstance)
+                .map(Student.class::cast)
+                .limit(properties.maxStudents())
+                .toList();
+        try {
+            new ReferenceSnapshot(clock.instant(), departments, students).write(properties.file());
+            log.debug("Wrote reference data snapshot ({} departments, {} students) in {} ms",
+                    departments.size(), students.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException ex) {
+            log.warn("Could not write reference data snapshot {}", properties.file(), ex);
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void writeOnShutdown() {
+        try {
+            write();
+        } catch (RuntimeException ex) {
+            log.warn("Could not write reference data snapshot on shutdown: {}", ex.getMessage());
+        }
+    }
+
+    // Evicting from the wrapped cache keeps the other replicas out of it
+    private static Cache local(Cache cache) {
+        return cache instanceof BroadcastingCache broadcasting ? broadcasting.getDelegate() : cache;
+    }
+
+    private static Collection<?> cachedValues(Cache cache) {
+        Object nativeCache = cache == null ? null : cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            return caffeine.asMap().values();
+        }
+        if (nativeCache instanceof Map<?, ?> map) {
+            return map.values();
+        }
+        return List.of();
+    }
+}
@@ -0,0 +1,8 @@
+package tn.esprit.studentmanagement.stats;
+
+/** Attributes enrollment counts can be broken down by. */
+public enum Dimension {
+    COURSE,
+    DEPARTMENT,
+    STATUS
+}
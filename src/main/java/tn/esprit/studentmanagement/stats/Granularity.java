@@ -0,0 +1,42 @@
+package tn.esprit.studentmanagement.stats;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/** Period enrollment counts are rolled up to, each identified by its first day. */
+public enum Granularity {
+    DAY,
+    WEEK,
+    MONTH,
+    TERM;
+
+    /**
+     * First day of the period containing {@code day}. Weeks start on Monday,
+     * terms on the first day of one of {@code termStartMonths}.
+     */
+    public LocalDate periodStart(LocalDate day, List<Integer> termStartMonths) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+            case TERM -> termStart(day, termStartMonths);
+        };
+    }
+
+    private static LocalDate termStart(LocalDate day, List<Integer> termStartMonths) {
+        if (termStartMonths.isEmpty()) {
+            throw new IllegalStateException("No term start month configured");
+        }
+        int month = day.getMonthValue();
+        int latest = termStartMonths.stream().filter(m -> m <= month).mapToInt(Integer::intValue).max()
+                .orElse(-1);
+        if (latest > 0) {
+            return LocalDate.of(day.getYear(), latest, 1);
+        }
+        // Before the first term start of the year: still in last year's final term
+        int last = termStartMonths.stream().mapToInt(Integer::intValue).max().getAsInt();
+        return LocalDate.of(day.getYear() - 1, last, 1);
+    }
+}
@@ -0,0 +1,38 @@
+package tn.esprit.studentmanagement.warmup;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * Identifies the loopback requests of the warm-up, so that they neither use
+ * up rate limits nor shrink the adaptive concurrency limits with their cold
+ * latencies. The token is random per process and never leaves it.
+ */
+public final class WarmupRequests {
+
+    public static final String HEADER = "X-Warmup-Token";
+
+    private static final String TOKEN = UUID.randomUUID().toString();
+
+    private WarmupRequests() {
+    }
+
+    public static String token() {
+        return TOKEN;
+    }
+
+    public static boolean isWarmup(HttpServletRequest request) {
+        return TOKEN.equals(request.getHeader(HEADER)) && isLoopback(request.getRemoteAddr());
+    }
+
+    private static boolean isLoopback(String address) {
+        try {
+            return address != null && InetAddress.getByName(address).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package tn.esprit.studentmanagement.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.studentmanagement.bulkhead.WorkloadRoutingDataSource;
+import tn.esprit.studentmanagement.config.WarmupProperties;
+import tn.esprit.studentmanagement.entities.*;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.repositories.CourseRepository;
+import tn.esprit.studentmanagement.repositories.DepartmentRepository;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.repositories.StudentRepository;
+import tn.esprit.studentmanagement.sharding.ShardContext;
+import tn.esprit.studentmanagement.sharding.ShardRouter;
+import tn.esprit.studentmanagement.sharding.ShardRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Runs a synthetic workload before the pod reports ready: runners complete
+ * before the readiness state turns to ACCEPTING_TRAFFIC. It fills the Hikari
+ * pools, writes and reads entities through the repositories and Jackson in
+ * transactions that are always rolled back, then replays
+ * {@code warmup.requests} over loopback HTTP so that filters, MVC, the
+ * controllers and their serializers are compiled by the JIT before real
+ * traffic arrives. Whatever is still running after {@code warmup.timeout} is
+ * abandoned and the application starts anyway.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupRunner implements ApplicationRunner, MeterBinder {
+
+    private final WarmupProperties properties;
+    private final DataSource dataSource;
+    private final TransactionTemplate rolledBackTransaction;
+    private final DepartmentRepository departmentRepository;
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationContext applicationContext;
+    private final String contextPath;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+    private volatile boolean stopped;
+    private volatile long durationNanos;
+    private volatile boolean completed;
+
+    public WarmupRunner(WarmupProperties properties, DataSource dataSource,
+                        PlatformTransactionManager transactionManager,
+                        DepartmentRepository departmentRepository, StudentRepository studentRepository,
+                        CourseRepository courseRepository, EnrollmentRepository enrollmentRepository,
+                        ObjectMapper objectMapper, ApplicationContext applicationContext,
+                        @Value("${server.servlet.context-path:}") String contextPath) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.rolledBackTransaction = new TransactionTemplate(transactionManager);
+        this.departmentRepository = departmentRepository;
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.objectMapper = objectMapper;
+        this.applicationContext = applicationContext;
+        this.contextPath = contextPath;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /** Returns true when the whole workload ran before the timeout. */
+    public boolean warmUp() {
+        long start = System.nanoTime();
+        stopped = false;
+        ExecutorService coordinator = Executors.newSingleThreadExecutor(daemon("warmup"));
+        Future<?> workload = coordinator.submit(() -> {
+            step("connection pools", this::prefillPools);
+            step("repositories", this::exerciseRepositories);
+            step("http", this::replayRequests);
+        });
+        try {
+            workload.get(properties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+            completed = true;
+        } catch (TimeoutException e) {
+            log.warn("Warm-up did not finish within {}, accepting traffic anyway", properties.timeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Warm-up failed, accepting traffic anyway", e);
+        } finally {
+            stopped = true;
+            coordinator.shutdownNow();
+            durationNanos = System.nanoTime() - start;
+        }
+        log.info("Warm-up {} in {} ms: {} requests, {} failed", completed ? "completed" : "abandoned",
+                TimeUnit.NANOSECONDS.toMillis(durationNanos), requests.sum(), failedRequests.sum());
+        return completed;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder("application.warmup.duration", this, TimeUnit.NANOSECONDS, r -> r.durationNanos)
+                .description("Time spent warming up before accepting traffic")
+                .register(registry);
+        Gauge.builder("application.warmup.completed", this, r -> r.completed ? 1 : 0)
+                .description("1 when the warm-up workload finished before its timeout")
+                .register(registry);
+        FunctionCounter.builder("application.warmup.requests", requests, LongAdder::sum)
+                .description("Loopback requests sent by the warm-up")
+                .tag("outcome", "sent")
+                .register(registry);
+        FunctionCounter.builder("application.warmup.requests", failedRequests, LongAdder::sum)
+                .description("Loopback requests that failed or answered 5xx")
+                .tag("outcome", "failed")
+                .register(registry);
+    }
+
+    // Hikari only grows the pool in the background; open up to minimum-idle connections now.
+    void prefillPools() throws SQLException {
+        for (HikariDataSource pool : pools()) {
+            List<Connection> held = new ArrayList<>();
+            try {
+                for (int i = 0; i < Math.max(pool.getMinimumIdle(), 1) && !stopped; i++) {
+                    held.add(pool.getConnection());
+                }
+            } finally {
+                for (Connection connection : held) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    // Pinned to the global shard: repository calls then stay in this transaction and roll back with it.
+    void exerciseRepositories() {
+        for (int i = 0; i < properties.writeIterations() && !stopped; i++) {
+            int iteration = i;
+            ShardContext.callOn(ShardRouter.GLOBAL_SHARD, () -> rolledBackTransaction.execute(status -> {
+                status.setRollbackOnly();
+                writeAndRead(iteration);
+                return null;
+            }));
+        }
+    }
+
+    void replayRequests() throws InterruptedException {
+        if (!(applicationContext instanceof WebServerApplicationContext web) || web.getWebServer() == null
+                || properties.requests().isEmpty()) {
+            return;
+        }
+        String base = "http://localhost:" + web.getWebServer().getPort() + contextPath;
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        ExecutorService workers = Executors.newFixedThreadPool(properties.concurrency(), daemon("warmup-http"));
+        CountDownLatch done = new CountDownLatch(properties.concurrency());
+        AtomicInteger next = new AtomicInteger();
+        int total = properties.iterations() * properties.requests().size();
+        try {
+            for (int w = 0; w < properties.concurrency(); w++) {
+                workers.execute(() -> {
+                    try {
+                        for (int n = next.getAndIncrement(); n < total && !stopped; n = next.getAndIncrement()) {
+                            send(client, base + properties.requests().get(n % properties.requests().size()));
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void writeAndRead(int iteration) {
+        try {
+            String suffix = WarmupRequests.token() + "-" + iteration;
+            Department department = departmentRepository.save(
+                    new Department(null, "Warm-up", "-", null, null, null));
+            Student student = studentRepository.save(new Student(null, "Warm", "Up",
+                    "warmup-" + suffix + "@warmup.invalid", null, LocalDate.of(2000, 1, 1), null, department, null));
+            Course course = courseRepository.save(new Course(null, "Warm-up", "WARMUP", 1, null, null, null));
+            Enrollment enrollment = enrollmentRepository.save(
+                    new Enrollment(null, LocalDate.now(), 10.0, Status.ACTIVE, student, course));
+            enrollmentRepository.flush();
+            enrollmentRepository.findAllWithStudentAndCourseByIds(List.of(enrollment.getIdEnrollment()));
+            studentRepository.findAllWithDepartmentByIds(List.of(student.getIdStudent()));
+            // Request and response bodies, without the lazy collections
+            Enrollment body = new Enrollment(enrollment.getIdEnrollment(), enrollment.getEnrollmentDate(), 10.0,
+                    Status.ACTIVE, new Student(student.getIdStudent(), "Warm", "Up", student.getEmail(), null,
+                    student.getDateOfBirth(), null, new Department(department.getIdDepartment(), "Warm-up", "-",
+                    null, null, null), null), new Course(course.getIdCourse(), "Warm-up", "WARMUP", 1, null, 30,
+                    null));
+            objectMapper.readValue(objectMapper.writeValueAsBytes(body), Enrollment.class);
+            objectMapper.writeValueAsBytes(EnrollmentState.of(body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void send(HttpClient client, String url) {
+        requests.increment();
+        try {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(url))
+                    .header(WarmupRequests.HEADER, WarmupRequests.token())
+                    .timeout(Duration.ofSeconds(10))
+                    .GET().build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 500) {
+                failedRequests.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped = true;
+        } catch (Exception e) {
+            failedRequests.increment();
+        }
+    }
+
+    private List<HikariDataSource> pools() throws SQLException {
+        List<DataSource> sources = dataSource instanceof ShardRoutingDataSource routing
+                ? IntStream.range(0, routing.shardCount()).mapToObj(routing::shard).toList()
+                : List.of(dataSource);
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (DataSource source : sources) {
+            if (source instanceof WorkloadRoutingDataSource workloads) {
+                pools.addAll(workloads.pools());
+            } else if (source.isWrapperFor(HikariDataSource.class)) {
+                pools.add(source.unwrap(HikariDataSource.class));
+            }
+        }
+        return pools;
+    }
+
+    private void step(String name, ThrowingRunnable work) {
+        if (stopped) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            work.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped = true;
+            return;
+        } catch (Exception e) {
+            log.warn("Warm-up step {} failed: {}", name, e.toString());
+        }
+        log.info("Warm-up step {} took {} ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
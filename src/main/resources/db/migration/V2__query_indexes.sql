@@ -0,0 +1,5 @@
+-- Indexes for the lookup and reporting paths (FK columns are indexed by their constraints on MySQL).
+
+CREATE INDEX idx_enrollment_course_grade ON enrollment (course_id_course, grade);
+CREATE INDEX idx_enrollment_status_date ON enrollment (status, enrollment_date);
+CREATE INDEX idx_course_code ON course (code);
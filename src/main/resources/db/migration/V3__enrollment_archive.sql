@@ -0,0 +1,16 @@
+-- Cold storage for enrollments in a terminal status (see EnrollmentArchiveJob).
+-- No foreign keys so that the table can be range-partitioned on MySQL.
+
+CREATE TABLE enrollment_archive (
+    id_enrollment      BIGINT NOT NULL,
+    enrollment_date    DATE   NOT NULL,
+    grade              DOUBLE,
+    status             ENUM ('ACTIVE', 'COMPLETED', 'DROPPED', 'FAILED', 'WITHDRAWN'),
+    student_id_student BIGINT,
+    course_id_course   BIGINT,
+    archived_at        DATE   NOT NULL,
+    PRIMARY KEY (id_enrollment, enrollment_date)
+);
+
+CREATE INDEX idx_enrollment_archive_student ON enrollment_archive (student_id_student);
+CREATE INDEX idx_enrollment_archive_course ON enrollment_archive (course_id_course);
@@ -0,0 +1,19 @@
+-- Last modification time of an enrollment and of the student, course and
+-- department rows joined into its export, maintained by the database on
+-- insert and update; EnrollmentExportJob exports enrollments changed since its
+-- last snapshot, including those whose joined rows changed. Not mapped on the
+-- entities.
+
+ALTER TABLE enrollment
+    ADD COLUMN updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6) NOT NULL;
+ALTER TABLE student
+    ADD COLUMN updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6) NOT NULL;
+ALTER TABLE course
+    ADD COLUMN updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6) NOT NULL;
+ALTER TABLE department
+    ADD COLUMN updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6) NOT NULL;
+
+CREATE INDEX idx_enrollment_updated_at ON enrollment (updated_at);
+CREATE INDEX idx_student_updated_at ON student (updated_at);
+CREATE INDEX idx_course_updated_at ON course (updated_at);
+CREATE INDEX idx_department_updated_at ON department (updated_at);
@@ -0,0 +1,30 @@
+-- One account per email, and one seat-holding enrollment (status ACTIVE or not
+-- set) per student and course: a student who failed, dropped or withdrew can
+-- enroll in the course again. Duplicate emails must be merged before this
+-- migration can apply; duplicate enrollments are resolved below.
+
+ALTER TABLE student ADD CONSTRAINT uk_student_email UNIQUE (email);
+
+-- Of several seat-holding enrollments of a student in a course, the latest one
+-- keeps the seat and the older ones are marked DROPPED. The derived table is
+-- materialized (DISTINCT) because MySQL cannot read the table being updated.
+UPDATE enrollment SET status = 'DROPPED'
+WHERE id_enrollment IN (
+    SELECT id_enrollment FROM (
+        SELECT DISTINCT older.id_enrollment
+        FROM enrollment older
+        JOIN enrollment newer
+          ON newer.student_id_student = older.student_id_student
+         AND newer.course_id_course = older.course_id_course
+         AND newer.id_enrollment > older.id_enrollment
+        WHERE (older.status IS NULL OR older.status = 'ACTIVE')
+          AND (newer.status IS NULL OR newer.status = 'ACTIVE')
+    ) superseded
+);
+
+-- The course of a seat-holding enrollment, NULL otherwise; NULLs never collide
+-- in a unique index. Not mapped on the entity.
+ALTER TABLE enrollment ADD COLUMN seat_course_id BIGINT
+    GENERATED ALWAYS AS (CASE WHEN status IS NULL OR status = 'ACTIVE' THEN course_id_course END);
+
+ALTER TABLE enrollment ADD CONSTRAINT uk_enrollment_student_course UNIQUE (student_id_student, seat_course_id);
@@ -0,0 +1,13 @@
+-- Seat capacity per course, NULL for no limit. seats_taken counts ACTIVE (or
+-- status-less) enrollments and is only ever changed by conditional updates
+-- from SeatCounters, so concurrent admissions on several replicas can never
+-- push it past capacity. Not mapped on the entity.
+
+ALTER TABLE course ADD COLUMN capacity INTEGER;
+ALTER TABLE course ADD COLUMN seats_taken INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE course c
+SET seats_taken = (SELECT COUNT(*)
+                   FROM enrollment e
+                   WHERE e.course_id_course = c.id_course
+                     AND (e.status IS NULL OR e.status = 'ACTIVE'));
@@ -0,0 +1,19 @@
+-- Enrollments per day, course, department and status, maintained
+-- incrementally on enrollment writes and recomputed by
+-- EnrollmentCountBackfillJob. Archived enrollments keep counting. 0 stands
+-- for no course / no department, a missing status is counted as ACTIVE.
+
+CREATE TABLE enrollment_daily_count (
+    bucket_date   DATE   NOT NULL,
+    id_course     BIGINT NOT NULL,
+    id_department BIGINT NOT NULL,
+    status        ENUM ('ACTIVE', 'COMPLETED', 'DROPPED', 'FAILED', 'WITHDRAWN') NOT NULL,
+    enrollments   BIGINT NOT NULL,
+    PRIMARY KEY (bucket_date, id_course, id_department, status)
+);
+
+CREATE INDEX idx_daily_count_course ON enrollment_daily_count (id_course, bucket_date);
+CREATE INDEX idx_daily_count_department ON enrollment_daily_count (id_department, bucket_date);
+
+-- Date range scans of the backfill
+CREATE INDEX idx_enrollment_date ON enrollment (enrollment_date);
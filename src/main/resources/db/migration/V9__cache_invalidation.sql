@@ -0,0 +1,14 @@
+-- Cache evictions made on one replica, replayed by the others
+-- (CacheInvalidations). cache_key is null when the whole cache was cleared;
+-- origin identifies the writing process so it can skip its own rows. Rows
+-- older than cache.invalidation.retention are purged.
+
+CREATE TABLE cache_invalidation (
+    id         BIGINT AUTO_INCREMENT PRIMARY KEY,
+    cache_name VARCHAR(64)  NOT NULL,
+    cache_key  BIGINT       NULL,
+    origin     VARCHAR(36)  NOT NULL,
+    created_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_cache_invalidation_created_at ON cache_invalidation (created_at);
@@ -0,0 +1,54 @@
+package tn.esprit.studentmanagement;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.config.ScheduledTask;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Startup profile (lazy initialization) on H2: beans that nothing injects must still be created at boot
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:startupdb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true",
+        "snapshot.file=${java.io.tmpdir}/student-management-startup-test/reference-data.bin",
+        "warmup.enabled=false"
+})
+@ActiveProfiles({"startup", "test"})
+@DisplayName("Profil startup - Initialisation paresseuse")
+class StartupProfileTests {
+
+    @Autowired
+    private ScheduledTaskHolder scheduledTasks;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    @DisplayName("Les tâches planifiées sont enregistrées au démarrage")
+    void shouldRegisterScheduledJobs() {
+        List<String> scheduled = scheduledTasks.getScheduledTasks().stream()
+                .map(ScheduledTask::toString)
+                .toList();
+
+        assertTrue(scheduled.contains("tn.esprit.studentmanagement.jobs.EnrollmentArchiveJob.run"), scheduled.toString());
+        assertTrue(scheduled.contains("tn.esprit.studentmanagement.jobs.EnrollmentCountBackfillJob.run"), scheduled.toString());
+    }
+
+    @Test
+    @DisplayName("Les écouteurs d'événements sont créés au démarrage")
+    void shouldCreateEventListenersEagerly() {
+        for (String listener : List.of("enrollmentStatsService", "transcriptService")) {
+            assertFalse(beanFactory.getBeanDefinition(listener).isLazyInit(), listener);
+            assertTrue(beanFactory.containsSingleton(listener), listener);
+        }
+    }
+}
@@ -1,16 +1,36 @@
 package tn.esprit.studentmanagement;
 
-import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Full context with the production settings (Flyway, validate, every optional feature enabled)
+// on H2: catches wiring errors that the sliced tests cannot see
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:contextdb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true",
+        "snapshot.file=${java.io.tmpdir}/student-management-context-test/reference-data.bin",
+        "warmup.timeout=PT10S",
+        "warmup.iterations=5",
+        "warmup.write-iterations=5"
+})
 @ActiveProfiles("test")  // Activate test profile
-    @Disabled
+@DisplayName("StudentManagementApplication - Démarrage du contexte complet")
 class StudentManagementApplicationTests {
+
+    @Autowired
+    private ApplicationAvailability availability;
+
     @Test
+    @DisplayName("Le contexte démarre et l'application accepte le trafic")
     void contextLoads() {
-        // Default smoke test
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
     }
 }
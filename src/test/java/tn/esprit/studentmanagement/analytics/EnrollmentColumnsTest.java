@@ -0,0 +1,149 @@
+package tn.esprit.studentmanagement.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tn.esprit.studentmanagement.dto.CourseGradeStats;
+import tn.esprit.studentmanagement.dto.GradeBin;
+import tn.esprit.studentmanagement.dto.StatusStats;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EnrollmentColumns - Stockage colonnaire et agrégations")
+class EnrollmentColumnsTest {
+
+    private static final LocalDate SEPT = LocalDate.of(2025, 9, 1);
+
+    private EnrollmentColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        columns = new EnrollmentColumns(4, 1024);
+        columns.upsert(state(1, 100, 10, 16.0, Status.COMPLETED, SEPT));
+        columns.upsert(state(2, 101, 10, 8.0, Status.FAILED, SEPT));
+        columns.upsert(state(3, 102, 10, null, Status.ACTIVE, SEPT.plusMonths(5)));
+        columns.upsert(state(4, 100, 20, 12.5, Status.COMPLETED, SEPT.plusMonths(5)));
+        columns.upsert(state(5, 101, 20, 20.0, null, null));
+    }
+
+    private static EnrollmentState state(long idEnrollment, long idStudent, long idCourse, Double grade,
+                                         Status status, LocalDate date) {
+        return new EnrollmentState(idEnrollment, idStudent, idCourse, grade, status, date);
+    }
+
+    @Test
+    @DisplayName("courseStats() - moyenne, min, max et taux de réussite par cours")
+    void shouldAggregatePerCourse() {
+        List<CourseGradeStats> stats = columns.courseStats(EnrollmentFilter.all(), 10);
+
+        assertEquals(2, stats.size());
+        CourseGradeStats java = stats.get(0);
+        assertEquals(10L, java.idCourse());
+        assertEquals(3, java.enrollments());
+        assertEquals(2, java.graded());
+        assertEquals(1, java.passed());
+        assertEquals(0.5, java.passRate(), 1e-9);
+        assertEquals(12.0, java.averageGrade(), 1e-6);
+        assertEquals(8.0, java.minGrade());
+        assertEquals(16.0, java.maxGrade());
+        assertEquals(20.0, stats.get(1).maxGrade());
+    }
+
+    @Test
+    @DisplayName("statusStats() - une ligne par statut présent, les lignes sans statut en dernier")
+    void shouldAggregatePerStatus() {
+        List<StatusStats> stats = columns.statusStats(EnrollmentFilter.all(), 10);
+
+        assertEquals(List.of(Status.ACTIVE, Status.COMPLETED, Status.FAILED),
+                stats.subList(0, 3).stream().map(StatusStats::status).toList());
+        assertNull(stats.get(3).status());
+        StatusStats active = stats.get(0);
+        assertEquals(1, active.enrollments());
+        assertEquals(0, active.graded());
+        assertNull(active.passRate());
+        assertEquals(14.25, stats.get(1).averageGrade(), 1e-6);
+        assertEquals(1.0, stats.get(1).passRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Filtres - cours, statuts et période (les lignes sans date sont exclues d'une période)")
+    void shouldApplyFilters() {
+        EnrollmentFilter firstTerm = new EnrollmentFilter(null, null, SEPT, SEPT.plusMonths(1));
+        EnrollmentFilter completed = new EnrollmentFilter(20L, Set.of(Status.COMPLETED), null, null);
+
+        assertEquals(List.of(10L), columns.courseStats(firstTerm, 10).stream().map(CourseGradeStats::idCourse).toList());
+        assertEquals(2, columns.courseStats(firstTerm, 10).get(0).enrollments());
+        assertEquals(1, columns.courseStats(completed, 10).get(0).enrollments());
+        assertTrue(columns.courseStats(new EnrollmentFilter(99L, null, null, null), 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("gradeDistribution() - histogramme des notes, la note maximale dans le dernier intervalle")
+    void shouldBuildHistogram() {
+        List<GradeBin> bins = columns.gradeDistribution(EnrollmentFilter.all(), 5, 4);
+
+        assertEquals(List.of(0L, 1L, 1L, 2L), bins.stream().map(GradeBin::enrollments).toList());
+        assertEquals(15.0, bins.get(3).from());
+        assertEquals(20.0, bins.get(3).to());
+    }
+
+    @Test
+    @DisplayName("upsert()/remove() - mise à jour en place, suppression par échange avec la dernière ligne")
+    void shouldUpdateAndRemoveRows() {
+        columns.upsert(state(2, 101, 10, 11.0, Status.COMPLETED, SEPT));
+        columns.remove(1);
+        columns.remove(42);
+
+        assertEquals(4, columns.size());
+        CourseGradeStats java = columns.courseStats(EnrollmentFilter.all(), 10).get(0);
+        assertEquals(2, java.enrollments());
+        assertEquals(11.0, java.averageGrade(), 1e-6);
+
+        columns.removeStudents(List.of(101L, 999L));
+        assertEquals(2, columns.size());
+        assertEquals(2, columns.statusStats(EnrollmentFilter.all(), 10).stream()
+                .mapToLong(StatusStats::enrollments).sum());
+    }
+
+    @Test
+    @DisplayName("Scan parallèle par blocs - mêmes résultats qu'un calcul direct")
+    void shouldMatchDirectComputationAcrossChunks() {
+        EnrollmentColumns large = new EnrollmentColumns(16, 1024);
+        Random random = new Random(42);
+        Status[] statuses = Status.values();
+        int rows = 50_000;
+        double[] grades = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            grades[i] = random.nextInt(81) / 4.0;
+            large.upsert(state(i + 1L, i % 7_000, i % 37, grades[i], statuses[i % statuses.length],
+                    SEPT.plusDays(i % 300)));
+        }
+        // Une suppression sur trois, puis réinsertion d'une partie : l'index doit rester cohérent
+        for (int i = 0; i < rows; i += 3) {
+            large.remove(i + 1L);
+        }
+        for (int i = 0; i < rows; i += 6) {
+            large.upsert(state(i + 1L, i % 7_000, i % 37, grades[i], statuses[i % statuses.length],
+                    SEPT.plusDays(i % 300)));
+        }
+
+        int[] live = IntStream.range(0, rows).filter(i -> i % 3 != 0 || i % 6 == 0).toArray();
+        assertEquals(live.length, large.size());
+        CourseGradeStats course5 = large.courseStats(new EnrollmentFilter(5L, null, null, null), 10).get(0);
+        int[] inCourse5 = IntStream.of(live).filter(i -> i % 37 == 5).toArray();
+        assertEquals(inCourse5.length, course5.enrollments());
+        assertEquals(IntStream.of(inCourse5).mapToDouble(i -> grades[i]).average().orElseThrow(),
+                course5.averageGrade(), 1e-6);
+        assertEquals(IntStream.of(inCourse5).filter(i -> grades[i] >= 10).count(), course5.passed());
+        assertEquals(live.length, large.gradeDistribution(EnrollmentFilter.all(), 1, 20).stream()
+                .mapToLong(GradeBin::enrollments).sum());
+    }
+}
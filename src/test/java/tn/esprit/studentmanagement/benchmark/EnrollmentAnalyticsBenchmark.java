@@ -0,0 +1,72 @@
+package tn.esprit.studentmanagement.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import tn.esprit.studentmanagement.analytics.EnrollmentColumns;
+import tn.esprit.studentmanagement.analytics.EnrollmentFilter;
+import tn.esprit.studentmanagement.dto.CourseGradeStats;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Per-course grade averages of completed or failed enrollments since a date,
+ * over {@code rows} enrollments: {@code objects} groups a list of
+ * {@link EnrollmentState} rows with a parallel stream (the shape of an
+ * entity-based aggregation once loaded), {@code columns} scans
+ * {@link EnrollmentColumns}. The heap held by each is printed at set-up.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.args=EnrollmentAnalyticsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EnrollmentAnalyticsBenchmark {
+
+    private static final LocalDate SINCE = LocalDate.of(2024, 9, 1);
+    private static final Set<Status> FINISHED = Set.of(Status.COMPLETED, Status.FAILED);
+
+    @Param({"2000000"})
+    int rows;
+
+    private List<EnrollmentState> states;
+    private EnrollmentColumns columns;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Status[] statuses = Status.values();
+        LocalDate first = LocalDate.of(2022, 9, 1);
+        states = IntStream.range(0, rows)
+                .mapToObj(i -> new EnrollmentState(i + 1L, (long) random.nextInt(rows / 8), (long) random.nextInt(400),
+                        random.nextInt(10) == 0 ? null : random.nextInt(81) / 4.0, statuses[random.nextInt(statuses.length)],
+                        first.plusDays(random.nextInt(1200))))
+                .toList();
+        columns = new EnrollmentColumns(rows, 65536);
+        states.forEach(columns::upsert);
+        System.out.printf("%ncolumns: %d MB for %d rows%n", columns.memory() >> 20, rows);
+    }
+
+    @Benchmark
+    public Map<Long, Double> objects() {
+        return states.parallelStream()
+                .filter(state -> FINISHED.contains(state.status()) && state.grade() != null
+                        && !state.enrollmentDate().isBefore(SINCE))
+                .collect(Collectors.groupingByConcurrent(EnrollmentState::idCourse,
+                        Collectors.averagingDouble(EnrollmentState::grade)));
+    }
+
+    @Benchmark
+    public List<CourseGradeStats> columns() {
+        return columns.courseStats(new EnrollmentFilter(null, FINISHED, SINCE, null), 10);
+    }
+}
@@ -0,0 +1,82 @@
+package tn.esprit.studentmanagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.openjdk.jmh.annotations.*;
+import tn.esprit.studentmanagement.dto.ReportRow;
+import tn.esprit.studentmanagement.entities.Status;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode time of a bulk response ({@code rows} report rows) for each format
+ * the API negotiates, uncompressed and through the encoders of CompressionFilter.
+ * The payload size of each combination is printed at tear-down.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.args=PayloadEncodingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadEncodingBenchmark {
+
+    private static final Status[] STATUSES = Status.values();
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"none", "gzip", "zstd"})
+    String compression;
+
+    @Param({"10000"})
+    int rows;
+
+    private ObjectMapper mapper;
+    private List<ReportRow> payload;
+    private int size;
+
+    @Setup
+    public void setUp() {
+        mapper = switch (format) {
+            case "cbor" -> new ObjectMapper(new CBORFactory());
+            case "smile" -> new ObjectMapper(new SmileFactory());
+            default -> new ObjectMapper();
+        };
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        payload = IntStream.range(0, rows)
+                .mapToObj(i -> new ReportRow((long) i, "Prenom" + i % 500, "Nom" + i % 2000, "student" + i + "@esprit.tn",
+                        "CS" + (100 + i % 40), 1 + i % 6, Math.round(random.nextDouble(20) * 4) / 4.0,
+                        STATUSES[i % STATUSES.length]))
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n%s/%s: %d bytes for %d rows%n", format, compression, size, rows);
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+        try (OutputStream out = switch (compression) {
+            case "gzip" -> new GZIPOutputStream(bytes, 8192);
+            case "zstd" -> new ZstdOutputStream(bytes, 3);
+            default -> bytes;
+        }) {
+            mapper.writeValue(out, payload);
+        }
+        size = bytes.size();
+        return size;
+    }
+}
@@ -0,0 +1,90 @@
+package tn.esprit.studentmanagement.benchmark;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tn.esprit.studentmanagement.config.RateLimitProperties;
+import tn.esprit.studentmanagement.filters.RateLimitFilter;
+import tn.esprit.studentmanagement.filters.RateLimiterRegistry;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the rate-limit path. {@code bucketLookup} isolates the striped
+ * map and CAS; {@code filter} adds path matching and client identification.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.args=RateLimitFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class RateLimitFilterBenchmark {
+
+    @Param({"100", "10000"})
+    int clients;
+
+    private RateLimitFilter filter;
+    private RateLimiterRegistry registry;
+    private String[] apiKeys;
+
+    @Setup
+    public void setUp() {
+        apiKeys = keys(clients);
+        RateLimitProperties properties = new RateLimitProperties(true, "X-API-Key", Set.of(apiKeys), 50_000, 16, List.of(
+                new RateLimitProperties.Route("all-students", "/students/getAllStudents", 1_000_000, 1_000_000),
+                new RateLimitProperties.Route("default", "/{*path}", 1_000_000, 1_000_000)));
+        filter = new RateLimitFilter(properties, (req, res, handler, ex) -> null);
+        registry = new RateLimiterRegistry(50_000, 16);
+    }
+
+    @State(Scope.Thread)
+    public static class RequestState {
+        private static final int REQUESTS = 1024;
+
+        final MockHttpServletRequest[] requests = new MockHttpServletRequest[REQUESTS];
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final FilterChain chain = (req, res) -> { };
+        int next;
+
+        @Setup
+        public void prepare(RateLimitFilterBenchmark benchmark) {
+            for (int i = 0; i < REQUESTS; i++) {
+                requests[i] = new MockHttpServletRequest("GET", "/students/getAllStudents");
+                requests[i].addHeader("X-API-Key",
+                        benchmark.apiKeys[ThreadLocalRandom.current().nextInt(benchmark.clients)]);
+            }
+        }
+
+        MockHttpServletRequest nextRequest() {
+            return requests[next++ & (REQUESTS - 1)];
+        }
+    }
+
+    @Benchmark
+    public boolean bucketLookup() {
+        long now = System.nanoTime();
+        String client = apiKeys[ThreadLocalRandom.current().nextInt(clients)];
+        return registry.bucket("all-students", client, 1_000_000, 1_000_000, now).tryConsume(now);
+    }
+
+    @Benchmark
+    public int filter(RequestState state) throws Exception {
+        filter.doFilter(state.nextRequest(), state.response, state.chain);
+        return state.response.getStatus();
+    }
+
+    private static String[] keys(int count) {
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = "client-" + i;
+        }
+        return keys;
+    }
+}
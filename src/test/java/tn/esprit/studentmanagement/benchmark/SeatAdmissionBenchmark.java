@@ -0,0 +1,131 @@
+package tn.esprit.studentmanagement.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.studentmanagement.seats.SeatCounters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+
+/**
+ * Registration rush: {@code enrollments} students enroll concurrently into one
+ * course of {@code capacity} seats, on an in-memory H2 database. {@code lockingCount}
+ * is the naive admission (lock the course row, count its active enrollments,
+ * insert); {@code seatCounters} goes through {@link SeatCounters}. Both must
+ * admit exactly {@code capacity} students.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.args=SeatAdmissionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SeatAdmissionBenchmark {
+
+    private static final long COURSE = 1L;
+    private static final String INSERT_ENROLLMENT = "insert into enrollment (enrollment_date, status, "
+            + "student_id_student, course_id_course) values (current_date, 'ACTIVE', ?, ?)";
+
+    @Param({"2000"})
+    int enrollments;
+
+    @Param({"200"})
+    int capacity;
+
+    @Param({"64"})
+    int threads;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transaction;
+    private SeatCounters seatCounters;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:seatbench;DB_CLOSE_DELAY=-1;MODE=MYSQL;LOCK_TIMEOUT=60000");
+        config.setMaximumPoolSize(threads);
+        dataSource = new HikariDataSource(config);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transaction = new TransactionTemplate(transactionManager);
+        seatCounters = new SeatCounters(dataSource, transactionManager);
+        jdbcTemplate.update("insert into course (id_course, name, code, credit, capacity) "
+                + "values (?, 'Java', 'CS101', 4, ?)", COURSE, capacity);
+        jdbcTemplate.batchUpdate("insert into student (id_student, first_name, email) values (?, 'S', ?)",
+                LongStream.rangeClosed(1, enrollments)
+                        .mapToObj(id -> new Object[]{id, "s" + id + "@esprit.tn"}).toList());
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        jdbcTemplate.update("delete from enrollment");
+        jdbcTemplate.update("update course set seats_taken = 0 where id_course = ?", COURSE);
+        seatCounters.refresh();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public long lockingCount() throws Exception {
+        return rush(idStudent -> Boolean.TRUE.equals(transaction.execute(status -> {
+            jdbcTemplate.queryForObject("select id_course from course where id_course = ? for update",
+                    Long.class, COURSE);
+            Integer taken = jdbcTemplate.queryForObject("select count(*) from enrollment where course_id_course = ? "
+                    + "and (status is null or status = 'ACTIVE')", Integer.class, COURSE);
+            if (taken >= capacity) {
+                return false;
+            }
+            jdbcTemplate.update(INSERT_ENROLLMENT, idStudent, COURSE);
+            return true;
+        })));
+    }
+
+    @Benchmark
+    public long seatCounters() throws Exception {
+        return rush(idStudent -> {
+            if (!seatCounters.tryAcquire(COURSE)) {
+                return false;
+            }
+            jdbcTemplate.update(INSERT_ENROLLMENT, idStudent, COURSE);
+            return true;
+        });
+    }
+
+    private long rush(LongPredicate admission) throws Exception {
+        List<Future<Boolean>> results = new ArrayList<>(enrollments);
+        for (long idStudent = 1; idStudent <= enrollments; idStudent++) {
+            long student = idStudent;
+            results.add(executor.submit(() -> admission.test(student)));
+        }
+        long admitted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                admitted++;
+            }
+        }
+        if (admitted != capacity) {
+            throw new IllegalStateException(admitted + " students admitted into " + capacity + " seats");
+        }
+        return admitted;
+    }
+}
@@ -0,0 +1,150 @@
+package tn.esprit.studentmanagement.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import tn.esprit.studentmanagement.config.BulkheadProperties;
+import tn.esprit.studentmanagement.exception.ServiceOverloadedException;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bulkheads - Pools et admission par classe de charge")
+class BulkheadTest {
+
+    private static final BulkheadProperties.Pool INTERACTIVE =
+            new BulkheadProperties.Pool(2, 0, Duration.ofSeconds(1), 0, 0, Duration.ofSeconds(1));
+
+    private WorkloadRoutingDataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    /** Bean dont les méthodes annotées rapportent la charge sous laquelle elles s'exécutent. */
+    public static class Jobs {
+
+        @Bulkhead(Workload.REPORTING)
+        public Workload report(Runnable work) {
+            work.run();
+            return WorkloadContext.current();
+        }
+
+        @Bulkhead(Workload.BULK_WRITE)
+        public Workload purge(Jobs self) {
+            return self.report(() -> { });
+        }
+
+        public Workload lookup() {
+            return WorkloadContext.current();
+        }
+    }
+
+    private static BulkheadProperties properties(int maxConcurrent, int maxQueued, Duration queueTimeout) {
+        BulkheadProperties.Pool limited =
+                new BulkheadProperties.Pool(2, 0, Duration.ofSeconds(1), maxConcurrent, maxQueued, queueTimeout);
+        return new BulkheadProperties(true, Map.of(Workload.INTERACTIVE, INTERACTIVE,
+                Workload.BULK_WRITE, limited, Workload.REPORTING, limited));
+    }
+
+    private static Jobs proxy(BulkheadPermits permits) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("permits", permits));
+        ObjectProvider<BulkheadPermits> provider = beanFactory.getBeanProvider(BulkheadPermits.class);
+        return (Jobs) new BulkheadPostProcessor(provider).postProcessAfterInitialization(new Jobs(), "jobs");
+    }
+
+    @Test
+    @DisplayName("@Bulkhead - la charge est posée pendant l'appel, l'appel imbriqué garde la charge externe")
+    void shouldSetWorkloadForAnnotatedCalls() {
+        Jobs jobs = proxy(new BulkheadPermits(properties(1, 0, Duration.ofMillis(50))));
+
+        assertEquals(Workload.REPORTING, jobs.report(() -> { }));
+        assertEquals(Workload.BULK_WRITE, jobs.purge(jobs));
+        assertNull(jobs.lookup());
+        assertNull(WorkloadContext.current());
+    }
+
+    @Test
+    @DisplayName("BulkheadPermits - file pleine → 503 immédiat, libération → appel admis")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        Jobs jobs = proxy(new BulkheadPermits(properties(1, 0, Duration.ofSeconds(5))));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<Workload> running = CompletableFuture.supplyAsync(() -> jobs.report(() -> {
+            started.countDown();
+            await(finish);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class, () -> jobs.report(() -> { }));
+        assertTrue(ex.getMessage().contains("reporting"));
+        // Les autres classes de charge ne sont pas touchées
+        assertEquals(Workload.BULK_WRITE, jobs.purge(new Jobs()));
+
+        finish.countDown();
+        assertEquals(Workload.REPORTING, running.get(5, TimeUnit.SECONDS));
+        assertEquals(Workload.REPORTING, jobs.report(() -> { }));
+    }
+
+    @Test
+    @DisplayName("BulkheadPermits - attente bornée par queue-timeout")
+    void shouldGiveUpAfterQueueTimeout() throws Exception {
+        BulkheadPermits permits = new BulkheadPermits(properties(1, 1, Duration.ofMillis(50)));
+        permits.acquire(Workload.REPORTING);
+
+        long start = System.nanoTime();
+        assertThrows(ServiceOverloadedException.class, () -> permits.acquire(Workload.REPORTING));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+        permits.release(Workload.REPORTING);
+        permits.acquire(Workload.REPORTING);
+        // Sans max-concurrent, tout appel est admis
+        permits.acquire(Workload.INTERACTIVE);
+    }
+
+    @Test
+    @DisplayName("WorkloadRoutingDataSource - connexion prise dans le pool de la charge courante")
+    void shouldRouteConnectionsToWorkloadPool() throws Exception {
+        dataSource = new WorkloadPools(properties(1, 0, Duration.ofSeconds(1)), new StaticListableBeanFactory()
+                .getBeanProvider(MeterRegistry.class))
+                .create("test", DataSourceBuilder.create().url("jdbc:h2:mem:bulkheaddb;DB_CLOSE_DELAY=-1"));
+
+        try (Connection ignored = WorkloadContext.callAs(Workload.REPORTING, this::connection)) {
+            assertEquals(1, dataSource.pool(Workload.REPORTING).getHikariPoolMXBean().getActiveConnections());
+            assertNull(dataSource.pool(Workload.BULK_WRITE).getHikariPoolMXBean());
+        }
+        try (Connection ignored = connection()) {
+            assertEquals(1, dataSource.pool(Workload.INTERACTIVE).getHikariPoolMXBean().getActiveConnections());
+        }
+        assertEquals("test-reporting", dataSource.pool(Workload.REPORTING).getPoolName());
+    }
+
+    private Connection connection() {
+        try {
+            return dataSource.getConnection();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package tn.esprit.studentmanagement.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.studentmanagement.config.CacheInvalidationProperties;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:invalidationdb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // chaque réplique écrit dans ses propres transactions
+@DisplayName("CacheInvalidations - Invalidation des caches entre répliques (H2)")
+class CacheInvalidationsTest {
+
+    private static final CacheInvalidationProperties PROPERTIES = new CacheInvalidationProperties(true,
+            Duration.ofSeconds(1), Duration.ofMinutes(1), Duration.ofDays(1), Duration.ofHours(1), 3);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private Replica first;
+    private Replica second;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("delete from cache_invalidation");
+        first = new Replica();
+        second = new Replica();
+    }
+
+    @Test
+    @DisplayName("Une éviction sur une réplique est appliquée sur l'autre après synchronisation")
+    void shouldApplyEvictionOnOtherReplica() {
+        first.cache().put(1L, "transcript 1");
+        second.cache().put(1L, "transcript 1");
+        second.cache().put(2L, "transcript 2");
+
+        first.cache().evict(1L);
+        assertEquals(1, first.invalidations.pending());
+        first.invalidations.sync();
+        second.invalidations.sync();
+
+        assertNull(second.cache().get(1L));
+        assertNotNull(second.cache().get(2L));
+        assertEquals(0, first.invalidations.pending());
+    }
+
+    @Test
+    @DisplayName("Une réplique n'applique pas ses propres invalidations")
+    void shouldSkipOwnInvalidations() {
+        first.cache().evict(1L);
+        first.invalidations.sync();
+        first.cache().put(1L, "reloaded");
+
+        first.invalidations.sync();
+
+        assertNotNull(first.cache().get(1L));
+    }
+
+    @Test
+    @DisplayName("Un vidage complet est propagé")
+    void shouldPropagateClear() {
+        second.cache().put(1L, "a");
+        second.cache().put(2L, "b");
+
+        first.cache().clear();
+        first.invalidations.sync();
+        second.invalidations.sync();
+
+        assertNull(second.cache().get(1L));
+        assertNull(second.cache().get(2L));
+    }
+
+    @Test
+    @DisplayName("Au-delà de max-pending, les invalidations se réduisent à un vidage du cache")
+    void shouldCollapseIntoClearWhenQueueIsFull() {
+        second.cache().put(9L, "untouched key");
+        for (long id = 1; id <= 5; id++) {
+            first.cache().evict(id);
+        }
+        assertEquals(3, first.invalidations.pending());
+
+        first.invalidations.sync();
+        second.invalidations.sync();
+
+        assertNull(second.cache().get(9L));
+    }
+
+    @Test
+    @DisplayName("Une ligne validée après un id plus grand déjà lu n'est pas perdue")
+    void shouldPickUpRowsCommittedOutOfOrder() {
+        second.cache().put(5L, "stale");
+        long base = second.lastIdAfterSync();
+        insert(base + 2, 6L);
+        second.invalidations.sync();
+
+        // base + 1 était en cours de transaction lors de la lecture précédente
+        insert(base + 1, 5L);
+        second.invalidations.sync();
+
+        assertNull(second.cache().get(5L));
+        jdbcTemplate.execute("alter table cache_invalidation alter column id restart with " + (base + 100));
+    }
+
+    @Test
+    @DisplayName("Rejoue les invalidations écrites depuis un instant donné")
+    void shouldReplayInvalidationsSinceInstant() {
+        first.cache().evict(3L);
+        first.invalidations.sync();
+
+        Replica restarted = new Replica();
+        restarted.cache().put(3L, "restored from snapshot");
+        assertEquals(1, restarted.invalidations.replaySince(Instant.now().minusSeconds(60)));
+
+        assertNull(restarted.cache().get(3L));
+    }
+
+    private void insert(long id, Long key) {
+        jdbcTemplate.update("insert into cache_invalidation (id, cache_name, cache_key, origin) values (?, ?, ?, ?)",
+                id, "transcripts", key, "other-replica");
+    }
+
+    private class Replica {
+        final CacheManager cacheManager;
+        final CacheInvalidations invalidations;
+
+        Replica() {
+            CacheInvalidations[] holder = new CacheInvalidations[1];
+            cacheManager = new BroadcastingCacheManager(new ConcurrentMapCacheManager("transcripts"),
+                    () -> holder[0]);
+            invalidations = new CacheInvalidations(dataSource, transactionManager, () -> cacheManager, PROPERTIES,
+                    Clock.systemUTC());
+            holder[0] = invalidations;
+            invalidations.afterSingletonsInstantiated();
+        }
+
+        Cache cache() {
+            return cacheManager.getCache("transcripts");
+        }
+
+        long lastIdAfterSync() {
+            invalidations.sync();
+            Long max = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from cache_invalidation", Long.class);
+            return max == null ? 0 : max;
+        }
+    }
+}
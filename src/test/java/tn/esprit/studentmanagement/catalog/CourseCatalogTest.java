@@ -0,0 +1,63 @@
+package tn.esprit.studentmanagement.catalog;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tn.esprit.studentmanagement.entities.Course;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CourseCatalog - Tests Unitaires")
+class CourseCatalogTest {
+
+    private static Course course(long id, String code, int credit) {
+        return new Course(id, "Cours " + code, code, credit, null, null, null);
+    }
+
+    private final CourseCatalog catalog = CourseCatalog.of(List.of(
+            course(1L, "CS101", 3),
+            course(2L, "CS201", 5),
+            course(3L, "MA101", 2),
+            course(4L, "cs105", 4),
+            course(5L, "PH100", 6)));
+
+    @Test
+    @DisplayName("Recherche par code insensible à la casse")
+    void shouldFindByCodeIgnoringCase() {
+        assertEquals(4L, catalog.byCode("CS105").orElseThrow().getIdCourse());
+        assertEquals(1L, catalog.byCode("cs101").orElseThrow().getIdCourse());
+        assertTrue(catalog.byCode("XX999").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Recherche par préfixe de code et plage de crédits")
+    void shouldSearchByPrefixAndCreditRange() {
+        // When
+        List<Course> byPrefix = catalog.search("cs", null, null);
+        List<Course> byPrefixAndCredit = catalog.search("CS1", 4, null);
+        List<Course> byCredit = catalog.search(null, 3, 5);
+
+        // Then
+        assertEquals(List.of(1L, 4L, 2L), byPrefix.stream().map(Course::getIdCourse).toList());
+        assertEquals(List.of(4L), byPrefixAndCredit.stream().map(Course::getIdCourse).toList());
+        assertEquals(List.of(1L, 4L, 2L), byCredit.stream().map(Course::getIdCourse).toList());
+        assertTrue(catalog.search("ZZ", null, null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("with/without produisent un nouveau catalogue sans modifier l'ancien")
+    void shouldCopyOnWrite() {
+        // When
+        CourseCatalog updated = catalog.with(course(3L, "MA102", 2)).without(5L);
+
+        // Then
+        assertEquals("MA101", catalog.byId(3L).orElseThrow().getCode());
+        assertEquals(5, catalog.size());
+        assertEquals("MA102", updated.byId(3L).orElseThrow().getCode());
+        assertTrue(updated.byCode("MA101").isEmpty());
+        assertTrue(updated.byId(5L).isEmpty());
+        assertEquals(4, updated.size());
+        assertSame(updated, updated.without(42L));
+    }
+}
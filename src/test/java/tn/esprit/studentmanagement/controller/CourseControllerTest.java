@@ -0,0 +1,101 @@
+package tn.esprit.studentmanagement.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import tn.esprit.studentmanagement.config.ContentNegotiationConfig;
+import tn.esprit.studentmanagement.controllers.CourseController;
+import tn.esprit.studentmanagement.entities.Course;
+import tn.esprit.studentmanagement.services.ICourseService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CourseController.class)
+@Import(ContentNegotiationConfig.class)
+@DisplayName("CourseController - Tests d'API REST")
+class CourseControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ICourseService courseService;
+
+    @Test
+    @DisplayName("GET /courses/searchCourses → 200 OK + cours filtrés")
+    void shouldSearchCourses() throws Exception {
+        // Given
+        when(courseService.searchCourses("CS", 3, null))
+                .thenReturn(List.of(new Course(1L, "Algorithmique", "CS101", 4, null, null, null)));
+
+        // When & Then
+        mockMvc.perform(get("/courses/searchCourses").param("codePrefix", "CS").param("minCredit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].code").value("CS101"));
+
+        verify(courseService).searchCourses("CS", 3, null);
+    }
+
+    @Test
+    @DisplayName("GET /courses/getCourseByCode/{code} inexistant → 404")
+    void shouldReturn404WhenCodeUnknown() throws Exception {
+        // Given
+        when(courseService.getCourseByCode("XX999"))
+                .thenThrow(new EntityNotFoundException("Course with code XX999 not found"));
+
+        // When & Then
+        mockMvc.perform(get("/courses/getCourseByCode/XX999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /courses/getAllCourses + Accept CBOR → corps binaire CBOR")
+    void shouldNegotiateCbor() throws Exception {
+        // Given
+        when(courseService.getAllCourses())
+                .thenReturn(List.of(new Course(1L, "Algorithmique", "CS101", 4, null, null, null)));
+
+        // When
+        byte[] body = mockMvc.perform(get("/courses/getAllCourses").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        JsonNode courses = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals("CS101", courses.get(0).get("code").asText());
+    }
+
+    @Test
+    @DisplayName("GET /courses/getAllCourses + Accept Smile → corps binaire Smile")
+    void shouldNegotiateSmile() throws Exception {
+        // Given
+        when(courseService.getAllCourses())
+                .thenReturn(List.of(new Course(1L, "Algorithmique", "CS101", 4, null, null, null)));
+
+        // When
+        byte[] body = mockMvc.perform(get("/courses/getAllCourses").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        JsonNode courses = new ObjectMapper(new SmileFactory()).readTree(body);
+        assertEquals(4, courses.get(0).get("credit").asInt());
+    }
+}
@@ -0,0 +1,62 @@
+package tn.esprit.studentmanagement.controller;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import tn.esprit.studentmanagement.controllers.CourseRankingController;
+import tn.esprit.studentmanagement.dto.CourseRank;
+import tn.esprit.studentmanagement.services.ICourseRankingService;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CourseRankingController.class)
+@DisplayName("CourseRankingController - Tests REST")
+class CourseRankingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ICourseRankingService courseRankingService;
+
+    @Test
+    @DisplayName("GET /rankings/getTopK/{id}?k=2 → 200 + meilleurs étudiants")
+    void shouldReturnTopK() throws Exception {
+        when(courseRankingService.getTopK(1L, 2)).thenReturn(List.of(
+                new CourseRank(1L, 10L, 100L, 18.0, 1, 5, 80.0),
+                new CourseRank(1L, 20L, 200L, 16.0, 2, 5, 60.0)));
+
+        mockMvc.perform(get("/rankings/getTopK/1").param("k", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].idStudent").value(10))
+                .andExpect(jsonPath("$[1].rank").value(2));
+    }
+
+    @Test
+    @DisplayName("GET /rankings/getStudentRank/{c}/{s} → 404 si non classé")
+    void shouldReturn404ForUnrankedStudent() throws Exception {
+        when(courseRankingService.getStudentRank(1L, 99L)).thenThrow(new EntityNotFoundException("not ranked"));
+
+        mockMvc.perform(get("/rankings/getStudentRank/1/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /rankings/getGradeAtPercentile/{id} → 400 si percentile invalide")
+    void shouldReturn400ForInvalidPercentile() throws Exception {
+        when(courseRankingService.getGradeAtPercentile(1L, 150.0))
+                .thenThrow(new IllegalArgumentException("percentile must be between 0 and 100"));
+
+        mockMvc.perform(get("/rankings/getGradeAtPercentile/1").param("percentile", "150"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import tn.esprit.studentmanagement.controllers.DepartmentController;
+import tn.esprit.studentmanagement.dto.BulkDeleteResult;
 import tn.esprit.studentmanagement.entities.Department;
 import tn.esprit.studentmanagement.services.IDepartmentService;
 
@@ -146,4 +147,26 @@ class DepartmentControllerTest {
 
         verify(departmentService).deleteDepartment(3L);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("DELETE /Depatment/deleteDepartments?ids=... → 200 + nombre de lignes supprimées")
+    void shouldBulkDeleteDepartmentsByIds() throws Exception {
+        when(departmentService.deleteDepartments(List.of(4L, 5L))).thenReturn(new BulkDeleteResult(2, 30, 120));
+
+        mockMvc.perform(delete("/Depatment/deleteDepartments").param("ids", "4,5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.departments").value(2))
+                .andExpect(jsonPath("$.students").value(30))
+                .andExpect(jsonPath("$.enrollments").value(120));
+    }
+
+    @Test
+    @DisplayName("DELETE /Depatment/deleteDepartments?location=... → 200")
+    void shouldBulkDeleteDepartmentsByLocation() throws Exception {
+        when(departmentService.deleteDepartmentsByLocation("Bloc A")).thenReturn(new BulkDeleteResult(1, 0, 0));
+
+        mockMvc.perform(delete("/Depatment/deleteDepartments").param("location", "Bloc A"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.departments").value(1));
+    }
+}
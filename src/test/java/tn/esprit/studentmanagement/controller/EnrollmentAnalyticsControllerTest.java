@@ -0,0 +1,60 @@
+package tn.esprit.studentmanagement.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import tn.esprit.studentmanagement.analytics.EnrollmentFilter;
+import tn.esprit.studentmanagement.controllers.EnrollmentAnalyticsController;
+import tn.esprit.studentmanagement.dto.CourseGradeStats;
+import tn.esprit.studentmanagement.dto.GradeBin;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.services.IEnrollmentAnalyticsService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(EnrollmentAnalyticsController.class)
+@DisplayName("EnrollmentAnalyticsController - Tests REST")
+class EnrollmentAnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private IEnrollmentAnalyticsService enrollmentAnalyticsService;
+
+    @Test
+    @DisplayName("GET /analytics/getCourseStats → 200 + statistiques filtrées par statut et période")
+    void shouldReturnCourseStats() throws Exception {
+        EnrollmentFilter filter = new EnrollmentFilter(null, Set.of(Status.COMPLETED, Status.FAILED),
+                LocalDate.of(2025, 9, 1), null);
+        when(enrollmentAnalyticsService.getCourseStats(filter))
+                .thenReturn(List.of(new CourseGradeStats(3L, 40, 38, 30, 30 / 38.0, 12.4, 4.0, 19.5)));
+
+        mockMvc.perform(get("/analytics/getCourseStats")
+                        .param("statuses", "COMPLETED,FAILED").param("from", "2025-09-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].idCourse").value(3))
+                .andExpect(jsonPath("$[0].averageGrade").value(12.4))
+                .andExpect(jsonPath("$[0].passed").value(30));
+    }
+
+    @Test
+    @DisplayName("GET /analytics/getGradeDistribution → intervalles d'une largeur par défaut de 1")
+    void shouldDefaultBinWidth() throws Exception {
+        when(enrollmentAnalyticsService.getGradeDistribution(new EnrollmentFilter(7L, Set.of(), null, null), 1.0))
+                .thenReturn(List.of(new GradeBin(0, 1, 2)));
+
+        mockMvc.perform(get("/analytics/getGradeDistribution").param("idCourse", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].enrollments").value(2));
+    }
+}
@@ -163,6 +163,20 @@ class EnrollmentControllerTest {
                 .andExpect(status().isBadRequest()); // grâce au GlobalExceptionHandler
     }
 
+    @Test
+    @DisplayName("GET /Enrollment/getStudentEnrollments/{id}?includeHistory=true → 200 + historique")
+    void shouldReturnStudentEnrollmentsWithHistory() throws Exception {
+        when(enrollmentService.getEnrollmentsByStudent(7L, true)).thenReturn(Arrays.asList(
+                createEnrollment(1L, 12.0, Status.COMPLETED),
+                createEnrollment(2L, null, Status.ACTIVE)));
+
+        mockMvc.perform(get("/Enrollment/getStudentEnrollments/7").param("includeHistory", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        verify(enrollmentService).getEnrollmentsByStudent(7L, true);
+    }
+
     // TEST FINAL : BOOST COVERAGE À 96-98% POUR PASSER LA QUALITY GATE
     @Test
     @DisplayName("Boost JaCoCo coverage pour Quality Gate")
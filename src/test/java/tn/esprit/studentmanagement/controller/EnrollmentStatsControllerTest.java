@@ -0,0 +1,64 @@
+package tn.esprit.studentmanagement.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import tn.esprit.studentmanagement.controllers.EnrollmentStatsController;
+import tn.esprit.studentmanagement.dto.EnrollmentCount;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.jobs.EnrollmentCountBackfillJob;
+import tn.esprit.studentmanagement.services.IEnrollmentStatsService;
+import tn.esprit.studentmanagement.stats.Dimension;
+import tn.esprit.studentmanagement.stats.Granularity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(EnrollmentStatsController.class)
+@DisplayName("EnrollmentStatsController - Tests REST")
+class EnrollmentStatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private IEnrollmentStatsService enrollmentStatsService;
+
+    @MockitoBean
+    private EnrollmentCountBackfillJob backfillJob;
+
+    @Test
+    @DisplayName("GET /enrollmentStats/getEnrollmentCounts → 200 + comptes par semaine et cours")
+    void shouldReturnWeeklyCountsByCourse() throws Exception {
+        when(enrollmentStatsService.getEnrollmentCounts(LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 30),
+                Granularity.WEEK, null, null, Status.ACTIVE, Set.of(Dimension.COURSE)))
+                .thenReturn(List.of(new EnrollmentCount(LocalDate.of(2025, 9, 1), 3L, null, null, 42)));
+
+        mockMvc.perform(get("/enrollmentStats/getEnrollmentCounts")
+                        .param("from", "2025-09-01").param("to", "2025-09-30")
+                        .param("granularity", "WEEK").param("status", "ACTIVE").param("groupBy", "COURSE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].period").value("2025-09-01"))
+                .andExpect(jsonPath("$[0].idCourse").value(3))
+                .andExpect(jsonPath("$[0].enrollments").value(42));
+    }
+
+    @Test
+    @DisplayName("GET /enrollmentStats/getEnrollmentCounts → par jour, sans ventilation par défaut")
+    void shouldDefaultToDailyTotals() throws Exception {
+        mockMvc.perform(get("/enrollmentStats/getEnrollmentCounts")
+                        .param("from", "2025-09-01").param("to", "2025-09-07"))
+                .andExpect(status().isOk());
+
+        verify(enrollmentStatsService).getEnrollmentCounts(LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 7),
+                Granularity.DAY, null, null, null, Set.of());
+    }
+}
@@ -9,6 +9,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import tn.esprit.studentmanagement.controllers.StudentController;
+import tn.esprit.studentmanagement.dto.BatchItem;
+import tn.esprit.studentmanagement.dto.BulkDeleteResult;
 import tn.esprit.studentmanagement.entities.Department;
 import tn.esprit.studentmanagement.entities.Student;
 import tn.esprit.studentmanagement.services.IStudentService;
@@ -16,8 +18,10 @@ import tn.esprit.studentmanagement.services.IStudentService;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -144,4 +148,73 @@ class StudentControllerTest {
 
         verify(studentService).deleteStudent(25L);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("DELETE /students/deleteStudents?ids=... → 200 + nombre de lignes supprimées")
+    void shouldBulkDeleteStudentsByIds() throws Exception {
+        when(studentService.deleteStudents(List.of(1L, 2L))).thenReturn(new BulkDeleteResult(0, 2, 5));
+
+        mockMvc.perform(delete("/students/deleteStudents").param("ids", "1", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students").value(2))
+                .andExpect(jsonPath("$.enrollments").value(5));
+    }
+
+    @Test
+    @DisplayName("DELETE /students/deleteStudents?departmentId=... → 200")
+    void shouldBulkDeleteStudentsByDepartment() throws Exception {
+        when(studentService.deleteStudentsByDepartment(3L)).thenReturn(new BulkDeleteResult(0, 10, 40));
+
+        mockMvc.perform(delete("/students/deleteStudents").param("departmentId", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students").value(10));
+    }
+
+    @Test
+    @DisplayName("DELETE /students/deleteStudents sans critère → 400")
+    void shouldRejectBulkDeleteWithoutCriteria() throws Exception {
+        mockMvc.perform(delete("/students/deleteStudents"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(studentService);
+    }
+
+    @Test
+    @DisplayName("GET /students/getStudents?ids=... → 200 + ordre de la requête et marqueurs absents")
+    void shouldReturnStudentsBatchInRequestOrder() throws Exception {
+        when(studentService.getStudentsByIds(List.of(2L, 99L, 1L))).thenReturn(List.of(
+                new BatchItem<>(2L, true, createStudent(2L, "Sarra", "sarra@esprit.tn")),
+                new BatchItem<>(99L, false, null),
+                new BatchItem<>(1L, true, createStudent(1L, "Ali", "ali@esprit.tn"))));
+
+        mockMvc.perform(get("/students/getStudents").param("ids", "2,99,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].item.firstName").value("Sarra"))
+                .andExpect(jsonPath("$[1].id").value(99))
+                .andExpect(jsonPath("$[1].found").value(false))
+                .andExpect(jsonPath("$[2].item.idStudent").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /students/getStudents trop d'ids → 400")
+    void shouldRejectOversizedBatch() throws Exception {
+        when(studentService.getStudentsByIds(anyList())).thenThrow(new IllegalArgumentException("At most 500 ids"));
+
+        mockMvc.perform(get("/students/getStudents").param("ids", "1,2"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /students/getAllStudents?fields=... → 200 + champs demandés uniquement")
+    void shouldReturnSparseFieldset() throws Exception {
+        when(studentService.getAllStudents(List.of("idStudent", "lastName"))).thenReturn(List.of(
+                Map.of("idStudent", 1, "lastName", "Ben Salem")));
+
+        mockMvc.perform(get("/students/getAllStudents").param("fields", "idStudent,lastName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lastName").value("Ben Salem"))
+                .andExpect(jsonPath("$[0].email").doesNotExist());
+
+        verify(studentService, never()).getAllStudents();
+    }
+}
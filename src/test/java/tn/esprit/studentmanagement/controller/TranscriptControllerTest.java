@@ -0,0 +1,68 @@
+package tn.esprit.studentmanagement.controller;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import tn.esprit.studentmanagement.controllers.TranscriptController;
+import tn.esprit.studentmanagement.dto.StudentGpa;
+import tn.esprit.studentmanagement.dto.Transcript;
+import tn.esprit.studentmanagement.dto.TranscriptLine;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.services.ITranscriptService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TranscriptController.class)
+@DisplayName("TranscriptController - Tests REST")
+class TranscriptControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ITranscriptService transcriptService;
+
+    @Test
+    @DisplayName("GET /transcripts/getTranscript/{id} → 200 + relevé")
+    void shouldReturnTranscript() throws Exception {
+        when(transcriptService.getTranscript(1L)).thenReturn(new Transcript(1L, List.of(
+                new TranscriptLine(3L, "CS101", "Java", 4, 16.0, Status.COMPLETED, LocalDate.of(2025, 1, 10))),
+                4, 16.0));
+
+        mockMvc.perform(get("/transcripts/getTranscript/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.gpa").value(16.0))
+                .andExpect(jsonPath("$.lines[0].code").value("CS101"));
+    }
+
+    @Test
+    @DisplayName("GET /transcripts/getTranscript/{id} → 404 si étudiant inconnu")
+    void shouldReturn404ForUnknownStudent() throws Exception {
+        when(transcriptService.getTranscript(99L)).thenThrow(new EntityNotFoundException("not found"));
+
+        mockMvc.perform(get("/transcripts/getTranscript/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /transcripts/getDepartmentGpas/{id} → 200 + moyennes")
+    void shouldReturnDepartmentGpas() throws Exception {
+        when(transcriptService.getDepartmentGpas(2L)).thenReturn(List.of(
+                new StudentGpa(1L, "Ali", "Ben Salem", 6, 14.0),
+                new StudentGpa(2L, "Sarra", "Trabelsi", 0, null)));
+
+        mockMvc.perform(get("/transcripts/getDepartmentGpas/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].gpa").isEmpty());
+    }
+}
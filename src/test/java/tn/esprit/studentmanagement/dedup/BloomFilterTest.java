@@ -0,0 +1,44 @@
+package tn.esprit.studentmanagement.dedup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BloomFilter - Tests Unitaires")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Aucun faux négatif et taux de faux positifs proche de la cible")
+    void shouldNeverMissInsertedKeysAndStayNearTargetRate() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("student" + i + "@esprit.tn");
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain("student" + i + "@esprit.tn")) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("student" + i + "@esprit.tn"));
+        }
+        assertTrue(falsePositives < 2_000, "faux positifs : " + falsePositives);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+        assertEquals(filter.bitSize() / 8, filter.memoryBytes());
+        assertEquals(10_000, filter.insertions());
+    }
+
+    @Test
+    @DisplayName("Taux cible hors de ]0, 1[ → IllegalArgumentException")
+    void shouldRejectInvalidRate() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+    }
+}
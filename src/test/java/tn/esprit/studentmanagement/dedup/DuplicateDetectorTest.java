@@ -0,0 +1,129 @@
+package tn.esprit.studentmanagement.dedup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import tn.esprit.studentmanagement.config.DedupProperties;
+import tn.esprit.studentmanagement.entities.Course;
+import tn.esprit.studentmanagement.entities.Enrollment;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.entities.Student;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.exception.DuplicateEntityException;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.repositories.StudentRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DuplicateDetector - Tests Unitaires")
+class DuplicateDetectorTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DuplicateDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new DuplicateDetector(studentRepository, enrollmentRepository,
+                new DedupProperties(0.01, 1_000, Duration.ofHours(6)), transactionManager);
+        when(studentRepository.streamEmails()).thenReturn(Stream.of("Amira.Ben@esprit.tn"));
+        when(enrollmentRepository.streamAllStates()).thenReturn(Stream.of(
+                new EnrollmentState(10L, 1L, 7L, null, null, null)));
+        detector.rebuild();
+    }
+
+    private static Student student(Long id, String email) {
+        Student student = new Student();
+        student.setIdStudent(id);
+        student.setEmail(email);
+        return student;
+    }
+
+    private static Enrollment enrollment(Long id, Long idStudent, Long idCourse) {
+        Course course = new Course();
+        course.setIdCourse(idCourse);
+        return new Enrollment(id, null, null, null, student(idStudent, null), course);
+    }
+
+    @Test
+    @DisplayName("Clé absente du filtre → aucune requête d'existence")
+    void shouldSkipQueryOnDefiniteMiss() {
+        // When
+        detector.checkStudent(student(null, "nouveau@esprit.tn"));
+        detector.checkEnrollment(enrollment(null, 2L, 7L));
+
+        // Then
+        verify(studentRepository, never()).findIdsByEmail(any());
+        verify(enrollmentRepository, never()).findSeatHoldingIdsByStudentAndCourse(any(), any());
+    }
+
+    @Test
+    @DisplayName("Email déjà utilisé (casse ignorée) par un autre étudiant → DuplicateEntityException")
+    void shouldRejectDuplicateEmail() {
+        // Given
+        when(studentRepository.findIdsByEmail("amira.ben@esprit.tn")).thenReturn(List.of(1L));
+
+        // When & Then
+        assertThrows(DuplicateEntityException.class,
+                () -> detector.checkStudent(student(null, "amira.ben@esprit.tn")));
+        assertDoesNotThrow(() -> detector.checkStudent(student(1L, "amira.ben@esprit.tn")));
+    }
+
+    @Test
+    @DisplayName("Inscription déjà existante → DuplicateEntityException, sauf pour elle-même")
+    void shouldRejectDuplicateEnrollment() {
+        // Given
+        when(enrollmentRepository.findSeatHoldingIdsByStudentAndCourse(1L, 7L)).thenReturn(List.of(10L));
+
+        // When & Then
+        assertThrows(DuplicateEntityException.class, () -> detector.checkEnrollment(enrollment(null, 1L, 7L)));
+        assertDoesNotThrow(() -> detector.checkEnrollment(enrollment(10L, 1L, 7L)));
+    }
+
+    @Test
+    @DisplayName("Nouvelle inscription après un échec → aucune vérification, seule une place active compte")
+    void shouldAllowReenrollmentAfterFailure() {
+        // Given
+        Enrollment failed = enrollment(10L, 1L, 7L);
+        failed.setStatus(Status.FAILED);
+        when(enrollmentRepository.findSeatHoldingIdsByStudentAndCourse(1L, 7L)).thenReturn(List.of());
+
+        // When & Then
+        assertDoesNotThrow(() -> detector.checkEnrollment(failed));
+        assertDoesNotThrow(() -> detector.checkEnrollment(enrollment(null, 1L, 7L)));
+        verify(enrollmentRepository, times(1)).findSeatHoldingIdsByStudentAndCourse(1L, 7L);
+    }
+
+    @Test
+    @DisplayName("Clé enregistrée puis supprimée en base → comptée comme faux positif")
+    void shouldCountFalsePositives() {
+        // Given
+        detector.registerStudent(student(5L, "parti@esprit.tn"));
+        when(studentRepository.findIdsByEmail("parti@esprit.tn")).thenReturn(List.of());
+
+        // When
+        detector.checkStudent(student(null, "parti@esprit.tn"));
+        detector.checkStudent(student(null, "autre@esprit.tn"));
+
+        // Then
+        assertEquals(0.5, detector.studentEmails().observedFalsePositiveRate(), 1e-9);
+    }
+}
@@ -0,0 +1,131 @@
+package tn.esprit.studentmanagement.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import tn.esprit.studentmanagement.exception.ServiceOverloadedException;
+import tn.esprit.studentmanagement.filters.AdaptiveConcurrencyFilter;
+import tn.esprit.studentmanagement.filters.AimdLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@DisplayName("AdaptiveConcurrencyFilter - Tests Unitaires")
+class AdaptiveConcurrencyFilterTest {
+
+    @Test
+    @DisplayName("AimdLimiter - rejette au-delà de la limite")
+    void shouldRejectWhenLimitReached() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, 0.5, TimeUnit.SECONDS.toNanos(1));
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    @DisplayName("AimdLimiter - augmentation additive sur succès rapide")
+    void shouldIncreaseLimitOnFastSuccess() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, 0.5, TimeUnit.SECONDS.toNanos(1));
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(5), false);
+
+        assertEquals(3, limiter.getLimit());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("AimdLimiter - réduction multiplicative sur requête lente ou en échec")
+    void shouldDecreaseLimitOnSlowOrFailedCall() {
+        AtomicLong clock = new AtomicLong();
+        AimdLimiter limiter = new AimdLimiter(8, 1, 10, 0.5, TimeUnit.MILLISECONDS.toNanos(100), clock::get);
+
+        limiter.tryAcquire();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), false);
+        assertEquals(4, limiter.getLimit());
+
+        limiter.tryAcquire();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5));
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(5), true);
+        assertEquals(2, limiter.getLimit());
+
+        for (int i = 0; i < 2; i++) {
+            limiter.tryAcquire();
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(500), true);
+        }
+        assertEquals(1, limiter.getLimit());  // borne minimale respectée
+    }
+
+    @Test
+    @DisplayName("AimdLimiter - une rafale de requêtes lentes ne réduit la limite qu'une fois")
+    void shouldDecreaseOncePerRoundTrip() {
+        AtomicLong clock = new AtomicLong();
+        AimdLimiter limiter = new AimdLimiter(8, 1, 10, 0.5, TimeUnit.MILLISECONDS.toNanos(100), clock::get);
+        for (int i = 0; i < 6; i++) {
+            limiter.tryAcquire();
+        }
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        for (int i = 0; i < 6; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(500), false);
+        }
+        assertEquals(4, limiter.getLimit());
+
+        // Admise après la réduction : une nouvelle réduction est possible
+        limiter.tryAcquire();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), false);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Filtre - délestage 503 quand les lectures sont saturées")
+    void shouldShedReadWhenSaturated() throws Exception {
+        HandlerExceptionResolver resolver = mock(HandlerExceptionResolver.class);
+        AdaptiveConcurrencyFilter filter = new AdaptiveConcurrencyFilter(resolver, true,
+                1, 1, 10, 10, 1, 0.9, Duration.ofSeconds(1), 3);
+
+        MockHttpServletRequest nested = new MockHttpServletRequest("GET", "/students/getAllStudents");
+        MockHttpServletResponse nestedResponse = new MockHttpServletResponse();
+
+        // La première requête occupe l'unique place; la seconde (imbriquée) doit être rejetée
+        filter.doFilter(new MockHttpServletRequest("GET", "/students/getAllStudents"),
+                new MockHttpServletResponse(),
+                (req, res) -> filter.doFilter(nested, nestedResponse, (r, s) -> fail("ne doit pas passer")));
+
+        verify(resolver).resolveException(eq(nested), eq(nestedResponse), isNull(),
+                any(ServiceOverloadedException.class));
+    }
+
+    @Test
+    @DisplayName("Filtre - les écritures ont leur propre limite")
+    void shouldNotShedWriteWhenOnlyReadsAreSaturated() throws Exception {
+        HandlerExceptionResolver resolver = mock(HandlerExceptionResolver.class);
+        AdaptiveConcurrencyFilter filter = new AdaptiveConcurrencyFilter(resolver, true,
+                1, 1, 10, 10, 1, 0.9, Duration.ofSeconds(1), 3);
+        boolean[] writeExecuted = {false};
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/students/getAllStudents"),
+                new MockHttpServletResponse(),
+                (req, res) -> filter.doFilter(new MockHttpServletRequest("POST", "/students/createStudent"),
+                        new MockHttpServletResponse(), (r, s) -> writeExecuted[0] = true));
+
+        assertTrue(writeExecuted[0]);
+        verifyNoInteractions(resolver);
+    }
+}
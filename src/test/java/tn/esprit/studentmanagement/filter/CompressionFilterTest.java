@@ -0,0 +1,137 @@
+package tn.esprit.studentmanagement.filter;
+
+import com.github.luben.zstd.ZstdInputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import tn.esprit.studentmanagement.config.CompressionProperties;
+import tn.esprit.studentmanagement.filters.CompressionFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CompressionFilter - Tests Unitaires")
+class CompressionFilterTest {
+
+    private static final String LARGE_BODY = "{\"students\":\"" + "ali-ben-salem-".repeat(400) + "\"}";
+
+    private final CompressionFilter filter = new CompressionFilter(new CompressionProperties(true,
+            DataSize.ofKilobytes(2), List.of("zstd", "gzip"), 3, List.of("application/json", "text/csv")));
+
+    private MockHttpServletResponse perform(String acceptEncoding, String contentType, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students/getAllStudents");
+        if (acceptEncoding != null) {
+            request.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            res.setContentType(contentType);
+            res.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static String decode(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    @DisplayName("Corps volumineux + zstd accepté → réponse compressée en zstd")
+    void shouldCompressWithZstd() throws Exception {
+        MockHttpServletResponse response = perform("gzip, deflate, br, zstd", "application/json", LARGE_BODY);
+
+        assertEquals("zstd", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertTrue(response.getContentAsByteArray().length < LARGE_BODY.length() / 10);
+        assertEquals(LARGE_BODY, decode(new ZstdInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    @Test
+    @DisplayName("Client gzip uniquement → réponse compressée en gzip")
+    void shouldFallBackToGzip() throws Exception {
+        MockHttpServletResponse response = perform("gzip, zstd;q=0", "text/csv;charset=UTF-8", LARGE_BODY);
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals(LARGE_BODY, decode(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    @Test
+    @DisplayName("Corps sous le seuil → non compressé, longueur renseignée")
+    void shouldNotCompressSmallBody() throws Exception {
+        MockHttpServletResponse response = perform("zstd", "application/json", "{\"id\":1}");
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(8, response.getContentLength());
+        assertEquals("{\"id\":1}", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Type non compressible (déjà compressé) → transmis tel quel")
+    void shouldNotCompressOtherContentTypes() throws Exception {
+        MockHttpServletResponse response = perform("zstd", "application/octet-stream", LARGE_BODY);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(LARGE_BODY, response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Sans Accept-Encoding → filtre ignoré")
+    void shouldSkipWithoutAcceptEncoding() throws Exception {
+        MockHttpServletResponse response = perform(null, "application/json", LARGE_BODY);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertNull(response.getHeader("Vary"));
+        assertEquals(LARGE_BODY, response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Accept-Encoding: * → encodage préféré du serveur")
+    void shouldUseServerPreferenceForWildcard() throws Exception {
+        MockHttpServletResponse response = perform("*", "application/json", LARGE_BODY);
+
+        assertEquals("zstd", response.getHeader("Content-Encoding"));
+    }
+
+    @Test
+    @DisplayName("Requête asynchrone → corps compressé à la fin du contexte asynchrone")
+    void shouldFinishAsyncRequestOnComplete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students/getAllStudents");
+        request.setAsyncSupported(true);
+        request.addHeader("Accept-Encoding", "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletResponse[] wrapped = new ServletResponse[1];
+        filter.doFilter(request, response, (req, res) -> {
+            req.startAsync(req, res);
+            wrapped[0] = res;
+        });
+
+        assertEquals(0, response.getContentAsByteArray().length);
+
+        wrapped[0].setContentType("application/json");
+        wrapped[0].getOutputStream().write(LARGE_BODY.getBytes(StandardCharsets.UTF_8));
+        request.getAsyncContext().complete();
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals(LARGE_BODY, decode(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    @Test
+    @DisplayName("Encodage inconnu dans la configuration → refus au démarrage")
+    void shouldRejectUnsupportedEncoding() {
+        assertThrows(IllegalArgumentException.class, () -> new CompressionFilter(new CompressionProperties(true,
+                DataSize.ofKilobytes(2), List.of("br"), 3, List.of("application/json"))));
+    }
+}
@@ -0,0 +1,168 @@
+package tn.esprit.studentmanagement.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import tn.esprit.studentmanagement.config.RateLimitProperties;
+import tn.esprit.studentmanagement.exception.RateLimitExceededException;
+import tn.esprit.studentmanagement.filters.RateLimitFilter;
+import tn.esprit.studentmanagement.filters.RateLimiterRegistry;
+import tn.esprit.studentmanagement.filters.TokenBucket;
+import tn.esprit.studentmanagement.warmup.WarmupRequests;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RateLimitFilter - Tests Unitaires")
+class RateLimitFilterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private RateLimitFilter createFilter(HandlerExceptionResolver resolver) {
+        RateLimitProperties properties = new RateLimitProperties(true, "X-API-Key", Set.of("batch", "interactive"), 100, 4, List.of(
+                new RateLimitProperties.Route("all-students", "/students/getAllStudents", 2, 1),
+                new RateLimitProperties.Route("default", "/{*path}", 100, 100)));
+        return new RateLimitFilter(properties, resolver);
+    }
+
+    @Test
+    @DisplayName("TokenBucket - rafale limitée à la capacité puis recharge")
+    void shouldLimitBurstAndRefill() {
+        long now = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(3, 1, now);
+
+        assertTrue(bucket.tryConsume(now));
+        assertTrue(bucket.tryConsume(now));
+        assertTrue(bucket.tryConsume(now));
+        assertFalse(bucket.tryConsume(now));
+        assertEquals(SECOND, bucket.nanosUntilAvailable(now));
+
+        assertTrue(bucket.tryConsume(now + SECOND));
+        assertFalse(bucket.isIdle(now + SECOND));
+        assertTrue(bucket.isIdle(now + 10 * SECOND));
+    }
+
+    @Test
+    @DisplayName("RateLimiterRegistry - éviction des seaux inactifs quand la borne est atteinte")
+    void shouldEvictIdleBuckets() {
+        RateLimiterRegistry registry = new RateLimiterRegistry(4, 1);
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 4; i++) {
+            registry.bucket("r", "client-" + i, 1, 1, now).tryConsume(now);
+        }
+        assertEquals(4, registry.size());
+
+        // Tous les seaux sont pleins à nouveau 10s plus tard → évincés
+        registry.bucket("r", "client-new", 1, 1, now + 10 * SECOND);
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    @DisplayName("RateLimiterRegistry - sans seau inactif, le seau le plus proche du plein est remplacé")
+    void shouldReplaceNearestToIdleBucketWhenSaturated() {
+        RateLimiterRegistry registry = new RateLimiterRegistry(2, 1);
+        long now = 1_000 * SECOND;
+        TokenBucket throttled = registry.bucket("r", "a", 3, 1, now);
+        throttled.tryConsume(now);
+        throttled.tryConsume(now);
+        registry.bucket("r", "b", 3, 1, now).tryConsume(now);
+
+        TokenBucket c = registry.bucket("r", "c", 3, 1, now);
+        c.tryConsume(now);
+        TokenBucket d = registry.bucket("r", "d", 3, 1, now);
+
+        // Chaque client a son propre seau ; celui qui est limité garde son état
+        assertNotSame(c, d);
+        assertSame(throttled, registry.bucket("r", "a", 3, 1, now));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    @DisplayName("Filtre - 429 après dépassement, par client")
+    void shouldRejectClientOverLimit() throws Exception {
+        HandlerExceptionResolver resolver = mock(HandlerExceptionResolver.class);
+        RateLimitFilter filter = createFilter(resolver);
+
+        for (int i = 0; i < 2; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(request("batch"), new MockHttpServletResponse(), chain);
+            assertNotNull(chain.getRequest());
+        }
+        MockFilterChain rejectedChain = new MockFilterChain();
+        filter.doFilter(request("batch"), new MockHttpServletResponse(), rejectedChain);
+        assertNull(rejectedChain.getRequest());
+        verify(resolver).resolveException(any(), any(), isNull(), any(RateLimitExceededException.class));
+
+        // Un autre client n'est pas affecté
+        MockFilterChain otherChain = new MockFilterChain();
+        filter.doFilter(request("interactive"), new MockHttpServletResponse(), otherChain);
+        assertNotNull(otherChain.getRequest());
+    }
+
+    @Test
+    @DisplayName("Filtre - l'adresse distante identifie le client sans clé API")
+    void shouldFallBackToRemoteAddress() throws Exception {
+        HandlerExceptionResolver resolver = mock(HandlerExceptionResolver.class);
+        RateLimitFilter filter = createFilter(resolver);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students/getAllStudents");
+            request.setRemoteAddr("10.0.0.7");
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        verify(resolver, times(1)).resolveException(any(), any(), isNull(), any(RateLimitExceededException.class));
+    }
+
+    @Test
+    @DisplayName("Filtre - une clé API inconnue ne crée pas de nouveau client")
+    void shouldIgnoreUnknownApiKeys() throws Exception {
+        HandlerExceptionResolver resolver = mock(HandlerExceptionResolver.class);
+        RateLimitFilter filter = createFilter(resolver);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = request("rotated-" + i);
+            request.setRemoteAddr("10.0.0.9");
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        verify(resolver, times(1)).resolveException(any(), any(), isNull(), any(RateLimitExceededException.class));
+    }
+
+    @Test
+    @DisplayName("Filtre - les requêtes de warm-up locales ne consomment pas de jetons")
+    void shouldNotLimitLoopbackWarmupRequests() throws Exception {
+        HandlerExceptionResolver resolver = mock(HandlerExceptionResolver.class);
+        RateLimitFilter filter = createFilter(resolver);
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students/getAllStudents");
+            request.addHeader(WarmupRequests.HEADER, WarmupRequests.token());
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        }
+        // Même jeton depuis une adresse distante : limité normalement
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students/getAllStudents");
+            request.addHeader(WarmupRequests.HEADER, WarmupRequests.token());
+            request.setRemoteAddr("10.0.0.8");
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        verify(resolver, times(1)).resolveException(any(), any(), isNull(), any(RateLimitExceededException.class));
+    }
+
+    private static MockHttpServletRequest request(String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students/getAllStudents");
+        request.addHeader("X-API-Key", apiKey);
+        return request;
+    }
+}
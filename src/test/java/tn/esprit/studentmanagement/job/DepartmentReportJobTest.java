@@ -0,0 +1,201 @@
+package tn.esprit.studentmanagement.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.studentmanagement.config.ReportProperties;
+import tn.esprit.studentmanagement.dto.PartitionReport;
+import tn.esprit.studentmanagement.dto.ReportRun;
+import tn.esprit.studentmanagement.entities.*;
+import tn.esprit.studentmanagement.jobs.DepartmentReportJob;
+import tn.esprit.studentmanagement.jobs.ReportFormat;
+import tn.esprit.studentmanagement.repositories.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Partitions run on their own threads and transactions, so the data has to be committed.
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reportdb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("DepartmentReportJob - Tests d'intégration (H2)")
+class DepartmentReportJobTest {
+
+    @TempDir
+    Path outputDir;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private EnrollmentArchiveRepository enrollmentArchiveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Department informatique;
+
+    @BeforeEach
+    void setUp() {
+        informatique = departmentRepository.save(new Department(null, "Informatique", "Bloc A", null, null, null));
+        Department genieCivil = departmentRepository.save(new Department(null, "Génie Civil", "Bloc B", null, null, null));
+        Course java = courseRepository.save(new Course(null, "Java", "CS101", 4, "POO", null, null));
+        Course web = courseRepository.save(new Course(null, "Web", "CS102", 2, "HTML, CSS", null, null));
+        Course maths = courseRepository.save(new Course(null, "Maths", "MA101", 3, null, null, null));
+
+        Student ali = student("Ali", informatique);
+        Student sarra = student("Sarra", informatique);
+        student("Omar", informatique);
+        Student mohamed = student("Mohamed", genieCivil);
+        enroll(ali, java, 16.0, Status.COMPLETED);
+        enroll(ali, web, 10.0, Status.COMPLETED);
+        enroll(ali, maths, null, Status.ACTIVE);
+        enroll(sarra, java, 8.0, Status.FAILED);
+        enroll(mohamed, web, 14.0, Status.COMPLETED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrollmentArchiveRepository.deleteAllInBatch();
+        enrollmentRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        departmentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("run() - Un fichier CSV par partition, statistiques par étudiant")
+    void shouldWriteOneCsvFilePerPartition() throws IOException {
+        // When
+        ReportRun run = job(ReportFormat.CSV).run("term-1", null, null);
+
+        // Then
+        assertEquals(0, run.failed());
+        assertEquals(4, run.students());
+        assertEquals(run.partitions().size(), run.written());
+        List<String> lines = reportLines(ReportFormat.CSV);
+        assertEquals(4, lines.size());
+        String ali = lines.stream().filter(l -> l.contains(",Ali,")).findFirst().orElseThrow();
+        // 3 inscriptions, 2 notées, moyenne 13, min 10, max 16, moyenne pondérée (16*4 + 10*2) / 6 = 14
+        assertTrue(ali.contains(",3,2,13.0,10.0,16.0,14.0,CS101:16.0:COMPLETED;CS102:10.0:COMPLETED;MA101::ACTIVE"), ali);
+        assertTrue(lines.stream().anyMatch(l -> l.contains(",Omar,") && l.contains(",0,0,,,,,")));
+    }
+
+    @Test
+    @DisplayName("run() - Relance : les partitions déjà écrites sont ignorées")
+    void shouldSkipCheckpointedPartitionsOnRerun() throws IOException {
+        DepartmentReportJob job = job(ReportFormat.CSV);
+        ReportRun first = job.run("term-1", null, null);
+        PartitionReport lost = first.partitions().get(0);
+        Files.delete(Path.of(lost.file()));
+
+        ReportRun second = job.run("term-1", null, null);
+
+        assertEquals(1, second.written());
+        assertEquals(first.partitions().size() - 1, second.skipped());
+        assertTrue(Files.exists(Path.of(lost.file())));
+        try (Stream<Path> files = Files.walk(outputDir)) {
+            assertTrue(files.noneMatch(p -> p.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    @DisplayName("run() - Format JSON limité à un département")
+    void shouldWriteJsonForSelectedDepartment() throws IOException {
+        ReportRun run = job(ReportFormat.CSV).run("term-1", ReportFormat.JSON, List.of(informatique.getIdDepartment()));
+
+        assertEquals(3, run.students());
+        ObjectMapper mapper = new ObjectMapper();
+        int students = 0;
+        for (PartitionReport partition : run.partitions()) {
+            JsonNode array = mapper.readTree(Path.of(partition.file()).toFile());
+            assertTrue(array.isArray());
+            students += array.size();
+            for (JsonNode student : array) {
+                if ("Sarra".equals(student.get("firstName").asText())) {
+                    assertEquals(8.0, student.get("gpa").asDouble());
+                    assertEquals("CS101", student.get("enrollments").get(0).get("code").asText());
+                }
+            }
+        }
+        assertEquals(3, students);
+    }
+
+    @Test
+    @DisplayName("run() - Les inscriptions archivées comptent, comme sur le relevé")
+    void shouldIncludeArchivedEnrollments() throws IOException {
+        Student omar = studentRepository.findAll().stream().filter(s -> "Omar".equals(s.getFirstName()))
+                .findFirst().orElseThrow();
+        Course maths = courseRepository.findAll().stream().filter(c -> "MA101".equals(c.getCode()))
+                .findFirst().orElseThrow();
+        enrollmentArchiveRepository.save(new EnrollmentArchive(900_000L, LocalDate.of(2019, 9, 15), 12.0,
+                Status.COMPLETED, omar, maths, LocalDate.of(2024, 1, 1)));
+
+        job(ReportFormat.CSV).run("term-1", null, null);
+
+        String line = reportLines(ReportFormat.CSV).stream().filter(l -> l.contains(",Omar,")).findFirst().orElseThrow();
+        assertTrue(line.contains(",1,1,12.0,12.0,12.0,12.0,MA101:12.0:COMPLETED"), line);
+    }
+
+    @Test
+    @DisplayName("run() - Identifiant de run invalide → IllegalArgumentException")
+    void shouldRejectPathLikeRunId() {
+        assertThrows(IllegalArgumentException.class, () -> job(ReportFormat.CSV).run("../etc", null, null));
+    }
+
+    private DepartmentReportJob job(ReportFormat format) {
+        return new DepartmentReportJob(departmentRepository, studentRepository, transactionManager,
+                new ReportProperties(outputDir, 3, 2, format));
+    }
+
+    private List<String> reportLines(ReportFormat format) throws IOException {
+        try (Stream<Path> files = Files.walk(outputDir)) {
+            return files.filter(p -> p.toString().endsWith("." + format.extension()))
+                    .flatMap(p -> {
+                        try {
+                            return Files.readAllLines(p).stream().skip(1);
+                        } catch (IOException ex) {
+                            throw new RuntimeException(ex);
+                        }
+                    })
+                    .toList();
+        }
+    }
+
+    private Student student(String firstName, Department department) {
+        return studentRepository.save(new Student(null, firstName, "Test", firstName.toLowerCase() + "@esprit.tn",
+                null, LocalDate.of(2000, 1, 1), null, department, null));
+    }
+
+    private void enroll(Student student, Course course, Double grade, Status status) {
+        enrollmentRepository.save(new Enrollment(null, LocalDate.of(2025, 9, 15), grade, status, student, course));
+    }
+}
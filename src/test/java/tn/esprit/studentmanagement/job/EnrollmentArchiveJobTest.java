@@ -0,0 +1,93 @@
+package tn.esprit.studentmanagement.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import tn.esprit.studentmanagement.entities.*;
+import tn.esprit.studentmanagement.jobs.EnrollmentArchiveJob;
+import tn.esprit.studentmanagement.repositories.EnrollmentArchiveRepository;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.sharding.ShardTransactions;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archivedb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "archive.min-age=365d",
+        "archive.chunk-size=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EnrollmentArchiveJob.class, ShardTransactions.class})
+@DisplayName("EnrollmentArchiveJob - Tests d'intégration (H2)")
+class EnrollmentArchiveJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EnrollmentArchiveJob archiveJob;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private EnrollmentArchiveRepository archiveRepository;
+
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        student = entityManager.persist(new Student(null, "Ali", "Ben Salem", "ali@esprit.tn", null,
+                LocalDate.of(2000, 5, 15), null, null, null));
+
+        enroll("CS101", LocalDate.of(2023, 9, 15), Status.COMPLETED);   // archivée
+        enroll("CS102", LocalDate.of(2023, 9, 16), Status.FAILED);      // archivée
+        enroll("CS103", LocalDate.of(2024, 2, 1), Status.WITHDRAWN);    // archivée (2e lot)
+        enroll("CS104", LocalDate.of(2023, 9, 17), Status.ACTIVE);      // statut non terminal
+        enroll("CS105", LocalDate.of(2026, 1, 10), Status.COMPLETED);   // trop récente
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("archive() - Déplace par lots les inscriptions terminées et anciennes")
+    void shouldMoveTerminalEnrollmentsInChunks() {
+        int moved = archiveJob.archive(TODAY);
+
+        assertEquals(3, moved);
+        assertEquals(2, enrollmentRepository.count());
+        assertEquals(3, archiveRepository.count());
+        assertTrue(archiveRepository.findAll().stream().allMatch(a -> TODAY.equals(a.getArchivedAt())));
+    }
+
+    @Test
+    @DisplayName("findByStudentId() - L'archive n'est lue que si l'historique est demandé")
+    void shouldReadArchiveOnlyWhenHistoryRequested() {
+        archiveJob.archive(TODAY);
+
+        List<Enrollment> hot = enrollmentRepository.findByStudentId(student.getIdStudent(), false);
+        List<Enrollment> history = enrollmentRepository.findByStudentId(student.getIdStudent(), true);
+
+        assertEquals(2, hot.size());
+        assertEquals(5, history.size());
+        assertEquals(LocalDate.of(2023, 9, 15), history.get(0).getEnrollmentDate());
+        assertEquals(Status.COMPLETED, history.get(0).getStatus());
+    }
+
+    // Un cours par inscription : un étudiant ne s'inscrit qu'une fois à un cours
+    private void enroll(String code, LocalDate date, Status status) {
+        Course course = entityManager.persist(new Course(null, "Cours " + code, code, 4, null, null, null));
+        entityManager.persist(new Enrollment(null, date, 12.0, status, student, course));
+    }
+}
@@ -0,0 +1,221 @@
+package tn.esprit.studentmanagement.job;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.DictionaryEncoder;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.studentmanagement.config.ExportProperties;
+import tn.esprit.studentmanagement.dto.ExportSnapshot;
+import tn.esprit.studentmanagement.entities.*;
+import tn.esprit.studentmanagement.jobs.EnrollmentExportJob;
+import tn.esprit.studentmanagement.repositories.*;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// updated_at is the transaction timestamp, so every write must commit on its own.
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:exportdb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("EnrollmentExportJob - Tests d'intégration (H2)")
+class EnrollmentExportJobTest {
+
+    @TempDir
+    Path outputDir;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    private Enrollment aliJava;
+    private Student ali;
+
+    @BeforeEach
+    void setUp() {
+        Department informatique = departmentRepository.save(new Department(null, "Informatique", "Bloc A", null, null, null));
+        Course java = courseRepository.save(new Course(null, "Java", "CS101", 4, "POO", null, null));
+        Course web = courseRepository.save(new Course(null, "Web", "CS102", 2, "HTML, CSS", null, null));
+        ali = studentRepository.save(new Student(null, "Ali", "Ben Salem", "ali@esprit.tn", null,
+                LocalDate.of(2000, 5, 15), null, informatique, null));
+        Student sansDepartement = studentRepository.save(new Student(null, "Sarra", "Trabelsi", "sarra@esprit.tn", null,
+                LocalDate.of(2001, 3, 22), null, null, null));
+        aliJava = enrollmentRepository.save(new Enrollment(null, LocalDate.of(2025, 9, 15), 15.5, Status.COMPLETED, ali, java));
+        enrollmentRepository.save(new Enrollment(null, LocalDate.of(2025, 9, 16), null, Status.ACTIVE, sansDepartement, java));
+        enrollmentRepository.save(new Enrollment(null, LocalDate.of(2025, 9, 17), 9.0, Status.FAILED, ali, web));
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrollmentRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        departmentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("export() - Premier snapshot complet, lots et dictionnaires")
+    void shouldWriteFullSnapshotInBatches() throws IOException {
+        // When
+        ExportSnapshot snapshot = job().export(false);
+
+        // Then
+        assertTrue(snapshot.full());
+        assertEquals(3, snapshot.rows());
+        assertEquals(2, snapshot.batches());
+        List<String> statuses = new ArrayList<>();
+        List<String> departments = new ArrayList<>();
+        read(Path.of(snapshot.file()), (root, reader) -> {
+            statuses.addAll(decode(root.getVector("status"), reader));
+            departments.addAll(decode(root.getVector("department"), reader));
+        });
+        assertEquals(List.of("ACTIVE", "COMPLETED", "FAILED"), statuses.stream().sorted().toList());
+        assertEquals(2, departments.stream().filter("Informatique"::equals).count());
+        assertEquals(1, departments.stream().filter(d -> d == null).count());
+    }
+
+    @Test
+    @DisplayName("export() - Snapshot incrémental : seules les lignes modifiées")
+    void shouldExportOnlyChangedRowsIncrementally() throws Exception {
+        EnrollmentExportJob job = job();
+        job.export(false);
+        assertNull(job.export(false).file());
+
+        Thread.sleep(5);
+        aliJava.setGrade(17.0);
+        enrollmentRepository.save(aliJava);
+        ExportSnapshot delta = job.export(false);
+
+        assertFalse(delta.full());
+        assertEquals(2, delta.sequence());
+        assertEquals(1, delta.rows());
+        List<Long> ids = new ArrayList<>();
+        List<Double> grades = new ArrayList<>();
+        read(Path.of(delta.file()), (root, reader) -> {
+            for (int i = 0; i < root.getRowCount(); i++) {
+                ids.add((Long) root.getVector("id_enrollment").getObject(i));
+                grades.add((Double) root.getVector("grade").getObject(i));
+            }
+        });
+        assertEquals(List.of(aliJava.getIdEnrollment()), ids);
+        assertEquals(List.of(17.0), grades);
+
+        ExportSnapshot full = job.export(true);
+        assertTrue(full.full());
+        assertEquals(3, full.rows());
+    }
+
+    @Test
+    @DisplayName("export() - Une inscription validée après le snapshot précédent est rattrapée par le recouvrement")
+    void shouldPickUpLateCommittedRows() throws IOException {
+        EnrollmentExportJob job = job(Duration.ofMinutes(1));
+        ExportSnapshot first = job.export(false);
+
+        // Écrite avant le watermark par une transaction validée après le snapshot
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into enrollment (enrollment_date, grade, status, student_id_student, "
+                        + "course_id_course, updated_at) values (?, ?, ?, ?, ?, ?)",
+                LocalDate.of(2025, 9, 18), null, "DROPPED", ali.getIdStudent(), aliJava.getCourse().getIdCourse(),
+                Timestamp.valueOf(first.watermark().minusSeconds(30)));
+        ExportSnapshot delta = job.export(false);
+
+        List<String> statuses = new ArrayList<>();
+        read(Path.of(delta.file()), (root, reader) -> statuses.addAll(decode(root.getVector("status"), reader)));
+        assertTrue(statuses.contains("DROPPED"), statuses.toString());
+    }
+
+    @Test
+    @DisplayName("export() - Étudiant renommé → ses inscriptions sont réexportées")
+    void shouldExportEnrollmentsOfRenamedStudent() throws Exception {
+        EnrollmentExportJob job = job();
+        job.export(false);
+
+        Thread.sleep(5);
+        ali.setFirstName("Alia");
+        studentRepository.save(ali);
+        ExportSnapshot delta = job.export(false);
+
+        assertEquals(2, delta.rows());
+        List<String> names = new ArrayList<>();
+        read(Path.of(delta.file()), (root, reader) -> {
+            for (int i = 0; i < root.getRowCount(); i++) {
+                names.add(root.getVector("first_name").getObject(i).toString());
+            }
+        });
+        assertEquals(List.of("Alia", "Alia"), names);
+    }
+
+    private EnrollmentExportJob job() {
+        return job(Duration.ZERO);
+    }
+
+    private EnrollmentExportJob job(Duration overlap) {
+        return new EnrollmentExportJob(dataSource, transactionManager,
+                new ExportProperties(outputDir, 2, 100, overlap));
+    }
+
+    private interface BatchConsumer {
+        void accept(VectorSchemaRoot root, ArrowFileReader reader) throws IOException;
+    }
+
+    private static void read(Path file, BatchConsumer consumer) throws IOException {
+        try (BufferAllocator allocator = new RootAllocator();
+             FileChannel channel = FileChannel.open(file);
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator)) {
+            while (reader.loadNextBatch()) {
+                consumer.accept(reader.getVectorSchemaRoot(), reader);
+            }
+        }
+    }
+
+    private static List<String> decode(FieldVector indices, ArrowFileReader reader) throws IOException {
+        long id = indices.getField().getDictionary().getId();
+        try (VarCharVector values = (VarCharVector) DictionaryEncoder.decode(indices, reader.getDictionaryVectors().get(id))) {
+            List<String> result = new ArrayList<>();
+            for (int i = 0; i < values.getValueCount(); i++) {
+                result.add(values.isNull(i) ? null : values.getObject(i).toString());
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package tn.esprit.studentmanagement.job;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tn.esprit.studentmanagement.dto.JobRun;
+import tn.esprit.studentmanagement.jobs.JobRuns;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JobRuns - Exécution des jobs en arrière-plan")
+class JobRunsTest {
+
+    private final JobRuns jobRuns = new JobRuns();
+
+    @AfterEach
+    void tearDown() {
+        jobRuns.shutdown();
+    }
+
+    @Test
+    @DisplayName("start() → rend la main immédiatement, le résultat est consultable à la fin")
+    void shouldRunInBackground() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        JobRun<String> run = jobRuns.start("report", "term-1", () -> {
+            await(release);
+            return "done";
+        });
+
+        assertEquals(JobRun.State.RUNNING, run.state());
+        release.countDown();
+        JobRun<?> finished = waitForEnd("report", "term-1");
+        assertEquals(JobRun.State.SUCCEEDED, finished.state());
+        assertEquals("done", finished.result());
+        assertNotNull(finished.finishedAt());
+    }
+
+    @Test
+    @DisplayName("start() avec un id déjà en cours → renvoie le run en cours sans relancer le job")
+    void shouldNotStartSameIdTwice() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        JobRun<Integer> first = jobRuns.start("report", "term-1", () -> {
+            await(release);
+            return executions.incrementAndGet();
+        });
+        JobRun<Integer> second = jobRuns.start("report", "term-1", executions::incrementAndGet);
+        release.countDown();
+        waitForEnd("report", "term-1");
+
+        assertSame(first, second);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Job en échec → état FAILED avec le message d'erreur")
+    void shouldRecordFailure() throws Exception {
+        jobRuns.start("report", "term-1", () -> {
+            throw new IllegalStateException("disk full");
+        });
+
+        JobRun<?> finished = waitForEnd("report", "term-1");
+        assertEquals(JobRun.State.FAILED, finished.state());
+        assertEquals("disk full", finished.error());
+        assertTrue(jobRuns.find("report", "unknown").isEmpty());
+    }
+
+    private JobRun<?> waitForEnd(String job, String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            JobRun<?> run = jobRuns.find(job, id).orElseThrow();
+            if (run.state() != JobRun.State.RUNNING) {
+                return run;
+            }
+            Thread.sleep(10);
+        }
+        fail("job " + id + " still running");
+        return null;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
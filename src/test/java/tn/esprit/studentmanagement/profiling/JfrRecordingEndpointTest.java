@@ -0,0 +1,116 @@
+package tn.esprit.studentmanagement.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+import tn.esprit.studentmanagement.config.ProfilingProperties;
+import tn.esprit.studentmanagement.dto.RecordingStatus;
+import tn.esprit.studentmanagement.entities.Course;
+import tn.esprit.studentmanagement.repositories.CourseRepository;
+import tn.esprit.studentmanagement.services.CourseService;
+import tn.esprit.studentmanagement.services.ICourseService;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("JfrRecordingEndpoint - Enregistrement JFR à la demande")
+class JfrRecordingEndpointTest {
+
+    private final JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint(new ProfilingProperties(
+            Duration.ofMinutes(1), Duration.ofMinutes(10), DataSize.ofMegabytes(64), "default"));
+
+    @AfterEach
+    void tearDown() {
+        endpoint.discard();
+    }
+
+    @Test
+    @DisplayName("Les appels de service sont enregistrés avec l'id et le nombre de résultats")
+    void shouldRecordServiceCalls() throws Exception {
+        // Given
+        CourseRepository courseRepository = mock(CourseRepository.class);
+        when(courseRepository.findAll()).thenReturn(List.of(
+                new Course(1L, "Algorithmique", "CS101", 4, null, null, null),
+                new Course(2L, "Analyse", "MA101", 3, null, null, null)));
+        ICourseService courseService = (ICourseService) new ProfilingPostProcessor().postProcessAfterInitialization(
+                new CourseService(courseRepository, mock(ApplicationEventPublisher.class)), "courseService");
+
+        // When
+        assertEquals("RUNNING", endpoint.start(null, null).getBody().state());
+        courseService.getCourseById(2L);
+        courseService.getAllCourses();
+        RecordingStatus stopped = endpoint.stop();
+        WebEndpointResponse<Resource> download = endpoint.recording("recording.jfr");
+
+        // Then
+        assertEquals("CLOSED", stopped.state());
+        assertEquals(200, download.getStatus());
+        List<RecordedEvent> calls = RecordingFile.readAllEvents(download.getBody().getFile().toPath()).stream()
+                .filter(event -> event.getEventType().getName().equals("tn.esprit.studentmanagement.ServiceCall"))
+                .toList();
+        RecordedEvent byId = calls.stream().filter(e -> e.getString("method").equals("getCourseById")).findFirst().orElseThrow();
+        RecordedEvent all = calls.stream().filter(e -> e.getString("method").equals("getAllCourses")).findFirst().orElseThrow();
+        assertEquals("CourseService", byId.getString("service"));
+        assertEquals(2L, byId.getLong("entityId"));
+        assertEquals(1, byId.getInt("resultCount"));
+        assertEquals(2, all.getInt("resultCount"));
+        assertFalse(all.getBoolean("failed"));
+    }
+
+    @Test
+    @DisplayName("Variables d'environnement et propriétés système absentes de l'enregistrement")
+    void shouldLeaveOutEnvironmentAndSystemProperties() throws Exception {
+        // Given - la configuration "profile" active ces événements par défaut
+        JfrRecordingEndpoint profile = new JfrRecordingEndpoint(new ProfilingProperties(
+                Duration.ofMinutes(1), Duration.ofMinutes(10), DataSize.ofMegabytes(64), "profile"));
+        try {
+            // When
+            profile.start(null, null);
+            profile.stop();
+            WebEndpointResponse<Resource> download = profile.recording("recording.jfr");
+
+            // Then
+            List<String> types = RecordingFile.readAllEvents(download.getBody().getFile().toPath()).stream()
+                    .map(event -> event.getEventType().getName())
+                    .distinct()
+                    .toList();
+            assertFalse(types.isEmpty());
+            JfrRecordingEndpoint.SECRET_EVENTS.forEach(type -> assertFalse(types.contains(type), type));
+        } finally {
+            profile.discard();
+        }
+    }
+
+    @Test
+    @DisplayName("Un seul enregistrement à la fois, téléchargeable une fois arrêté")
+    void shouldAllowOneRecordingAtATime() {
+        // When
+        endpoint.start(Duration.ofSeconds(30), null);
+        WebEndpointResponse<RecordingStatus> second = endpoint.start(null, null);
+        WebEndpointResponse<Resource> whileRunning = endpoint.recording("recording.jfr");
+
+        // Then
+        assertEquals(409, second.getStatus());
+        assertEquals(409, whileRunning.getStatus());
+        assertEquals(404, endpoint.recording("other.jfr").getStatus());
+    }
+
+    @Test
+    @DisplayName("Durée hors limites ou configuration inconnue refusées")
+    void shouldRejectInvalidRequests() {
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.start(Duration.ofHours(1), null));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.start(Duration.ZERO, null));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.start(null, "unknown"));
+        assertEquals("NONE", endpoint.status().state());
+    }
+}
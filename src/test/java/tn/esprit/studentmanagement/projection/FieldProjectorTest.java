@@ -0,0 +1,99 @@
+package tn.esprit.studentmanagement.projection;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import tn.esprit.studentmanagement.entities.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:projectiondb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(FieldProjector.class)
+@DisplayName("FieldProjector - Champs partiels (H2)")
+class FieldProjectorTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FieldProjector fieldProjector;
+
+    @BeforeEach
+    void setUp() {
+        Department informatique = entityManager.persist(new Department(null, "Informatique", "Bloc A", null, null, null));
+        Course java = entityManager.persist(new Course(null, "Java", "CS101", 4, "POO", null, null));
+        Student ali = entityManager.persist(new Student(null, "Ali", "Ben Salem", "ali@esprit.tn", "20123456",
+                LocalDate.of(2000, 5, 15), "Tunis", informatique, null));
+        entityManager.persist(new Student(null, "Sarra", "Trabelsi", "sarra@esprit.tn", null,
+                LocalDate.of(2001, 3, 22), null, null, null));
+        entityManager.persist(new Enrollment(null, LocalDate.of(2025, 9, 15), 15.5, Status.COMPLETED, ali, java));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("findAll() - Seuls les champs demandés, dans l'ordre demandé")
+    void shouldSelectOnlyRequestedFields() {
+        // When
+        List<Map<String, Object>> rows = fieldProjector.findAll(Student.class,
+                List.of("lastName", "idStudent", "department.name"));
+
+        // Then
+        assertEquals(2, rows.size());
+        Map<String, Object> ali = rows.stream()
+                .filter(r -> "Ben Salem".equals(r.get("lastName")))
+                .findFirst().orElseThrow();
+        assertEquals(List.of("lastName", "idStudent", "department"), List.copyOf(ali.keySet()));
+        assertEquals(Map.of("name", "Informatique"), ali.get("department"));
+        assertFalse(ali.containsKey("email"));
+    }
+
+    @Test
+    @DisplayName("findAll() - Associations de l'inscription jointes une seule fois")
+    void shouldJoinEachAssociationOnce() {
+        FieldProjector.Projection projection = fieldProjector.compile(Enrollment.class,
+                List.of("grade", "status", "student.firstName", "course.code", "student.lastName"));
+
+        assertEquals("select r.grade, r.status, j0.firstName, j1.code, j0.lastName from Enrollment r "
+                + "left join r.student j0 left join r.course j1", projection.jpql());
+
+        Map<String, Object> row = fieldProjector.findAll(Enrollment.class,
+                List.of("grade", "status", "student.firstName", "course.code", "student.lastName")).get(0);
+        assertEquals(15.5, row.get("grade"));
+        assertEquals(Status.COMPLETED, row.get("status"));
+        assertEquals(Map.of("firstName", "Ali", "lastName", "Ben Salem"), row.get("student"));
+    }
+
+    @Test
+    @DisplayName("compile() - Projection mise en cache par liste de champs")
+    void shouldCacheCompiledProjection() {
+        FieldProjector.Projection first = fieldProjector.compile(Student.class, List.of("idStudent", "email"));
+        FieldProjector.Projection second = fieldProjector.compile(Student.class, List.of(" idStudent", "email", "email"));
+
+        assertSame(first, second);
+    }
+
+    @Test
+    @DisplayName("compile() - Champ inconnu, association ou collection → IllegalArgumentException")
+    void shouldRejectFieldsOutsideTheModel() {
+        assertThrows(IllegalArgumentException.class, () -> fieldProjector.compile(Student.class, List.of("password")));
+        assertThrows(IllegalArgumentException.class, () -> fieldProjector.compile(Student.class, List.of("department")));
+        assertThrows(IllegalArgumentException.class, () -> fieldProjector.compile(Student.class, List.of("enrollments.grade")));
+        assertThrows(IllegalArgumentException.class, () -> fieldProjector.compile(Student.class, List.of("department.students")));
+        assertThrows(IllegalArgumentException.class, () -> fieldProjector.compile(Student.class, List.of("a.b.c")));
+        assertThrows(IllegalArgumentException.class, () -> fieldProjector.compile(Student.class, List.of(" ")));
+    }
+}
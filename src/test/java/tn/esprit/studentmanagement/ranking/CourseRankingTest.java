@@ -0,0 +1,128 @@
+package tn.esprit.studentmanagement.ranking;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CourseRanking - Classement incrémental")
+class CourseRankingTest {
+
+    @Test
+    @DisplayName("top(k) - Notes décroissantes, ex aequo au même rang")
+    void shouldReturnTopKWithCompetitionRanks() {
+        // Given
+        CourseRanking ranking = new CourseRanking();
+        ranking.upsert(1L, 10L, 12.0);
+        ranking.upsert(2L, 20L, 18.0);
+        ranking.upsert(3L, 30L, 15.0);
+        ranking.upsert(4L, 40L, 18.0);
+
+        // When
+        List<CourseRanking.Position> top = ranking.top(3);
+
+        // Then
+        assertEquals(3, top.size());
+        assertEquals(18.0, top.get(0).entry().grade());
+        assertEquals(1, top.get(0).rank());
+        assertEquals(1, top.get(1).rank());
+        assertEquals(15.0, top.get(2).entry().grade());
+        assertEquals(3, top.get(2).rank());
+        assertEquals(25.0, top.get(2).percentile());
+    }
+
+    @Test
+    @DisplayName("upsert() - Une nouvelle note remplace l'ancienne")
+    void shouldMoveEntryOnRegrade() {
+        // Given
+        CourseRanking ranking = new CourseRanking();
+        ranking.upsert(1L, 10L, 8.0);
+        ranking.upsert(2L, 20L, 14.0);
+
+        // When
+        ranking.upsert(1L, 10L, 19.0);
+
+        // Then
+        assertEquals(2, ranking.size());
+        assertEquals(1, ranking.positionOf(10L).orElseThrow().rank());
+        assertEquals(2, ranking.positionOf(20L).orElseThrow().rank());
+    }
+
+    @Test
+    @DisplayName("positionOf() - Meilleure inscription de l'étudiant")
+    void shouldUseBestEnrollmentOfStudent() {
+        CourseRanking ranking = new CourseRanking();
+        ranking.upsert(1L, 10L, 9.0);
+        ranking.upsert(2L, 10L, 13.0);
+        ranking.upsert(3L, 20L, 11.0);
+
+        CourseRanking.Position position = ranking.positionOf(10L).orElseThrow();
+
+        assertEquals(2L, position.entry().idEnrollment());
+        assertEquals(1, position.rank());
+    }
+
+    @Test
+    @DisplayName("removeStudent() - Retire toutes ses inscriptions")
+    void shouldRemoveAllEnrollmentsOfStudent() {
+        CourseRanking ranking = new CourseRanking();
+        ranking.upsert(1L, 10L, 9.0);
+        ranking.upsert(2L, 10L, 13.0);
+        ranking.upsert(3L, 20L, 11.0);
+
+        ranking.removeStudent(10L);
+
+        assertEquals(1, ranking.size());
+        assertTrue(ranking.positionOf(10L).isEmpty());
+        assertEquals(1, ranking.positionOf(20L).orElseThrow().rank());
+    }
+
+    @Test
+    @DisplayName("gradeAtPercentile() - Rang le plus proche")
+    void shouldReturnNearestRankPercentile() {
+        CourseRanking ranking = new CourseRanking();
+        for (int i = 1; i <= 10; i++) {
+            ranking.upsert(i, i, i);
+        }
+
+        assertEquals(9.0, ranking.gradeAtPercentile(90).getAsDouble());
+        assertEquals(5.0, ranking.gradeAtPercentile(50).getAsDouble());
+        assertEquals(1.0, ranking.gradeAtPercentile(0).getAsDouble());
+        assertEquals(10.0, ranking.gradeAtPercentile(100).getAsDouble());
+        assertTrue(new CourseRanking().gradeAtPercentile(50).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Mises à jour aléatoires - Cohérent avec un tri complet")
+    void shouldMatchFullSortAfterRandomUpdates() {
+        // Given
+        CourseRanking ranking = new CourseRanking();
+        Map<Long, Double> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 5_000; i++) {
+            long idEnrollment = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                ranking.remove(idEnrollment);
+                expected.remove(idEnrollment);
+            } else {
+                double grade = random.nextInt(41) / 2.0;
+                ranking.upsert(idEnrollment, idEnrollment, grade);
+                expected.put(idEnrollment, grade);
+            }
+        }
+
+        // Then
+        List<Double> sorted = expected.values().stream().sorted(Comparator.reverseOrder()).toList();
+        List<Double> top = ranking.top(50).stream().map(p -> p.entry().grade()).toList();
+        assertEquals(expected.size(), ranking.size());
+        assertEquals(sorted.subList(0, 50), top);
+        for (Map.Entry<Long, Double> entry : expected.entrySet()) {
+            long higher = expected.values().stream().filter(g -> g > entry.getValue()).count();
+            assertEquals(higher + 1, ranking.positionOf(entry.getKey()).orElseThrow().rank());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package tn.esprit.studentmanagement.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import tn.esprit.studentmanagement.config.CacheConfig;
+import tn.esprit.studentmanagement.dedup.DuplicateDetector;
+import tn.esprit.studentmanagement.dto.BulkDeleteResult;
+import tn.esprit.studentmanagement.entities.*;
+import tn.esprit.studentmanagement.projection.FieldProjector;
+import tn.esprit.studentmanagement.repositories.DepartmentRepository;
+import tn.esprit.studentmanagement.repositories.EnrollmentArchiveRepository;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.repositories.StudentRepository;
+import tn.esprit.studentmanagement.services.DepartmentService;
+import tn.esprit.studentmanagement.services.StudentService;
+import tn.esprit.studentmanagement.services.TranscriptService;
+import tn.esprit.studentmanagement.sharding.ShardTransactions;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkdeletedb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DepartmentService.class, StudentService.class, TranscriptService.class, FieldProjector.class,
+        DuplicateDetector.class, CacheConfig.class, ShardTransactions.class})
+@DisplayName("Suppressions ensemblistes - Tests d'intégration (H2)")
+class BulkDeleteRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private EnrollmentArchiveRepository enrollmentArchiveRepository;
+
+    private Department informatique;
+    private Department genieCivil;
+    private Student ali;
+
+    @BeforeEach
+    void setUp() {
+        informatique = department("Informatique", "Bloc A");
+        genieCivil = department("Génie Civil", "Bloc B");
+        Course course = new Course(null, "Java", "CS101", 4, "POO", null, null);
+        entityManager.persist(course);
+        Course web = new Course(null, "Web", "CS102", 2, "HTML, CSS", null, null);
+        entityManager.persist(web);
+
+        ali = student("Ali", informatique);
+        Student sarra = student("Sarra", informatique);
+        Student mohamed = student("Mohamed", genieCivil);
+        enroll(ali, course);
+        enroll(ali, web);
+        enroll(sarra, course);
+        enroll(mohamed, course);
+        entityManager.persist(new EnrollmentArchive(999L, LocalDate.of(2020, 9, 15), 15.0, Status.COMPLETED,
+                ali, course, LocalDate.of(2025, 1, 1)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("deleteDepartments() - Inscriptions, étudiants puis département")
+    void shouldDeleteDepartmentWithStudentsAndEnrollments() {
+        BulkDeleteResult result = departmentService.deleteDepartments(List.of(informatique.getIdDepartment()));
+
+        assertEquals(new BulkDeleteResult(1, 2, 4), result);
+        assertEquals(0, enrollmentArchiveRepository.count());
+        assertEquals(1, departmentRepository.count());
+        assertEquals(1, studentRepository.count());
+        assertEquals(1, enrollmentRepository.count());
+    }
+
+    @Test
+    @DisplayName("deleteDepartmentsByLocation() - Filtre par localisation")
+    void shouldDeleteDepartmentsByLocation() {
+        BulkDeleteResult result = departmentService.deleteDepartmentsByLocation("Bloc B");
+
+        assertEquals(new BulkDeleteResult(1, 1, 1), result);
+        assertFalse(departmentRepository.existsById(genieCivil.getIdDepartment()));
+    }
+
+    @Test
+    @DisplayName("deleteStudents() - Supprime les inscriptions avant les étudiants")
+    void shouldDeleteStudentsWithEnrollments() {
+        BulkDeleteResult result = studentService.deleteStudents(List.of(ali.getIdStudent()));
+
+        assertEquals(new BulkDeleteResult(0, 1, 3), result);
+        assertEquals(2, studentRepository.count());
+        assertEquals(2, enrollmentRepository.count());
+    }
+
+    @Test
+    @DisplayName("deleteStudentsByDepartment() - Filtre par département")
+    void shouldDeleteStudentsByDepartment() {
+        BulkDeleteResult result = studentService.deleteStudentsByDepartment(informatique.getIdDepartment());
+
+        assertEquals(new BulkDeleteResult(0, 2, 4), result);
+        assertEquals(2, departmentRepository.count());
+    }
+
+    private Department department(String name, String location) {
+        Department department = new Department(null, name, location, "71234567", "Dr. Karim", null);
+        return entityManager.persist(department);
+    }
+
+    private Student student(String firstName, Department department) {
+        Student student = new Student(null, firstName, "Test", firstName.toLowerCase() + "@esprit.tn",
+                "20123456", LocalDate.of(2000, 1, 1), "Tunis", department, null);
+        return entityManager.persist(student);
+    }
+
+    private void enroll(Student student, Course course) {
+        entityManager.persist(new Enrollment(null, LocalDate.of(2025, 9, 15), 12.0, Status.ACTIVE, student, course));
+    }
+}
@@ -0,0 +1,175 @@
+package tn.esprit.studentmanagement.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.studentmanagement.dto.EnrollmentCount;
+import tn.esprit.studentmanagement.entities.*;
+import tn.esprit.studentmanagement.events.EnrollmentChangedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.events.EnrollmentsDeletedEvent;
+import tn.esprit.studentmanagement.jobs.EnrollmentCountBackfillJob;
+import tn.esprit.studentmanagement.services.EnrollmentStatsService;
+import tn.esprit.studentmanagement.stats.Dimension;
+import tn.esprit.studentmanagement.stats.Granularity;
+import tn.esprit.studentmanagement.sharding.ShardTransactions;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statsdb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "stats.backfill-chunk-days=7"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EnrollmentStatsService.class, EnrollmentCountBackfillJob.class, ShardTransactions.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // les buckets sont écrits sur le thread du writer
+@DisplayName("Comptes d'inscriptions par jour - Buckets et agrégations (H2)")
+class EnrollmentDailyCountRepositoryTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 9, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 1, 31);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EnrollmentStatsService statsService;
+
+    @Autowired
+    private EnrollmentCountBackfillJob backfillJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Department informatique;
+    private Course java;
+    private Course web;
+    private Student ali;
+    private Student sarra;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            informatique = entityManager.persist(new Department(null, "Informatique", "Bloc A", null, null, null));
+            java = entityManager.persist(new Course(null, "Java", "CS101", 4, null, null, null));
+            web = entityManager.persist(new Course(null, "Web", "CS102", 2, null, null, null));
+            ali = entityManager.persist(new Student(null, "Ali", "Ben Salem", "ali@esprit.tn", null, null, null,
+                    informatique, null));
+            sarra = entityManager.persist(new Student(null, "Sarra", "Trabelsi", "sarra@esprit.tn", null, null, null,
+                    null, null));
+
+            enroll(ali, java, Status.ACTIVE, LocalDate.of(2025, 9, 1));      // lundi
+            enroll(sarra, java, null, LocalDate.of(2025, 9, 3));            // sans statut → ACTIVE
+            enroll(ali, web, Status.DROPPED, LocalDate.of(2025, 9, 10));
+            // Inscription archivée : toujours comptée
+            entityManager.persist(new EnrollmentArchive(900L, LocalDate.of(2026, 1, 12), 12.0, Status.COMPLETED,
+                    sarra, web, LocalDate.of(2026, 6, 1)));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("enrollment_daily_count", "enrollment_archive", "enrollment", "student",
+                "course", "department")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+    }
+
+    @Test
+    @DisplayName("backfill() - Agrège les inscriptions et l'archive par semaine et par statut")
+    void shouldRollUpBackfilledBucketsByWeek() {
+        int buckets = backfillJob.backfill(FROM, TO);
+
+        List<EnrollmentCount> counts = statsService.getEnrollmentCounts(FROM, TO, Granularity.WEEK, null, null,
+                null, Set.of(Dimension.STATUS));
+
+        assertEquals(4, buckets);
+        assertEquals(List.of(
+                new EnrollmentCount(LocalDate.of(2025, 9, 1), null, null, Status.ACTIVE, 2),
+                new EnrollmentCount(LocalDate.of(2025, 9, 8), null, null, Status.DROPPED, 1),
+                new EnrollmentCount(LocalDate.of(2026, 1, 12), null, null, Status.COMPLETED, 1)), counts);
+    }
+
+    @Test
+    @DisplayName("getEnrollmentCounts() - Semestre et filtre par département")
+    void shouldRollUpToTermsAndFilterByDepartment() {
+        backfillJob.backfill(FROM, TO);
+
+        List<EnrollmentCount> all = statsService.getEnrollmentCounts(FROM, TO, Granularity.TERM, null, null,
+                null, Set.of());
+        List<EnrollmentCount> informatiqueOnly = statsService.getEnrollmentCounts(FROM, TO, Granularity.MONTH,
+                null, informatique.getIdDepartment(), null, Set.of(Dimension.DEPARTMENT));
+
+        assertEquals(List.of(new EnrollmentCount(LocalDate.of(2025, 9, 1), null, null, null, 4)), all);
+        assertEquals(List.of(new EnrollmentCount(LocalDate.of(2025, 9, 1), null,
+                informatique.getIdDepartment(), null, 2)), informatiqueOnly);
+    }
+
+    @Test
+    @DisplayName("onEnrollmentChanged() - Déplace l'inscription d'un bucket à l'autre")
+    void shouldMoveCountsOnEnrollmentWrites() {
+        backfillJob.backfill(FROM, TO);
+        EnrollmentState created = new EnrollmentState(50L, ali.getIdStudent(), web.getIdCourse(), null,
+                Status.ACTIVE, LocalDate.of(2025, 9, 2));
+        EnrollmentState dropped = new EnrollmentState(50L, ali.getIdStudent(), web.getIdCourse(), null,
+                Status.DROPPED, LocalDate.of(2025, 9, 2));
+
+        statsService.onEnrollmentChanged(new EnrollmentChangedEvent(null, created));
+        statsService.onEnrollmentChanged(new EnrollmentChangedEvent(created, dropped));
+        statsService.flush();
+
+        List<EnrollmentCount> counts = statsService.getEnrollmentCounts(FROM, LocalDate.of(2025, 9, 7),
+                Granularity.DAY, web.getIdCourse(), null, null, Set.of(Dimension.COURSE, Dimension.STATUS));
+        assertEquals(List.of(
+                new EnrollmentCount(LocalDate.of(2025, 9, 2), web.getIdCourse(), null, Status.ACTIVE, 0),
+                new EnrollmentCount(LocalDate.of(2025, 9, 2), web.getIdCourse(), null, Status.DROPPED, 1)), counts);
+    }
+
+    @Test
+    @DisplayName("onEnrollmentsDeleted() - Recompte les jours supprimés, même hors de la fenêtre de backfill")
+    void shouldRecountDaysOfDeletedEnrollments() {
+        LocalDate day = LocalDate.of(2019, 3, 4);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager.persist(
+                new EnrollmentArchive(901L, day, 10.0, Status.COMPLETED, ali, java, LocalDate.of(2020, 6, 1))));
+        backfillJob.backfill(day, day);
+        assertEquals(List.of(new EnrollmentCount(day, null, null, null, 1)), statsService.getEnrollmentCounts(day,
+                day, Granularity.DAY, null, null, null, Set.of()));
+        jdbcTemplate.update("delete from enrollment_archive where id_enrollment = 901");
+
+        backfillJob.onEnrollmentsDeleted(new EnrollmentsDeletedEvent(day, day));
+        statsService.flush();
+
+        assertEquals(List.of(), statsService.getEnrollmentCounts(day, day, Granularity.DAY, null, null, null,
+                Set.of()));
+    }
+
+    @Test
+    @DisplayName("getEnrollmentCounts() - Rejette une plage inversée")
+    void shouldRejectInvertedRange() {
+        assertThrows(IllegalArgumentException.class, () -> statsService.getEnrollmentCounts(TO, FROM,
+                Granularity.DAY, null, null, null, Set.of()));
+    }
+
+    private void enroll(Student student, Course course, Status status, LocalDate date) {
+        entityManager.persist(new Enrollment(null, date, null, status, student, course));
+    }
+}
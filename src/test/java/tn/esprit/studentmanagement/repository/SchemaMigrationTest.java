@@ -0,0 +1,112 @@
+package tn.esprit.studentmanagement.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Le contexte JPA ne démarre que si hibernate.ddl-auto=validate accepte le
+ * schéma créé par les migrations Flyway : tout écart entité/migration fait échouer ce test.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrationdb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("Migrations Flyway - Validation du schéma contre les entités (H2)")
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Toutes les migrations sont appliquées et validées")
+    void shouldApplyAllMigrations() {
+        assertEquals(0, flyway.info().pending().length);
+        assertTrue(flyway.validateWithResult().validationSuccessful);
+    }
+
+    @Test
+    @DisplayName("Les index des chemins de requête existent")
+    void shouldCreateQueryIndexes() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME IN "
+                        + "('IDX_ENROLLMENT_COURSE_GRADE', 'IDX_ENROLLMENT_STATUS_DATE', 'IDX_COURSE_CODE')",
+                Integer.class);
+        assertEquals(3, count);
+    }
+
+    @Test
+    @DisplayName("Email étudiant et couple étudiant/cours (inscription occupant une place) sont uniques")
+    void shouldCreateUniqueConstraints() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS WHERE CONSTRAINT_TYPE = 'UNIQUE' "
+                        + "AND CONSTRAINT_NAME IN ('UK_STUDENT_EMAIL', 'UK_ENROLLMENT_STUDENT_COURSE')",
+                Integer.class);
+        assertEquals(2, count);
+    }
+
+    @Test
+    @DisplayName("Réinscription possible après un échec, pas de deuxième inscription active")
+    void shouldOnlyLimitSeatHoldingEnrollments() {
+        JdbcTemplate db = migratedDatabase("reenrollmentdb", null);
+        db.update("INSERT INTO student (id_student, email) VALUES (1, 'amira@esprit.tn')");
+        db.update("INSERT INTO course (id_course, code, credit) VALUES (7, 'CS101', 4)");
+
+        db.update("INSERT INTO enrollment (student_id_student, course_id_course, status) VALUES (1, 7, 'FAILED')");
+        db.update("INSERT INTO enrollment (student_id_student, course_id_course, status) VALUES (1, 7, 'WITHDRAWN')");
+        db.update("INSERT INTO enrollment (student_id_student, course_id_course, status) VALUES (1, 7, 'ACTIVE')");
+
+        assertThrows(DataIntegrityViolationException.class, () -> db.update(
+                "INSERT INTO enrollment (student_id_student, course_id_course, status) VALUES (1, 7, NULL)"));
+    }
+
+    @Test
+    @DisplayName("V6 - Les inscriptions actives en double sont résolues, la plus récente garde sa place")
+    void shouldResolveDuplicateEnrollmentsBeforeConstraint() {
+        JdbcTemplate db = migratedDatabase("duplicatesdb", "5");
+        db.update("INSERT INTO student (id_student, email) VALUES (1, 'amira@esprit.tn')");
+        db.update("INSERT INTO course (id_course, code, credit) VALUES (7, 'CS101', 4)");
+        db.update("INSERT INTO enrollment (id_enrollment, student_id_student, course_id_course, status) "
+                + "VALUES (1, 1, 7, 'ACTIVE'), (2, 1, 7, NULL), (3, 1, 7, 'ACTIVE'), (4, 1, 7, 'COMPLETED')");
+
+        migrate("duplicatesdb", null);
+
+        assertEquals(List.of("DROPPED", "DROPPED", "ACTIVE", "COMPLETED"), db.queryForList(
+                "SELECT status FROM enrollment ORDER BY id_enrollment", String.class));
+    }
+
+    private static JdbcTemplate migratedDatabase(String name, String target) {
+        migrate(name, target);
+        return new JdbcTemplate(new DriverManagerDataSource(url(name), "sa", ""));
+    }
+
+    private static void migrate(String name, String target) {
+        FluentConfiguration configuration = Flyway.configure()
+                .dataSource(url(name), "sa", "")
+                .locations("classpath:db/migration");
+        if (target != null) {
+            configuration.target(target);
+        }
+        configuration.load().migrate();
+    }
+
+    private static String url(String name) {
+        return "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;MODE=MYSQL";
+    }
+}
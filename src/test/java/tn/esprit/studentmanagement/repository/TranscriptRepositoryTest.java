@@ -0,0 +1,100 @@
+package tn.esprit.studentmanagement.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import tn.esprit.studentmanagement.config.CacheConfig;
+import tn.esprit.studentmanagement.dto.StudentGpa;
+import tn.esprit.studentmanagement.dto.Transcript;
+import tn.esprit.studentmanagement.entities.*;
+import tn.esprit.studentmanagement.services.TranscriptService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transcriptdb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TranscriptService.class, CacheConfig.class})
+@DisplayName("Relevés et moyennes pondérées - Agrégation SQL (H2)")
+class TranscriptRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TranscriptService transcriptService;
+
+    private Department informatique;
+    private Student ali;
+    private Student sarra;
+
+    @BeforeEach
+    void setUp() {
+        informatique = entityManager.persist(new Department(null, "Informatique", "Bloc A", null, null, null));
+        Course java = entityManager.persist(new Course(null, "Java", "CS101", 4, null, null, null));
+        Course web = entityManager.persist(new Course(null, "Web", "CS102", 2, null, null, null));
+        Course maths = entityManager.persist(new Course(null, "Maths", "MA101", 3, null, null, null));
+
+        ali = entityManager.persist(new Student(null, "Ali", "Ben Salem", "ali@esprit.tn", null, null, null, informatique, null));
+        sarra = entityManager.persist(new Student(null, "Sarra", "Trabelsi", "sarra@esprit.tn", null, null, null, informatique, null));
+
+        // Ali : (4*16 + 2*10) / 6 = 14.0 ; l'inscription active et la note abandonnée ne comptent pas
+        enroll(ali, java, 16.0, Status.COMPLETED, LocalDate.of(2025, 1, 10));
+        enroll(ali, web, 10.0, Status.FAILED, LocalDate.of(2025, 1, 11));
+        enroll(ali, maths, null, Status.ACTIVE, LocalDate.of(2025, 9, 1));
+        // Première tentative en maths, archivée avant la réinscription
+        entityManager.persist(new EnrollmentArchive(901L, LocalDate.of(2024, 9, 1), 2.0, Status.DROPPED,
+                ali, maths, LocalDate.of(2025, 6, 1)));
+        // Inscription archivée : Sarra, 3 crédits à 12
+        entityManager.persist(new EnrollmentArchive(900L, LocalDate.of(2022, 1, 10), 12.0, Status.COMPLETED,
+                sarra, maths, LocalDate.of(2024, 1, 1)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("getTranscript() - Moyenne pondérée par les crédits")
+    void shouldComputeCreditWeightedGpa() {
+        Transcript transcript = transcriptService.getTranscript(ali.getIdStudent());
+
+        assertEquals(4, transcript.lines().size());
+        assertEquals(6, transcript.gradedCredits());
+        assertEquals(14.0, transcript.gpa(), 1e-9);
+        assertEquals("MA101", transcript.lines().get(0).code());
+    }
+
+    @Test
+    @DisplayName("getTranscript() - Inclut les inscriptions archivées")
+    void shouldIncludeArchivedEnrollments() {
+        Transcript transcript = transcriptService.getTranscript(sarra.getIdStudent());
+
+        assertEquals(1, transcript.lines().size());
+        assertEquals(Status.COMPLETED, transcript.lines().get(0).status());
+        assertEquals(12.0, transcript.gpa(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("getDepartmentGpas() - Une seule requête pour tout le département")
+    void shouldReturnDepartmentGpas() {
+        List<StudentGpa> gpas = transcriptService.getDepartmentGpas(informatique.getIdDepartment());
+
+        assertEquals(2, gpas.size());
+        assertEquals(14.0, gpas.get(0).gpa(), 1e-9);
+        assertEquals(3, gpas.get(1).gradedCredits());
+        assertEquals(12.0, gpas.get(1).gpa(), 1e-9);
+    }
+
+    private void enroll(Student student, Course course, Double grade, Status status, LocalDate date) {
+        entityManager.persist(new Enrollment(null, date, grade, status, student, course));
+    }
+}
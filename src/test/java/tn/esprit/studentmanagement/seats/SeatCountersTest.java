@@ -0,0 +1,134 @@
+package tn.esprit.studentmanagement.seats;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.studentmanagement.entities.Course;
+import tn.esprit.studentmanagement.repositories.CourseRepository;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seatsdb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SeatCounters.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // les threads doivent voir les cours validés
+@DisplayName("SeatCounters - Admission concurrente (H2)")
+class SeatCountersTest {
+
+    @Autowired
+    private SeatCounters seatCounters;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("tryAcquire() - Jamais plus d'admis que de places sous contention")
+    void shouldNeverOversubscribeUnderContention() throws Exception {
+        // Given
+        Long idCourse = course("CS201", 50);
+
+        // When - 500 demandes simultanées sur 16 threads
+        long admitted = rush(500, () -> seatCounters.tryAcquire(idCourse));
+
+        // Then
+        assertEquals(50, admitted);
+        assertEquals(50, seatsTaken(idCourse));
+        assertEquals(0, seatCounters.remaining(idCourse));
+    }
+
+    @Test
+    @DisplayName("tryAcquire() - Deux réplicas se partagent les places via la base")
+    void shouldShareSeatsAcrossReplicas() throws Exception {
+        // Given - deux instances, chacune croit disposer des 10 places
+        Long idCourse = course("CS202", 10);
+        SeatCounters otherReplica = new SeatCounters(dataSource, transactionManager);
+        assertEquals(10, seatCounters.remaining(idCourse));
+        assertEquals(10, otherReplica.remaining(idCourse));
+
+        // When
+        long admitted = rush(100, () -> seatCounters.tryAcquire(idCourse))
+                + rush(100, () -> otherReplica.tryAcquire(idCourse));
+
+        // Then
+        assertEquals(10, admitted);
+        assertEquals(10, seatsTaken(idCourse));
+    }
+
+    @Test
+    @DisplayName("release() - Une place libérée peut être reprise")
+    void shouldReadmitAfterRelease() {
+        // Given
+        Long idCourse = course("CS203", 1);
+        assertTrue(seatCounters.tryAcquire(idCourse));
+        assertFalse(seatCounters.tryAcquire(idCourse));
+
+        // When
+        seatCounters.release(idCourse, 1);
+
+        // Then
+        assertTrue(seatCounters.tryAcquire(idCourse));
+        assertEquals(1, seatsTaken(idCourse));
+    }
+
+    @Test
+    @DisplayName("tryAcquire() - Sans capacité, le cours ne refuse personne")
+    void shouldAdmitEveryoneWithoutCapacity() throws Exception {
+        Long idCourse = course("CS204", null);
+
+        assertEquals(200, rush(200, () -> seatCounters.tryAcquire(idCourse)));
+        assertEquals(SeatCounters.UNLIMITED, seatCounters.remaining(idCourse));
+        assertEquals(200, seatsTaken(idCourse));
+    }
+
+    private Long course(String code, Integer capacity) {
+        return courseRepository.save(new Course(null, code, code, 3, null, capacity, null)).getIdCourse();
+    }
+
+    private int seatsTaken(Long idCourse) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "select seats_taken from course where id_course = ?", Integer.class, idCourse);
+    }
+
+    private static long rush(int requests, Callable<Boolean> admission) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(admission));
+            }
+            long admitted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    admitted++;
+                }
+            }
+            return admitted;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package tn.esprit.studentmanagement.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import tn.esprit.studentmanagement.dto.CourseRank;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.events.DepartmentStudentsDeletedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentChangedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.events.EnrollmentsArchivedEvent;
+import tn.esprit.studentmanagement.events.StudentsDeletedEvent;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.services.CourseRankingService;
+import tn.esprit.studentmanagement.services.ICourseRankingService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CourseRankingService - Tests Unitaires")
+class CourseRankingServiceTest {
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<ICourseRankingService> self;
+
+    private CourseRankingService courseRankingService;
+
+    private static EnrollmentState state(long idEnrollment, long idStudent, long idCourse, Double grade) {
+        return new EnrollmentState(idEnrollment, idStudent, idCourse, grade, Status.COMPLETED, LocalDate.of(2025, 1, 10));
+    }
+
+    @BeforeEach
+    void setUp() {
+        courseRankingService = new CourseRankingService(enrollmentRepository, transactionManager, self);
+        when(enrollmentRepository.streamAllStates()).thenReturn(Stream.of(
+                state(1L, 10L, 100L, 12.0),
+                state(2L, 20L, 100L, 17.0),
+                state(3L, 30L, 100L, null),
+                state(4L, 10L, 200L, 9.0)));
+        courseRankingService.rebuild();
+    }
+
+    @Test
+    @DisplayName("rebuild() - Ignore les inscriptions sans note")
+    void shouldLoadGradedEnrollmentsOnly() {
+        List<CourseRank> top = courseRankingService.getTopK(100L, 10);
+
+        assertEquals(List.of(20L, 10L), top.stream().map(CourseRank::idStudent).toList());
+        assertEquals(2, top.get(0).total());
+    }
+
+    @Test
+    @DisplayName("Changement de note → classement mis à jour")
+    void shouldApplyRegrade() {
+        courseRankingService.onEnrollmentChanged(new EnrollmentChangedEvent(state(1L, 10L, 100L, 12.0),
+                state(1L, 10L, 100L, 19.0)));
+
+        assertEquals(1, courseRankingService.getStudentRank(100L, 10L).rank());
+        assertEquals(2, courseRankingService.getStudentRank(100L, 20L).rank());
+    }
+
+    @Test
+    @DisplayName("Changement de cours → retiré de l'ancien classement")
+    void shouldMoveEnrollmentBetweenCourses() {
+        courseRankingService.onEnrollmentChanged(new EnrollmentChangedEvent(state(1L, 10L, 100L, 12.0),
+                state(1L, 10L, 200L, 12.0)));
+
+        assertThrows(EntityNotFoundException.class, () -> courseRankingService.getStudentRank(100L, 10L));
+        assertEquals(1, courseRankingService.getStudentRank(200L, 10L).rank());
+    }
+
+    @Test
+    @DisplayName("Archivage et suppression d'étudiants → entrées retirées")
+    void shouldRemoveArchivedAndDeleted() {
+        courseRankingService.onEnrollmentsArchived(new EnrollmentsArchivedEvent(List.of(state(2L, 20L, 100L, 17.0))));
+        courseRankingService.onStudentsDeleted(new StudentsDeletedEvent(List.of(10L)));
+
+        assertTrue(courseRankingService.getTopK(100L, 10).isEmpty());
+        assertTrue(courseRankingService.getTopK(200L, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("rebuild() périodique → reprend les notes écrites par les autres répliques")
+    void shouldResyncFromDatabase() {
+        when(enrollmentRepository.streamAllStates()).thenReturn(Stream.of(
+                state(1L, 10L, 100L, 12.0),
+                state(2L, 20L, 100L, 17.0),
+                state(5L, 50L, 100L, 19.5)));
+
+        courseRankingService.rebuild();
+
+        assertEquals(List.of(50L, 20L, 10L),
+                courseRankingService.getTopK(100L, 10).stream().map(CourseRank::idStudent).toList());
+        assertTrue(courseRankingService.getTopK(200L, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Événement reçu pendant un rebuild() → rejoué sur le nouveau classement")
+    void shouldReplayEventsReceivedDuringRebuild() {
+        when(enrollmentRepository.streamAllStates()).thenReturn(Stream.of(
+                state(1L, 10L, 100L, 12.0),
+                state(2L, 20L, 100L, 17.0)).peek(row -> {
+            if (row.idEnrollment() == 1L) {
+                // validé après la lecture de la ligne 1 par le rebuild
+                courseRankingService.onEnrollmentChanged(new EnrollmentChangedEvent(state(1L, 10L, 100L, 12.0),
+                        state(1L, 10L, 100L, 19.0)));
+                courseRankingService.onEnrollmentChanged(new EnrollmentChangedEvent(null,
+                        state(6L, 60L, 100L, 15.0)));
+            }
+        }));
+
+        courseRankingService.rebuild();
+
+        assertEquals(List.of(10L, 20L, 60L),
+                courseRankingService.getTopK(100L, 10).stream().map(CourseRank::idStudent).toList());
+    }
+
+    @Test
+    @DisplayName("Suppression des étudiants d'un département → classement rechargé sans eux, via le proxy")
+    void shouldReloadAfterDepartmentDelete() {
+        when(enrollmentRepository.streamAllStates()).thenReturn(Stream.of(state(2L, 20L, 100L, 17.0)));
+        when(self.getObject()).thenReturn(courseRankingService);
+
+        courseRankingService.onDepartmentStudentsDeleted(new DepartmentStudentsDeletedEvent(List.of(1L)));
+        courseRankingService.flush();
+
+        assertEquals(List.of(20L), courseRankingService.getTopK(100L, 10).stream().map(CourseRank::idStudent).toList());
+        assertTrue(courseRankingService.getTopK(200L, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("getGradeAtPercentile() - Percentile hors bornes → IllegalArgumentException")
+    void shouldRejectInvalidArguments() {
+        assertEquals(17.0, courseRankingService.getGradeAtPercentile(100L, 90));
+        assertThrows(IllegalArgumentException.class, () -> courseRankingService.getGradeAtPercentile(100L, 120));
+        assertThrows(IllegalArgumentException.class, () -> courseRankingService.getTopK(100L, 0));
+        assertThrows(EntityNotFoundException.class, () -> courseRankingService.getGradeAtPercentile(999L, 50));
+    }
+}
@@ -0,0 +1,121 @@
+package tn.esprit.studentmanagement.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import tn.esprit.studentmanagement.dto.BatchItem;
+import tn.esprit.studentmanagement.entities.Course;
+import tn.esprit.studentmanagement.events.CourseChangedEvent;
+import tn.esprit.studentmanagement.repositories.CourseRepository;
+import tn.esprit.studentmanagement.services.CourseService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CourseService - Tests Unitaires")
+class CourseServiceTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private CourseService courseService;
+
+    @BeforeEach
+    void setUp() {
+        when(courseRepository.findAll()).thenReturn(List.of(
+                new Course(1L, "Algorithmique", "CS101", 4, null, null, null),
+                new Course(2L, "Analyse", "MA101", 3, null, null, null)));
+    }
+
+    @Test
+    @DisplayName("Les lectures sont servies par le catalogue sans requête supplémentaire")
+    void shouldServeReadsFromCatalog() {
+        // When
+        Course byId = courseService.getCourseById(1L);
+        Course byCode = courseService.getCourseByCode("ma101");
+        List<Course> search = courseService.searchCourses("CS", 1, 5);
+        List<BatchItem<Course>> batch = courseService.getCoursesByIds(List.of(2L, 99L));
+
+        // Then
+        assertEquals("CS101", byId.getCode());
+        assertEquals(2L, byCode.getIdCourse());
+        assertEquals(1, search.size());
+        assertTrue(batch.get(0).found());
+        assertFalse(batch.get(1).found());
+        verify(courseRepository, times(1)).findAll();
+        verifyNoMoreInteractions(courseRepository);
+    }
+
+    @Test
+    @DisplayName("Cours inexistant → EntityNotFoundException, plage inversée → IllegalArgumentException")
+    void shouldRejectUnknownCoursesAndInvertedRanges() {
+        assertThrows(EntityNotFoundException.class, () -> courseService.getCourseById(99L));
+        assertThrows(EntityNotFoundException.class, () -> courseService.getCourseByCode("XX999"));
+        assertThrows(IllegalArgumentException.class, () -> courseService.searchCourses(null, 5, 1));
+    }
+
+    @Test
+    @DisplayName("Création : le nouveau cours est visible sans recharger le catalogue")
+    void shouldPublishCreatedCourse() {
+        // Given
+        when(courseRepository.save(any(Course.class)))
+                .thenReturn(new Course(3L, "Physique", "PH100", 2, null, null, null));
+
+        // When
+        courseService.saveCourse(new Course(null, "Physique", "PH100", 2, null, null, null));
+
+        // Then
+        assertEquals(3L, courseService.getCourseByCode("PH100").getIdCourse());
+        assertEquals(3, courseService.getAllCourses().size());
+        verify(courseRepository, times(1)).findAll();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Mise à jour et suppression : catalogue remplacé + événement pour les relevés")
+    void shouldSwapCatalogAndPublishEventOnUpdateAndDelete() {
+        // Given
+        when(courseRepository.save(any(Course.class)))
+                .thenReturn(new Course(1L, "Algorithmique", "CS101", 6, null, null, null));
+
+        // When
+        courseService.saveCourse(new Course(1L, "Algorithmique", "CS101", 6, null, null, null));
+        courseService.deleteCourse(2L);
+
+        // Then
+        assertEquals(6, courseService.getCourseById(1L).getCredit());
+        assertThrows(EntityNotFoundException.class, () -> courseService.getCourseById(2L));
+        verify(courseRepository).deleteById(2L);
+        verify(eventPublisher).publishEvent(new CourseChangedEvent(1L));
+        verify(eventPublisher).publishEvent(new CourseChangedEvent(2L));
+    }
+
+    @Test
+    @DisplayName("Mise à jour d'un cours absent du catalogue (créé par une autre réplique) → événement publié")
+    void shouldPublishEventWhenUpdatingCourseUnknownToCatalog() {
+        // Given
+        when(courseRepository.save(any(Course.class)))
+                .thenReturn(new Course(7L, "Réseaux", "NE200", 3, null, null, null));
+
+        // When
+        courseService.saveCourse(new Course(7L, "Réseaux", "NE200", 3, null, null, null));
+
+        // Then
+        assertEquals("NE200", courseService.getCourseById(7L).getCode());
+        verify(eventPublisher).publishEvent(new CourseChangedEvent(7L));
+    }
+}
@@ -5,16 +5,29 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import tn.esprit.studentmanagement.dto.BulkDeleteResult;
 import tn.esprit.studentmanagement.entities.Department;
+import tn.esprit.studentmanagement.events.DepartmentStudentsDeletedEvent;
 import tn.esprit.studentmanagement.repositories.DepartmentRepository;
+import tn.esprit.studentmanagement.repositories.EnrollmentArchiveRepository;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.repositories.StudentRepository;
 import tn.esprit.studentmanagement.services.DepartmentService;
+import tn.esprit.studentmanagement.sharding.ShardRouter;
+import tn.esprit.studentmanagement.sharding.ShardTransactions;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,6 +41,22 @@ class DepartmentServiceTest {
     @Mock
     private DepartmentRepository departmentRepository;
 
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private EnrollmentArchiveRepository enrollmentArchiveRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ShardTransactions shardTransactions = new ShardTransactions(
+            new StaticListableBeanFactory().getBeanProvider(ShardRouter.class), mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private DepartmentService departmentService;
 
@@ -129,4 +158,35 @@ class DepartmentServiceTest {
         // Then
         verify(departmentRepository).deleteById(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("deleteDepartments() - Inscriptions, puis étudiants, puis départements")
+    void shouldBulkDeleteInDependencyOrder() {
+        // Given
+        List<Long> ids = List.of(1L, 2L);
+        when(enrollmentRepository.deleteByDepartmentIds(ids)).thenReturn(7);
+        when(studentRepository.deleteByDepartmentIds(ids)).thenReturn(4);
+        when(departmentRepository.deleteByIds(ids)).thenReturn(2);
+
+        // When
+        BulkDeleteResult result = departmentService.deleteDepartments(ids);
+
+        // Then
+        assertEquals(new BulkDeleteResult(2, 4, 7), result);
+        InOrder inOrder = inOrder(enrollmentRepository, studentRepository, departmentRepository);
+        inOrder.verify(enrollmentRepository).deleteByDepartmentIds(ids);
+        inOrder.verify(studentRepository).deleteByDepartmentIds(ids);
+        inOrder.verify(departmentRepository).deleteByIds(ids);
+        verify(eventPublisher).publishEvent(new DepartmentStudentsDeletedEvent(ids));
+        verifyNoMoreInteractions(studentRepository);
+    }
+
+    @Test
+    @DisplayName("deleteDepartments() - Plus de 500 ids → IllegalArgumentException")
+    void shouldRejectTooManyDepartmentIds() {
+        List<Long> ids = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> departmentService.deleteDepartments(ids));
+        verifyNoInteractions(enrollmentRepository, studentRepository, departmentRepository);
+    }
+}
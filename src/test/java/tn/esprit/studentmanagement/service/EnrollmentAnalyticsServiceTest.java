@@ -0,0 +1,81 @@
+package tn.esprit.studentmanagement.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import tn.esprit.studentmanagement.analytics.EnrollmentFilter;
+import tn.esprit.studentmanagement.config.AnalyticsProperties;
+import tn.esprit.studentmanagement.dto.StatusStats;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.events.EnrollmentChangedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.services.EnrollmentAnalyticsService;
+import tn.esprit.studentmanagement.services.IEnrollmentAnalyticsService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EnrollmentAnalyticsService - Tests Unitaires")
+class EnrollmentAnalyticsServiceTest {
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<IEnrollmentAnalyticsService> self;
+
+    private EnrollmentAnalyticsService analyticsService;
+
+    private static EnrollmentState state(long idEnrollment, long idStudent, double grade) {
+        return new EnrollmentState(idEnrollment, idStudent, 100L, grade, Status.COMPLETED, LocalDate.of(2025, 1, 10));
+    }
+
+    @BeforeEach
+    void setUp() {
+        analyticsService = new EnrollmentAnalyticsService(enrollmentRepository,
+                new AnalyticsProperties(10, 20, 16, 16, Duration.ofMinutes(10)), transactionManager, self);
+        when(enrollmentRepository.streamAllStates()).thenReturn(Stream.of(state(1L, 10L, 12.0), state(2L, 20L, 8.0)));
+        analyticsService.rebuild();
+    }
+
+    @Test
+    @DisplayName("rebuild() périodique → reprend les inscriptions écrites par les autres répliques")
+    void shouldResyncFromDatabase() {
+        when(enrollmentRepository.streamAllStates()).thenReturn(Stream.of(state(1L, 10L, 12.0),
+                state(3L, 30L, 15.0)));
+
+        analyticsService.rebuild();
+
+        StatusStats stats = analyticsService.getStatusStats(EnrollmentFilter.all()).get(0);
+        assertEquals(2, stats.enrollments());
+        assertEquals(2, stats.passed());
+    }
+
+    @Test
+    @DisplayName("rebuild() pendant un rebuild en cours → ignoré, les événements restent rejoués")
+    void shouldSkipOverlappingRebuild() {
+        when(enrollmentRepository.streamAllStates()).thenReturn(Stream.of(state(1L, 10L, 12.0)).peek(row -> {
+            analyticsService.rebuild();
+            analyticsService.onEnrollmentChanged(new EnrollmentChangedEvent(null, state(4L, 40L, 18.0)));
+        }));
+
+        analyticsService.rebuild();
+
+        assertEquals(2, analyticsService.getStatusStats(EnrollmentFilter.all()).get(0).enrollments());
+        verify(enrollmentRepository, times(2)).streamAllStates();
+    }
+}
@@ -5,12 +5,19 @@ import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import tn.esprit.studentmanagement.dedup.DuplicateDetector;
+import tn.esprit.studentmanagement.entities.Course;
 import tn.esprit.studentmanagement.entities.Enrollment;
 import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.events.EnrollmentChangedEvent;
+import tn.esprit.studentmanagement.exception.CourseFullException;
 import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.seats.SeatCounters;
 import tn.esprit.studentmanagement.services.EnrollmentService;
 
 import java.time.LocalDate;
@@ -30,6 +37,15 @@ class EnrollmentServiceTest {
     @Mock
     private EnrollmentRepository enrollmentRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DuplicateDetector duplicateDetector;
+
+    @Mock
+    private SeatCounters seatCounters;
+
     @InjectMocks
     private EnrollmentService enrollmentService;
 
@@ -151,4 +167,84 @@ class EnrollmentServiceTest {
         // Then
         verify(enrollmentRepository).deleteById(5L);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("saveEnrollment() - Publie l'état avant/après la mise à jour")
+    void shouldPublishBeforeAndAfterStateOnUpdate() {
+        // Given - la note passe de 14.5 à 17.0
+        Enrollment update = new Enrollment(1L, enrollment1.getEnrollmentDate(), 17.0, Status.COMPLETED, null, null);
+        when(enrollmentRepository.findById(1L)).thenReturn(Optional.of(enrollment1));
+        when(enrollmentRepository.save(update)).thenReturn(update);
+
+        // When
+        enrollmentService.saveEnrollment(update);
+
+        // Then
+        ArgumentCaptor<EnrollmentChangedEvent> captor = ArgumentCaptor.forClass(EnrollmentChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(14.5, captor.getValue().before().grade());
+        assertEquals(17.0, captor.getValue().after().grade());
+        assertTrue(captor.getValue().affectsTranscript());
+    }
+
+    @Test
+    @DisplayName("deleteEnrollment() - Publie la suppression avec l'état précédent")
+    void shouldPublishDeleteEvent() {
+        // Given
+        when(enrollmentRepository.findById(1L)).thenReturn(Optional.of(enrollment1));
+
+        // When
+        enrollmentService.deleteEnrollment(1L);
+
+        // Then
+        ArgumentCaptor<EnrollmentChangedEvent> captor = ArgumentCaptor.forClass(EnrollmentChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertTrue(captor.getValue().isDelete());
+        assertEquals(1L, captor.getValue().before().idEnrollment());
+    }
+
+    @Test
+    @DisplayName("saveEnrollment() - Refuse l'inscription quand le cours est complet")
+    void shouldRejectEnrollmentWhenCourseIsFull() {
+        // Given
+        Enrollment newEnrollment = new Enrollment(null, LocalDate.now(), null, Status.ACTIVE, null,
+                new Course(7L, "Java", "CS101", 4, null, 30, null));
+        when(seatCounters.tryAcquire(7L)).thenReturn(false);
+
+        // When / Then
+        assertThrows(CourseFullException.class, () -> enrollmentService.saveEnrollment(newEnrollment));
+        verify(enrollmentRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("saveEnrollment() - Rend la place si l'écriture échoue")
+    void shouldReleaseSeatWhenSaveFails() {
+        // Given
+        Enrollment newEnrollment = new Enrollment(null, LocalDate.now(), null, Status.ACTIVE, null,
+                new Course(7L, "Java", "CS101", 4, null, 30, null));
+        when(seatCounters.tryAcquire(7L)).thenReturn(true);
+        when(enrollmentRepository.save(newEnrollment)).thenThrow(new IllegalStateException("boom"));
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> enrollmentService.saveEnrollment(newEnrollment));
+        verify(seatCounters).release(7L, 1);
+    }
+
+    @Test
+    @DisplayName("saveEnrollment() - Une mise à jour de note ne reprend pas de place")
+    void shouldNotTakeSeatAgainOnUpdate() {
+        // Given
+        Course java = new Course(7L, "Java", "CS101", 4, null, 30, null);
+        enrollment1.setCourse(java);
+        Enrollment update = new Enrollment(1L, enrollment1.getEnrollmentDate(), 17.0, Status.ACTIVE, null, java);
+        when(enrollmentRepository.findById(1L)).thenReturn(Optional.of(enrollment1));
+        when(enrollmentRepository.save(update)).thenReturn(update);
+
+        // When
+        enrollmentService.saveEnrollment(update);
+
+        // Then
+        verifyNoInteractions(seatCounters);
+    }
+}
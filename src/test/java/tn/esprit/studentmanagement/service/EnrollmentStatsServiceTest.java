@@ -0,0 +1,155 @@
+package tn.esprit.studentmanagement.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import tn.esprit.studentmanagement.bulkhead.Workload;
+import tn.esprit.studentmanagement.bulkhead.WorkloadContext;
+import tn.esprit.studentmanagement.config.StatsProperties;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.events.EnrollmentChangedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.repositories.EnrollmentDailyCountRepository;
+import tn.esprit.studentmanagement.repositories.StudentRepository;
+import tn.esprit.studentmanagement.services.EnrollmentStatsService;
+import tn.esprit.studentmanagement.sharding.ShardRouter;
+import tn.esprit.studentmanagement.sharding.ShardTransactions;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EnrollmentStatsService - Tests Unitaires")
+class EnrollmentStatsServiceTest {
+
+    private static final LocalDate FIRST = LocalDate.of(2025, 9, 1);
+    private static final LocalDate LAST = LocalDate.of(2025, 9, 7);
+
+    @Mock
+    private EnrollmentDailyCountRepository dailyCountRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EnrollmentStatsService statsService;
+
+    private static EnrollmentChangedEvent created(long idEnrollment, LocalDate date) {
+        return new EnrollmentChangedEvent(null, new EnrollmentState(idEnrollment, 10L, 100L, null, Status.ACTIVE,
+                date));
+    }
+
+    @BeforeEach
+    void setUp() {
+        statsService = new EnrollmentStatsService(dailyCountRepository, studentRepository,
+                new StatsProperties(List.of(9, 2), Period.ofDays(365), 7),
+                new ShardTransactions(new StaticListableBeanFactory().getBeanProvider(ShardRouter.class),
+                        transactionManager),
+                transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statsService.shutdown();
+    }
+
+    @Test
+    @DisplayName("onEnrollmentChanged() - Un échec de mise à jour n'est pas propagé à l'écriture déjà validée")
+    void shouldNotFailCommittedWriteWhenIncrementFails() {
+        when(studentRepository.findDepartmentIdById(10L)).thenReturn(Optional.of(1L));
+        when(dailyCountRepository.increment(any(), any(), any(), any(), anyLong()))
+                .thenThrow(new QueryTimeoutException("lock wait timeout"))
+                .thenReturn(1);
+
+        assertDoesNotThrow(() -> statsService.onEnrollmentChanged(created(1L, FIRST)));
+        statsService.onEnrollmentChanged(created(2L, FIRST.plusDays(1)));
+        statsService.flush();
+
+        verify(dailyCountRepository).increment(FIRST.plusDays(1), 100L, 1L, "ACTIVE", 1);
+    }
+
+    @Test
+    @DisplayName("recount() - Une inscription des jours recomptés pendant le recomptage → recompte à nouveau")
+    void shouldRecountAgainWhenDaysMoveMeanwhile() {
+        when(studentRepository.findDepartmentIdById(10L)).thenReturn(Optional.of(1L));
+        AtomicInteger runs = new AtomicInteger();
+
+        int buckets = statsService.recount(FIRST, LAST, () -> {
+            if (runs.incrementAndGet() == 1) {
+                statsService.onEnrollmentChanged(created(1L, FIRST.plusDays(2)));
+            }
+            return runs.get();
+        });
+
+        assertEquals(2, runs.get());
+        assertEquals(2, buckets);
+    }
+
+    @Test
+    @DisplayName("recount() - Une inscription hors des jours recomptés ne relance pas le recomptage")
+    void shouldNotRecountForOtherDays() {
+        when(studentRepository.findDepartmentIdById(10L)).thenReturn(Optional.of(1L));
+        AtomicInteger runs = new AtomicInteger();
+
+        statsService.recount(FIRST, LAST, () -> {
+            statsService.onEnrollmentChanged(created(runs.incrementAndGet(), LAST.plusDays(1)));
+            return 0;
+        });
+        statsService.flush();
+
+        assertEquals(1, runs.get());
+        verify(dailyCountRepository).increment(LAST.plusDays(1), 100L, 1L, "ACTIVE", 1);
+    }
+
+    @Test
+    @DisplayName("recountLater() - Une inscription des jours recomptés pendant le recomptage → recompte à nouveau")
+    void shouldRecountLaterAgainWhenDaysMoveMeanwhile() {
+        when(studentRepository.findDepartmentIdById(10L)).thenReturn(Optional.of(1L));
+        AtomicInteger runs = new AtomicInteger();
+
+        statsService.recountLater(FIRST, LAST, () -> {
+            if (runs.incrementAndGet() == 1) {
+                statsService.onEnrollmentChanged(created(1L, FIRST.plusDays(2)));
+            }
+            return 0;
+        });
+        statsService.flush();
+        statsService.flush(); // le second recomptage est mis en file pendant le premier flush
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    @DisplayName("recount() et recountLater() - Le writer recompte en écriture de masse")
+    void shouldRecountAsBulkWrite() {
+        List<Workload> workloads = new CopyOnWriteArrayList<>();
+        IntSupplier recount = () -> {
+            workloads.add(WorkloadContext.current());
+            return 0;
+        };
+
+        statsService.recount(FIRST, LAST, recount);
+        statsService.recountLater(FIRST, LAST, recount);
+        statsService.flush();
+
+        assertEquals(List.of(Workload.BULK_WRITE, Workload.BULK_WRITE), workloads);
+    }
+}
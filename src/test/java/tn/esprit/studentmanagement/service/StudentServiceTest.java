@@ -5,21 +5,39 @@ package tn.esprit.studentmanagement.service;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import tn.esprit.studentmanagement.dto.BatchItem;
+import tn.esprit.studentmanagement.dto.BulkDeleteResult;
+import tn.esprit.studentmanagement.dedup.DuplicateDetector;
 import tn.esprit.studentmanagement.entities.Department;
 import tn.esprit.studentmanagement.entities.Student;
+import tn.esprit.studentmanagement.events.DepartmentStudentsDeletedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentDays;
+import tn.esprit.studentmanagement.events.EnrollmentsDeletedEvent;
+import tn.esprit.studentmanagement.events.StudentsDeletedEvent;
+import tn.esprit.studentmanagement.repositories.EnrollmentArchiveRepository;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
 import tn.esprit.studentmanagement.repositories.StudentRepository;
 import tn.esprit.studentmanagement.services.StudentService;
+import tn.esprit.studentmanagement.sharding.ShardRouter;
+import tn.esprit.studentmanagement.sharding.ShardTransactions;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -30,6 +48,22 @@ class StudentServiceTest {
     @Mock
     private StudentRepository studentRepository;
 
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private EnrollmentArchiveRepository enrollmentArchiveRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DuplicateDetector duplicateDetector;
+
+    @Spy
+    private ShardTransactions shardTransactions = new ShardTransactions(
+            new StaticListableBeanFactory().getBeanProvider(ShardRouter.class), mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private StudentService studentService;
 
@@ -156,4 +190,128 @@ class StudentServiceTest {
         // Then
         verify(studentRepository).deleteById(10L);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("deleteStudents() - Inscriptions supprimées avant les étudiants, jours supprimés publiés")
+    void shouldBulkDeleteEnrollmentsThenStudents() {
+        // Given
+        List<Long> ids = List.of(1L, 2L);
+        when(enrollmentRepository.findDaysByStudentIds(ids)).thenReturn(List.of(
+                new EnrollmentDays(LocalDate.of(2025, 9, 1), LocalDate.of(2025, 10, 1))));
+        when(enrollmentArchiveRepository.findDaysByStudentIds(ids)).thenReturn(List.of(
+                new EnrollmentDays(LocalDate.of(2019, 9, 2), LocalDate.of(2020, 1, 15))));
+        when(enrollmentRepository.deleteByStudentIds(ids)).thenReturn(3);
+        when(enrollmentArchiveRepository.deleteByStudentIds(ids)).thenReturn(1);
+        when(studentRepository.deleteByIds(ids)).thenReturn(2);
+
+        // When
+        BulkDeleteResult result = studentService.deleteStudents(ids);
+
+        // Then
+        assertEquals(new BulkDeleteResult(0, 2, 4), result);
+        InOrder inOrder = inOrder(enrollmentRepository, studentRepository);
+        inOrder.verify(enrollmentRepository).deleteByStudentIds(ids);
+        inOrder.verify(studentRepository).deleteByIds(ids);
+        verify(eventPublisher).publishEvent(new StudentsDeletedEvent(ids));
+        verify(eventPublisher).publishEvent(new EnrollmentsDeletedEvent(LocalDate.of(2019, 9, 2),
+                LocalDate.of(2025, 10, 1)));
+        verify(studentRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("deleteStudents() - Découpé en requêtes de 100 ids au plus")
+    void shouldChunkBulkDelete() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, 250).boxed().toList();
+        when(studentRepository.deleteByIds(anyCollection())).thenAnswer(call -> call.<List<Long>>getArgument(0).size());
+
+        // When
+        BulkDeleteResult result = studentService.deleteStudents(ids);
+
+        // Then
+        assertEquals(250, result.students());
+        verify(studentRepository).deleteByIds(ids.subList(0, 100));
+        verify(studentRepository).deleteByIds(ids.subList(100, 200));
+        verify(studentRepository).deleteByIds(ids.subList(200, 250));
+        verify(enrollmentRepository, times(3)).deleteByStudentIds(anyCollection());
+        verify(eventPublisher).publishEvent(new StudentsDeletedEvent(ids));
+    }
+
+    @Test
+    @DisplayName("deleteStudents() - Plus de 500 ids → IllegalArgumentException")
+    void shouldRejectTooManyStudentIds() {
+        List<Long> ids = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> studentService.deleteStudents(ids));
+        verifyNoInteractions(studentRepository, enrollmentRepository, enrollmentArchiveRepository);
+    }
+
+    @Test
+    @DisplayName("deleteStudentsByDepartment() - Sous-requêtes sur le département, sans charger les ids")
+    void shouldDeleteByDepartmentWithoutLoadingIds() {
+        // Given
+        when(enrollmentRepository.deleteByDepartmentIds(List.of(3L))).thenReturn(5);
+        when(studentRepository.deleteByDepartmentIds(List.of(3L))).thenReturn(2);
+
+        // When
+        BulkDeleteResult result = studentService.deleteStudentsByDepartment(3L);
+
+        // Then
+        assertEquals(new BulkDeleteResult(0, 2, 5), result);
+        verify(studentRepository, never()).findIdsByDepartmentId(anyLong());
+        verify(eventPublisher).publishEvent(new DepartmentStudentsDeletedEvent(List.of(3L)));
+    }
+
+    @Test
+    @DisplayName("deleteStudents() - Liste vide → aucune requête")
+    void shouldSkipBulkDeleteForEmptyList() {
+        // When
+        BulkDeleteResult result = studentService.deleteStudents(List.of());
+
+        // Then
+        assertEquals(new BulkDeleteResult(0, 0, 0), result);
+        verifyNoInteractions(studentRepository, enrollmentRepository, enrollmentArchiveRepository);
+    }
+
+    @Test
+    @DisplayName("getStudentsByIds() - Ordre de la requête, doublons et absents conservés")
+    void shouldResolveBatchInRequestOrder() {
+        // Given
+        when(studentRepository.findAllWithDepartmentByIds(List.of(2L, 99L, 1L))).thenReturn(List.of(student1, student2));
+
+        // When
+        List<BatchItem<Student>> result = studentService.getStudentsByIds(List.of(2L, 99L, 1L, 2L));
+
+        // Then
+        assertEquals(List.of(2L, 99L, 1L, 2L), result.stream().map(BatchItem::id).toList());
+        assertEquals(List.of(true, false, true, true), result.stream().map(BatchItem::found).toList());
+        assertEquals("Sarra", result.get(0).item().getFirstName());
+        assertNull(result.get(1).item());
+        assertEquals("Informatique", result.get(2).item().getDepartment().getName());
+        verify(studentRepository, times(1)).findAllWithDepartmentByIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("getStudentsByIds() - Requêtes IN découpées par lots de 100")
+    void shouldChunkLargeBatches() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, 250).boxed().toList();
+        when(studentRepository.findAllWithDepartmentByIds(anyCollection())).thenReturn(List.of());
+
+        // When
+        List<BatchItem<Student>> result = studentService.getStudentsByIds(ids);
+
+        // Then
+        assertEquals(250, result.size());
+        verify(studentRepository, times(3)).findAllWithDepartmentByIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("getStudentsByIds() - Plus de 500 ids → IllegalArgumentException")
+    void shouldRejectOversizedBatch() {
+        List<Long> ids = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> studentService.getStudentsByIds(ids));
+        verifyNoInteractions(studentRepository);
+    }
+}
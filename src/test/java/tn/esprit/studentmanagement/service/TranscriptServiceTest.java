@@ -0,0 +1,86 @@
+package tn.esprit.studentmanagement.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import tn.esprit.studentmanagement.dto.Transcript;
+import tn.esprit.studentmanagement.entities.Status;
+import tn.esprit.studentmanagement.events.EnrollmentChangedEvent;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.repositories.TranscriptRepository;
+import tn.esprit.studentmanagement.services.TranscriptService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TranscriptService - Invalidation du cache")
+class TranscriptServiceTest {
+
+    @Mock
+    private TranscriptRepository transcriptRepository;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private TranscriptService transcriptService;
+
+    private final EnrollmentState graded = new EnrollmentState(1L, 10L, 100L, 14.0, Status.COMPLETED,
+            LocalDate.of(2025, 9, 15));
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(TranscriptService.TRANSCRIPTS_CACHE);
+        transcriptService = new TranscriptService(transcriptRepository, cacheManager);
+        cacheManager.getCache(TranscriptService.TRANSCRIPTS_CACHE).put(10L, new Transcript(10L, List.of(), 4, 14.0));
+        cacheManager.getCache(TranscriptService.TRANSCRIPTS_CACHE).put(20L, new Transcript(20L, List.of(), 4, 12.0));
+    }
+
+    @Test
+    @DisplayName("Changement de note → seul l'étudiant concerné est invalidé")
+    void shouldEvictOnGradeChange() {
+        EnrollmentState regraded = new EnrollmentState(1L, 10L, 100L, 16.0, Status.COMPLETED, graded.enrollmentDate());
+
+        transcriptService.onEnrollmentChanged(new EnrollmentChangedEvent(graded, regraded));
+
+        assertNull(cache().get(10L));
+        assertNotNull(cache().get(20L));
+    }
+
+    @Test
+    @DisplayName("Aucun champ du relevé modifié → pas d'invalidation")
+    void shouldKeepEntryWhenNothingRelevantChanged() {
+        EnrollmentState same = new EnrollmentState(1L, 10L, 100L, 14.0, Status.COMPLETED, graded.enrollmentDate());
+
+        transcriptService.onEnrollmentChanged(new EnrollmentChangedEvent(graded, same));
+
+        assertNotNull(cache().get(10L));
+    }
+
+    @Test
+    @DisplayName("Inscription transférée → ancien et nouvel étudiant invalidés")
+    void shouldEvictBothStudentsWhenEnrollmentMoves() {
+        EnrollmentState moved = new EnrollmentState(1L, 20L, 100L, 14.0, Status.COMPLETED, graded.enrollmentDate());
+
+        transcriptService.onEnrollmentChanged(new EnrollmentChangedEvent(graded, moved));
+
+        assertNull(cache().get(10L));
+        assertNull(cache().get(20L));
+    }
+
+    @Test
+    @DisplayName("Suppression → invalidation")
+    void shouldEvictOnDelete() {
+        transcriptService.onEnrollmentChanged(new EnrollmentChangedEvent(graded, null));
+
+        assertNull(cache().get(10L));
+    }
+
+    private org.springframework.cache.Cache cache() {
+        return cacheManager.getCache(TranscriptService.TRANSCRIPTS_CACHE);
+    }
+}
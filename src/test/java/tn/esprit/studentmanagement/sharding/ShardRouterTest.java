@@ -0,0 +1,104 @@
+package tn.esprit.studentmanagement.sharding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.CrudRepository;
+import tn.esprit.studentmanagement.entities.Department;
+import tn.esprit.studentmanagement.entities.Enrollment;
+import tn.esprit.studentmanagement.entities.Student;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.repositories.StudentRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShardRouter - Placement et routage")
+class ShardRouterTest {
+
+    private final ShardRouter router = new ShardRouter(List.of("global", "tunis", "sousse"), Map.of(7L, 1, 9L, 2));
+    private final StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("shardRouter", router));
+    private final ShardRoutingInterceptor interceptor = new ShardRoutingInterceptor(
+            beans.getBeanProvider(ShardRouter.class), beans.getBeanProvider(ScatterGather.class));
+
+    @Test
+    @DisplayName("Chaque shard alloue ses identifiants dans sa propre plage")
+    void shouldEncodeShardInIds() {
+        assertEquals(1L, ShardRouter.firstId(0));
+        assertEquals(0, router.shardOfId(1L));
+        assertEquals(2, router.shardOfId(ShardRouter.firstId(2) + 41));
+        assertThrows(IllegalArgumentException.class, () -> router.shardOfId(ShardRouter.firstId(3)));
+    }
+
+    @Test
+    @DisplayName("Nouveaux étudiants et inscriptions placés selon le département")
+    void shouldPlaceNewRowsByDepartment() {
+        Student placed = new Student(null, "Ali", null, null, null, null, null, department(9L), null);
+        Student unplaced = new Student(null, "Sarra", null, null, null, null, null, department(3L), null);
+        Enrollment enrollment = new Enrollment(null, null, null, null, placed, null);
+
+        assertEquals(2, router.shardOf(placed, ShardKey.Kind.ID));
+        assertEquals(0, router.shardOf(unplaced, ShardKey.Kind.ID));
+        assertEquals(2, router.shardOf(enrollment, ShardKey.Kind.ID));
+        assertEquals(1, router.shardOf(7L, ShardKey.Kind.DEPARTMENT));
+    }
+
+    @Test
+    @DisplayName("Déplacer un étudiant vers un département d'un autre shard est refusé")
+    void shouldRejectCrossShardMove() {
+        Student moved = new Student(ShardRouter.firstId(1) + 5, "Ali", null, null, null, null, null, department(9L),
+                null);
+
+        assertThrows(IllegalArgumentException.class, () -> router.shardOf(moved, ShardKey.Kind.ID));
+    }
+
+    @Test
+    @DisplayName("Une collection de clés est répartie entre les shards concernés")
+    void shouldSplitKeyCollections() throws Exception {
+        long onTunis = ShardRouter.firstId(1) + 1;
+        long onSousse = ShardRouter.firstId(2) + 1;
+
+        List<ShardRoutingInterceptor.Route> routes = interceptor.routes(
+                StudentRepository.class.getMethod("deleteByIds", Collection.class),
+                new Object[]{List.of(onTunis, 4L, onSousse, onTunis + 1)}, null);
+        List<ShardRoutingInterceptor.Route> byId = interceptor.routes(
+                CrudRepository.class.getMethod("findById", Object.class), new Object[]{onSousse}, null);
+        List<ShardRoutingInterceptor.Route> scattered = interceptor.routes(
+                EnrollmentRepository.class.getMethod("streamAllStates"), new Object[0], null);
+
+        assertEquals(List.of(1, 0, 2), routes.stream().map(ShardRoutingInterceptor.Route::shard).toList());
+        assertEquals(List.of(onTunis, onTunis + 1), routes.get(0).arguments()[0]);
+        assertEquals(2, byId.get(0).shard());
+        assertEquals(3, scattered.size());
+    }
+
+    @Test
+    @DisplayName("Les pages des shards sont fusionnées puis découpées")
+    void shouldMergePages() throws Exception {
+        Pageable second = PageRequest.of(1, 2);
+        List<Object> results = List.of(new PageImpl<>(List.of(1L, 5L), PageRequest.of(0, 4), 2),
+                new PageImpl<>(List.of(2L, 3L, 4L, 6L), PageRequest.of(0, 4), 9));
+
+        Page<?> page = (Page<?>) ShardRoutingInterceptor.merge(
+                CrudRepositoryPages.class.getMethod("findAll", Pageable.class), results, second,
+                second.getSort());
+
+        assertEquals(List.of(3L, 4L), page.getContent());
+        assertEquals(11, page.getTotalElements());
+    }
+
+    interface CrudRepositoryPages {
+        Page<Long> findAll(Pageable pageable);
+    }
+
+    private static Department department(Long id) {
+        return new Department(id, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,343 @@
+package tn.esprit.studentmanagement.sharding;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.studentmanagement.config.CacheConfig;
+import tn.esprit.studentmanagement.dedup.DuplicateDetector;
+import tn.esprit.studentmanagement.dto.BulkDeleteResult;
+import tn.esprit.studentmanagement.dto.CourseRank;
+import tn.esprit.studentmanagement.entities.*;
+import tn.esprit.studentmanagement.events.EnrollmentState;
+import tn.esprit.studentmanagement.jobs.EnrollmentArchiveJob;
+import tn.esprit.studentmanagement.projection.FieldProjector;
+import tn.esprit.studentmanagement.repositories.CourseRepository;
+import tn.esprit.studentmanagement.repositories.DepartmentRepository;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.repositories.StudentRepository;
+import tn.esprit.studentmanagement.seats.SeatCounters;
+import tn.esprit.studentmanagement.services.CourseRankingService;
+import tn.esprit.studentmanagement.services.DepartmentService;
+import tn.esprit.studentmanagement.services.StudentService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Three in-memory H2 shards: "global", and "tunis" and "sousse" holding the
+ * departments 2 and 3. Each test gets fresh databases.
+ */
+@DataJpaTest(properties = {
+        "sharding.enabled=true",
+        "sharding.shards[0].name=global",
+        "sharding.shards[0].url=jdbc:h2:mem:shard-global;MODE=MYSQL",
+        "sharding.shards[0].username=sa",
+        "sharding.shards[1].name=tunis",
+        "sharding.shards[1].url=jdbc:h2:mem:shard-tunis;MODE=MYSQL",
+        "sharding.shards[1].username=sa",
+        "sharding.shards[2].name=sousse",
+        "sharding.shards[2].url=jdbc:h2:mem:shard-sousse;MODE=MYSQL",
+        "sharding.shards[2].username=sa",
+        "sharding.placements.2=tunis",
+        "sharding.placements.3=sousse",
+        "spring.jpa.open-in-view=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@Import({ShardingConfig.class, ShardTransactions.class, DepartmentService.class, StudentService.class,
+        FieldProjector.class, DuplicateDetector.class, CacheConfig.class, EnrollmentArchiveJob.class,
+        CourseRankingService.class, SeatCounters.class})
+@DisplayName("Sharding par département - Tests d'intégration (3 shards H2)")
+class ShardedRepositoryTest {
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EnrollmentArchiveJob archiveJob;
+
+    @Autowired
+    private ShardTransactions shardTransactions;
+
+    @Autowired
+    private CourseRankingService courseRankingService;
+
+    @Autowired
+    private SeatCounters seatCounters;
+
+    @Autowired
+    private FieldProjector fieldProjector;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Department siege;
+    private Department tunis;
+    private Department sousse;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        siege = departmentRepository.save(new Department(null, "Direction", "Siège", null, null, null));
+        tunis = departmentRepository.save(new Department(null, "Informatique", "Tunis", null, null, null));
+        sousse = departmentRepository.save(new Department(null, "Génie Civil", "Sousse", null, null, null));
+        course = courseRepository.save(new Course(null, "Java", "CS101", 4, null, null, null));
+    }
+
+    @Test
+    @DisplayName("Les étudiants sont placés sur le shard de leur département, les référentiels sur tous")
+    void shouldPlaceStudentsOnTheirDepartmentShard() {
+        // When
+        Student ali = student("Ali", "Ben Salem", tunis);
+        Student sarra = student("Sarra", "Trabelsi", sousse);
+        Student amine = student("Amine", "Gharbi", siege);
+        enrollmentRepository.save(new Enrollment(null, LocalDate.of(2025, 9, 1), null, Status.ACTIVE, ali, course));
+
+        // Then
+        assertEquals(1, ali.getIdStudent() >>> ShardRouter.ID_BITS);
+        assertEquals(2, sarra.getIdStudent() >>> ShardRouter.ID_BITS);
+        assertEquals(1L, amine.getIdStudent());
+        assertEquals(List.of(1L, 1L, 1L), rowCounts("student"));
+        assertEquals(List.of(0L, 1L, 0L), rowCounts("enrollment"));
+        assertEquals(List.of(3L, 3L, 3L), rowCounts("department"));
+        assertEquals(List.of(1L, 1L, 1L), rowCounts("course"));
+    }
+
+    @Test
+    @DisplayName("Lectures par clé sur un seul shard, listes et agrégats rassemblés sur tous")
+    void shouldRouteKeyedCallsAndScatterTheOthers() {
+        // Given
+        Student ali = student("Ali", "Ben Salem", tunis);
+        Student sarra = student("Sarra", "Trabelsi", sousse);
+        student("Amine", "Gharbi", siege);
+
+        // When / Then
+        assertEquals("Sarra", studentRepository.findById(sarra.getIdStudent()).orElseThrow().getFirstName());
+        assertEquals("Informatique", studentRepository.findById(ali.getIdStudent()).orElseThrow()
+                .getDepartment().getName());
+        assertEquals(3, studentRepository.findAll().size());
+        assertEquals(3, studentRepository.count());
+        assertEquals(List.of(sarra.getIdStudent()), studentRepository.findIdsByEmail("sarra@esprit.tn"));
+        assertEquals(List.of(ali.getIdStudent()), studentRepository.findIdsByDepartmentId(tunis.getIdDepartment()));
+        assertEquals(2, studentRepository.findAllWithDepartmentByIds(
+                List.of(ali.getIdStudent(), sarra.getIdStudent())).size());
+        assertEquals(3, fieldProjector.findAll(Student.class, List.of("idStudent", "lastName")).size());
+    }
+
+    @Test
+    @DisplayName("Pagination triée fusionnée sur tous les shards")
+    void shouldMergeSortedPages() {
+        // Given
+        student("A", "Zaied", tunis);
+        student("B", "Amri", sousse);
+        student("C", "Mejri", siege);
+        student("D", "Bouzid", tunis);
+        student("E", "Karoui", sousse);
+
+        // When
+        Page<Student> page = studentRepository.findAll(PageRequest.of(1, 2, Sort.by("lastName")));
+
+        // Then
+        assertEquals(5, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(List.of("Karoui", "Mejri"), page.getContent().stream().map(Student::getLastName).toList());
+    }
+
+    @Test
+    @DisplayName("Écritures par lot réparties par shard, flux lus shard après shard")
+    void shouldSplitKeyedWritesAndStreamAllShards() {
+        // Given
+        Student ali = student("Ali", "Ben Salem", tunis);
+        Student sarra = student("Sarra", "Trabelsi", sousse);
+        Student amine = student("Amine", "Gharbi", siege);
+        List<Long> ids = Stream.of(ali, sarra, amine)
+                .map(s -> enrollmentRepository.save(
+                        new Enrollment(null, LocalDate.of(2025, 9, 1), 12.0, Status.COMPLETED, s, course)))
+                .map(Enrollment::getIdEnrollment)
+                .toList();
+
+        // When
+        List<EnrollmentState> streamed = readOnly(() -> {
+            try (Stream<EnrollmentState> states = enrollmentRepository.streamAllStates()) {
+                return states.toList();
+            }
+        });
+        int deleted = enrollmentRepository.deleteByIds(List.of(ids.get(0), ids.get(1)));
+
+        // Then
+        assertEquals(3, streamed.size());
+        assertEquals(2, deleted);
+        assertEquals(List.of(1L, 0L, 0L), rowCounts("enrollment"));
+    }
+
+    @Test
+    @DisplayName("Service transactionnel : chaque shard supprime ses données, le référentiel est répliqué")
+    void shouldDeleteDepartmentsAcrossShards() {
+        // Given
+        Student ali = student("Ali", "Ben Salem", tunis);
+        student("Sarra", "Trabelsi", sousse);
+        enrollmentRepository.save(new Enrollment(null, LocalDate.of(2025, 9, 1), null, Status.ACTIVE, ali, course));
+
+        // When
+        BulkDeleteResult result = departmentService.deleteDepartments(
+                List.of(tunis.getIdDepartment(), sousse.getIdDepartment()));
+
+        // Then
+        assertEquals(new BulkDeleteResult(2, 2, 1), result);
+        assertEquals(List.of(0L, 0L, 0L), rowCounts("student"));
+        assertEquals(List.of(1L, 1L, 1L), rowCounts("department"));
+    }
+
+    @Test
+    @DisplayName("Écriture routée dans une transaction non épinglée → refusée plutôt que validée à part")
+    void shouldRejectRoutedWriteInsideTransaction() {
+        Student ali = student("Ali", "Ben Salem", tunis);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        assertThrows(IllegalStateException.class, () -> transaction.executeWithoutResult(
+                status -> studentRepository.deleteByIds(List.of(ali.getIdStudent()))));
+        assertEquals(List.of(0L, 1L, 0L), rowCounts("student"));
+    }
+
+    @Test
+    @DisplayName("Transaction épinglée sur un shard : l'échec annule toutes ses écritures")
+    void shouldRollBackPinnedTransactionOnItsShard() {
+        Student ali = student("Ali", "Ben Salem", tunis);
+        enrollmentRepository.save(new Enrollment(null, LocalDate.of(2025, 9, 1), null, Status.ACTIVE, ali, course));
+
+        assertThrows(IllegalStateException.class, () -> shardTransactions.inTransactionOn(1, () -> {
+            enrollmentRepository.deleteByStudentIds(List.of(ali.getIdStudent()));
+            studentRepository.deleteByIds(List.of(ali.getIdStudent()));
+            throw new IllegalStateException("failure after the deletes");
+        }));
+
+        assertEquals(List.of(0L, 1L, 0L), rowCounts("student"));
+        assertEquals(List.of(0L, 1L, 0L), rowCounts("enrollment"));
+    }
+
+    @Test
+    @DisplayName("Suppression d'étudiants et archivage : une transaction par shard")
+    void shouldDeleteAndArchivePerShard() {
+        Student ali = student("Ali", "Ben Salem", tunis);
+        Student sarra = student("Sarra", "Trabelsi", sousse);
+        Student amine = student("Amine", "Gharbi", siege);
+        for (Student student : List.of(ali, sarra, amine)) {
+            enrollmentRepository.save(new Enrollment(null, LocalDate.of(2020, 9, 1), 12.0, Status.COMPLETED,
+                    student, course));
+        }
+
+        assertEquals(3, archiveJob.archive(LocalDate.of(2026, 10, 1)));
+        assertEquals(List.of(1L, 1L, 1L), rowCounts("enrollment_archive"));
+        assertEquals(List.of(0L, 0L, 0L), rowCounts("enrollment"));
+
+        BulkDeleteResult result = studentService.deleteStudents(List.of(ali.getIdStudent(), sarra.getIdStudent()));
+
+        assertEquals(new BulkDeleteResult(0, 2, 2), result);
+        assertEquals(List.of(1L, 0L, 0L), rowCounts("student"));
+        assertEquals(List.of(1L, 0L, 0L), rowCounts("enrollment_archive"));
+    }
+
+    @Test
+    @DisplayName("Suppression d'un département : classement rechargé depuis tous les shards, hors du thread appelant")
+    void shouldReloadRankingsFromAllShardsAfterDepartmentDelete() {
+        Student ali = student("Ali", "Ben Salem", tunis);
+        Student sarra = student("Sarra", "Trabelsi", sousse);
+        enrollmentRepository.save(new Enrollment(null, LocalDate.of(2025, 9, 1), 14.0, Status.COMPLETED, ali, course));
+        enrollmentRepository.save(new Enrollment(null, LocalDate.of(2025, 9, 1), 11.0, Status.COMPLETED, sarra,
+                course));
+        courseRankingService.rebuild();
+
+        studentService.deleteStudentsByDepartment(tunis.getIdDepartment());
+        courseRankingService.flush();
+
+        assertEquals(List.of(sarra.getIdStudent()), courseRankingService.getTopK(course.getIdCourse(), 10).stream()
+                .map(CourseRank::idStudent).toList());
+    }
+
+    @Test
+    @DisplayName("Suppression d'un département hors du shard global : places libérées sur le shard global")
+    void shouldReleaseSeatsOnGlobalShardAfterDepartmentDelete() {
+        Course limited = courseRepository.save(new Course(null, "Réseaux", "NE200", 3, null, 10, null));
+        Student ali = student("Ali", "Ben Salem", tunis);
+        assertTrue(seatCounters.tryAcquire(limited.getIdCourse()));
+        enrollmentRepository.save(new Enrollment(null, LocalDate.of(2025, 9, 1), null, Status.ACTIVE, ali, limited));
+        assertEquals(1, seatsTaken(limited, ShardRouter.GLOBAL_SHARD));
+
+        departmentService.deleteDepartments(List.of(tunis.getIdDepartment()));
+
+        assertEquals(0, seatsTaken(limited, ShardRouter.GLOBAL_SHARD));
+        assertEquals(10, seatCounters.remaining(limited.getIdCourse()));
+    }
+
+    @Test
+    @DisplayName("Un étudiant ne change pas de shard en changeant de département")
+    void shouldRejectMovingStudentToAnotherShard() {
+        // Given
+        Student ali = student("Ali", "Ben Salem", tunis);
+        ali.setDepartment(sousse);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> studentRepository.save(ali));
+    }
+
+    private Student student(String firstName, String lastName, Department department) {
+        return studentRepository.save(new Student(null, firstName, lastName, firstName.toLowerCase() + "@esprit.tn",
+                null, null, null, department, null));
+    }
+
+    private List<Long> rowCounts(String table) {
+        return IntStream.range(0, dataSource.shardCount())
+                .mapToObj(shard -> new JdbcTemplate(dataSource.shard(shard))
+                        .queryForObject("select count(*) from " + table, Long.class))
+                .toList();
+    }
+
+    private int seatsTaken(Course course, int shard) {
+        return new JdbcTemplate(dataSource.shard(shard)).queryForObject(
+                "select seats_taken from course where id_course = ?", Integer.class, course.getIdCourse());
+    }
+
+    private <T> T readOnly(Supplier<T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> work.get());
+    }
+}
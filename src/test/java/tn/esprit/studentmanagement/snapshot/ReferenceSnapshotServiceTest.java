@@ -0,0 +1,180 @@
+package tn.esprit.studentmanagement.snapshot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import tn.esprit.studentmanagement.cache.CacheInvalidations;
+import tn.esprit.studentmanagement.config.SnapshotProperties;
+import tn.esprit.studentmanagement.entities.Department;
+import tn.esprit.studentmanagement.entities.Student;
+import tn.esprit.studentmanagement.repositories.DepartmentRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.*;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static tn.esprit.studentmanagement.services.DepartmentService.DEPARTMENTS_CACHE;
+import static tn.esprit.studentmanagement.services.StudentService.STUDENTS_CACHE;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReferenceSnapshotService - Préchargement des caches")
+class ReferenceSnapshotServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-01T08:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<CacheInvalidations> cacheInvalidations;
+
+    @Mock
+    private CacheInvalidations invalidations;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private SnapshotProperties properties;
+
+    private final Department informatique = new Department(1L, "Informatique", "Bloc A", "71234567", "Dr. Karim", null);
+    private final Student ali = new Student(10L, "Ali", "Ben Salem", "ali@esprit.tn", null,
+            LocalDate.of(2000, 5, 15), "Tunis", informatique, null);
+    private final Student sarra = new Student(11L, "Sarra", "Trabelsi", "sarra@esprit.tn", "22123456",
+            null, null, null, null);
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(DEPARTMENTS_CACHE, STUDENTS_CACHE);
+        properties = new SnapshotProperties(true, dir.resolve("reference.bin"), Duration.ofMinutes(5),
+                Duration.ofMinutes(30), 1000);
+    }
+
+    @Test
+    @DisplayName("write() puis load() - Départements et étudiants chauds restaurés")
+    void shouldRestoreCachesFromSnapshot() {
+        // Given
+        when(departmentRepository.findAll()).thenReturn(List.of(informatique));
+        cacheManager.getCache(STUDENTS_CACHE).put(10L, ali);
+        cacheManager.getCache(STUDENTS_CACHE).put(11L, sarra);
+        service(NOW).write();
+        ConcurrentMapCacheManager restarted = new ConcurrentMapCacheManager(DEPARTMENTS_CACHE, STUDENTS_CACHE);
+
+        // When
+        int warmed = new ReferenceSnapshotService(departmentRepository, restarted, cacheInvalidations,
+                transactionManager, properties, Clock.fixed(NOW.plusSeconds(60), ZoneOffset.UTC)).load();
+
+        // Then
+        assertEquals(3, warmed);
+        Department department = restarted.getCache(DEPARTMENTS_CACHE).get(1L, Department.class);
+        assertEquals("Dr. Karim", department.getHead());
+        Student student = restarted.getCache(STUDENTS_CACHE).get(10L, Student.class);
+        assertEquals("Ali", student.getFirstName());
+        assertEquals(LocalDate.of(2000, 5, 15), student.getDateOfBirth());
+        assertEquals("Informatique", student.getDepartment().getName());
+        assertNull(restarted.getCache(STUDENTS_CACHE).get(11L, Student.class).getDepartment());
+    }
+
+    @Test
+    @DisplayName("load() - Snapshot trop ancien → chargement paresseux")
+    void shouldIgnoreStaleSnapshot() {
+        when(departmentRepository.findAll()).thenReturn(List.of(informatique));
+        service(NOW).write();
+
+        int warmed = service(NOW.plus(Duration.ofHours(1))).load();
+
+        assertEquals(0, warmed);
+        assertNull(cacheManager.getCache(DEPARTMENTS_CACHE).get(1L));
+    }
+
+    @Test
+    @DisplayName("load() - Somme de contrôle invalide → ignoré")
+    void shouldIgnoreCorruptSnapshot() throws IOException {
+        when(departmentRepository.findAll()).thenReturn(List.of(informatique));
+        service(NOW).write();
+        try (FileChannel channel = FileChannel.open(properties.file(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), Files.size(properties.file()) - 3);
+        }
+
+        assertEquals(0, service(NOW).load());
+        assertThrows(ReferenceSnapshot.InvalidSnapshotException.class, () -> ReferenceSnapshot.read(properties.file()));
+    }
+
+    @Test
+    @DisplayName("load() - Les invalidations écrites depuis le snapshot sont rejouées après le chargement")
+    void shouldReplayInvalidationsSinceSnapshot() {
+        when(departmentRepository.findAll()).thenReturn(List.of(informatique));
+        cacheManager.getCache(STUDENTS_CACHE).put(10L, ali);
+        service(NOW).write();
+        cacheManager.getCache(STUDENTS_CACHE).clear();
+        when(cacheInvalidations.getIfAvailable()).thenReturn(invalidations);
+        when(invalidations.replaySince(NOW)).thenAnswer(invocation -> {
+            // Ali modifié sur une autre réplique après le snapshot
+            cacheManager.getCache(STUDENTS_CACHE).evict(10L);
+            return 1;
+        });
+
+        service(NOW.plusSeconds(60)).load();
+
+        assertNull(cacheManager.getCache(STUDENTS_CACHE).get(10L));
+        assertNotNull(cacheManager.getCache(DEPARTMENTS_CACHE).get(1L));
+    }
+
+    @Test
+    @DisplayName("load() - Journal des invalidations illisible → snapshot abandonné")
+    void shouldDropSnapshotWhenInvalidationsUnavailable() {
+        when(departmentRepository.findAll()).thenReturn(List.of(informatique));
+        cacheManager.getCache(STUDENTS_CACHE).put(10L, ali);
+        service(NOW).write();
+        cacheManager.getCache(STUDENTS_CACHE).clear();
+        when(cacheInvalidations.getIfAvailable()).thenReturn(invalidations);
+        when(invalidations.replaySince(NOW)).thenThrow(new IllegalStateException("database down"));
+
+        assertEquals(0, service(NOW.plusSeconds(60)).load());
+
+        assertNull(cacheManager.getCache(STUDENTS_CACHE).get(10L));
+        assertNull(cacheManager.getCache(DEPARTMENTS_CACHE).get(1L));
+    }
+
+    @Test
+    @DisplayName("write() - Fichier temporaire unique, supprimé après l'écriture")
+    void shouldNotLeaveTemporaryFiles() throws IOException {
+        when(departmentRepository.findAll()).thenReturn(List.of(informatique));
+
+        service(NOW).write();
+        service(NOW).write();
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(properties.file()), files.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("load() - Pas de snapshot → rien à faire")
+    void shouldFallBackWhenSnapshotMissing() {
+        assertEquals(0, service(NOW).load());
+    }
+
+    private ReferenceSnapshotService service(Instant now) {
+        return new ReferenceSnapshotService(departmentRepository, cacheManager, cacheInvalidations,
+                transactionManager, properties, Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,33 @@
+package tn.esprit.studentmanagement.stats;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Granularity - Début de période")
+class GranularityTest {
+
+    private static final List<Integer> TERMS = List.of(9, 2);
+
+    @Test
+    @DisplayName("WEEK / MONTH - Semaine ISO (lundi) et premier du mois")
+    void shouldStartWeeksOnMondayAndMonthsOnTheFirst() {
+        LocalDate sunday = LocalDate.of(2025, 9, 14);
+
+        assertEquals(LocalDate.of(2025, 9, 8), Granularity.WEEK.periodStart(sunday, TERMS));
+        assertEquals(LocalDate.of(2025, 9, 1), Granularity.MONTH.periodStart(sunday, TERMS));
+        assertEquals(sunday, Granularity.DAY.periodStart(sunday, TERMS));
+    }
+
+    @Test
+    @DisplayName("TERM - Janvier appartient au semestre commencé en septembre")
+    void shouldAssignDaysToTheirTerm() {
+        assertEquals(LocalDate.of(2025, 9, 1), Granularity.TERM.periodStart(LocalDate.of(2025, 12, 20), TERMS));
+        assertEquals(LocalDate.of(2025, 9, 1), Granularity.TERM.periodStart(LocalDate.of(2026, 1, 15), TERMS));
+        assertEquals(LocalDate.of(2026, 2, 1), Granularity.TERM.periodStart(LocalDate.of(2026, 6, 30), TERMS));
+    }
+}
@@ -0,0 +1,97 @@
+package tn.esprit.studentmanagement.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.studentmanagement.config.WarmupProperties;
+import tn.esprit.studentmanagement.repositories.CourseRepository;
+import tn.esprit.studentmanagement.repositories.DepartmentRepository;
+import tn.esprit.studentmanagement.repositories.EnrollmentRepository;
+import tn.esprit.studentmanagement.repositories.StudentRepository;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:warmupdb;DB_CLOSE_DELAY=-1;MODE=MYSQL",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.hikari.minimum-idle=5",
+        "warmup.write-iterations=20"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(WarmupRunner.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // le warm-up gère ses propres transactions
+@DisplayName("WarmupRunner - Charge synthétique au démarrage (H2)")
+class WarmupRunnerTest {
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    @DisplayName("warmUp() - Remplit le pool et n'écrit rien en base")
+    void shouldPrefillPoolAndRollBackWrites() {
+        boolean completed = warmupRunner.warmUp();
+
+        assertTrue(completed);
+        assertTrue(((HikariDataSource) dataSource).getHikariPoolMXBean().getTotalConnections() >= 5);
+        assertEquals(0, departmentRepository.count());
+        assertEquals(0, studentRepository.count());
+        assertEquals(0, courseRepository.count());
+        assertEquals(0, enrollmentRepository.count());
+    }
+
+    @Test
+    @DisplayName("warmUp() - Abandonne après le délai sans bloquer le démarrage")
+    void shouldGiveUpAfterTimeout() {
+        WarmupRunner slow = new WarmupRunner(
+                new WarmupProperties(true, Duration.ofMillis(50), 1, 1, 1_000_000, List.of()),
+                dataSource, transactionManager, departmentRepository, studentRepository, courseRepository,
+                enrollmentRepository, objectMapper, applicationContext, "");
+
+        long start = System.nanoTime();
+        boolean completed = slow.warmUp();
+
+        assertFalse(completed);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+        assertEquals(0, studentRepository.count());
+    }
+}